@@ -0,0 +1,71 @@
+package org.academiadecodigo.javabank.benchmarks;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.AccountType;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the balance arithmetic of the account model
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AccountBenchmark {
+
+    @Param({"CHECKING", "SAVINGS"})
+    private AccountType type;
+
+    private final Money amount = Money.of(10);
+
+    private Account account;
+
+    /**
+     * Opens an account with enough balance for any debit
+     */
+    @Setup
+    public void setup() {
+        account = type == AccountType.CHECKING ? new CheckingAccount() : new SavingsAccount();
+        account.credit(Money.of(1000));
+    }
+
+    /**
+     * Checks a debit against the account rules
+     *
+     * @return whether the amount can be debited
+     */
+    @Benchmark
+    public boolean canDebit() {
+        return account.canDebit(amount);
+    }
+
+    /**
+     * Credits the account
+     *
+     * @return the account
+     */
+    @Benchmark
+    public Account credit() {
+        account.credit(amount);
+        return account;
+    }
+
+    /**
+     * Debits and credits back the account, so that the balance never runs out
+     *
+     * @return the account
+     */
+    @Benchmark
+    public Account debitAndCredit() {
+        account.debit(amount);
+        account.credit(amount);
+        return account;
+    }
+}
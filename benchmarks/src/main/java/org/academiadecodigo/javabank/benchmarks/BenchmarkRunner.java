@@ -0,0 +1,38 @@
+package org.academiadecodigo.javabank.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected on the command line, writing the results as JSON unless told otherwise
+ */
+public class BenchmarkRunner {
+
+    public static final String RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Runs the benchmarks
+     *
+     * @param args the JMH command line options
+     * @throws CommandLineOptionException if the options are not valid
+     * @throws RunnerException            if the benchmarks fail
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        // the command line options take precedence over these defaults
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(RESULT_FILE))
+                .build();
+
+        new Runner(options).run();
+    }
+}
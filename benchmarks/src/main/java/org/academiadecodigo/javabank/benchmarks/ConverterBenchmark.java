@@ -0,0 +1,98 @@
+package org.academiadecodigo.javabank.benchmarks;
+
+import org.academiadecodigo.javabank.command.AccountDto;
+import org.academiadecodigo.javabank.command.CustomerDto;
+import org.academiadecodigo.javabank.command.TransferDto;
+import org.academiadecodigo.javabank.converters.AccountDtoToAccount;
+import org.academiadecodigo.javabank.converters.AccountToAccountDto;
+import org.academiadecodigo.javabank.converters.CustomerDtoToCustomer;
+import org.academiadecodigo.javabank.converters.CustomerToCustomerDto;
+import org.academiadecodigo.javabank.converters.TransferDtoToTransfer;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.factories.AccountFactory;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the conversions between the models and the DTOs exchanged with the clients
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConverterBenchmark {
+
+    private final CustomerToCustomerDto customerToCustomerDto = new CustomerToCustomerDto();
+    private final CustomerDtoToCustomer customerDtoToCustomer = new CustomerDtoToCustomer();
+    private final AccountToAccountDto accountToAccountDto = new AccountToAccountDto();
+    private final AccountDtoToAccount accountDtoToAccount = new AccountDtoToAccount();
+    private final TransferDtoToTransfer transferDtoToTransfer = new TransferDtoToTransfer();
+
+    private Customer customer;
+    private Account account;
+    private TransferDto transferDto;
+
+    /**
+     * Builds the models and DTOs to convert
+     */
+    @Setup
+    public void setup() {
+
+        accountDtoToAccount.setAccountFactory(new AccountFactory());
+
+        // a new customer, since converting an existing one back loads it through the customer service
+        customer = new Customer();
+        customer.setFirstName("Rui");
+        customer.setLastName("Ferrão");
+        customer.setEmail("mail@gmail.com");
+        customer.setPhone("777888");
+
+        account = new CheckingAccount();
+        account.setId(1);
+        account.credit(Money.parse("1234.56"));
+
+        transferDto = new TransferDto();
+        transferDto.setSrcId(1);
+        transferDto.setDstId(2);
+        transferDto.setAmount("100.50");
+    }
+
+    /**
+     * Converts a customer to its DTO and back
+     *
+     * @return the converted customer
+     */
+    @Benchmark
+    public Customer customerRoundTrip() {
+        CustomerDto customerDto = customerToCustomerDto.convert(customer);
+        return customerDtoToCustomer.convert(customerDto);
+    }
+
+    /**
+     * Converts an account to its DTO and back, parsing and formatting its balance
+     *
+     * @return the converted account
+     */
+    @Benchmark
+    public Account accountRoundTrip() {
+        AccountDto accountDto = accountToAccountDto.convert(account);
+        return accountDtoToAccount.convert(accountDto);
+    }
+
+    /**
+     * Converts a transfer DTO, parsing its amount
+     *
+     * @return the converted transfer
+     */
+    @Benchmark
+    public Transfer transferDtoToTransfer() {
+        return transferDtoToTransfer.convert(transferDto);
+    }
+}
@@ -0,0 +1,91 @@
+package org.academiadecodigo.javabank.benchmarks;
+
+import org.academiadecodigo.javabank.interceptor.LogRequestsInterceptor;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Benchmarks the cost of logging a request on the request thread, with the synchronous logging the webapp
+ * used to have and with the asynchronous loggers of its current configuration
+ * <p>
+ * The synchronous configuration is kept with the benchmarks, the asynchronous one is read from the webapp
+ * sources, at the path given by the {@code javabank.log4j2.config} system property. Log files are written to a
+ * temporary directory. Run with {@code -prof gc} to see the allocations of each request line; once the ring
+ * buffer of the asynchronous loggers is full, access lines are dropped as configured for the webapp.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    public static final String LOG4J2_CONFIG = "javabank.log4j2.config";
+    public static final String DEFAULT_LOG4J2_CONFIG = "../src/main/webapp/WEB-INF/log4j2/log4j2.xml";
+    public static final String SYNC_LOG4J2_CONFIG = "log4j2-sync.xml";
+
+    @Param({"sync", "async"})
+    private String pipeline;
+
+    private String method = "PUT";
+    private String path = "/api/customer/1/transfer";
+    private String handler = "RestTransactionController#transfer";
+    private int status = 200;
+    private long micros = 1234;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+
+    /**
+     * Starts the logging configuration of the benchmarked pipeline
+     *
+     * @throws IOException if the log directory can not be created
+     */
+    @Setup
+    public void setup() throws IOException {
+
+        System.setProperty("catalina.home", Files.createTempDirectory("javabank-logging").toString());
+
+        String config = pipeline.equals("sync") ? SYNC_LOG4J2_CONFIG :
+                Paths.get(System.getProperty(LOG4J2_CONFIG, DEFAULT_LOG4J2_CONFIG)).toUri().toString();
+
+        loggerContext = Configurator.initialize("benchmark", config);
+        logger = loggerContext.getLogger(LogRequestsInterceptor.ACCESS_LOGGER);
+    }
+
+    /**
+     * Stops the logging configuration, flushing the pending log events
+     */
+    @TearDown
+    public void tearDown() {
+        Configurator.shutdown(loggerContext);
+    }
+
+    /**
+     * Logs the request line as the interceptor used to, concatenating it on the request thread
+     */
+    @Benchmark
+    public void concatenated() {
+        logger.info(method + " " + path);
+    }
+
+    /**
+     * Logs the access line as the interceptor does, with parameters boxed without allocations
+     */
+    @Benchmark
+    public void parameterized() {
+        logger.info("method={} path={} handler={} status={} micros={}", method, path, handler, box(status),
+                box(micros));
+    }
+}
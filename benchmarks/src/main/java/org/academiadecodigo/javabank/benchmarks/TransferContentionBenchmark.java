@@ -0,0 +1,159 @@
+package org.academiadecodigo.javabank.benchmarks;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferLockMode;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.academiadecodigo.javabank.services.TransferService;
+import org.academiadecodigo.javabank.services.retry.ConflictRetryInterceptor;
+import org.academiadecodigo.javabank.services.retry.RetryCounters;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link org.academiadecodigo.javabank.services.TransferServiceImpl#transfer(Transfer)} under
+ * contention, with every thread transferring between a few hot accounts, for each {@link TransferLockMode}
+ * <p>
+ * It runs against the H2 JPA stack of the {@code test} profile, as the in-memory daos hold no row locks. Next to
+ * the throughput, the {@code transferred} and {@code aborted} counters tell the transfers which went through from
+ * the ones which gave up on a conflict after every retry, and the conflict counters of the trial are printed
+ * when it ends.
+ * <p>
+ * The application configuration is read from the webapp sources, see {@link TransferServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class TransferContentionBenchmark {
+
+    private static final String TRANSFER_METHOD = "TransferService#transfer(Transfer)";
+
+    @Param({"CONDITIONAL_UPDATE", "OPTIMISTIC", "PESSIMISTIC"})
+    private TransferLockMode lockMode;
+
+    @Param({"2", "4"})
+    private int hotAccounts;
+
+    private final Money amount = Money.ofCents(1);
+
+    private GenericXmlApplicationContext ctx;
+    private TransferService transferService;
+    private ConflictRetryInterceptor conflictRetryInterceptor;
+
+    private Integer[] accountIds;
+
+    /**
+     * The outcomes of the transfers of a thread, reported by JMH next to the throughput
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long transferred;
+        public long aborted;
+
+        /**
+         * Clears the counters before each iteration
+         */
+        @Setup(Level.Iteration)
+        public void clear() {
+            transferred = 0;
+            aborted = 0;
+        }
+    }
+
+    /**
+     * Starts the application with the benchmarked lock mode and opens the hot accounts
+     *
+     * @throws JavaBankException if the accounts can not be opened
+     */
+    @Setup
+    public void setup() throws JavaBankException {
+
+        ctx = new GenericXmlApplicationContext();
+        ctx.getEnvironment().setActiveProfiles("test");
+
+        // the environment takes precedence over javabank.properties
+        ctx.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Collections.singletonMap("transfer.lock.mode", lockMode.name())));
+
+        ctx.load(System.getProperty(TransferServiceBenchmark.SPRING_CONFIG, TransferServiceBenchmark.DEFAULT_SPRING_CONFIG));
+        ctx.refresh();
+
+        transferService = ctx.getBean("transferServiceImpl", TransferService.class);
+        conflictRetryInterceptor = ctx.getBean(ConflictRetryInterceptor.class);
+        CustomerService customerService = ctx.getBean(CustomerService.class);
+
+        Customer customer = new Customer();
+        customer.setFirstName("Rui");
+        Integer customerId = customerService.save(customer).getId();
+
+        accountIds = new Integer[hotAccounts];
+        for (int i = 0; i < hotAccounts; i++) {
+
+            // enough money for every transfer of the trial
+            Account account = new CheckingAccount();
+            account.credit(Money.of(1000000));
+            accountIds[i] = customerService.addAccount(customerId, account).getId();
+        }
+    }
+
+    /**
+     * Prints the conflict counters of the trial and stops the application
+     */
+    @TearDown
+    public void tearDown() {
+
+        RetryCounters counters = conflictRetryInterceptor.getCounters().get(TRANSFER_METHOD);
+
+        if (counters != null) {
+            System.out.printf("%n%s %d hot accounts: %d invocations, %d conflicts, %d retries, %d exhausted%n",
+                    lockMode, hotAccounts, counters.getInvocations(), counters.getConflicts(),
+                    counters.getRetries(), counters.getExhausted());
+        }
+
+        ctx.close();
+    }
+
+    /**
+     * Transfers between two random hot accounts, in either direction
+     *
+     * @param outcomes the outcomes of the thread
+     * @throws JavaBankException if the transfer is refused
+     */
+    @Benchmark
+    public void transferBetweenHotAccounts(Outcomes outcomes) throws JavaBankException {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int src = random.nextInt(hotAccounts);
+        int dst = (src + 1 + random.nextInt(hotAccounts - 1)) % hotAccounts;
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(accountIds[src]);
+        transfer.setDstId(accountIds[dst]);
+        transfer.setAmount(amount);
+
+        try {
+            transferService.transfer(transfer);
+            outcomes.transferred++;
+
+        } catch (RuntimeException ex) {
+
+            // a conflict which outlasted every retry
+            outcomes.aborted++;
+        }
+    }
+}
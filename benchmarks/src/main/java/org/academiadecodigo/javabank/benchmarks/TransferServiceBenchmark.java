@@ -0,0 +1,155 @@
+package org.academiadecodigo.javabank.benchmarks;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.academiadecodigo.javabank.services.TransferService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.GenericXmlApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link org.academiadecodigo.javabank.services.TransferServiceImpl#transfer(Transfer, Integer)}
+ * on the whole application context, against the H2 JPA stack of the {@code test} profile and against the
+ * in-memory daos of the {@code memory} profile
+ * <p>
+ * The application configuration is read from the webapp sources, at the path given by the
+ * {@code javabank.spring.config} system property, relative to the benchmarks module by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferServiceBenchmark {
+
+    public static final String SPRING_CONFIG = "javabank.spring.config";
+    public static final String DEFAULT_SPRING_CONFIG = "file:../src/main/webapp/WEB-INF/spring/spring-config.xml";
+
+    @Param({"test", "memory"})
+    private String profile;
+
+    private final Money amount = Money.ofCents(1);
+
+    private GenericXmlApplicationContext ctx;
+    private TransferService transferService;
+
+    private Integer customerId;
+    private Transfer ownTransfer;
+    private Transfer ownTransferBack;
+    private Transfer recipientTransfer;
+    private Transfer recipientTransferBack;
+    private Integer recipientCustomerId;
+
+    private boolean back;
+
+    /**
+     * Starts the application on the benchmarked profile and opens the accounts to transfer between
+     *
+     * @throws JavaBankException if the accounts can not be opened
+     */
+    @Setup
+    public void setup() throws JavaBankException {
+
+        ctx = new GenericXmlApplicationContext();
+        ctx.getEnvironment().setActiveProfiles(profile);
+        ctx.load(System.getProperty(SPRING_CONFIG, DEFAULT_SPRING_CONFIG));
+        ctx.refresh();
+
+        // the synchronous implementation, as the engine one is only enabled by its own profile
+        transferService = ctx.getBean("transferServiceImpl", TransferService.class);
+        CustomerService customerService = ctx.getBean(CustomerService.class);
+
+        Customer customer = customerService.save(customer("Rui"));
+        Customer other = customerService.save(customer("Sergio"));
+        customerId = customer.getId();
+        recipientCustomerId = other.getId();
+
+        Account checking = customerService.addAccount(customerId, account());
+        Account savings = customerService.addAccount(customerId, account());
+        Account otherChecking = customerService.addAccount(recipientCustomerId, account());
+
+        customerService.addRecipient(customerId, recipient(otherChecking));
+        customerService.addRecipient(recipientCustomerId, recipient(checking));
+
+        ownTransfer = transfer(checking, savings);
+        ownTransferBack = transfer(savings, checking);
+        recipientTransfer = transfer(checking, otherChecking);
+        recipientTransferBack = transfer(otherChecking, checking);
+    }
+
+    /**
+     * Stops the application
+     */
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    /**
+     * Transfers between two accounts of the same customer, alternating the direction so that the balances
+     * never run out
+     *
+     * @throws JavaBankException if the transfer fails
+     */
+    @Benchmark
+    public void transferBetweenOwnAccounts() throws JavaBankException {
+        transferService.transfer(back ? ownTransferBack : ownTransfer, customerId);
+        back = !back;
+    }
+
+    /**
+     * Transfers to an account in the recipient list, alternating the direction so that the balances
+     * never run out
+     *
+     * @throws JavaBankException if the transfer fails
+     */
+    @Benchmark
+    public void transferToRecipient() throws JavaBankException {
+
+        if (back) {
+            transferService.transfer(recipientTransferBack, recipientCustomerId);
+        } else {
+            transferService.transfer(recipientTransfer, customerId);
+        }
+
+        back = !back;
+    }
+
+    private Customer customer(String firstName) {
+
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        return customer;
+    }
+
+    private Account account() {
+
+        Account account = new CheckingAccount();
+        account.credit(Money.of(1000));
+        return account;
+    }
+
+    private Recipient recipient(Account account) {
+
+        Recipient recipient = new Recipient();
+        recipient.setAccountNumber(account.getId());
+        return recipient;
+    }
+
+    private Transfer transfer(Account src, Account dst) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(src.getId());
+        transfer.setDstId(dst.getId());
+        transfer.setAmount(amount);
+        return transfer;
+    }
+}
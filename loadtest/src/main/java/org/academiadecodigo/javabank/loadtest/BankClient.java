@@ -0,0 +1,169 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * A minimal client of the rest api, sending json over plain http connections
+ * <p>
+ * Response bodies are always read to the end, so that the jvm keeps the connections alive and reuses them.
+ */
+public class BankClient {
+
+    public static final String API_PATH = "/api/customer";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+
+    /**
+     * Initializes a new client of the server at the given url
+     *
+     * @param baseUrl the server url, including the context path
+     */
+    public BankClient(String baseUrl) {
+        this.baseUrl = baseUrl + API_PATH;
+    }
+
+    /**
+     * Sends a get request
+     *
+     * @param path the path, relative to the customer api
+     * @return the response
+     * @throws IOException if the request can not be sent
+     */
+    public Response get(String path) throws IOException {
+        return send("GET", path, null);
+    }
+
+    /**
+     * Sends a post request
+     *
+     * @param path the path, relative to the customer api
+     * @param body the request body, converted to json
+     * @return the response
+     * @throws IOException if the request can not be sent
+     */
+    public Response post(String path, Object body) throws IOException {
+        return send("POST", path, body);
+    }
+
+    /**
+     * Sends a put request
+     *
+     * @param path the path, relative to the customer api
+     * @param body the request body, converted to json
+     * @return the response
+     * @throws IOException if the request can not be sent
+     */
+    public Response put(String path, Object body) throws IOException {
+        return send("PUT", path, body);
+    }
+
+    private Response send(String method, String path, Object body) throws IOException {
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+
+            try (OutputStream out = connection.getOutputStream()) {
+                mapper.writeValue(out, body);
+            }
+        }
+
+        int status = connection.getResponseCode();
+        InputStream in = status < HttpURLConnection.HTTP_BAD_REQUEST ?
+                connection.getInputStream() : connection.getErrorStream();
+
+        return new Response(status, connection.getHeaderField("Location"), readFully(in));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+
+        if (in == null) {
+            return new byte[0];
+        }
+
+        try (InputStream body = in) {
+
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = body.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+
+            return content.toByteArray();
+        }
+    }
+
+    /**
+     * A response from the rest api
+     */
+    public class Response {
+
+        private int status;
+        private String location;
+        private byte[] body;
+
+        private Response(int status, String location, byte[] body) {
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+
+        /**
+         * Gets the http status code
+         *
+         * @return the status code
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * Tells if the request succeeded
+         *
+         * @return {@code true} if the status is a success status
+         */
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * Gets the id at the end of the location header, as set on created resources
+         *
+         * @return the id of the created resource
+         * @throws IllegalStateException if the response has no location
+         */
+        public Integer getCreatedId() {
+
+            if (location == null) {
+                throw new IllegalStateException("Response has no location, status " + status);
+            }
+
+            return Integer.valueOf(location.substring(location.lastIndexOf('/') + 1));
+        }
+
+        /**
+         * Parses the response body
+         *
+         * @return the json tree of the body
+         * @throws IOException if the body is not valid json
+         */
+        public JsonNode getJson() throws IOException {
+            return mapper.readTree(body);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.LifecycleState;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.scan.StandardJarScanner;
+
+import java.io.File;
+
+/**
+ * Runs the webapp in an embedded tomcat, with the profile set in its deployment descriptor
+ * <p>
+ * The webapp classes are not in the webapp directory, they are loaded from the class path of the load test.
+ */
+public class EmbeddedServer {
+
+    public static final String CONTEXT_PATH = "/javabank";
+
+    private Tomcat tomcat;
+
+    /**
+     * Starts the webapp
+     *
+     * @param webapp the webapp directory
+     * @param port   the port, {@code 0} for any free port
+     * @return the running server
+     * @throws LifecycleException if the server can not be started
+     */
+    public static EmbeddedServer start(String webapp, int port) throws LifecycleException {
+
+        File docBase = new File(webapp).getAbsoluteFile();
+
+        if (!new File(docBase, "WEB-INF/web.xml").isFile()) {
+            throw new IllegalArgumentException("Webapp not found: " + docBase);
+        }
+
+        EmbeddedServer server = new EmbeddedServer();
+        server.tomcat = new Tomcat();
+        server.tomcat.setBaseDir(new File("target/tomcat").getAbsolutePath());
+        server.tomcat.setPort(port);
+        server.tomcat.getConnector();
+
+        Context context = server.tomcat.addWebapp(CONTEXT_PATH, docBase.getPath());
+
+        // the class path may not be the system one, e.g. when run from maven
+        context.setParentClassLoader(EmbeddedServer.class.getClassLoader());
+
+        // the whole class path is the webapp, there are no tag libraries or web fragments to look for
+        ((StandardJarScanner) context.getJarScanner()).setScanClassPath(false);
+
+        server.tomcat.start();
+
+        if (context.getState() != LifecycleState.STARTED) {
+            server.stop();
+            throw new LifecycleException("Webapp failed to start: " + docBase);
+        }
+
+        return server;
+    }
+
+    /**
+     * Gets the url of the webapp
+     *
+     * @return the webapp url
+     */
+    public String getUrl() {
+        return "http://localhost:" + tomcat.getConnector().getLocalPort() + CONTEXT_PATH;
+    }
+
+    /**
+     * Stops the webapp
+     *
+     * @throws LifecycleException if the server can not be stopped
+     */
+    public void stop() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
@@ -0,0 +1,185 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.academiadecodigo.javabank.domain.Money;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The customers and accounts the load test works on, created through the rest api
+ * <p>
+ * Every customer has two checking accounts and the first account of the next customer as a recipient, so
+ * transfers go both between own accounts and to other customers, while all the money stays within the fixture.
+ */
+public class Fixture {
+
+    public static final int ACCOUNTS_PER_CUSTOMER = 2;
+
+    private final List<Integer> customerIds = new ArrayList<>();
+    private final List<int[]> accountIds = new ArrayList<>();
+    private Money initialTotal = Money.ZERO;
+
+    /**
+     * Creates the fixture
+     *
+     * @param client   the rest api client
+     * @param settings the load test settings
+     * @return the fixture
+     * @throws IOException if a request fails
+     */
+    public static Fixture create(BankClient client, Settings settings) throws IOException {
+
+        Fixture fixture = new Fixture();
+
+        for (int i = 0; i < settings.getCustomers(); i++) {
+
+            Map<String, Object> customer = new LinkedHashMap<>();
+            customer.put("firstName", "Load");
+            customer.put("lastName", "Test " + i);
+            customer.put("email", "load" + i + "@javabank.org");
+            customer.put("phone", "912345678");
+
+            Integer customerId = created(client.post("/", customer));
+            int[] accounts = new int[ACCOUNTS_PER_CUSTOMER];
+
+            for (int j = 0; j < accounts.length; j++) {
+
+                Map<String, Object> account = new LinkedHashMap<>();
+                account.put("type", "CHECKING");
+                account.put("balance", settings.getInitialBalance().toString());
+
+                accounts[j] = created(client.post("/" + customerId + "/account", account));
+                fixture.initialTotal = fixture.initialTotal.plus(settings.getInitialBalance());
+            }
+
+            fixture.customerIds.add(customerId);
+            fixture.accountIds.add(accounts);
+        }
+
+        for (int i = 0; i < fixture.customerIds.size(); i++) {
+
+            Map<String, Object> recipient = new LinkedHashMap<>();
+            recipient.put("accountNumber", fixture.recipientAccount(i));
+            recipient.put("name", "Load Test " + fixture.next(i));
+            recipient.put("email", "load" + fixture.next(i) + "@javabank.org");
+
+            created(client.post("/" + fixture.customerIds.get(i) + "/recipient", recipient));
+        }
+
+        return fixture;
+    }
+
+    private static Integer created(BankClient.Response response) {
+
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Fixture could not be created, status " + response.getStatus());
+        }
+
+        return response.getCreatedId();
+    }
+
+    /**
+     * Sums the balances of the fixture accounts, as reported by the rest api
+     *
+     * @param client the rest api client
+     * @return the total balance
+     * @throws IOException if a request fails
+     */
+    public Money totalBalance(BankClient client) throws IOException {
+
+        Money total = Money.ZERO;
+
+        for (Integer customerId : customerIds) {
+
+            BankClient.Response response = client.get("/" + customerId + "/account");
+
+            if (!response.isSuccess()) {
+                throw new IllegalStateException("Accounts could not be listed, status " + response.getStatus());
+            }
+
+            for (JsonNode account : response.getJson()) {
+                total = total.plus(Money.parse(account.get("balance").asText()));
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Picks a customer at random
+     *
+     * @return the customer index
+     */
+    public int randomCustomer() {
+        return ThreadLocalRandom.current().nextInt(customerIds.size());
+    }
+
+    /**
+     * Gets the id of a customer
+     *
+     * @param customer the customer index
+     * @return the customer id
+     */
+    public Integer customerId(int customer) {
+        return customerIds.get(customer);
+    }
+
+    /**
+     * Picks one of the accounts of a customer at random
+     *
+     * @param customer the customer index
+     * @return the account id
+     */
+    public int randomAccount(int customer) {
+        return accountIds.get(customer)[ThreadLocalRandom.current().nextInt(ACCOUNTS_PER_CUSTOMER)];
+    }
+
+    /**
+     * Picks the destination of a transfer from one of the accounts of a customer, either another account
+     * of the customer or its recipient account
+     *
+     * @param customer the customer index
+     * @param srcId    the source account id
+     * @return the destination account id
+     */
+    public int randomDestination(int customer, int srcId) {
+
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            return recipientAccount(customer);
+        }
+
+        int[] accounts = accountIds.get(customer);
+        return accounts[0] == srcId ? accounts[1] : accounts[0];
+    }
+
+    /**
+     * Gets the number of customers
+     *
+     * @return the number of customers
+     */
+    public int getCustomers() {
+        return customerIds.size();
+    }
+
+    /**
+     * Gets the sum of the balances the accounts were opened with
+     *
+     * @return the initial total balance
+     */
+    public Money getInitialTotal() {
+        return initialTotal;
+    }
+
+    private int recipientAccount(int customer) {
+        return accountIds.get(next(customer))[0];
+    }
+
+    private int next(int customer) {
+        return (customer + 1) % customerIds.size();
+    }
+}
@@ -0,0 +1,54 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import org.academiadecodigo.javabank.domain.Money;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The money moved in and out of the fixture by the successful deposits and withdrawals, in cents
+ * <p>
+ * Transfers only move money between fixture accounts, so they never change the expected total.
+ */
+public class Ledger {
+
+    private final LongAdder deposited = new LongAdder();
+    private final LongAdder withdrawn = new LongAdder();
+    private final LongAdder uncertain = new LongAdder();
+
+    /**
+     * Gets the cents deposited
+     *
+     * @return the cents deposited
+     */
+    public LongAdder getDeposited() {
+        return deposited;
+    }
+
+    /**
+     * Gets the cents withdrawn
+     *
+     * @return the cents withdrawn
+     */
+    public LongAdder getWithdrawn() {
+        return withdrawn;
+    }
+
+    /**
+     * Gets the number of deposits and withdrawals sent without getting a response, whose outcome is unknown
+     *
+     * @return the number of uncertain deposits and withdrawals
+     */
+    public LongAdder getUncertain() {
+        return uncertain;
+    }
+
+    /**
+     * Computes the total balance the fixture accounts should hold
+     *
+     * @param initialTotal the total balance the accounts were opened with
+     * @return the expected total balance
+     */
+    public Money expectedTotal(Money initialTotal) {
+        return initialTotal.plus(Money.ofCents(deposited.sum())).minus(Money.ofCents(withdrawn.sum()));
+    }
+}
@@ -0,0 +1,106 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import org.academiadecodigo.javabank.domain.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the rest api with concurrent transfers, deposits, withdrawals and reads, reports the throughput and
+ * latency of each operation, and checks that no money was created or lost along the way
+ *
+ * @see Settings for the system properties the load is tuned with
+ */
+public class LoadTest {
+
+    /**
+     * Runs the load test, exiting with a non zero status if the balances do not add up
+     *
+     * @param args not used, the load test is tuned through system properties
+     * @throws Exception if the load test can not be run
+     */
+    public static void main(String[] args) throws Exception {
+
+        Settings settings = Settings.fromSystemProperties();
+
+        // printing every sql statement would make the dev profile slower than the load it is put under
+        if (System.getProperty("dev.debug") == null) {
+            System.setProperty("dev.debug", "false");
+        }
+
+        EmbeddedServer server = settings.getUrl() == null ?
+                EmbeddedServer.start(settings.getWebapp(), settings.getPort()) : null;
+
+        boolean balanced;
+
+        try {
+            balanced = run(new BankClient(server == null ? settings.getUrl() : server.getUrl()), settings);
+
+        } finally {
+
+            if (server != null) {
+                server.stop();
+            }
+        }
+
+        System.exit(balanced ? 0 : 1);
+    }
+
+    private static boolean run(BankClient client, Settings settings) throws Exception {
+
+        Fixture fixture = Fixture.create(client, settings);
+        Ledger ledger = new Ledger();
+
+        System.out.printf("%nLoad test: %d threads, %d customers, %ds warmup, %ds run, mix %s%n",
+                settings.getThreads(), fixture.getCustomers(), settings.getWarmup(), settings.getDuration(),
+                settings.getMix());
+
+        long recordFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getWarmup());
+        long stopAt = recordFrom + TimeUnit.SECONDS.toNanos(settings.getDuration());
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < settings.getThreads(); i++) {
+            Worker worker = new Worker(client, fixture, settings, ledger, recordFrom, stopAt);
+            Thread thread = new Thread(worker, "loadtest-" + i);
+            workers.add(worker);
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<Operation, Results> results = Results.perOperation();
+
+        for (Worker worker : workers) {
+            for (Map.Entry<Operation, Results> operation : worker.getResults().entrySet()) {
+                results.get(operation.getKey()).add(operation.getValue());
+            }
+        }
+
+        System.out.println();
+        Results.report(System.out, results, settings.getDuration());
+
+        Money expected = ledger.expectedTotal(fixture.getInitialTotal());
+        Money actual = fixture.totalBalance(client);
+
+        System.out.printf("%nInitial balance %s, deposited %s, withdrawn %s%n", fixture.getInitialTotal(),
+                Money.ofCents(ledger.getDeposited().sum()), Money.ofCents(ledger.getWithdrawn().sum()));
+        System.out.printf("Expected balance %s, actual balance %s%n", expected, actual);
+
+        if (ledger.getUncertain().sum() > 0) {
+            System.out.printf("%d deposits and withdrawals got no response, their outcome is unknown%n",
+                    ledger.getUncertain().sum());
+        }
+
+        boolean balanced = expected.equals(actual);
+        System.out.println(balanced ? "Money conserved" : "MONEY NOT CONSERVED");
+
+        return balanced;
+    }
+}
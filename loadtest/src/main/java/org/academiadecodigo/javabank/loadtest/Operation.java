@@ -0,0 +1,48 @@
+package org.academiadecodigo.javabank.loadtest;
+
+/**
+ * The requests the load test sends, each named as in the operation mix
+ */
+public enum Operation {
+
+    TRANSFER("transfer"),
+    DEPOSIT("deposit"),
+    WITHDRAW("withdraw"),
+    CUSTOMER("customer"),
+    CUSTOMERS("customers"),
+    ACCOUNTS("accounts");
+
+    private String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the operation name, as used in the operation mix
+     *
+     * @return the operation name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the operation with the given name
+     *
+     * @param name the operation name
+     * @return the operation
+     * @throws IllegalArgumentException if there is no operation with the given name
+     */
+    public static Operation of(String name) {
+
+        for (Operation operation : values()) {
+
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+
+        throw new IllegalArgumentException("Operation is not valid: " + name);
+    }
+}
@@ -0,0 +1,140 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The outcome of the requests of one operation, or of all of them
+ * <p>
+ * Each worker thread records into its own results, which are merged once the load is over, so recording
+ * never contends between threads.
+ */
+public class Results {
+
+    public static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Histogram latencies = new Histogram(3);
+    private long succeeded;
+    private long rejected;
+    private long failed;
+
+    /**
+     * Records a request that got a response
+     *
+     * @param status  the http status code
+     * @param latency the latency, in microseconds
+     */
+    public void record(int status, long latency) {
+
+        latencies.recordValue(latency);
+
+        if (status < 400) {
+            succeeded++;
+        } else if (status < 500) {
+            rejected++;
+        } else {
+            failed++;
+        }
+    }
+
+    /**
+     * Records a request that got no response
+     */
+    public void recordFailure() {
+        failed++;
+    }
+
+    /**
+     * Adds other results to these results
+     *
+     * @param other the results to add
+     */
+    public void add(Results other) {
+        latencies.add(other.latencies);
+        succeeded += other.succeeded;
+        rejected += other.rejected;
+        failed += other.failed;
+    }
+
+    /**
+     * Gets the number of failed requests, either server errors or requests that got no response
+     *
+     * @return the number of failed requests
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Prints the report header
+     *
+     * @param out the stream to print to
+     */
+    public static void printHeader(PrintStream out) {
+        out.printf("%-10s %9s %9s %9s %9s %10s %9s %9s %9s %9s %9s%n", "operation", "requests", "ok", "rejected",
+                "failed", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    /**
+     * Prints the results as a report line
+     *
+     * @param out     the stream to print to
+     * @param name    the operation name
+     * @param seconds the seconds the requests were sent for
+     */
+    public void print(PrintStream out, String name, double seconds) {
+
+        long requests = succeeded + rejected + failed;
+
+        out.printf("%-10s %9d %9d %9d %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, requests, succeeded,
+                rejected, failed, requests / seconds, millis(50), millis(90), millis(99), millis(99.9),
+                latencies.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private double millis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Prints a report of the results of each operation and of all of them
+     *
+     * @param out        the stream to print to
+     * @param operations the results of each operation
+     * @param seconds    the seconds the requests were sent for
+     * @return the results of all operations
+     */
+    public static Results report(PrintStream out, Map<Operation, Results> operations, double seconds) {
+
+        Results total = new Results();
+
+        printHeader(out);
+
+        for (Map.Entry<Operation, Results> results : operations.entrySet()) {
+            results.getValue().print(out, results.getKey().getName(), seconds);
+            total.add(results.getValue());
+        }
+
+        total.print(out, "total", seconds);
+
+        return total;
+    }
+
+    /**
+     * Creates empty results for each operation
+     *
+     * @return the results of each operation
+     */
+    public static Map<Operation, Results> perOperation() {
+
+        Map<Operation, Results> results = new EnumMap<>(Operation.class);
+
+        for (Operation operation : Operation.values()) {
+            results.put(operation, new Results());
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,194 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import org.academiadecodigo.javabank.domain.Money;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The load test settings, read from system properties
+ */
+public class Settings {
+
+    public static final String PREFIX = "loadtest.";
+    public static final String DEFAULT_MIX = "transfer=50,deposit=10,withdraw=10,customer=10,customers=10,accounts=10";
+
+    private String url;
+    private String webapp;
+    private int port;
+    private int threads;
+    private int warmup;
+    private int duration;
+    private int customers;
+    private Money initialBalance;
+    private Money maxAmount;
+    private Map<Operation, Integer> mix;
+    private int totalWeight;
+
+    /**
+     * Reads the settings from the system properties, falling back to the defaults
+     *
+     * @return the settings
+     * @throws IllegalArgumentException if a setting is not valid
+     */
+    public static Settings fromSystemProperties() {
+
+        Settings settings = new Settings();
+
+        settings.url = System.getProperty(PREFIX + "url");
+        settings.webapp = System.getProperty(PREFIX + "webapp", "../src/main/webapp");
+        settings.port = Integer.getInteger(PREFIX + "port", 0);
+        settings.threads = Integer.getInteger(PREFIX + "threads", 16);
+        settings.warmup = Integer.getInteger(PREFIX + "warmup", 5);
+        settings.duration = Integer.getInteger(PREFIX + "duration", 30);
+        settings.customers = Integer.getInteger(PREFIX + "customers", 20);
+        settings.initialBalance = Money.parse(System.getProperty(PREFIX + "balance", "1000"));
+        settings.maxAmount = Money.parse(System.getProperty(PREFIX + "amount", "50"));
+        settings.setMix(System.getProperty(PREFIX + "mix", DEFAULT_MIX));
+
+        if (settings.threads < 1 || settings.duration < 1 || settings.warmup < 0) {
+            throw new IllegalArgumentException("Threads and duration must be positive");
+        }
+
+        // every customer sends money to the next one, so there must be at least two of them
+        if (settings.customers < 2) {
+            throw new IllegalArgumentException("There must be at least two customers");
+        }
+
+        return settings;
+    }
+
+    private void setMix(String mix) {
+
+        this.mix = new EnumMap<>(Operation.class);
+
+        for (String entry : mix.split(",")) {
+
+            String[] weight = entry.trim().split("=");
+
+            if (weight.length != 2 || Integer.parseInt(weight[1].trim()) < 0) {
+                throw new IllegalArgumentException("Operation mix is not valid: " + mix);
+            }
+
+            this.mix.put(Operation.of(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+
+        totalWeight = this.mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("Operation mix is empty: " + mix);
+        }
+    }
+
+    /**
+     * Picks an operation at random, according to the operation mix
+     *
+     * @return the operation
+     */
+    public Operation nextOperation() {
+
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+
+            pick -= weight.getValue();
+
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+
+        throw new IllegalStateException("Operation mix is empty");
+    }
+
+    /**
+     * Gets the url of the server to drive, or {@code null} to start an embedded one
+     *
+     * @return the server url
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the directory of the webapp the embedded server runs
+     *
+     * @return the webapp directory
+     */
+    public String getWebapp() {
+        return webapp;
+    }
+
+    /**
+     * Gets the port of the embedded server, {@code 0} for any free port
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Gets the number of threads sending requests
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Gets the number of seconds the load runs before latencies are recorded
+     *
+     * @return the warmup seconds
+     */
+    public int getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Gets the number of seconds the latencies are recorded for
+     *
+     * @return the duration seconds
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the number of customers created for the load test
+     *
+     * @return the number of customers
+     */
+    public int getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Gets the balance each account is opened with
+     *
+     * @return the initial balance
+     */
+    public Money getInitialBalance() {
+        return initialBalance;
+    }
+
+    /**
+     * Gets the largest amount moved by a single request
+     *
+     * @return the maximum amount
+     */
+    public Money getMaxAmount() {
+        return maxAmount;
+    }
+
+    /**
+     * Gets the weight of each operation in the mix
+     *
+     * @return the operation weights
+     */
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+}
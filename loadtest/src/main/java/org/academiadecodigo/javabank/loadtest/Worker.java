@@ -0,0 +1,154 @@
+package org.academiadecodigo.javabank.loadtest;
+
+import org.academiadecodigo.javabank.domain.Money;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends requests picked from the operation mix, one at a time, until the load is over
+ * <p>
+ * Latencies are only recorded once the warmup is over, but the money moved in and out of the fixture is
+ * accounted for from the first request, so that the balances can be checked at the end.
+ */
+public class Worker implements Runnable {
+
+    private final Map<Operation, Results> results = Results.perOperation();
+
+    private final BankClient client;
+    private final Fixture fixture;
+    private final Settings settings;
+    private final Ledger ledger;
+    private final long recordFrom;
+    private final long stopAt;
+
+    /**
+     * Initializes a new worker
+     *
+     * @param client     the rest api client
+     * @param fixture    the fixture
+     * @param settings   the load test settings
+     * @param ledger     the ledger of the money moved in and out of the fixture
+     * @param recordFrom the {@link System#nanoTime()} latencies are recorded from
+     * @param stopAt     the {@link System#nanoTime()} the worker stops at
+     */
+    public Worker(BankClient client, Fixture fixture, Settings settings, Ledger ledger, long recordFrom, long stopAt) {
+        this.client = client;
+        this.fixture = fixture;
+        this.settings = settings;
+        this.ledger = ledger;
+        this.recordFrom = recordFrom;
+        this.stopAt = stopAt;
+    }
+
+    /**
+     * @see Runnable#run()
+     */
+    @Override
+    public void run() {
+
+        long now;
+
+        while ((now = System.nanoTime()) < stopAt) {
+
+            Operation operation = settings.nextOperation();
+            boolean recording = now >= recordFrom;
+
+            try {
+
+                int status = send(operation);
+
+                if (recording) {
+                    results.get(operation).record(status, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - now));
+                }
+
+            } catch (IOException ex) {
+
+                if (recording) {
+                    results.get(operation).recordFailure();
+                }
+            }
+        }
+    }
+
+    private int send(Operation operation) throws IOException {
+
+        int customer = fixture.randomCustomer();
+        String path = "/" + fixture.customerId(customer);
+
+        switch (operation) {
+
+            case TRANSFER:
+                int srcId = fixture.randomAccount(customer);
+
+                Map<String, Object> transfer = new LinkedHashMap<>();
+                transfer.put("srcId", srcId);
+                transfer.put("dstId", fixture.randomDestination(customer, srcId));
+                transfer.put("amount", randomAmount().toString());
+
+                return client.put(path + "/transfer", transfer).getStatus();
+
+            case DEPOSIT:
+                return moveMoney(path + "/deposit", fixture.randomAccount(customer), ledger.getDeposited());
+
+            case WITHDRAW:
+                return moveMoney(path + "/withdraw", fixture.randomAccount(customer), ledger.getWithdrawn());
+
+            case CUSTOMER:
+                return client.get(path).getStatus();
+
+            case CUSTOMERS:
+                int page = ThreadLocalRandom.current().nextInt(fixture.getCustomers() / 10 + 1);
+                return client.get("?page=" + page + "&size=10").getStatus();
+
+            case ACCOUNTS:
+                return client.get(path + "/account").getStatus();
+
+            default:
+                throw new IllegalArgumentException("Operation is not supported: " + operation);
+        }
+    }
+
+    private int moveMoney(String path, int accountId, LongAdder moved) throws IOException {
+
+        Money amount = randomAmount();
+
+        Map<String, Object> transaction = new LinkedHashMap<>();
+        transaction.put("id", accountId);
+        transaction.put("amount", amount.toString());
+
+        try {
+
+            BankClient.Response response = client.put(path, transaction);
+
+            // a rejected request or a server error leaves the account as it was, the transaction is rolled back
+            if (response.isSuccess()) {
+                moved.add(amount.getCents());
+            }
+
+            return response.getStatus();
+
+        } catch (IOException ex) {
+            // the request may or may not have reached the server
+            ledger.getUncertain().increment();
+            throw ex;
+        }
+    }
+
+    private Money randomAmount() {
+        return Money.ofCents(ThreadLocalRandom.current().nextLong(1, settings.getMaxAmount().getCents() + 1));
+    }
+
+    /**
+     * Gets the results of each operation
+     *
+     * @return the results of each operation
+     */
+    public Map<Operation, Results> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,67 @@
+package org.academiadecodigo.javabank.command;
+
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+
+/**
+ * The {@link CustomerBalance} data transfer object
+ */
+public class CustomerBalanceDto {
+
+    private Integer customerId;
+    private String balance;
+    private long accounts;
+
+    /**
+     * Gets the customer id of the customer balance DTO
+     *
+     * @return the customer id
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Sets the customer id of the customer balance DTO
+     *
+     * @param customerId the customer id to set
+     */
+    public void setCustomerId(Integer customerId) {
+        this.customerId = customerId;
+    }
+
+    /**
+     * Gets the total balance of the customer balance DTO
+     *
+     * @return the total balance
+     */
+    public String getBalance() {
+        return balance;
+    }
+
+    /**
+     * Sets the total balance of the customer balance DTO
+     *
+     * @param balance the total balance to set
+     */
+    public void setBalance(String balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Gets the number of accounts of the customer balance DTO
+     *
+     * @return the number of accounts
+     */
+    public long getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Sets the number of accounts of the customer balance DTO
+     *
+     * @param accounts the number of accounts to set
+     */
+    public void setAccounts(long accounts) {
+        this.accounts = accounts;
+    }
+}
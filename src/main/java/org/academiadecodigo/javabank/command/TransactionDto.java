@@ -0,0 +1,102 @@
+package org.academiadecodigo.javabank.command;
+
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+
+import java.util.Date;
+
+/**
+ * The {@link Transaction} data transfer object
+ */
+public class TransactionDto {
+
+    private Long id;
+    private Date time;
+    private JournalEntryType type;
+    private String amount;
+
+    /**
+     * Gets the transaction DTO id
+     *
+     * @return the transaction DTO id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the transaction DTO id
+     *
+     * @param id the transaction DTO id to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the transaction DTO time
+     *
+     * @return the transaction DTO time
+     */
+    public Date getTime() {
+        return time;
+    }
+
+    /**
+     * Sets the transaction DTO time
+     *
+     * @param time the transaction DTO time to set
+     */
+    public void setTime(Date time) {
+        this.time = time;
+    }
+
+    /**
+     * Gets the transaction DTO type
+     *
+     * @return the transaction type
+     */
+    public JournalEntryType getType() {
+        return type;
+    }
+
+    /**
+     * Sets the transaction DTO type
+     *
+     * @param type the transaction type to set
+     */
+    public void setType(JournalEntryType type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets the transaction DTO amount
+     *
+     * @return the transaction DTO amount, negative if money left the account
+     */
+    public String getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the transaction DTO amount
+     *
+     * @param amount the transaction DTO amount to set
+     */
+    public void setAmount(String amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "TransactionDto{" +
+                "id=" + id +
+                ", time=" + time +
+                ", type=" + type +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package org.academiadecodigo.javabank.command;
+
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * The data transfer object of a batch of {@link Transfer}
+ */
+public class TransferBatchDto {
+
+    public static final int MAX_TRANSFERS = 1000;
+
+    @NotNull(message = "Mode is mandatory")
+    private TransferBatchMode mode = TransferBatchMode.ALL_OR_NOTHING;
+
+    @Valid
+    @NotEmpty(message = "Transfers are mandatory")
+    @Size(max = MAX_TRANSFERS, message = "Too many transfers")
+    private List<TransferDto> transfers;
+
+    /**
+     * Gets the mode of the transfer batch DTO
+     *
+     * @return the batch mode
+     */
+    public TransferBatchMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Sets the mode of the transfer batch DTO
+     *
+     * @param mode the batch mode to set
+     */
+    public void setMode(TransferBatchMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Gets the transfers of the transfer batch DTO
+     *
+     * @return the transfer DTOs
+     */
+    public List<TransferDto> getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * Sets the transfers of the transfer batch DTO
+     *
+     * @param transfers the transfer DTOs to set
+     */
+    public void setTransfers(List<TransferDto> transfers) {
+        this.transfers = transfers;
+    }
+}
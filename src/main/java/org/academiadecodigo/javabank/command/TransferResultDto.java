@@ -0,0 +1,86 @@
+package org.academiadecodigo.javabank.command;
+
+import org.academiadecodigo.javabank.domain.TransferResult;
+
+/**
+ * The {@link TransferResult} data transfer object
+ */
+public class TransferResultDto {
+
+    private Integer srcId;
+    private Integer dstId;
+    private String amount;
+    private TransferResult.Status status;
+
+    /**
+     * Gets the source id of the transfer result DTO
+     *
+     * @return the source account id
+     */
+    public Integer getSrcId() {
+        return srcId;
+    }
+
+    /**
+     * Sets the source id of the transfer result DTO
+     *
+     * @param srcId the source account id to set
+     */
+    public void setSrcId(Integer srcId) {
+        this.srcId = srcId;
+    }
+
+    /**
+     * Gets the destination id of the transfer result DTO
+     *
+     * @return the destination account id
+     */
+    public Integer getDstId() {
+        return dstId;
+    }
+
+    /**
+     * Sets the destination id of the transfer result DTO
+     *
+     * @param dstId the destination account id to set
+     */
+    public void setDstId(Integer dstId) {
+        this.dstId = dstId;
+    }
+
+    /**
+     * Gets the amount of the transfer result DTO
+     *
+     * @return the transfer amount
+     */
+    public String getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the amount of the transfer result DTO
+     *
+     * @param amount the transfer amount to set
+     */
+    public void setAmount(String amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Gets the status of the transfer result DTO
+     *
+     * @return the transfer status
+     */
+    public TransferResult.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status of the transfer result DTO
+     *
+     * @param status the transfer status to set
+     */
+    public void setStatus(TransferResult.Status status) {
+        this.status = status;
+    }
+}
@@ -182,6 +182,32 @@ public class RestAccountController {
 
         }
     }
-}
 
+    /**
+     * Splits the balance of an account into slots, so that concurrent credits to it do not wait on each other
+     *
+     * @param cid   the customer id
+     * @param aid   the account id
+     * @param slots the number of slots, zero to merge the slots back into the account
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.PUT, path = "/{cid}/account/{aid}/slots")
+    public ResponseEntity<?> splitAccount(@PathVariable Integer cid, @PathVariable Integer aid, @RequestParam int slots) {
 
+        try {
+
+            accountService.split(aid, cid, slots);
+
+            return new ResponseEntity<>(HttpStatus.OK);
+
+        } catch (CustomerNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+
+        } catch (AccountNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+
+        } catch (TransactionInvalidException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
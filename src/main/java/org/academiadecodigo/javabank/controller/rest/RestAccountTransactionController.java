@@ -0,0 +1,169 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.academiadecodigo.javabank.command.TransactionDto;
+import org.academiadecodigo.javabank.converters.TransactionToTransactionDto;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.services.AccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * REST controller responsible for the transaction history of an account
+ * <p>
+ * The history is paginated with a cursor pointing at the last transaction of the previous page, returned in the
+ * {@code Link} header of each full page, instead of a page number.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/customer")
+public class RestAccountTransactionController {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int EXPORT_CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AccountService accountService;
+    private TransactionToTransactionDto transactionToTransactionDto;
+
+    /**
+     * Sets the account service
+     *
+     * @param accountService the account service to set
+     */
+    @Autowired
+    public void setAccountService(AccountService accountService) {
+        this.accountService = accountService;
+    }
+
+    /**
+     * Sets the converter for converting between transactions and transaction DTOs
+     *
+     * @param transactionToTransactionDto the transaction to transaction DTO converter to set
+     */
+    @Autowired
+    public void setTransactionToTransactionDto(TransactionToTransactionDto transactionToTransactionDto) {
+        this.transactionToTransactionDto = transactionToTransactionDto;
+    }
+
+    /**
+     * Retrieves a page of the account transactions, most recent first
+     *
+     * @param cid                  the customer id
+     * @param aid                  the account id
+     * @param after                the cursor of the last transaction seen, or {@code null} for the first page
+     * @param size                 the page size
+     * @param uriComponentsBuilder the uri components builder object
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/{cid}/account/{aid}/transactions")
+    public ResponseEntity<List<TransactionDto>> listTransactions(@PathVariable Integer cid, @PathVariable Integer aid,
+                                                                 @RequestParam(required = false) String after,
+                                                                 @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                                 UriComponentsBuilder uriComponentsBuilder) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+
+            TransactionCursor cursor = after == null ? null : TransactionCursor.parse(after);
+            List<Transaction> transactions = accountService.listTransactions(aid, cid, cursor, size);
+
+            HttpHeaders headers = new HttpHeaders();
+
+            // a full page may be followed by another one
+            if (transactions.size() == size) {
+
+                String next = uriComponentsBuilder.path("/api/customer/{cid}/account/{aid}/transactions")
+                        .queryParam("size", size)
+                        .queryParam("after", TransactionCursor.of(transactions.get(size - 1)))
+                        .buildAndExpand(cid, aid)
+                        .toUriString();
+
+                headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+
+            return new ResponseEntity<>(transactionToTransactionDto.convert(transactions), headers, HttpStatus.OK);
+
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+
+        } catch (AccountNotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Streams the whole account history as newline delimited JSON, most recent first
+     * <p>
+     * The history is read in chunks, each one seeking past the previous one, so that no transaction or
+     * connection is held while the client downloads it. Transactions made during the export are more recent
+     * than the ones being read, so they are never seen, nor do they shift the remaining chunks.
+     *
+     * @param cid      the customer id
+     * @param aid      the account id
+     * @param response the http servlet response
+     * @throws IOException if the history can not be written
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/{cid}/account/{aid}/transactions",
+            produces = APPLICATION_NDJSON_VALUE)
+    public void exportTransactions(@PathVariable Integer cid, @PathVariable Integer aid, HttpServletResponse response)
+            throws IOException {
+
+        List<Transaction> chunk;
+
+        try {
+            chunk = accountService.listTransactions(aid, cid, null, EXPORT_CHUNK_SIZE);
+
+        } catch (AccountNotFoundException e) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        OutputStream out = response.getOutputStream();
+
+        while (!chunk.isEmpty()) {
+
+            for (Transaction transaction : chunk) {
+                out.write(objectMapper.writeValueAsBytes(transactionToTransactionDto.convert(transaction)));
+                out.write('\n');
+            }
+
+            out.flush();
+
+            if (chunk.size() < EXPORT_CHUNK_SIZE) {
+                return;
+            }
+
+            try {
+                chunk = accountService.listTransactions(aid, cid,
+                        TransactionCursor.of(chunk.get(chunk.size() - 1)), EXPORT_CHUNK_SIZE);
+
+            } catch (AccountNotFoundException e) {
+                // the account was closed during the export, which ends with what was already sent
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import org.academiadecodigo.javabank.command.CustomerBalanceDto;
+import org.academiadecodigo.javabank.converters.CustomerBalanceToCustomerBalanceDto;
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller responsible for the {@link CustomerBalance} read model
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/customer")
+public class RestCustomerBalanceController {
+
+    private CustomerService customerService;
+    private CustomerBalanceReadModel customerBalanceReadModel;
+    private CustomerBalanceToCustomerBalanceDto customerBalanceToCustomerBalanceDto;
+
+    /**
+     * Sets the customer service
+     *
+     * @param customerService the customer service to set
+     */
+    @Autowired
+    public void setCustomerService(CustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    /**
+     * Sets the customer balance read model
+     *
+     * @param customerBalanceReadModel the customer balance read model to set
+     */
+    @Autowired
+    public void setCustomerBalanceReadModel(CustomerBalanceReadModel customerBalanceReadModel) {
+        this.customerBalanceReadModel = customerBalanceReadModel;
+    }
+
+    /**
+     * Sets the converter for converting between customer balances and customer balance DTO
+     *
+     * @param customerBalanceToCustomerBalanceDto the customer balance to customer balance DTO converter to set
+     */
+    @Autowired
+    public void setCustomerBalanceToCustomerBalanceDto(CustomerBalanceToCustomerBalanceDto customerBalanceToCustomerBalanceDto) {
+        this.customerBalanceToCustomerBalanceDto = customerBalanceToCustomerBalanceDto;
+    }
+
+    /**
+     * Retrieves the total balance and the number of accounts of a customer, as held by the read model
+     *
+     * @param cid the customer id
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/{cid}/balance")
+    public ResponseEntity<CustomerBalanceDto> showCustomerBalance(@PathVariable Integer cid) {
+
+        CustomerBalance customerBalance = customerBalanceReadModel.get(cid);
+
+        // only customers without accounts are missing from the model
+        if (customerBalance == null) {
+
+            if (customerService.get(cid) == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+
+            customerBalance = new CustomerBalance(cid, Money.ZERO, 0);
+        }
+
+        return new ResponseEntity<>(customerBalanceToCustomerBalanceDto.convert(customerBalance), HttpStatus.OK);
+    }
+}
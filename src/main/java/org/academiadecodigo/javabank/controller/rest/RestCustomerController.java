@@ -2,7 +2,11 @@ package org.academiadecodigo.javabank.controller.rest;
 
 import org.academiadecodigo.javabank.command.CustomerDto;
 import org.academiadecodigo.javabank.converters.CustomerDtoToCustomer;
+import org.academiadecodigo.javabank.converters.CustomerSummaryToCustomerDto;
 import org.academiadecodigo.javabank.converters.CustomerToCustomerDto;
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.exceptions.AssociationExistsException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.persistence.model.Customer;
@@ -17,9 +21,7 @@ import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller responsible for {@link Customer} related CRUD operations
@@ -29,9 +31,13 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/customer")
 public class RestCustomerController {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private CustomerService customerService;
     private CustomerDtoToCustomer customerDtoToCustomer;
     private CustomerToCustomerDto customerToCustomerDto;
+    private CustomerSummaryToCustomerDto customerSummaryToCustomerDto;
 
     /**
      * Sets the customer service
@@ -64,18 +70,58 @@ public class RestCustomerController {
     }
 
     /**
-     * Retrieves a representation of the list of customers
+     * Sets the converter for converting between customer summaries and customer DTO
      *
+     * @param customerSummaryToCustomerDto the customer summary to customer DTO converter to set
+     */
+    @Autowired
+    public void setCustomerSummaryToCustomerDto(CustomerSummaryToCustomerDto customerSummaryToCustomerDto) {
+        this.customerSummaryToCustomerDto = customerSummaryToCustomerDto;
+    }
+
+    /**
+     * Retrieves a representation of a page of customers
+     * <p>
+     * The neighbouring pages are returned in the {@code Link} header.
+     *
+     * @param page                 the zero based page number
+     * @param size                 the page size
+     * @param sort                 the sort property, optionally followed by {@code ,asc} or {@code ,desc}
+     * @param uriComponentsBuilder the uri components builder object
      * @return the response entity
      */
     @RequestMapping(method = RequestMethod.GET, path = {"/", ""})
-    public ResponseEntity<List<CustomerDto>> listCustomers() {
+    public ResponseEntity<List<CustomerDto>> listCustomers(@RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                           @RequestParam(defaultValue = PageRequest.DEFAULT_SORT) String sort,
+                                                           UriComponentsBuilder uriComponentsBuilder) {
+
+        if (size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+
+            Page<CustomerSummary> customers = customerService.listSummaries(PageRequest.of(page, size, sort));
+
+            HttpHeaders headers = new HttpHeaders();
 
-        List<CustomerDto> customerDtos = customerService.list().stream()
-                .map(customer -> customerToCustomerDto.convert(customer))
-                .collect(Collectors.toList());
+            if (customers.hasPrevious()) {
+                headers.add(HttpHeaders.LINK,
+                        link(uriComponentsBuilder.cloneBuilder(), customers.getRequest().previous(), "prev"));
+            }
 
-        return new ResponseEntity<>(customerDtos, HttpStatus.OK);
+            if (customers.hasNext()) {
+                headers.add(HttpHeaders.LINK,
+                        link(uriComponentsBuilder.cloneBuilder(), customers.getRequest().next(), "next"));
+            }
+
+            return new ResponseEntity<>(customerSummaryToCustomerDto.convert(customers.getContent()), headers,
+                    HttpStatus.OK);
+
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -173,4 +219,16 @@ public class RestCustomerController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
+
+    private String link(UriComponentsBuilder uriComponentsBuilder, PageRequest pageRequest, String rel) {
+
+        String uri = uriComponentsBuilder.path("/api/customer/")
+                .queryParam("page", pageRequest.getPage())
+                .queryParam("size", pageRequest.getSize())
+                .queryParam("sort", pageRequest.getSortParameter())
+                .build()
+                .toUriString();
+
+        return "<" + uri + ">; rel=\"" + rel + "\"";
+    }
 }
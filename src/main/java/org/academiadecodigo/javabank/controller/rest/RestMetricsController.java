@@ -0,0 +1,189 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import org.academiadecodigo.javabank.interceptor.EndpointMetrics;
+import org.academiadecodigo.javabank.interceptor.LatencyHistogram;
+import org.academiadecodigo.javabank.interceptor.LogRequestsInterceptor;
+import org.academiadecodigo.javabank.persistence.cache.CacheStatistics;
+import org.academiadecodigo.javabank.persistence.cache.RegionStatistics;
+import org.academiadecodigo.javabank.services.memo.MemoCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * REST controller responsible for exposing the request metrics recorded by the {@link LogRequestsInterceptor}
+ * and the statistics of the second level cache and of the request scoped memos
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class RestMetricsController {
+
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final int MICROS_SCALE = 6;
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private LogRequestsInterceptor logRequestsInterceptor;
+    private CacheStatistics cacheStatistics;
+    private MemoCounters memoCounters;
+
+    /**
+     * Sets the interceptor recording the request metrics
+     *
+     * @param logRequestsInterceptor the interceptor to set
+     */
+    @Autowired
+    public void setLogRequestsInterceptor(LogRequestsInterceptor logRequestsInterceptor) {
+        this.logRequestsInterceptor = logRequestsInterceptor;
+    }
+
+    /**
+     * Sets the reader of the second level cache statistics
+     *
+     * @param cacheStatistics the cache statistics to set
+     */
+    @Autowired
+    public void setCacheStatistics(CacheStatistics cacheStatistics) {
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    /**
+     * Sets the counters of the request scoped memos
+     *
+     * @param memoCounters the memo counters to set
+     */
+    @Autowired
+    public void setMemoCounters(MemoCounters memoCounters) {
+        this.memoCounters = memoCounters;
+    }
+
+    /**
+     * Retrieves the metrics of each handler method
+     *
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.GET, path = {"/", ""})
+    public ResponseEntity<Map<String, EndpointMetrics>> showMetrics() {
+        return new ResponseEntity<>(logRequestsInterceptor.getMetrics(), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the statistics of each second level cache region
+     *
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/cache")
+    public ResponseEntity<Map<String, RegionStatistics>> showCacheStatistics() {
+        return new ResponseEntity<>(cacheStatistics.getRegions(), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the counters of the request scoped memos
+     *
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/memo")
+    public ResponseEntity<MemoCounters> showMemoCounters() {
+        return new ResponseEntity<>(memoCounters, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the metrics of each handler method in the Prometheus text format
+     *
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/prometheus")
+    public ResponseEntity<String> showPrometheusMetrics() {
+
+        Map<String, EndpointMetrics> metrics = logRequestsInterceptor.getMetrics();
+        StringBuilder text = new StringBuilder();
+
+        text.append("# HELP javabank_http_requests_in_flight Requests being handled\n");
+        text.append("# TYPE javabank_http_requests_in_flight gauge\n");
+        for (EndpointMetrics endpoint : metrics.values()) {
+            sample(text, "javabank_http_requests_in_flight", "handler", endpoint.getHandler(), null, endpoint.getInFlight());
+        }
+
+        text.append("# HELP javabank_http_request_errors_total Completed requests with an error status\n");
+        text.append("# TYPE javabank_http_request_errors_total counter\n");
+        for (EndpointMetrics endpoint : metrics.values()) {
+            sample(text, "javabank_http_request_errors_total", "handler", endpoint.getHandler(), "status=\"4xx\"", endpoint.getClientErrors());
+            sample(text, "javabank_http_request_errors_total", "handler", endpoint.getHandler(), "status=\"5xx\"", endpoint.getServerErrors());
+        }
+
+        text.append("# HELP javabank_http_request_duration_seconds Latency of the completed requests\n");
+        text.append("# TYPE javabank_http_request_duration_seconds histogram\n");
+        for (EndpointMetrics endpoint : metrics.values()) {
+            histogram(text, endpoint);
+        }
+
+        Map<String, RegionStatistics> regions = cacheStatistics.getRegions();
+
+        text.append("# HELP javabank_cache_requests_total Second level cache lookups\n");
+        text.append("# TYPE javabank_cache_requests_total counter\n");
+        for (Map.Entry<String, RegionStatistics> region : regions.entrySet()) {
+            sample(text, "javabank_cache_requests_total", "region", region.getKey(), "result=\"hit\"", region.getValue().getHits());
+            sample(text, "javabank_cache_requests_total", "region", region.getKey(), "result=\"miss\"", region.getValue().getMisses());
+        }
+
+        text.append("# HELP javabank_cache_evictions_total Second level cache entries evicted to bound the region size\n");
+        text.append("# TYPE javabank_cache_evictions_total counter\n");
+        for (Map.Entry<String, RegionStatistics> region : regions.entrySet()) {
+            sample(text, "javabank_cache_evictions_total", "region", region.getKey(), null, region.getValue().getEvictions());
+        }
+
+        text.append("# HELP javabank_request_memo_reads_total Customer reads of the web controllers, hits avoid a load\n");
+        text.append("# TYPE javabank_request_memo_reads_total counter\n");
+        sample(text, "javabank_request_memo_reads_total", "result", "hit", null, memoCounters.getHits());
+        sample(text, "javabank_request_memo_reads_total", "result", "miss", null, memoCounters.getMisses());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, PROMETHEUS_CONTENT_TYPE);
+
+        return new ResponseEntity<>(text.toString(), headers, HttpStatus.OK);
+    }
+
+    private void histogram(StringBuilder text, EndpointMetrics endpoint) {
+
+        LatencyHistogram.Snapshot latency = endpoint.getLatency();
+        long[] bounds = latency.getBounds();
+        long[] counts = latency.getCounts();
+        long cumulative = 0;
+
+        // prometheus buckets count every latency up to their bound
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += counts[i];
+            sample(text, "javabank_http_request_duration_seconds_bucket", "handler", endpoint.getHandler(),
+                    "le=\"" + seconds(bounds[i]) + "\"", cumulative);
+        }
+
+        sample(text, "javabank_http_request_duration_seconds_bucket", "handler", endpoint.getHandler(), "le=\"+Inf\"", latency.getCount());
+
+        text.append("javabank_http_request_duration_seconds_sum{handler=\"").append(endpoint.getHandler())
+                .append("\"} ").append(latency.getSum() / MILLIS_PER_SECOND).append('\n');
+
+        sample(text, "javabank_http_request_duration_seconds_count", "handler", endpoint.getHandler(), null, latency.getCount());
+    }
+
+    private void sample(StringBuilder text, String name, String key, String value, String label, long sample) {
+
+        text.append(name).append('{').append(key).append("=\"").append(value).append('"');
+
+        if (label != null) {
+            text.append(',').append(label);
+        }
+
+        text.append("} ").append(sample).append('\n');
+    }
+
+    private String seconds(long micros) {
+        return BigDecimal.valueOf(micros, MICROS_SCALE).stripTrailingZeros().toPlainString();
+    }
+}
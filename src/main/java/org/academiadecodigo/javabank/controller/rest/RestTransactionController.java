@@ -1,22 +1,40 @@
 package org.academiadecodigo.javabank.controller.rest;
 
 import org.academiadecodigo.javabank.command.AccountTransactionDto;
+import org.academiadecodigo.javabank.command.QueuedTransferDto;
+import org.academiadecodigo.javabank.command.TransferBatchDto;
 import org.academiadecodigo.javabank.command.TransferDto;
+import org.academiadecodigo.javabank.command.TransferResultDto;
+import org.academiadecodigo.javabank.converters.QueuedTransferToQueuedTransferDto;
 import org.academiadecodigo.javabank.converters.TransferDtoToTransfer;
+import org.academiadecodigo.javabank.converters.TransferResultToTransferResultDto;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
 import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
 import org.academiadecodigo.javabank.services.AccountService;
+import org.academiadecodigo.javabank.services.IdempotencyService;
+import org.academiadecodigo.javabank.services.TransferQueueService;
 import org.academiadecodigo.javabank.services.TransferService;
+import org.academiadecodigo.javabank.services.queue.TransferCallbackClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * REST controller responsible for transaction related CRUD operations
@@ -26,9 +44,17 @@ import javax.validation.Valid;
 @RequestMapping("/api/customer")
 public class RestTransactionController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private TransferService transferService;
+    private TransferQueueService transferQueueService;
+    private IdempotencyService idempotencyService;
+    private TransferCallbackClient transferCallbackClient;
     private AccountService accountService;
     private TransferDtoToTransfer transferDtoToTransfer;
+    private TransferResultToTransferResultDto transferResultToTransferResultDto;
+    private QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto;
 
     /**
      * Sets the transfer service
@@ -40,6 +66,36 @@ public class RestTransactionController {
         this.transferService = transferService;
     }
 
+    /**
+     * Sets the transfer queue service
+     *
+     * @param transferQueueService the transfer queue service to set
+     */
+    @Autowired
+    public void setTransferQueueService(TransferQueueService transferQueueService) {
+        this.transferQueueService = transferQueueService;
+    }
+
+    /**
+     * Sets the idempotency service
+     *
+     * @param idempotencyService the idempotency service to set
+     */
+    @Autowired
+    public void setIdempotencyService(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    /**
+     * Sets the client notifying the outcome of the queued transfers, which checks their callback urls
+     *
+     * @param transferCallbackClient the transfer callback client to set
+     */
+    @Autowired
+    public void setTransferCallbackClient(TransferCallbackClient transferCallbackClient) {
+        this.transferCallbackClient = transferCallbackClient;
+    }
+
     /**
      * Sets the account service
      *
@@ -60,26 +116,99 @@ public class RestTransactionController {
         this.transferDtoToTransfer = transferDtoToTransfer;
     }
 
+    /**
+     * Sets the converter for converting between transfer results and transfer result DTO
+     *
+     * @param transferResultToTransferResultDto the transfer result to transfer result DTO converter
+     */
+    @Autowired
+    public void setTransferResultToTransferResultDto(TransferResultToTransferResultDto transferResultToTransferResultDto) {
+        this.transferResultToTransferResultDto = transferResultToTransferResultDto;
+    }
+
+    /**
+     * Sets the converter for converting between queued transfers and queued transfer DTO
+     *
+     * @param queuedTransferToQueuedTransferDto the queued transfer to queued transfer DTO converter
+     */
+    @Autowired
+    public void setQueuedTransferToQueuedTransferDto(QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto) {
+        this.queuedTransferToQueuedTransferDto = queuedTransferToQueuedTransferDto;
+    }
+
     /**
      * Transfers money between accounts
+     * <p>
+     * Requests with an {@value #IDEMPOTENCY_KEY} header are performed once, retries getting the original outcome.
      *
-     * @param cid           the customer id
-     * @param transferDto   the transfer DTO
-     * @param bindingResult the binding result
+     * @param cid            the customer id
+     * @param transferDto    the transfer DTO
+     * @param bindingResult  the binding result
+     * @param idempotencyKey the idempotency key
      * @return the response entity
      */
     @RequestMapping(method = RequestMethod.PUT, path = "/{cid}/transfer")
-    public ResponseEntity<TransferDto> transfer(@PathVariable Integer cid, @Valid @RequestBody TransferDto transferDto, BindingResult bindingResult) {
+    public ResponseEntity<TransferDto> transfer(@PathVariable Integer cid, @Valid @RequestBody TransferDto transferDto, BindingResult bindingResult,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+
+        if (bindingResult.hasErrors()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        // the amount is parsed, so that the retries of a request tell the same amount in the same way
+        Supplier<String> fingerprint = () ->
+                transferDto.getSrcId() + ":" + transferDto.getDstId() + ":" + Money.parse(transferDto.getAmount());
+
+        return idempotent(idempotencyKey, cid, "transfer", fingerprint, () -> {
+
+            try {
+
+                transferService.transfer(transferDtoToTransfer.convert(transferDto), cid);
+
+                return HttpStatus.OK;
+
+            } catch (CustomerNotFoundException e) {
+                return HttpStatus.NOT_FOUND;
+
+            } catch (AccountNotFoundException e) {
+                return HttpStatus.NOT_FOUND;
+
+            } catch (TransactionInvalidException e) {
+                return HttpStatus.BAD_REQUEST;
+            }
+        });
+    }
+
+    /**
+     * Queues a transfer of money between accounts, to be performed in the background
+     * <p>
+     * Responds once the transfer is checked and queued, with the location its outcome is polled from. The
+     * outcome is also posted to the callback url, which must be local, if given.
+     *
+     * @param cid                  the customer id
+     * @param transferDto          the transfer DTO
+     * @param bindingResult        the binding result
+     * @param callback             the url notified of the transfer outcome
+     * @param uriComponentsBuilder the uri components builder
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/{cid}/transfer/async")
+    public ResponseEntity<QueuedTransferDto> submitTransfer(@PathVariable Integer cid, @Valid @RequestBody TransferDto transferDto, BindingResult bindingResult,
+                                                            @RequestParam(required = false) String callback, UriComponentsBuilder uriComponentsBuilder) {
 
         try {
 
-            if (bindingResult.hasErrors()) {
+            if (bindingResult.hasErrors() || (callback != null && !transferCallbackClient.isAllowed(callback))) {
                 return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
 
-            transferService.transfer(transferDtoToTransfer.convert(transferDto), cid);
+            QueuedTransfer queuedTransfer = transferQueueService.submit(transferDtoToTransfer.convert(transferDto), cid, callback);
+
+            UriComponents uriComponents = uriComponentsBuilder.path("/api/transfer/" + queuedTransfer.getId()).build();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setLocation(uriComponents.toUri());
 
-            return new ResponseEntity<>(HttpStatus.OK);
+            return new ResponseEntity<>(queuedTransferToQueuedTransferDto.convert(queuedTransfer), headers, HttpStatus.ACCEPTED);
 
         } catch (CustomerNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -93,15 +222,18 @@ public class RestTransactionController {
     }
 
     /**
-     * Deposits money in an account
+     * Transfers money between many accounts in a single transaction
+     * <p>
+     * Responds with the outcome of each transfer, in the same order. An all or nothing batch which was not
+     * performed is a bad request, a best effort batch is performed even if some of its transfers are not.
      *
-     * @param cid                   the customer id
-     * @param accountTransactionDto the account transaction DTO
-     * @param bindingResult         the binding result object
+     * @param cid              the customer id
+     * @param transferBatchDto the transfer batch DTO
+     * @param bindingResult    the binding result
      * @return the response entity
      */
-    @RequestMapping(method = RequestMethod.PUT, path = "/{cid}/deposit")
-    public ResponseEntity<AccountTransactionDto> deposit(@PathVariable Integer cid, @Valid @RequestBody AccountTransactionDto accountTransactionDto, BindingResult bindingResult) {
+    @RequestMapping(method = RequestMethod.POST, path = "/{cid}/transfers/batch")
+    public ResponseEntity<List<TransferResultDto>> transferAll(@PathVariable Integer cid, @Valid @RequestBody TransferBatchDto transferBatchDto, BindingResult bindingResult) {
 
         try {
 
@@ -109,50 +241,152 @@ public class RestTransactionController {
                 return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
 
-            accountService.deposit(accountTransactionDto.getId(), cid, Double.parseDouble(accountTransactionDto.getAmount()));
+            List<TransferResult> results = transferService.transferAll(
+                    transferDtoToTransfer.convert(transferBatchDto.getTransfers()), cid, transferBatchDto.getMode());
 
-            return new ResponseEntity<>(HttpStatus.OK);
+            boolean performed = transferBatchDto.getMode() == TransferBatchMode.BEST_EFFORT ||
+                    results.stream().allMatch(TransferResult::isTransferred);
 
-        } catch (AccountNotFoundException e) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(transferResultToTransferResultDto.convert(results),
+                    performed ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
 
         } catch (CustomerNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
 
-        } catch (TransactionInvalidException e) {
+    /**
+     * Deposits money in an account
+     * <p>
+     * Requests with an {@value #IDEMPOTENCY_KEY} header are performed once, retries getting the original outcome.
+     *
+     * @param cid                   the customer id
+     * @param accountTransactionDto the account transaction DTO
+     * @param bindingResult         the binding result object
+     * @param idempotencyKey        the idempotency key
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.PUT, path = "/{cid}/deposit")
+    public ResponseEntity<AccountTransactionDto> deposit(@PathVariable Integer cid, @Valid @RequestBody AccountTransactionDto accountTransactionDto, BindingResult bindingResult,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+
+        if (bindingResult.hasErrors()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+
+        Money amount = Money.parse(accountTransactionDto.getAmount());
+
+        return idempotent(idempotencyKey, cid, "deposit", () -> accountTransactionDto.getId() + ":" + amount, () -> {
+
+            try {
+
+                accountService.deposit(accountTransactionDto.getId(), cid, amount);
+
+                return HttpStatus.OK;
+
+            } catch (AccountNotFoundException e) {
+                return HttpStatus.NOT_FOUND;
+
+            } catch (CustomerNotFoundException e) {
+                return HttpStatus.NOT_FOUND;
+
+            } catch (TransactionInvalidException e) {
+                return HttpStatus.BAD_REQUEST;
+            }
+        });
     }
 
     /**
      * Withdraws money from an account
+     * <p>
+     * Requests with an {@value #IDEMPOTENCY_KEY} header are performed once, retries getting the original outcome.
      *
      * @param cid                   the customer id
      * @param accountTransactionDto the account transaction DTO
      * @param bindingResult         the binding result object
+     * @param idempotencyKey        the idempotency key
      * @return the response entity
      */
     @RequestMapping(method = RequestMethod.PUT, path = "/{cid}/withdraw")
-    public ResponseEntity<AccountTransactionDto> withdraw(@PathVariable Integer cid, @Valid @RequestBody AccountTransactionDto accountTransactionDto, BindingResult bindingResult) {
+    public ResponseEntity<AccountTransactionDto> withdraw(@PathVariable Integer cid, @Valid @RequestBody AccountTransactionDto accountTransactionDto, BindingResult bindingResult,
+                                                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
 
-        try {
+        if (bindingResult.hasErrors()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
-            if (bindingResult.hasErrors()) {
-                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-            }
+        Money amount = Money.parse(accountTransactionDto.getAmount());
 
-            accountService.withdraw(accountTransactionDto.getId(), cid, Double.parseDouble(accountTransactionDto.getAmount()));
+        return idempotent(idempotencyKey, cid, "withdraw", () -> accountTransactionDto.getId() + ":" + amount, () -> {
 
-            return new ResponseEntity<>(HttpStatus.OK);
+            try {
 
-        } catch (AccountNotFoundException e) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                accountService.withdraw(accountTransactionDto.getId(), cid, amount);
 
-        } catch (CustomerNotFoundException e) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                return HttpStatus.OK;
 
-        } catch (TransactionInvalidException e) {
+            } catch (AccountNotFoundException e) {
+                return HttpStatus.NOT_FOUND;
+
+            } catch (CustomerNotFoundException e) {
+                return HttpStatus.NOT_FOUND;
+
+            } catch (TransactionInvalidException e) {
+                return HttpStatus.BAD_REQUEST;
+            }
+        });
+    }
+
+    private <T> ResponseEntity<T> idempotent(String idempotencyKey, Integer cid, String operation,
+                                             Supplier<String> fingerprintOf, Supplier<HttpStatus> request) {
+
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(request.get());
+        }
+
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > IdempotentRequest.MAX_KEY_LENGTH) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+
+        String fingerprint = fingerprintOf.get();
+        IdempotentRequest claimed = idempotencyService.claim(idempotencyKey, cid, operation, fingerprint);
+
+        if (claimed != null) {
+            return replay(claimed, cid, operation, fingerprint);
+        }
+
+        HttpStatus status;
+
+        try {
+            status = request.get();
+
+        } catch (RuntimeException ex) {
+
+            // the request was rolled back, so its retries may perform it
+            idempotencyService.release(idempotencyKey);
+            throw ex;
+        }
+
+        idempotencyService.complete(idempotencyKey, status.value());
+
+        return new ResponseEntity<>(status);
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotentRequest claimed, Integer cid, String operation, String fingerprint) {
+
+        // the key was used for another request
+        if (!claimed.matches(cid, operation, fingerprint)) {
+            return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
+        // the request is still being performed, or its outcome was lost in a crash
+        if (claimed.isInProgress()) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IDEMPOTENT_REPLAYED, Boolean.TRUE.toString());
+
+        return new ResponseEntity<>(headers, HttpStatus.valueOf(claimed.getStatus()));
     }
 }
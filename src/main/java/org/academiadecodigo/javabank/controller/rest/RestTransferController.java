@@ -0,0 +1,60 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import org.academiadecodigo.javabank.command.QueuedTransferDto;
+import org.academiadecodigo.javabank.converters.QueuedTransferToQueuedTransferDto;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.services.TransferQueueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller responsible for the {@link QueuedTransfer} status
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/transfer")
+public class RestTransferController {
+
+    private TransferQueueService transferQueueService;
+    private QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto;
+
+    /**
+     * Sets the transfer queue service
+     *
+     * @param transferQueueService the transfer queue service to set
+     */
+    @Autowired
+    public void setTransferQueueService(TransferQueueService transferQueueService) {
+        this.transferQueueService = transferQueueService;
+    }
+
+    /**
+     * Sets the converter for converting between queued transfers and queued transfer DTO
+     *
+     * @param queuedTransferToQueuedTransferDto the queued transfer to queued transfer DTO converter
+     */
+    @Autowired
+    public void setQueuedTransferToQueuedTransferDto(QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto) {
+        this.queuedTransferToQueuedTransferDto = queuedTransferToQueuedTransferDto;
+    }
+
+    /**
+     * Retrieves a queued transfer, with its outcome once performed
+     *
+     * @param id the queued transfer id
+     * @return the response entity
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/{id}")
+    public ResponseEntity<QueuedTransferDto> showTransfer(@PathVariable Integer id) {
+
+        QueuedTransfer queuedTransfer = transferQueueService.get(id);
+
+        if (queuedTransfer == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(queuedTransferToQueuedTransferDto.convert(queuedTransfer), HttpStatus.OK);
+    }
+}
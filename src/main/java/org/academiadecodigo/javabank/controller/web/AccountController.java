@@ -6,13 +6,16 @@ import org.academiadecodigo.javabank.command.TransferDto;
 import org.academiadecodigo.javabank.converters.AccountDtoToAccount;
 import org.academiadecodigo.javabank.converters.CustomerToCustomerDto;
 import org.academiadecodigo.javabank.converters.TransferDtoToTransfer;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.academiadecodigo.javabank.services.AccountService;
 import org.academiadecodigo.javabank.services.CustomerService;
 import org.academiadecodigo.javabank.services.TransferService;
+import org.academiadecodigo.javabank.services.memo.RequestScopedCustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -39,12 +42,12 @@ public class AccountController {
     private CustomerToCustomerDto customerToCustomerDto;
 
     /**
-     * Sets the customer service
+     * Sets the customer service, memoizing the customer reads of each request
      *
      * @param customerService the customer service to set
      */
     @Autowired
-    public void setCustomerService(CustomerService customerService) {
+    public void setCustomerService(@Qualifier(RequestScopedCustomerService.NAME) CustomerService customerService) {
         this.customerService = customerService;
     }
 
@@ -145,7 +148,7 @@ public class AccountController {
             return "redirect:/customer/" + cid;
         }
 
-        accountService.deposit(accountTransactionDto.getId(), cid, Double.parseDouble(accountTransactionDto.getAmount()));
+        accountService.deposit(accountTransactionDto.getId(), cid, Money.parse(accountTransactionDto.getAmount()));
         redirectAttributes.addFlashAttribute("lastAction", "Deposited " + accountTransactionDto.getAmount() + " into account # " + accountTransactionDto.getId());
         return "redirect:/customer/" + cid;
     }
@@ -170,7 +173,7 @@ public class AccountController {
         }
 
         try {
-            accountService.withdraw(accountTransactionDto.getId(), cid, Double.parseDouble(accountTransactionDto.getAmount()));
+            accountService.withdraw(accountTransactionDto.getId(), cid, Money.parse(accountTransactionDto.getAmount()));
             redirectAttributes.addFlashAttribute("lastAction", "Withdrew " + accountTransactionDto.getAmount() + " from account # " + accountTransactionDto.getId());
             return "redirect:/customer/" + cid;
 
@@ -6,13 +6,19 @@ import org.academiadecodigo.javabank.command.CustomerDto;
 import org.academiadecodigo.javabank.command.TransferDto;
 import org.academiadecodigo.javabank.converters.AccountToAccountDto;
 import org.academiadecodigo.javabank.converters.CustomerDtoToCustomer;
+import org.academiadecodigo.javabank.converters.CustomerSummaryToCustomerDto;
 import org.academiadecodigo.javabank.converters.CustomerToCustomerDto;
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.exceptions.AssociationExistsException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.account.AccountType;
 import org.academiadecodigo.javabank.services.CustomerService;
+import org.academiadecodigo.javabank.services.memo.RequestScopedCustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -20,9 +26,12 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Controller responsible for rendering {@link Customer} related views
@@ -31,19 +40,23 @@ import javax.validation.Valid;
 @RequestMapping("/customer")
 public class CustomerController {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private CustomerService customerService;
 
     private CustomerToCustomerDto customerToCustomerDto;
+    private CustomerSummaryToCustomerDto customerSummaryToCustomerDto;
     private CustomerDtoToCustomer customerDtoToCustomer;
     private AccountToAccountDto accountToAccountDto;
 
     /**
-     * Sets the customer service
+     * Sets the customer service, memoizing the customer reads of each request
      *
      * @param customerService the customer service to set
      */
     @Autowired
-    public void setCustomerService(CustomerService customerService) {
+    public void setCustomerService(@Qualifier(RequestScopedCustomerService.NAME) CustomerService customerService) {
         this.customerService = customerService;
     }
 
@@ -57,6 +70,16 @@ public class CustomerController {
         this.customerToCustomerDto = customerToCustomerDto;
     }
 
+    /**
+     * Sets the converter for converting between customer summaries and customer DTO
+     *
+     * @param customerSummaryToCustomerDto the customer summary to customer DTO converter to set
+     */
+    @Autowired
+    public void setCustomerSummaryToCustomerDto(CustomerSummaryToCustomerDto customerSummaryToCustomerDto) {
+        this.customerSummaryToCustomerDto = customerSummaryToCustomerDto;
+    }
+
     /**
      * Sets the converter for converting between customer DTO and customer model objects
      *
@@ -78,14 +101,37 @@ public class CustomerController {
     }
 
     /**
-     * Renders a view with a list of customers
+     * Renders a view with a page of customers and their balances, falling back to the first page if the page is
+     * not valid
      *
+     * @param page  the zero based page number
+     * @param size  the page size
+     * @param sort  the sort property, optionally followed by {@code ,asc} or {@code ,desc}
      * @param model the model object
      * @return the view to render
      */
     @RequestMapping(method = RequestMethod.GET, path = {"/list", "/", ""})
-    public String listCustomers(Model model) {
-        model.addAttribute("customers", customerToCustomerDto.convert(customerService.list()));
+    public String listCustomers(@RequestParam(defaultValue = "0") int page,
+                                @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                @RequestParam(defaultValue = PageRequest.DEFAULT_SORT) String sort,
+                                Model model) {
+
+        Page<CustomerSummary> customers;
+
+        try {
+            customers = customerService.listSummaries(PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort));
+
+        } catch (IllegalArgumentException e) {
+            customers = customerService.listSummaries(PageRequest.of(0, DEFAULT_PAGE_SIZE));
+        }
+
+        List<Integer> ids = customers.getContent().stream()
+                .map(CustomerSummary::getId)
+                .collect(Collectors.toList());
+
+        model.addAttribute("customers", customerSummaryToCustomerDto.convert(customers.getContent()));
+        model.addAttribute("balances", customerService.getBalances(ids));
+        model.addAttribute("page", customers);
         return "customer/list";
     }
 
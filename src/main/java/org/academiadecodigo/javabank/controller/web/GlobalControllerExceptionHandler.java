@@ -72,6 +72,6 @@ public class GlobalControllerExceptionHandler {
 
 
         Logger logger = LogManager.getLogger(throwingClassName);
-        logger.error(errorOrigin + " error on " + throwingMethodName + "() - " + ex.getMessage());
+        logger.error("{} error on {}() - {}", errorOrigin, throwingMethodName, ex.getMessage());
     }
 }
@@ -11,7 +11,9 @@ import org.academiadecodigo.javabank.persistence.model.Recipient;
 import org.academiadecodigo.javabank.services.CustomerService;
 import org.academiadecodigo.javabank.services.RecipientService;
 import org.academiadecodigo.javabank.services.TransferService;
+import org.academiadecodigo.javabank.services.memo.RequestScopedCustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -52,12 +54,12 @@ public class RecipientController {
     }
 
     /**
-     * Sets the customer service
+     * Sets the customer service, memoizing the customer reads of each request
      *
      * @param customerService the customer service to set
      */
     @Autowired
-    public void setCustomerService(CustomerService customerService) {
+    public void setCustomerService(@Qualifier(RequestScopedCustomerService.NAME) CustomerService customerService) {
         this.customerService = customerService;
     }
 
@@ -1,6 +1,7 @@
 package org.academiadecodigo.javabank.converters;
 
 import org.academiadecodigo.javabank.command.AccountDto;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.factories.AccountFactory;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,7 +38,7 @@ public class AccountDtoToAccount implements Converter<AccountDto, Account> {
         Account account = null;
 
         account = accountFactory.createAccount(accountDto.getType());
-        account.credit(accountDto.getBalance() != null ? Double.parseDouble(accountDto.getBalance()) : 0);
+        account.credit(accountDto.getBalance() != null ? Money.parse(accountDto.getBalance()) : Money.ZERO);
 
         return account;
     }
@@ -24,7 +24,7 @@ public class AccountToAccountDto extends AbstractConverter<Account, AccountDto>
         AccountDto accountDto = new AccountDto();
         accountDto.setId(account.getId());
         accountDto.setType(account.getAccountType());
-        accountDto.setBalance(String.valueOf(account.getBalance()));
+        accountDto.setBalance(account.getBalance().toString());
 
         return accountDto;
     }
@@ -0,0 +1,30 @@
+package org.academiadecodigo.javabank.converters;
+
+import org.academiadecodigo.javabank.command.CustomerBalanceDto;
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link Converter} implementation, responsible for {@link CustomerBalance} to {@link CustomerBalanceDto} type conversion
+ */
+@Component
+public class CustomerBalanceToCustomerBalanceDto extends AbstractConverter<CustomerBalance, CustomerBalanceDto> {
+
+    /**
+     * Converts the customer balance into a customer balance DTO
+     *
+     * @param customerBalance the customer balance
+     * @return the customer balance DTO
+     */
+    @Override
+    public CustomerBalanceDto convert(CustomerBalance customerBalance) {
+
+        CustomerBalanceDto customerBalanceDto = new CustomerBalanceDto();
+        customerBalanceDto.setCustomerId(customerBalance.getCustomerId());
+        customerBalanceDto.setBalance(customerBalance.getBalance().toString());
+        customerBalanceDto.setAccounts(customerBalance.getAccounts());
+
+        return customerBalanceDto;
+    }
+}
@@ -0,0 +1,32 @@
+package org.academiadecodigo.javabank.converters;
+
+import org.academiadecodigo.javabank.command.CustomerDto;
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link Converter} implementation, responsible for {@link CustomerSummary} to {@link CustomerDto} type conversion
+ */
+@Component
+public class CustomerSummaryToCustomerDto extends AbstractConverter<CustomerSummary, CustomerDto> {
+
+    /**
+     * Converts the customer summary into a customer DTO
+     *
+     * @param customerSummary the customer summary
+     * @return the customer DTO
+     */
+    @Override
+    public CustomerDto convert(CustomerSummary customerSummary) {
+
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setId(customerSummary.getId());
+        customerDto.setFirstName(customerSummary.getFirstName());
+        customerDto.setLastName(customerSummary.getLastName());
+        customerDto.setEmail(customerSummary.getEmail());
+        customerDto.setPhone(customerSummary.getPhone());
+
+        return customerDto;
+    }
+}
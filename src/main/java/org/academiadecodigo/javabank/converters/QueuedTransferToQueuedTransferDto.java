@@ -0,0 +1,32 @@
+package org.academiadecodigo.javabank.converters;
+
+import org.academiadecodigo.javabank.command.QueuedTransferDto;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link Converter} implementation, responsible for {@link QueuedTransfer} to {@link QueuedTransferDto} type conversion
+ */
+@Component
+public class QueuedTransferToQueuedTransferDto extends AbstractConverter<QueuedTransfer, QueuedTransferDto> {
+
+    /**
+     * Converts the queued transfer into a queued transfer DTO
+     *
+     * @param queuedTransfer the queued transfer
+     * @return the queued transfer DTO
+     */
+    @Override
+    public QueuedTransferDto convert(QueuedTransfer queuedTransfer) {
+
+        QueuedTransferDto queuedTransferDto = new QueuedTransferDto();
+        queuedTransferDto.setId(queuedTransfer.getId());
+        queuedTransferDto.setSrcId(queuedTransfer.getSrcId());
+        queuedTransferDto.setDstId(queuedTransfer.getDstId());
+        queuedTransferDto.setAmount(queuedTransfer.getAmount().toString());
+        queuedTransferDto.setStatus(queuedTransfer.getStatus());
+
+        return queuedTransferDto;
+    }
+}
@@ -0,0 +1,30 @@
+package org.academiadecodigo.javabank.converters;
+
+import org.academiadecodigo.javabank.command.TransactionDto;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link Converter} implementation, responsible for {@link Transaction} to {@link TransactionDto} type conversion
+ */
+@Component
+public class TransactionToTransactionDto extends AbstractConverter<Transaction, TransactionDto> {
+
+    /**
+     * Converts the transaction into a transaction DTO
+     * @param transaction the transaction
+     * @return the transaction DTO
+     */
+    @Override
+    public TransactionDto convert(Transaction transaction) {
+
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setId(transaction.getId());
+        transactionDto.setTime(transaction.getTime());
+        transactionDto.setType(transaction.getType());
+        transactionDto.setAmount(transaction.getAmount().toString());
+
+        return transactionDto;
+    }
+}
@@ -1,6 +1,7 @@
 package org.academiadecodigo.javabank.converters;
 
 import org.academiadecodigo.javabank.command.TransferDto;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
@@ -9,7 +10,7 @@ import org.springframework.stereotype.Component;
  * A {@link Converter} implementation, responsible for {@link TransferDto} to {@link Transfer} type conversion
  */
 @Component
-public class TransferDtoToTransfer implements Converter<TransferDto, Transfer> {
+public class TransferDtoToTransfer extends AbstractConverter<TransferDto, Transfer> {
 
     /**
      * Converts the transfer DTO object into a transfer domain object
@@ -23,7 +24,7 @@ public class TransferDtoToTransfer implements Converter<TransferDto, Transfer> {
 
         transfer.setSrcId(transferDto.getSrcId());
         transfer.setDstId(transferDto.getDstId());
-        transfer.setAmount(Double.parseDouble(transferDto.getAmount()));
+        transfer.setAmount(Money.parse(transferDto.getAmount()));
 
         return transfer;
     }
@@ -0,0 +1,31 @@
+package org.academiadecodigo.javabank.converters;
+
+import org.academiadecodigo.javabank.command.TransferResultDto;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link Converter} implementation, responsible for {@link TransferResult} to {@link TransferResultDto} type conversion
+ */
+@Component
+public class TransferResultToTransferResultDto extends AbstractConverter<TransferResult, TransferResultDto> {
+
+    /**
+     * Converts the transfer result into a transfer result DTO
+     *
+     * @param transferResult the transfer result
+     * @return the transfer result DTO
+     */
+    @Override
+    public TransferResultDto convert(TransferResult transferResult) {
+
+        TransferResultDto transferResultDto = new TransferResultDto();
+        transferResultDto.setSrcId(transferResult.getTransfer().getSrcId());
+        transferResultDto.setDstId(transferResult.getTransfer().getDstId());
+        transferResultDto.setAmount(transferResult.getTransfer().getAmount().toString());
+        transferResultDto.setStatus(transferResult.getStatus());
+
+        return transferResultDto;
+    }
+}
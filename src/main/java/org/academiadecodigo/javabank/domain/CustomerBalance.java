@@ -0,0 +1,122 @@
+package org.academiadecodigo.javabank.domain;
+
+import org.academiadecodigo.javabank.persistence.model.Customer;
+
+/**
+ * An immutable view of the total balance and the number of accounts of a {@link Customer}
+ */
+public class CustomerBalance {
+
+    private final Integer customerId;
+    private final Money balance;
+    private final long accounts;
+
+    /**
+     * Initializes a new customer balance
+     *
+     * @param customerId the customer id
+     * @param balance    the total balance of the customer accounts
+     * @param accounts   the number of customer accounts
+     */
+    public CustomerBalance(Integer customerId, Money balance, long accounts) {
+        this.customerId = customerId;
+        this.balance = balance;
+        this.accounts = accounts;
+    }
+
+    /**
+     * Initializes a new customer balance, used by the query projections
+     *
+     * @param customerId the customer id
+     * @param cents      the total balance of the customer accounts, in cents
+     * @param accounts   the number of customer accounts
+     */
+    public CustomerBalance(Integer customerId, Long cents, Long accounts) {
+        this(customerId, Money.ofCents(cents), accounts);
+    }
+
+    /**
+     * Gets the customer id
+     *
+     * @return the customer id
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the total balance of the customer accounts
+     *
+     * @return the customer balance
+     */
+    public Money getBalance() {
+        return balance;
+    }
+
+    /**
+     * Gets the number of customer accounts
+     *
+     * @return the number of accounts
+     */
+    public long getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Adds a change of balance and of number of accounts to this customer balance
+     *
+     * @param balanceDelta  the change of balance
+     * @param accountsDelta the change of number of accounts
+     * @return the changed customer balance
+     */
+    public CustomerBalance plus(Money balanceDelta, long accountsDelta) {
+        return new CustomerBalance(customerId, balance.plus(balanceDelta), Math.addExact(accounts, accountsDelta));
+    }
+
+    /**
+     * Checks if the customer has neither accounts nor balance
+     *
+     * @return {@code true} if there is nothing left to hold
+     */
+    public boolean isEmpty() {
+        return accounts == 0 && balance.isZero();
+    }
+
+    /**
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CustomerBalance that = (CustomerBalance) o;
+        return accounts == that.accounts && customerId.equals(that.customerId) && balance.equals(that.balance);
+    }
+
+    /**
+     * @see Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * customerId.hashCode() + balance.hashCode()) + Long.hashCode(accounts);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CustomerBalance{" +
+                "customerId=" + customerId +
+                ", balance=" + balance +
+                ", accounts=" + accounts +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package org.academiadecodigo.javabank.domain;
+
+import org.academiadecodigo.javabank.persistence.model.Customer;
+
+/**
+ * A read-only view of the contact details of a {@link Customer}, projected without loading its accounts
+ */
+public class CustomerSummary {
+
+    private final Integer id;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String phone;
+
+    /**
+     * Initializes a new customer summary, used by the query projections
+     *
+     * @param id        the customer id
+     * @param firstName the customer first name
+     * @param lastName  the customer last name
+     * @param email     the customer email
+     * @param phone     the customer phone
+     */
+    public CustomerSummary(Integer id, String firstName, String lastName, String email, String phone) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+    }
+
+    /**
+     * Gets the customer id
+     *
+     * @return the customer id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Gets the customer first name
+     *
+     * @return the customer first name
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Gets the customer last name
+     *
+     * @return the customer last name
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Gets the customer email
+     *
+     * @return the customer email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Gets the customer phone
+     *
+     * @return the customer phone
+     */
+    public String getPhone() {
+        return phone;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CustomerSummary{" +
+                "id=" + id +
+                ", firstName='" + firstName + '\'' +
+                ", lastName='" + lastName + '\'' +
+                ", email='" + email + '\'' +
+                ", phone='" + phone + '\'' +
+                '}';
+    }
+}
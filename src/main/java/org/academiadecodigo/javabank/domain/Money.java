@@ -0,0 +1,158 @@
+package org.academiadecodigo.javabank.domain;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * An immutable amount of money, kept as a primitive number of cents
+ * <p>
+ * Arithmetic is exact and fails on overflow instead of silently wrapping around.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Creates an amount given its number of cents
+     *
+     * @param cents the number of cents
+     * @return the amount
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Creates an amount given its value in whole units
+     *
+     * @param units the number of whole units
+     * @return the amount
+     */
+    public static Money of(long units) {
+        return ofCents(Math.multiplyExact(units, 100L));
+    }
+
+    /**
+     * Parses an amount with at most two decimal places, such as {@code 10}, {@code 10.5} or {@code $10.50}
+     *
+     * @param amount the amount to parse
+     * @return the amount
+     * @throws NumberFormatException if the amount is not valid
+     */
+    public static Money parse(String amount) {
+
+        if (amount == null) {
+            throw new NumberFormatException("Amount is null");
+        }
+
+        String value = amount.trim();
+
+        if (value.startsWith("$")) {
+            value = value.substring(1);
+        }
+
+        try {
+            return ofCents(new BigDecimal(value).setScale(SCALE).unscaledValue().longValueExact());
+
+        } catch (ArithmeticException ex) {
+            throw new NumberFormatException("Amount is not valid: " + amount);
+        }
+    }
+
+    /**
+     * Gets the number of cents
+     *
+     * @return the cents
+     */
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * Adds an amount to this one
+     *
+     * @param other the amount to add
+     * @return the sum
+     */
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    /**
+     * Subtracts an amount from this one
+     *
+     * @param other the amount to subtract
+     * @return the difference
+     */
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * Checks if the amount is greater than zero
+     *
+     * @return {@code true} if the amount is positive
+     */
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    /**
+     * Checks if the amount is zero
+     *
+     * @return {@code true} if the amount is zero
+     */
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    /**
+     * @see Comparable#compareTo(Object)
+     */
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof Money)) {
+            return false;
+        }
+
+        return cents == ((Money) o).cents;
+    }
+
+    /**
+     * @see Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Formats the amount with two decimal places
+     *
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(cents, SCALE).toPlainString();
+    }
+}
@@ -0,0 +1,109 @@
+package org.academiadecodigo.javabank.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable page of a listing
+ * <p>
+ * Pages know whether another page follows them, but not the total number of elements, so that listing a page
+ * never requires counting the whole listing.
+ *
+ * @param <T> the element type
+ */
+public final class Page<T> {
+
+    private final List<T> content;
+    private final PageRequest request;
+    private final boolean hasNext;
+
+    private Page(List<T> content, PageRequest request, boolean hasNext) {
+        this.content = Collections.unmodifiableList(content);
+        this.request = request;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Creates a page from the rows fetched for it
+     *
+     * @param rows    up to one more row than the page size, the extra one telling that another page follows
+     * @param request the page request
+     * @param <T>     the element type
+     * @return the page
+     */
+    public static <T> Page<T> of(List<T> rows, PageRequest request) {
+
+        if (rows.size() > request.getSize()) {
+            return new Page<>(new ArrayList<>(rows.subList(0, request.getSize())), request, true);
+        }
+
+        return new Page<>(rows, request, false);
+    }
+
+    /**
+     * Gets the page content
+     *
+     * @return the unmodifiable list of elements
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the request for this page
+     *
+     * @return the page request
+     */
+    public PageRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Checks if another page follows this one
+     *
+     * @return {@code true} if there is a next page
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Checks if another page precedes this one
+     *
+     * @return {@code true} if there is a previous page
+     */
+    public boolean hasPrevious() {
+        return request.getPage() > 0;
+    }
+
+    /**
+     * Converts the elements of the page
+     *
+     * @param converter the element converter
+     * @param <R>       the converted element type
+     * @return the page of converted elements
+     */
+    public <R> Page<R> map(Function<? super T, ? extends R> converter) {
+
+        List<R> converted = new ArrayList<>(content.size());
+        for (T element : content) {
+            converted.add(converter.apply(element));
+        }
+
+        return new Page<>(converted, request, hasNext);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "Page{" +
+                "request=" + request +
+                ", size=" + content.size() +
+                ", hasNext=" + hasNext +
+                '}';
+    }
+}
@@ -0,0 +1,164 @@
+package org.academiadecodigo.javabank.domain;
+
+/**
+ * An immutable request for a page of a listing, sorted by a single property
+ */
+public final class PageRequest {
+
+    public static final String DEFAULT_SORT = "id";
+
+    private static final String SORT_SEPARATOR = ",";
+    private static final String ASCENDING = "asc";
+    private static final String DESCENDING = "desc";
+
+    private final int page;
+    private final int size;
+    private final String sort;
+    private final boolean ascending;
+
+    private PageRequest(int page, int size, String sort, boolean ascending) {
+
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least one");
+        }
+
+        this.page = page;
+        this.size = size;
+        this.sort = sort;
+        this.ascending = ascending;
+    }
+
+    /**
+     * Creates a request for a page sorted by id
+     *
+     * @param page the zero based page number
+     * @param size the page size
+     * @return the page request
+     * @throws IllegalArgumentException if the page or the size are not valid
+     */
+    public static PageRequest of(int page, int size) {
+        return new PageRequest(page, size, DEFAULT_SORT, true);
+    }
+
+    /**
+     * Creates a request for a sorted page
+     *
+     * @param page the zero based page number
+     * @param size the page size
+     * @param sort the sort property, optionally followed by {@code ,asc} or {@code ,desc}, such as {@code lastName,desc}
+     * @return the page request
+     * @throws IllegalArgumentException if the page, the size or the sort are not valid
+     */
+    public static PageRequest of(int page, int size, String sort) {
+
+        if (sort == null || sort.trim().isEmpty()) {
+            return of(page, size);
+        }
+
+        String[] parts = sort.split(SORT_SEPARATOR);
+        String property = parts[0].trim();
+
+        if (property.isEmpty() || parts.length > 2) {
+            throw new IllegalArgumentException("Sort is not valid: " + sort);
+        }
+
+        if (parts.length == 1 || parts[1].trim().equalsIgnoreCase(ASCENDING)) {
+            return new PageRequest(page, size, property, true);
+        }
+
+        if (parts[1].trim().equalsIgnoreCase(DESCENDING)) {
+            return new PageRequest(page, size, property, false);
+        }
+
+        throw new IllegalArgumentException("Sort direction is not valid: " + sort);
+    }
+
+    /**
+     * Gets the zero based page number
+     *
+     * @return the page number
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Gets the page size
+     *
+     * @return the page size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the index of the first element of the page
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return Math.multiplyExact(page, size);
+    }
+
+    /**
+     * Gets the sort property
+     *
+     * @return the sort property
+     */
+    public String getSort() {
+        return sort;
+    }
+
+    /**
+     * Checks if the page is sorted in ascending order
+     *
+     * @return {@code true} if sorted in ascending order
+     */
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Creates the request for the next page
+     *
+     * @return the next page request
+     */
+    public PageRequest next() {
+        return new PageRequest(page + 1, size, sort, ascending);
+    }
+
+    /**
+     * Creates the request for the previous page
+     *
+     * @return the previous page request
+     * @throws IllegalArgumentException if this is the first page
+     */
+    public PageRequest previous() {
+        return new PageRequest(page - 1, size, sort, ascending);
+    }
+
+    /**
+     * Formats the sort in the format accepted by {@link #of(int, int, String)}
+     *
+     * @return the sort
+     */
+    public String getSortParameter() {
+        return sort + SORT_SEPARATOR + (ascending ? ASCENDING : DESCENDING);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "PageRequest{" +
+                "page=" + page +
+                ", size=" + size +
+                ", sort=" + getSortParameter() +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package org.academiadecodigo.javabank.domain;
+
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.academiadecodigo.javabank.persistence.model.journal.Posting;
+
+import java.util.Date;
+
+/**
+ * A read-only view of a money movement on an account, projected from its {@link Posting}
+ */
+public class Transaction {
+
+    private final Long id;
+    private final Date time;
+    private final JournalEntryType type;
+    private final Money amount;
+
+    /**
+     * Initializes a new transaction, used by the query projections
+     *
+     * @param id     the posting id
+     * @param time   the posting creation time
+     * @param type   the journal entry type
+     * @param amount the signed amount in cents
+     */
+    public Transaction(Long id, Date time, JournalEntryType type, long amount) {
+        this.id = id;
+        this.time = time;
+        this.type = type;
+        this.amount = Money.ofCents(amount);
+    }
+
+    /**
+     * Gets the transaction id
+     *
+     * @return the transaction id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the transaction time
+     *
+     * @return the transaction time
+     */
+    public Date getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the transaction type
+     *
+     * @return the transaction type
+     */
+    public JournalEntryType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the transaction amount
+     *
+     * @return the amount, negative if money left the account
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "Transaction{" +
+                "id=" + id +
+                ", time=" + time +
+                ", type=" + type +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,110 @@
+package org.academiadecodigo.javabank.domain;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * An immutable position in the transaction history of an account, pointing at the last transaction seen
+ * <p>
+ * The history is ordered by time and then by id, so the next page is found by seeking past this position
+ * in the index rather than by counting and skipping the rows before it.
+ */
+public final class TransactionCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final Date time;
+    private final Long id;
+
+    private TransactionCursor(Date time, Long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor pointing at a transaction
+     *
+     * @param transaction the last transaction seen
+     * @return the cursor
+     */
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getTime(), transaction.getId());
+    }
+
+    /**
+     * Parses a cursor in the format produced by {@link #toString()}
+     *
+     * @param cursor the cursor to parse
+     * @return the cursor
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public static TransactionCursor parse(String cursor) {
+
+        String[] parts = cursor == null ? new String[0] : cursor.split(SEPARATOR);
+
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Cursor is not valid: " + cursor);
+        }
+
+        try {
+            return new TransactionCursor(new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Cursor is not valid: " + cursor, ex);
+        }
+    }
+
+    /**
+     * Gets the time of the last transaction seen
+     *
+     * @return the transaction time
+     */
+    public Date getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the id of the last transaction seen
+     *
+     * @return the transaction id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        TransactionCursor that = (TransactionCursor) o;
+        return time.equals(that.time) && id.equals(that.id);
+    }
+
+    /**
+     * @see Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, id);
+    }
+
+    /**
+     * Formats the cursor as the transaction time in epoch milliseconds and the transaction id
+     *
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return time.getTime() + SEPARATOR + id;
+    }
+}
@@ -10,7 +10,7 @@ public class Transfer {
 
     private Integer srcId;
     private Integer dstId;
-    private Double amount;
+    private Money amount;
 
     /**
      * Gets the id of the source account
@@ -53,7 +53,7 @@ public class Transfer {
      *
      * @return the  transfer amount
      */
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
@@ -62,7 +62,7 @@ public class Transfer {
      *
      * @param amount the amount to set
      */
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
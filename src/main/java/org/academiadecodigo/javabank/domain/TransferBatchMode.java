@@ -0,0 +1,17 @@
+package org.academiadecodigo.javabank.domain;
+
+/**
+ * How a batch of transfers handles the transfers which can not be performed
+ */
+public enum TransferBatchMode {
+
+    /**
+     * Performs the batch only if every transfer can be performed, otherwise none is
+     */
+    ALL_OR_NOTHING,
+
+    /**
+     * Performs every transfer which can be performed, skipping the others
+     */
+    BEST_EFFORT
+}
@@ -0,0 +1,24 @@
+package org.academiadecodigo.javabank.domain;
+
+/**
+ * How a transfer keeps concurrent transfers from losing updates to the balances of its accounts
+ */
+public enum TransferLockMode {
+
+    /**
+     * Debits and credits the accounts with single conditional updates, which lock their rows until the transfer
+     * ends, so a destination with a lower id than the source is locked before the debit
+     */
+    CONDITIONAL_UPDATE,
+
+    /**
+     * Updates the loaded accounts, failing on a version conflict if another transaction updated them first
+     */
+    OPTIMISTIC,
+
+    /**
+     * Locks the accounts for writing as they are loaded, in ascending id order so that concurrent transfers
+     * between the same accounts wait for each other instead of deadlocking
+     */
+    PESSIMISTIC
+}
@@ -0,0 +1,97 @@
+package org.academiadecodigo.javabank.domain;
+
+/**
+ * The outcome of a single {@link Transfer} of a batch
+ */
+public class TransferResult {
+
+    private final Transfer transfer;
+    private final Status status;
+
+    /**
+     * Initializes a new transfer result
+     *
+     * @param transfer the transfer
+     * @param status   the transfer outcome
+     */
+    public TransferResult(Transfer transfer, Status status) {
+        this.transfer = transfer;
+        this.status = status;
+    }
+
+    /**
+     * Gets the transfer
+     *
+     * @return the transfer
+     */
+    public Transfer getTransfer() {
+        return transfer;
+    }
+
+    /**
+     * Gets the transfer outcome
+     *
+     * @return the transfer status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the transfer was performed
+     *
+     * @return {@code true} if the transfer was performed
+     */
+    public boolean isTransferred() {
+        return status == Status.TRANSFERRED;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "TransferResult{" +
+                "srcId=" + transfer.getSrcId() +
+                ", dstId=" + transfer.getDstId() +
+                ", amount=" + transfer.getAmount() +
+                ", status=" + status +
+                '}';
+    }
+
+    /**
+     * The possible transfer outcomes
+     */
+    public enum Status {
+
+        /**
+         * The transfer was performed
+         */
+        TRANSFERRED,
+
+        /**
+         * An account does not exist, or may not be used by the customer
+         */
+        ACCOUNT_NOT_FOUND,
+
+        /**
+         * The account rules do not allow the transfer
+         */
+        TRANSACTION_INVALID,
+
+        /**
+         * The transfer was possible, but not performed as other transfers of its batch were not
+         */
+        NOT_PERFORMED,
+
+        /**
+         * The transfer was queued and is not performed yet
+         */
+        PENDING,
+
+        /**
+         * The queued transfer kept failing with an error, and was given up without being performed
+         */
+        FAILED
+    }
+}
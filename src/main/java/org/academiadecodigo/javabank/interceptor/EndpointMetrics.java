@@ -0,0 +1,95 @@
+package org.academiadecodigo.javabank.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The request counters and latencies of a single handler method
+ */
+public class EndpointMetrics {
+
+    private final String handler;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+
+    /**
+     * Initializes the metrics of a handler method
+     *
+     * @param method the handler method
+     */
+    public EndpointMetrics(Method method) {
+        this.handler = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+    }
+
+    /**
+     * Gets the handler name, as the controller and method names
+     *
+     * @return the handler name
+     */
+    public String getHandler() {
+        return handler;
+    }
+
+    /**
+     * Gets the number of completed requests
+     *
+     * @return the number of requests
+     */
+    public long getRequests() {
+        return getLatency().getCount();
+    }
+
+    /**
+     * Gets the number of requests being handled
+     *
+     * @return the number of requests in flight
+     */
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * Gets the number of completed requests with a client error status
+     *
+     * @return the number of client errors
+     */
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    /**
+     * Gets the number of completed requests with a server error status, or which threw an exception
+     *
+     * @return the number of server errors
+     */
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    /**
+     * Gets the latencies of the completed requests
+     *
+     * @return a snapshot of the latencies
+     */
+    public LatencyHistogram.Snapshot getLatency() {
+        return latency.snapshot();
+    }
+
+    void started() {
+        inFlight.increment();
+    }
+
+    void completed(int status, long micros) {
+
+        inFlight.decrement();
+        latency.record(micros);
+
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        }
+    }
+}
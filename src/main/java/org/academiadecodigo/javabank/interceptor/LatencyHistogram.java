@@ -0,0 +1,226 @@
+package org.academiadecodigo.javabank.interceptor;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed buckets, recorded into without locks nor allocations
+ * <p>
+ * The bucket bounds follow a 1-2.5-5 series from 100 microseconds to 10 seconds, which are the bounds
+ * exposed to Prometheus as they are, so percentiles are estimated by interpolating within a bucket.
+ */
+public class LatencyHistogram {
+
+    // upper bounds of the buckets in microseconds, the last bucket counts everything above
+    private static final long[] BOUNDS = {
+            100, 250, 500,
+            1_000, 2_500, 5_000,
+            10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000,
+            10_000_000
+    };
+
+    private final LongAdder[] counts = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Initializes a new empty histogram
+     */
+    public LatencyHistogram() {
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param micros the latency in microseconds
+     */
+    public void record(long micros) {
+
+        int bucket = 0;
+        while (bucket < BOUNDS.length && micros > BOUNDS[bucket]) {
+            bucket++;
+        }
+
+        counts[bucket].increment();
+        sum.add(micros);
+
+        long current;
+        while (micros > (current = max.get()) && !max.compareAndSet(current, micros)) {
+            // another thread raised the maximum meanwhile, compare again
+        }
+    }
+
+    /**
+     * Takes a snapshot of the histogram, which may miss latencies recorded while it is taken
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+
+        long[] snapshotCounts = new long[counts.length];
+
+        for (int i = 0; i < counts.length; i++) {
+            snapshotCounts[i] = counts[i].sum();
+        }
+
+        return new Snapshot(snapshotCounts, sum.sum(), max.get());
+    }
+
+    /**
+     * A point in time copy of a {@link LatencyHistogram}, with its latencies in milliseconds
+     */
+    public static class Snapshot {
+
+        public static final double MICROS_PER_MILLI = 1000.0;
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long sum, long max) {
+
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+
+            this.counts = counts;
+            this.count = total;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Gets the number of latencies recorded
+         *
+         * @return the number of latencies
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the sum of the latencies recorded
+         *
+         * @return the sum of the latencies, in milliseconds
+         */
+        public double getSum() {
+            return sum / MICROS_PER_MILLI;
+        }
+
+        /**
+         * Gets the mean latency
+         *
+         * @return the mean latency, in milliseconds
+         */
+        public double getMean() {
+            return count == 0 ? 0 : sum / MICROS_PER_MILLI / count;
+        }
+
+        /**
+         * Gets the highest latency recorded
+         *
+         * @return the highest latency, in milliseconds
+         */
+        public double getMax() {
+            return max / MICROS_PER_MILLI;
+        }
+
+        /**
+         * Gets the estimated median latency
+         *
+         * @return the median latency, in milliseconds
+         */
+        public double getP50() {
+            return percentile(50);
+        }
+
+        /**
+         * Gets the estimated 90th percentile latency
+         *
+         * @return the 90th percentile latency, in milliseconds
+         */
+        public double getP90() {
+            return percentile(90);
+        }
+
+        /**
+         * Gets the estimated 99th percentile latency
+         *
+         * @return the 99th percentile latency, in milliseconds
+         */
+        public double getP99() {
+            return percentile(99);
+        }
+
+        /**
+         * Gets the estimated 99.9th percentile latency
+         *
+         * @return the 99.9th percentile latency, in milliseconds
+         */
+        public double getP999() {
+            return percentile(99.9);
+        }
+
+        /**
+         * Estimates a percentile, interpolating linearly within the bucket it falls in
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the latency at the percentile, in milliseconds, never above the highest latency
+         */
+        public double percentile(double percentile) {
+
+            if (count == 0) {
+                return 0;
+            }
+
+            double rank = Math.max(1, Math.ceil(percentile / 100 * count));
+            long below = 0;
+
+            for (int i = 0; i < counts.length; i++) {
+
+                if (below + counts[i] >= rank) {
+
+                    long lower = i == 0 ? 0 : BOUNDS[i - 1];
+                    long upper = i < BOUNDS.length ? Math.min(BOUNDS[i], max) : max;
+                    double latency = lower + (upper - lower) * (rank - below) / counts[i];
+
+                    return Math.min(latency, max) / MICROS_PER_MILLI;
+                }
+
+                below += counts[i];
+            }
+
+            return getMax();
+        }
+
+        /**
+         * Gets the upper bounds of the buckets, the last bucket having no bound
+         *
+         * @return the bucket bounds, in microseconds
+         */
+        @JsonIgnore
+        public long[] getBounds() {
+            return BOUNDS.clone();
+        }
+
+        /**
+         * Gets the number of latencies in each bucket
+         *
+         * @return the bucket counts
+         */
+        @JsonIgnore
+        public long[] getCounts() {
+            return counts.clone();
+        }
+    }
+}
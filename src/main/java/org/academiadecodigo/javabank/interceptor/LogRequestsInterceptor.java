@@ -9,13 +9,48 @@ import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.logging.log4j.util.Unbox.box;
 
 /**
- * A {@link HandlerInterceptorAdapter} responsible for the logging of http requests
+ * A {@link HandlerInterceptorAdapter} responsible for the logging of http requests and for recording the
+ * latency, errors and requests in flight of each handler method
+ * <p>
+ * Recording takes no locks and, once a handler has been seen, allocates nothing but the start time
+ * kept in the request. Completed requests are logged as key value pairs to the {@value #ACCESS_LOGGER}
+ * logger, whose parameters are boxed without allocations so that the asynchronous loggers stay garbage free.
  */
 @Component
 public class LogRequestsInterceptor extends HandlerInterceptorAdapter {
 
+    public static final String START_TIME_ATTRIBUTE = LogRequestsInterceptor.class.getName() + ".startTime";
+    public static final String ACCESS_LOGGER = "javabank.access";
+
+    private static final Logger accessLogger = LogManager.getLogger(ACCESS_LOGGER);
+
+    private final ConcurrentMap<Method, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the metrics of each handler method requested so far
+     *
+     * @return the metrics by handler name
+     */
+    public Map<String, EndpointMetrics> getMetrics() {
+
+        Map<String, EndpointMetrics> result = new TreeMap<>();
+        for (EndpointMetrics endpoint : metrics.values()) {
+            result.put(endpoint.getHandler(), endpoint);
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
     /**
      * @see HandlerInterceptorAdapter#preHandle(HttpServletRequest, HttpServletResponse, Object)
      */
@@ -26,10 +61,49 @@ public class LogRequestsInterceptor extends HandlerInterceptorAdapter {
             return true;
         }
 
-        HandlerMethod handlerMethod = (HandlerMethod) handler;
-        Method method = handlerMethod.getMethod();
-        Logger logger = LogManager.getLogger(method.getDeclaringClass());
-        logger.info(request.getMethod() + " " + request.getServletPath());
+        // the dispatch resuming an asynchronous request is the same request, already started
+        if (request.getAttribute(START_TIME_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        metricsOf((HandlerMethod) handler).started();
+
+        request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
         return true;
     }
+
+    /**
+     * @see HandlerInterceptorAdapter#afterCompletion(HttpServletRequest, HttpServletResponse, Object, Exception)
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+
+        Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+
+        if (!(handler instanceof HandlerMethod) || startTime == null) {
+            return;
+        }
+
+        request.removeAttribute(START_TIME_ATTRIBUTE);
+
+        // an exception escaping the handler becomes a server error, unless a resolver set an error status
+        int status = ex != null && response.getStatus() < 400 ?
+                HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - (Long) startTime);
+        EndpointMetrics endpoint = metricsOf((HandlerMethod) handler);
+        endpoint.completed(status, micros);
+
+        accessLogger.info("method={} path={} handler={} status={} micros={}", request.getMethod(),
+                request.getServletPath(), endpoint.getHandler(), box(status), box(micros));
+    }
+
+    private EndpointMetrics metricsOf(HandlerMethod handler) {
+
+        Method method = handler.getMethod();
+        EndpointMetrics endpoint = metrics.get(method);
+
+        // computeIfAbsent locks the map bin even when the handler is already there
+        return endpoint != null ? endpoint : metrics.computeIfAbsent(method, EndpointMetrics::new);
+    }
 }
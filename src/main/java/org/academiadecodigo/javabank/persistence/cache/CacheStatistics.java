@@ -0,0 +1,67 @@
+package org.academiadecodigo.javabank.persistence.cache;
+
+import org.springframework.stereotype.Component;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads the statistics of the second level cache regions, as published by the jcache provider
+ * <p>
+ * The statistics are those of the provider rather than hibernate's, so that hibernate statistics, which
+ * count every session and statement, can stay off.
+ */
+@Component
+public class CacheStatistics {
+
+    public static final String STATISTICS_BEANS = "javax.cache:type=CacheStatistics,*";
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * Gets the statistics of each cache region, none if the second level cache is not enabled
+     *
+     * @return the statistics by region name
+     */
+    public Map<String, RegionStatistics> getRegions() {
+
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+
+        try {
+
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName(STATISTICS_BEANS), null)) {
+
+                RegionStatistics statistics = new RegionStatistics();
+
+                try {
+                    statistics.setHits(read(name, "CacheHits"));
+                    statistics.setMisses(read(name, "CacheMisses"));
+                    statistics.setPuts(read(name, "CachePuts"));
+                    statistics.setRemovals(read(name, "CacheRemovals"));
+                    statistics.setEvictions(read(name, "CacheEvictions"));
+
+                } catch (InstanceNotFoundException ex) {
+                    // the region was closed meanwhile
+                    continue;
+                }
+
+                regions.put(name.getKeyProperty("Cache"), statistics);
+            }
+
+        } catch (JMException ex) {
+            throw new IllegalStateException("Cache statistics can not be read", ex);
+        }
+
+        return Collections.unmodifiableMap(regions);
+    }
+
+    private long read(ObjectName name, String attribute) throws JMException {
+        return ((Number) mBeanServer.getAttribute(name, attribute)).longValue();
+    }
+}
@@ -0,0 +1,112 @@
+package org.academiadecodigo.javabank.persistence.cache;
+
+/**
+ * The statistics of a second level cache region
+ */
+public class RegionStatistics {
+
+    private long hits;
+    private long misses;
+    private long puts;
+    private long removals;
+    private long evictions;
+
+    /**
+     * Gets the number of lookups which found an entry
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Sets the number of lookups which found an entry
+     *
+     * @param hits the number of hits to set
+     */
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * Gets the number of lookups which found no entry
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Sets the number of lookups which found no entry
+     *
+     * @param misses the number of misses to set
+     */
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * Gets the number of entries stored
+     *
+     * @return the number of puts
+     */
+    public long getPuts() {
+        return puts;
+    }
+
+    /**
+     * Sets the number of entries stored
+     *
+     * @param puts the number of puts to set
+     */
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    /**
+     * Gets the number of entries invalidated, as their entities changed
+     *
+     * @return the number of removals
+     */
+    public long getRemovals() {
+        return removals;
+    }
+
+    /**
+     * Sets the number of entries invalidated
+     *
+     * @param removals the number of removals to set
+     */
+    public void setRemovals(long removals) {
+        this.removals = removals;
+    }
+
+    /**
+     * Gets the number of entries evicted to keep the region within its size
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Sets the number of entries evicted to keep the region within its size
+     *
+     * @param evictions the number of evictions to set
+     */
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    /**
+     * Gets the share of lookups which found an entry
+     *
+     * @return the hit ratio, between 0 and 1
+     */
+    public double getHitRatio() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+}
@@ -1,9 +1,146 @@
 package org.academiadecodigo.javabank.persistence.dao;
 
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Common interface for account data access objects
  */
 public interface AccountDao extends Dao<Account> {
+
+    /**
+     * Gets many accounts, together with their customers, in a single operation
+     *
+     * @param ids the account ids
+     * @return the accounts found, in no particular order
+     */
+    List<Account> findByIds(Collection<Integer> ids);
+
+    /**
+     * Gets an account, together with its customer, locking it for writing until the end of the current unit of work
+     * <p>
+     * Callers locking many accounts must lock them in ascending id order, so that two units of work never wait
+     * on each other. The account must be locked before it is read in the current unit of work.
+     *
+     * @param id      the account id
+     * @param timeout the lock timeout in milliseconds, zero not to wait at all, or negative to wait as long as
+     *                the data store does
+     * @return the account, or {@code null} if it does not exist
+     */
+    Account findByIdForUpdate(Integer id, int timeout);
+
+    /**
+     * Locks an account for writing until the end of the current unit of work, without reading it
+     * <p>
+     * Instances of the account previously loaded in the current unit of work are left as they are, so the account
+     * may be locked after it is read.
+     *
+     * @param id the account id
+     * @return {@code true} if the account was locked, {@code false} if it does not exist
+     */
+    boolean lock(Integer id);
+
+    /**
+     * Atomically debits an account, as long as the account rules allow it
+     * <p>
+     * The balance check and the update are performed by the data store in a single operation,
+     * so account instances previously loaded in the current unit of work are not updated. The slots of a split
+     * account are consolidated first if its own balance falls short.
+     *
+     * @param id     the account id
+     * @param amount the amount to debit, must be positive
+     * @return {@code true} if the account was debited, {@code false} if it has insufficient funds or does not exist
+     */
+    boolean debitIfSufficient(Integer id, Money amount);
+
+    /**
+     * Atomically credits an account
+     * <p>
+     * The update is performed by the data store in a single operation,
+     * so account instances previously loaded in the current unit of work are not updated.
+     *
+     * @param id     the account id
+     * @param amount the amount to credit, must be positive
+     * @return {@code true} if the account was credited, {@code false} if it does not exist
+     */
+    boolean credit(Integer id, Money amount);
+
+    /**
+     * Atomically credits one of the slots of a split account, without updating the account itself
+     * <p>
+     * The update is performed by the data store in a single operation,
+     * so account instances previously loaded in the current unit of work are not updated.
+     *
+     * @param id     the account id
+     * @param slot   the slot, from zero to the number of slots of the account minus one
+     * @param amount the amount to credit, must be positive
+     * @return {@code true} if the slot was credited, {@code false} if the account does not have it
+     */
+    boolean creditSlot(Integer id, int slot, Money amount);
+
+    /**
+     * Moves the balance of the slots of an account into the account balance, leaving the account balance
+     * including its slots as it was
+     *
+     * @param id the account id
+     * @return the amount moved, zero if the account is not split or its slots are empty
+     */
+    Money consolidate(Integer id);
+
+    /**
+     * Splits the balance of an account into a number of slots, consolidating the slots it had before
+     *
+     * @param id    the account id
+     * @param slots the number of slots, zero to merge the slots back into the account
+     * @return {@code true} if the account was split, {@code false} if it does not exist
+     */
+    boolean split(Integer id, int slots);
+
+    /**
+     * Gets the ids of the split accounts
+     *
+     * @return the ids of the accounts with slots, in ascending order
+     */
+    List<Integer> findSplitIds();
+
+    /**
+     * Gets the id of the customer owning an account, without loading the account
+     *
+     * @param id the account id
+     * @return the customer id, or {@code null} if the account does not exist or has no customer
+     */
+    Integer findCustomerId(Integer id);
+
+    /**
+     * Gets the total balance of the accounts of a customer, summed by the data store without loading the accounts
+     *
+     * @param customerId the customer id
+     * @return the customer balance, or {@code null} if the customer owns no accounts or does not exist
+     */
+    Money getCustomerBalance(Integer customerId);
+
+    /**
+     * Gets the total balances of the accounts of many customers in a single operation
+     *
+     * @param customerIds the customer ids
+     * @return the balances by customer id, without the customers which own no accounts or do not exist
+     */
+    Map<Integer, Money> getCustomerBalances(Collection<Integer> customerIds);
+
+    /**
+     * Gets the total balances and numbers of accounts of one partition of the customers, so that
+     * the partitions can be read concurrently
+     * <p>
+     * Customers are split by the remainder of their id over the number of partitions.
+     *
+     * @param partition  the partition, from zero to the number of partitions minus one
+     * @param partitions the number of partitions
+     * @return the balances of the partition customers, without the customers which own no accounts
+     */
+    List<CustomerBalance> findCustomerBalances(int partition, int partitions);
 }
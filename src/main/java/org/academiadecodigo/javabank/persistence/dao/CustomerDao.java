@@ -1,9 +1,48 @@
 package org.academiadecodigo.javabank.persistence.dao;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 
 /**
  * Common interface for customer data access objects
+ * <p>
+ * {@link #findById(Integer)} loads the customer alone, the other finders load it together with what a
+ * use case needs, in a single query.
  */
 public interface CustomerDao extends Dao<Customer> {
+
+    /**
+     * Gets the customer together with its accounts
+     *
+     * @param id the customer id
+     * @return the customer, or {@code null} if not found
+     */
+    Customer findWithAccounts(Integer id);
+
+    /**
+     * Gets the customer together with its recipients
+     *
+     * @param id the customer id
+     * @return the customer, or {@code null} if not found
+     */
+    Customer findWithRecipients(Integer id);
+
+    /**
+     * Gets the customer summary, without loading the customer
+     *
+     * @param id the customer id
+     * @return the customer summary, or {@code null} if not found
+     */
+    CustomerSummary findSummary(Integer id);
+
+    /**
+     * Gets a page of customer summaries, without loading the customer accounts or recipients
+     *
+     * @param pageRequest the page request, sorted by a single valued customer property
+     * @return the customer summary page
+     * @throws IllegalArgumentException if the sort property is not a single valued customer property
+     */
+    Page<CustomerSummary> findSummaries(PageRequest pageRequest);
 }
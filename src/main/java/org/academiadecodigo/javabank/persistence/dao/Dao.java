@@ -1,5 +1,7 @@
 package org.academiadecodigo.javabank.persistence.dao;
 
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.persistence.model.Model;
 
 import java.util.List;
@@ -17,6 +19,15 @@ public interface Dao<T extends Model> {
      */
     List<T> findAll();
 
+    /**
+     * Gets a page of the model type
+     *
+     * @param pageRequest the page request, sorted by a single valued model property
+     * @return the model page
+     * @throws IllegalArgumentException if the sort property is not a single valued model property
+     */
+    Page<T> findAll(PageRequest pageRequest);
+
     /**
      * Gets the model
      *
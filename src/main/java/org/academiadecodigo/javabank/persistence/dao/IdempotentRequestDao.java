@@ -0,0 +1,42 @@
+package org.academiadecodigo.javabank.persistence.dao;
+
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+
+import java.util.Date;
+
+/**
+ * Common interface for idempotent request data access objects
+ */
+public interface IdempotentRequestDao {
+
+    /**
+     * Gets an idempotent request
+     *
+     * @param key the idempotency key
+     * @return the idempotent request, or {@code null} if not found
+     */
+    IdempotentRequest findByKey(String key);
+
+    /**
+     * Adds an idempotent request
+     *
+     * @param request the idempotent request
+     * @throws RuntimeException if a request with the same key exists, possibly only once the transaction commits
+     */
+    void insert(IdempotentRequest request);
+
+    /**
+     * Deletes an idempotent request, if it exists
+     *
+     * @param key the idempotency key
+     */
+    void delete(String key);
+
+    /**
+     * Deletes the idempotent requests created before a given time
+     *
+     * @param time the time
+     * @return the number of deleted requests
+     */
+    int deleteCreatedBefore(Date time);
+}
@@ -0,0 +1,52 @@
+package org.academiadecodigo.javabank.persistence.dao;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Common interface for journal data access objects
+ * <p>
+ * The journal is append-only, entries are never updated nor deleted.
+ */
+public interface JournalDao {
+
+    /**
+     * Appends an entry, together with its postings, to the journal
+     *
+     * @param entry the journal entry to append
+     */
+    void append(JournalEntry entry);
+
+    /**
+     * Appends several entries, together with their postings, to the journal
+     *
+     * @param entries the journal entries to append
+     */
+    void appendAll(Collection<JournalEntry> entries);
+
+    /**
+     * Gets a page of the transactions of an account, most recent first
+     * <p>
+     * Pages are found by seeking past the last transaction seen, so reading deep into the history
+     * costs the same as reading its first page.
+     *
+     * @param accountId the account id
+     * @param after     the last transaction seen, or {@code null} for the first page
+     * @param size      the page size
+     * @return the transactions
+     */
+    List<Transaction> findTransactions(Integer accountId, TransactionCursor after, int size);
+
+    /**
+     * Gets the balance of an account, as the sum of all of its postings
+     *
+     * @param accountId the account id
+     * @return the account balance
+     */
+    Money getBalance(Integer accountId);
+}
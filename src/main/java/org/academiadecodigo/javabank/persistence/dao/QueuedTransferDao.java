@@ -0,0 +1,22 @@
+package org.academiadecodigo.javabank.persistence.dao;
+
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+
+import java.util.List;
+
+/**
+ * Common interface for queued transfer data access objects
+ */
+public interface QueuedTransferDao extends Dao<QueuedTransfer> {
+
+    /**
+     * Gets the oldest pending transfers of a partition of the queue, so that workers draining different
+     * partitions never pick the same transfers
+     *
+     * @param partition  the partition, from zero to the number of partitions
+     * @param partitions the number of partitions
+     * @param size       the maximum number of transfers
+     * @return the pending transfers, in submission order
+     */
+    List<QueuedTransfer> findPending(int partition, int partitions, int size);
+}
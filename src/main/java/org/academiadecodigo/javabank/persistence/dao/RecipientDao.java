@@ -2,8 +2,29 @@ package org.academiadecodigo.javabank.persistence.dao;
 
 import org.academiadecodigo.javabank.persistence.model.Recipient;
 
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * Common interface for recipient data access objects
  */
 public interface RecipientDao extends Dao<Recipient> {
+
+    /**
+     * Checks if an account is in the recipient list of a customer, without loading the recipients
+     *
+     * @param customerId    the customer id
+     * @param accountNumber the recipient account number
+     * @return {@code true} if the customer has a recipient with the given account number
+     */
+    boolean exists(Integer customerId, Integer accountNumber);
+
+    /**
+     * Checks which of many accounts are in the recipient list of a customer, in a single operation
+     *
+     * @param customerId     the customer id
+     * @param accountNumbers the recipient account numbers to check
+     * @return the account numbers the customer has recipients for
+     */
+    Set<Integer> findAccountNumbers(Integer customerId, Collection<Integer> accountNumbers);
 }
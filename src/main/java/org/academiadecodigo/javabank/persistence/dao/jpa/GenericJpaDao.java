@@ -1,12 +1,19 @@
 package org.academiadecodigo.javabank.persistence.dao.jpa;
 
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.persistence.dao.Dao;
 import org.academiadecodigo.javabank.persistence.model.Model;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -54,6 +61,65 @@ public abstract class GenericJpaDao<T extends Model> implements Dao<T> {
         // return em.createQuery( "from " + modelType.getSimpleName(), modelType).getResultList();
     }
 
+    /**
+     * @see Dao#findAll(PageRequest)
+     */
+    @Override
+    public Page<T> findAll(PageRequest pageRequest) {
+
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = builder.createQuery(modelType);
+        Root<T> root = criteriaQuery.from(modelType);
+        criteriaQuery.select(root).orderBy(orderBy(builder, root, pageRequest));
+
+        return findPage(criteriaQuery, pageRequest);
+    }
+
+    /**
+     * Builds the ordering of a page request, ending with the id so that rows with equal sort values keep
+     * the same order across pages
+     *
+     * @param builder     the criteria builder
+     * @param root        the query root
+     * @param pageRequest the page request
+     * @return the ordering
+     * @throws IllegalArgumentException if the sort property is not a single valued model property
+     */
+    protected List<Order> orderBy(CriteriaBuilder builder, Root<T> root, PageRequest pageRequest) {
+
+        // only single valued properties are sortable, which also rules out sorting on collections
+        SingularAttribute<? super T, ?> attribute =
+                em.getMetamodel().entity(modelType).getSingularAttribute(pageRequest.getSort());
+
+        Path<?> path = root.get(attribute);
+        List<Order> orders = new ArrayList<>();
+        orders.add(pageRequest.isAscending() ? builder.asc(path) : builder.desc(path));
+
+        if (!attribute.isId()) {
+            orders.add(builder.asc(root.get("id")));
+        }
+
+        return orders;
+    }
+
+    /**
+     * Fetches a page of results, with one extra row telling whether another page follows
+     *
+     * @param criteriaQuery the ordered query
+     * @param pageRequest   the page request
+     * @param <R>           the result type
+     * @return the page
+     */
+    protected <R> Page<R> findPage(CriteriaQuery<R> criteriaQuery, PageRequest pageRequest) {
+
+        List<R> rows = em.createQuery(criteriaQuery)
+                .setFirstResult(pageRequest.getOffset())
+                .setMaxResults(pageRequest.getSize() + 1)
+                .getResultList();
+
+        return Page.of(rows, pageRequest);
+    }
+
     /**
      * @see Dao#findById(Integer)
      */
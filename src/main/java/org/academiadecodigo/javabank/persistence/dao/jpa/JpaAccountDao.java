@@ -1,19 +1,369 @@
 package org.academiadecodigo.javabank.persistence.dao.jpa;
 
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.persistence.dao.AccountDao;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.AccountSlot;
+import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.hibernate.LockOptions;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * A JPA {@link AccountDao} implementation
  */
 @Repository
+@Profile("!memory")
 public class JpaAccountDao extends GenericJpaDao<Account> implements AccountDao {
 
+    // native sql, since hibernate does not resolve TYPE() inside bulk updates,
+    // the balance floor of each account type must match Account#canDebit and its overrides
+    private static final String DEBIT_IF_SUFFICIENT =
+            "UPDATE account SET balance = balance - :amount, version = version + 1, updateTime = CURRENT_TIMESTAMP " +
+                    "WHERE id = :id AND balance - :amount >= " +
+                    "CASE account_type WHEN 'SavingsAccount' THEN :savingsMinBalance ELSE 0 END";
+
+    private static final String CREDIT =
+            "UPDATE account SET balance = balance + :amount, version = version + 1, updateTime = CURRENT_TIMESTAMP " +
+                    "WHERE id = :id";
+
+    private static final String CREDIT_SLOT =
+            "UPDATE account_slot SET balance = balance + :amount WHERE accountId = :id AND slot = :slot";
+
+    // the account row is locked before its slots, as a debit falling short already holds it
+    private static final String LOCK_SLOT_COUNT = "SELECT slots FROM account WHERE id = :id FOR UPDATE";
+
+    private static final String LOCK_SLOT_BALANCES =
+            "SELECT balance FROM account_slot WHERE accountId = :id ORDER BY slot FOR UPDATE";
+
+    private static final String EMPTY_SLOTS = "UPDATE account_slot SET balance = 0 WHERE accountId = :id";
+
+    private static final String DELETE_SLOTS = "DELETE FROM account_slot WHERE accountId = :id";
+
+    private static final String SET_SLOTS =
+            "UPDATE account SET slots = :slots, version = version + 1, updateTime = CURRENT_TIMESTAMP WHERE id = :id";
+
+    private static final String FIND_SPLIT_IDS = "SELECT DISTINCT s.accountId FROM AccountSlot s ORDER BY s.accountId";
+
+    private static final String FIND_BY_IDS = "SELECT a FROM Account a LEFT JOIN FETCH a.customer WHERE a.id IN :ids";
+
+    // neither the version nor the entity are read, so a loaded account is not checked or refreshed
+    private static final String LOCK = "SELECT id FROM account WHERE id = :id FOR UPDATE";
+
+    // a space no entity is mapped to, so that a balance update does not evict every cached account
+    private static final String BALANCE_QUERY_SPACE = "account_balance";
+
+    // no join, the customer row is not locked, and h2 does not lock joined rows
+    private static final String FIND_BY_ID_FOR_UPDATE = "SELECT a FROM Account a WHERE a.id = :id";
+
+    private static final String LOCK_TIMEOUT = "javax.persistence.lock.timeout";
+
+    private static final String FIND_CUSTOMER_ID = "SELECT a.customer.id FROM Account a WHERE a.id = :id";
+
+    private static final String GET_CUSTOMER_BALANCE =
+            "SELECT SUM(a.balance + a.slotBalance) FROM Account a WHERE a.customer.id = :customerId";
+
+    private static final String GET_CUSTOMER_BALANCES =
+            "SELECT a.customer.id, SUM(a.balance + a.slotBalance) FROM Account a WHERE a.customer.id IN :customerIds " +
+                    "GROUP BY a.customer.id";
+
+    private static final String FIND_CUSTOMER_BALANCES =
+            "SELECT NEW org.academiadecodigo.javabank.domain.CustomerBalance(a.customer.id, SUM(a.balance + a.slotBalance), COUNT(a)) " +
+                    "FROM Account a WHERE MOD(a.customer.id, :partitions) = :partition GROUP BY a.customer.id";
+
     /**
      * @see GenericJpaDao#GenericJpaDao(Class)
      */
     public JpaAccountDao() {
         super(Account.class);
     }
+
+    /**
+     * @see AccountDao#debitIfSufficient(Integer, Money)
+     */
+    @Override
+    public boolean debitIfSufficient(Integer id, Money amount) {
+
+        if (debitBalanceIfSufficient(id, amount)) {
+            return true;
+        }
+
+        // the balance of a split account may only be enough together with its slots
+        return !consolidate(id).isZero() && debitBalanceIfSufficient(id, amount);
+    }
+
+    private boolean debitBalanceIfSufficient(Integer id, Money amount) {
+
+        return balanceUpdate(DEBIT_IF_SUFFICIENT, id)
+                .setParameter("amount", amount.getCents())
+                .setParameter("id", id)
+                .setParameter("savingsMinBalance", SavingsAccount.MIN_BALANCE.getCents())
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * @see AccountDao#credit(Integer, Money)
+     */
+    @Override
+    public boolean credit(Integer id, Money amount) {
+
+        return balanceUpdate(CREDIT, id)
+                .setParameter("amount", amount.getCents())
+                .setParameter("id", id)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * @see AccountDao#creditSlot(Integer, int, Money)
+     */
+    @Override
+    public boolean creditSlot(Integer id, int slot, Money amount) {
+
+        return balanceUpdate(CREDIT_SLOT, id)
+                .setParameter("amount", amount.getCents())
+                .setParameter("id", id)
+                .setParameter("slot", slot)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Locks the account and then its slots, so that concurrent slot credits wait for the consolidation to commit
+     *
+     * @see AccountDao#consolidate(Integer)
+     */
+    @Override
+    public Money consolidate(Integer id) {
+
+        List<?> slots = em.createNativeQuery(LOCK_SLOT_COUNT)
+                .setParameter("id", id)
+                .getResultList();
+
+        if (slots.isEmpty() || ((Number) slots.get(0)).intValue() == 0) {
+            return Money.ZERO;
+        }
+
+        long moved = 0;
+        for (Object balance : em.createNativeQuery(LOCK_SLOT_BALANCES).setParameter("id", id).getResultList()) {
+            moved += ((Number) balance).longValue();
+        }
+
+        if (moved == 0) {
+            return Money.ZERO;
+        }
+
+        balanceUpdate(EMPTY_SLOTS, id)
+                .setParameter("id", id)
+                .executeUpdate();
+
+        balanceUpdate(CREDIT, id)
+                .setParameter("amount", moved)
+                .setParameter("id", id)
+                .executeUpdate();
+
+        return Money.ofCents(moved);
+    }
+
+    /**
+     * @see AccountDao#split(Integer, int)
+     */
+    @Override
+    public boolean split(Integer id, int slots) {
+
+        consolidate(id);
+
+        balanceUpdate(DELETE_SLOTS, id)
+                .setParameter("id", id)
+                .executeUpdate();
+
+        if (balanceUpdate(SET_SLOTS, id).setParameter("slots", slots).setParameter("id", id).executeUpdate() == 0) {
+            return false;
+        }
+
+        for (int slot = 0; slot < slots; slot++) {
+            em.persist(new AccountSlot(id, slot));
+        }
+
+        return true;
+    }
+
+    /**
+     * @see AccountDao#findSplitIds()
+     */
+    @Override
+    public List<Integer> findSplitIds() {
+        return em.createQuery(FIND_SPLIT_IDS, Integer.class)
+                .getResultList();
+    }
+
+    private NativeQuery<?> balanceUpdate(String sql, Integer id) {
+
+        // the query space does not name the tables of the pending changes, so they are written first
+        em.flush();
+        lockCachedAccount(id);
+
+        return em.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(BALANCE_QUERY_SPACE);
+    }
+
+    // as hibernate does for the entities it updates, the cached account is read from the database until the
+    // lock is released, and a load started before the release can not put the previous balance back
+    private void lockCachedAccount(Integer id) {
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Account.class);
+
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        Object key = cache.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+        SoftLock lock = cache.lockItem(session, key, null);
+
+        session.getActionQueue().registerProcess((success, completed) -> cache.unlockItem(completed, key, lock));
+    }
+
+    /**
+     * @see AccountDao#findCustomerId(Integer)
+     */
+    @Override
+    public Integer findCustomerId(Integer id) {
+
+        List<Integer> customerIds = em.createQuery(FIND_CUSTOMER_ID, Integer.class)
+                .setParameter("id", id)
+                .getResultList();
+
+        return customerIds.isEmpty() ? null : customerIds.get(0);
+    }
+
+    /**
+     * @see AccountDao#findByIds(Collection)
+     */
+    @Override
+    public List<Account> findByIds(Collection<Integer> ids) {
+
+        // an empty in list is not valid sql
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return em.createQuery(FIND_BY_IDS, Account.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Gets the account with a {@code select ... for update}, which bypasses the second level cache. Lock timeouts
+     * are passed to the dialect, which may only tell waiting from not waiting at all.
+     *
+     * @see AccountDao#findByIdForUpdate(Integer, int)
+     */
+    @Override
+    public Account findByIdForUpdate(Integer id, int timeout) {
+
+        List<Account> accounts = em.createQuery(FIND_BY_ID_FOR_UPDATE, Account.class)
+                .setParameter("id", id)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(LOCK_TIMEOUT, timeout < 0 ? LockOptions.WAIT_FOREVER : timeout)
+                .getResultList();
+
+        return accounts.isEmpty() ? null : accounts.get(0);
+    }
+
+    /**
+     * Locks the account row with a native {@code select ... for update}, waiting as long as the balance
+     * updates do
+     *
+     * @see AccountDao#lock(Integer)
+     */
+    @Override
+    public boolean lock(Integer id) {
+
+        return !em.createNativeQuery(LOCK)
+                .setParameter("id", id)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * @see AccountDao#getCustomerBalance(Integer)
+     */
+    @Override
+    public Money getCustomerBalance(Integer customerId) {
+
+        // the sum of no rows is null
+        Long balance = em.createQuery(GET_CUSTOMER_BALANCE, Long.class)
+                .setParameter("customerId", customerId)
+                .getSingleResult();
+
+        return balance == null ? null : Money.ofCents(balance);
+    }
+
+    /**
+     * @see AccountDao#getCustomerBalances(Collection)
+     */
+    @Override
+    public Map<Integer, Money> getCustomerBalances(Collection<Integer> customerIds) {
+
+        Map<Integer, Money> balances = new HashMap<>();
+
+        // an empty in list is not valid sql
+        if (customerIds.isEmpty()) {
+            return balances;
+        }
+
+        List<Object[]> rows = em.createQuery(GET_CUSTOMER_BALANCES, Object[].class)
+                .setParameter("customerIds", customerIds)
+                .getResultList();
+
+        for (Object[] row : rows) {
+            balances.put((Integer) row[0], Money.ofCents((Long) row[1]));
+        }
+
+        return balances;
+    }
+
+    /**
+     * @see AccountDao#findCustomerBalances(int, int)
+     */
+    @Override
+    public List<CustomerBalance> findCustomerBalances(int partition, int partitions) {
+        return em.createQuery(FIND_CUSTOMER_BALANCES, CustomerBalance.class)
+                .setParameter("partition", partition)
+                .setParameter("partitions", partitions)
+                .getResultList();
+    }
+
+    /**
+     * Deletes the account, unless it is owned by a customer, as owned accounts are closed through
+     * their customer instead
+     *
+     * @see GenericJpaDao#delete(Integer)
+     */
+    @Override
+    public void delete(Integer id) {
+
+        Account account = em.find(Account.class, id);
+
+        // owned accounts are removed as orphans when their customer closes them
+        if (account != null && account.getCustomer() != null) {
+            return;
+        }
+
+        em.remove(account);
+    }
 }
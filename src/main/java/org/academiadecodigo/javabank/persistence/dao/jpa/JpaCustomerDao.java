@@ -1,19 +1,99 @@
 package org.academiadecodigo.javabank.persistence.dao.jpa;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
 import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.hibernate.Hibernate;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
 /**
  * A JPA {@link CustomerDao} implementation
  */
 @Repository
+@Profile("!memory")
 public class JpaCustomerDao extends GenericJpaDao<Customer> implements CustomerDao {
 
+    private static final String LOAD_GRAPH = "javax.persistence.loadgraph";
+
+    private static final String FIND_SUMMARY =
+            "SELECT NEW org.academiadecodigo.javabank.domain.CustomerSummary(" +
+                    "c.id, c.firstName, c.lastName, c.email, c.phone) " +
+                    "FROM Customer c WHERE c.id = :id";
+
     /**
      * @see GenericJpaDao#GenericJpaDao(Class)
      */
     public JpaCustomerDao() {
         super(Customer.class);
     }
+
+    /**
+     * @see CustomerDao#findWithAccounts(Integer)
+     */
+    @Override
+    public Customer findWithAccounts(Integer id) {
+        return findWithGraph(id, Customer.WITH_ACCOUNTS, Customer::getAccounts);
+    }
+
+    /**
+     * @see CustomerDao#findWithRecipients(Integer)
+     */
+    @Override
+    public Customer findWithRecipients(Integer id) {
+        return findWithGraph(id, Customer.WITH_RECIPIENTS, Customer::getRecipients);
+    }
+
+    /**
+     * @see CustomerDao#findSummary(Integer)
+     */
+    @Override
+    public CustomerSummary findSummary(Integer id) {
+
+        List<CustomerSummary> summaries = em.createQuery(FIND_SUMMARY, CustomerSummary.class)
+                .setParameter("id", id)
+                .getResultList();
+
+        return summaries.isEmpty() ? null : summaries.get(0);
+    }
+
+    private Customer findWithGraph(Integer id, String graph, Function<Customer, List<?>> collection) {
+
+        // a customer already in the persistence context or read from the second level cache is returned
+        // without its graph, so the collection is initialized here instead, while the session is open
+        Customer customer = em.find(Customer.class, id, Collections.singletonMap(LOAD_GRAPH, em.getEntityGraph(graph)));
+
+        if (customer != null) {
+            Hibernate.initialize(collection.apply(customer));
+        }
+
+        return customer;
+    }
+
+    /**
+     * @see CustomerDao#findSummaries(PageRequest)
+     */
+    @Override
+    public Page<CustomerSummary> findSummaries(PageRequest pageRequest) {
+
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<CustomerSummary> criteriaQuery = builder.createQuery(CustomerSummary.class);
+        Root<Customer> root = criteriaQuery.from(Customer.class);
+
+        // selects the customer columns only, so no customer is managed and no association is loaded
+        criteriaQuery.select(builder.construct(CustomerSummary.class,
+                root.get("id"), root.get("firstName"), root.get("lastName"), root.get("email"), root.get("phone")))
+                .orderBy(orderBy(builder, root, pageRequest));
+
+        return findPage(criteriaQuery, pageRequest);
+    }
 }
@@ -0,0 +1,76 @@
+package org.academiadecodigo.javabank.persistence.dao.jpa;
+
+import org.academiadecodigo.javabank.persistence.dao.IdempotentRequestDao;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+/**
+ * A JPA {@link IdempotentRequestDao} implementation
+ */
+@Repository
+@Profile("!memory")
+public class JpaIdempotentRequestDao implements IdempotentRequestDao {
+
+    private static final String DELETE_CREATED_BEFORE =
+            "DELETE FROM IdempotentRequest r WHERE r.creationTime < :time";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Sets the entity manager
+     *
+     * @param em the entity manager to set
+     */
+    public void setEm(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Served by the second level cache once the request was seen
+     *
+     * @see IdempotentRequestDao#findByKey(String)
+     */
+    @Override
+    public IdempotentRequest findByKey(String key) {
+        return em.find(IdempotentRequest.class, key);
+    }
+
+    /**
+     * @see IdempotentRequestDao#insert(IdempotentRequest)
+     */
+    @Override
+    public void insert(IdempotentRequest request) {
+        em.persist(request);
+    }
+
+    /**
+     * @see IdempotentRequestDao#delete(String)
+     */
+    @Override
+    public void delete(String key) {
+
+        IdempotentRequest request = em.find(IdempotentRequest.class, key);
+
+        if (request != null) {
+            em.remove(request);
+        }
+    }
+
+    /**
+     * @see IdempotentRequestDao#deleteCreatedBefore(Date)
+     */
+    @Override
+    public int deleteCreatedBefore(Date time) {
+
+        return em.createQuery(DELETE_CREATED_BEFORE)
+                .setParameter("time", time, TemporalType.TIMESTAMP)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,140 @@
+package org.academiadecodigo.javabank.persistence.dao.jpa;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.persistence.model.journal.Posting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TemporalType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A JPA {@link JournalDao} implementation
+ * <p>
+ * Inserts are sent in JDBC batches of {@code hibernate.jdbc.batch_size} statements when the persistence
+ * context is flushed.
+ */
+@Repository
+@Profile("!memory")
+public class JpaJournalDao implements JournalDao {
+
+    private static final String SELECT_TRANSACTIONS =
+            "SELECT NEW org.academiadecodigo.javabank.domain.Transaction(p.id, p.creationTime, e.type, p.amount) " +
+                    "FROM Posting p JOIN p.entry e WHERE p.accountId = :accountId ";
+
+    // expanded form of (creationTime, id) < (:time, :id), which jpql does not support
+    private static final String AFTER_CURSOR =
+            "AND (p.creationTime < :time OR (p.creationTime = :time AND p.id < :id)) ";
+
+    private static final String ORDER_BY_MOST_RECENT = "ORDER BY p.creationTime DESC, p.id DESC";
+
+    private static final String GET_BALANCE =
+            "SELECT COALESCE(SUM(p.amount), 0) FROM Posting p WHERE p.accountId = :accountId";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private int batchSize = 50;
+
+    /**
+     * Sets the entity manager
+     *
+     * @param em the entity manager to set
+     */
+    public void setEm(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Sets the number of entries flushed at once when appending several entries
+     *
+     * @param batchSize the batch size
+     */
+    @Value("${jdbc.batch.size:50}")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @see JournalDao#append(JournalEntry)
+     */
+    @Override
+    public void append(JournalEntry entry) {
+        em.persist(entry);
+    }
+
+    /**
+     * @see JournalDao#appendAll(Collection)
+     */
+    @Override
+    public void appendAll(Collection<JournalEntry> entries) {
+
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+
+        for (JournalEntry entry : entries) {
+
+            em.persist(entry);
+            batch.add(entry);
+
+            // written entries are never read back, so keep the persistence context from growing
+            if (batch.size() == batchSize) {
+                em.flush();
+                detach(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * @see JournalDao#findTransactions(Integer, TransactionCursor, int)
+     */
+    @Override
+    public List<Transaction> findTransactions(Integer accountId, TransactionCursor after, int size) {
+
+        if (after == null) {
+            return em.createQuery(SELECT_TRANSACTIONS + ORDER_BY_MOST_RECENT, Transaction.class)
+                    .setParameter("accountId", accountId)
+                    .setMaxResults(size)
+                    .getResultList();
+        }
+
+        return em.createQuery(SELECT_TRANSACTIONS + AFTER_CURSOR + ORDER_BY_MOST_RECENT, Transaction.class)
+                .setParameter("accountId", accountId)
+                .setParameter("time", after.getTime(), TemporalType.TIMESTAMP)
+                .setParameter("id", after.getId())
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * @see JournalDao#getBalance(Integer)
+     */
+    @Override
+    public Money getBalance(Integer accountId) {
+
+        return Money.ofCents(em.createQuery(GET_BALANCE, Long.class)
+                .setParameter("accountId", accountId)
+                .getSingleResult());
+    }
+
+    private void detach(List<JournalEntry> entries) {
+
+        for (JournalEntry entry : entries) {
+
+            for (Posting posting : entry.getPostings()) {
+                em.detach(posting);
+            }
+
+            em.detach(entry);
+        }
+    }
+}
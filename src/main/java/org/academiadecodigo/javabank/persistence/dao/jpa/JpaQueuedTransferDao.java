@@ -0,0 +1,43 @@
+package org.academiadecodigo.javabank.persistence.dao.jpa;
+
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.dao.QueuedTransferDao;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * A JPA {@link QueuedTransferDao} implementation
+ */
+@Repository
+@Profile("!memory")
+public class JpaQueuedTransferDao extends GenericJpaDao<QueuedTransfer> implements QueuedTransferDao {
+
+    // served by the queued_transfer_status_idx index, which only holds a few pending rows at a time
+    private static final String FIND_PENDING =
+            "SELECT q FROM QueuedTransfer q WHERE q.status = :status AND MOD(q.id, :partitions) = :partition " +
+                    "ORDER BY q.id";
+
+    /**
+     * @see GenericJpaDao#GenericJpaDao(Class)
+     */
+    public JpaQueuedTransferDao() {
+        super(QueuedTransfer.class);
+    }
+
+    /**
+     * @see QueuedTransferDao#findPending(int, int, int)
+     */
+    @Override
+    public List<QueuedTransfer> findPending(int partition, int partitions, int size) {
+
+        return em.createQuery(FIND_PENDING, QueuedTransfer.class)
+                .setParameter("status", TransferResult.Status.PENDING)
+                .setParameter("partitions", partitions)
+                .setParameter("partition", partition)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
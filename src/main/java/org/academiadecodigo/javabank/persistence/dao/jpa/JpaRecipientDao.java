@@ -2,18 +2,63 @@ package org.academiadecodigo.javabank.persistence.dao.jpa;
 
 import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
 import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * A JPA {@link RecipientDao} implementation
  */
 @Repository
+@Profile("!memory")
 public class JpaRecipientDao extends GenericJpaDao<Recipient> implements RecipientDao {
 
+    // served by the recipient_customer_account_idx index, stopping at the first match
+    private static final String EXISTS =
+            "SELECT r.id FROM Recipient r WHERE r.customer.id = :customerId AND r.accountNumber = :accountNumber";
+
+    private static final String FIND_ACCOUNT_NUMBERS =
+            "SELECT r.accountNumber FROM Recipient r WHERE r.customer.id = :customerId " +
+                    "AND r.accountNumber IN :accountNumbers";
+
     /**
      * @see GenericJpaDao#GenericJpaDao(Class)
      */
     public JpaRecipientDao() {
         super(Recipient.class);
     }
+
+    /**
+     * @see RecipientDao#exists(Integer, Integer)
+     */
+    @Override
+    public boolean exists(Integer customerId, Integer accountNumber) {
+
+        return !em.createQuery(EXISTS, Integer.class)
+                .setParameter("customerId", customerId)
+                .setParameter("accountNumber", accountNumber)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * @see RecipientDao#findAccountNumbers(Integer, Collection)
+     */
+    @Override
+    public Set<Integer> findAccountNumbers(Integer customerId, Collection<Integer> accountNumbers) {
+
+        // an empty in list is not valid sql
+        if (accountNumbers.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(em.createQuery(FIND_ACCOUNT_NUMBERS, Integer.class)
+                .setParameter("customerId", customerId)
+                .setParameter("accountNumbers", accountNumbers)
+                .getResultList());
+    }
 }
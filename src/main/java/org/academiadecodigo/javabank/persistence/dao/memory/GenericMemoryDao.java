@@ -0,0 +1,174 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
+import org.academiadecodigo.javabank.persistence.dao.Dao;
+import org.academiadecodigo.javabank.persistence.model.AbstractModel;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * A generic in-memory data access object to be used as a base for concrete in-memory dao implementations
+ * <p>
+ * Models are kept by id in a concurrent map and ids are handed out by an atomic counter, so lookups and
+ * inserts take constant time from any thread. The stored instances are the ones returned to the callers,
+ * as there is no persistence context to copy them from.
+ *
+ * @param <T> the model type
+ * @see Dao
+ */
+public abstract class GenericMemoryDao<T extends AbstractModel> implements Dao<T> {
+
+    protected final ConcurrentMap<Integer, T> models = new ConcurrentHashMap<>();
+
+    private final AtomicInteger lastId = new AtomicInteger();
+    private final Class<T> modelType;
+
+    /**
+     * Initializes a new in-memory DAO instance given a model type
+     *
+     * @param modelType the model type
+     */
+    public GenericMemoryDao(Class<T> modelType) {
+        this.modelType = modelType;
+    }
+
+    /**
+     * @see Dao#findAll()
+     */
+    @Override
+    public List<T> findAll() {
+        return models.values().stream()
+                .sorted(Comparator.comparing(AbstractModel::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @see Dao#findAll(PageRequest)
+     */
+    @Override
+    public Page<T> findAll(PageRequest pageRequest) {
+
+        // one extra row tells whether another page follows
+        List<T> rows = models.values().stream()
+                .sorted(orderBy(pageRequest))
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getSize() + 1)
+                .collect(Collectors.toList());
+
+        return Page.of(rows, pageRequest);
+    }
+
+    /**
+     * Builds the ordering of a page request, ending with the id so that models with equal sort values keep
+     * the same order across pages, with {@code null} values first as the test database sorts them
+     *
+     * @param pageRequest the page request
+     * @return the ordering
+     * @throws IllegalArgumentException if the sort property is not a single valued model property
+     */
+    protected Comparator<T> orderBy(PageRequest pageRequest) {
+
+        PropertyDescriptor property = BeanUtils.getPropertyDescriptor(modelType, pageRequest.getSort());
+
+        // only single valued properties are sortable, which also rules out sorting on collections
+        if (property == null || property.getReadMethod() == null ||
+                !Comparable.class.isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(property.getPropertyType()))) {
+            throw new IllegalArgumentException("Sort property is not valid: " + pageRequest.getSort());
+        }
+
+        Comparator<Comparable<Object>> values = Comparator.nullsFirst(Comparator.naturalOrder());
+        Comparator<T> order = Comparator.comparing(model -> read(property, model), values);
+
+        return (pageRequest.isAscending() ? order : order.reversed())
+                .thenComparing(AbstractModel::getId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparable<Object> read(PropertyDescriptor property, T model) {
+
+        try {
+            return (Comparable<Object>) property.getReadMethod().invoke(model);
+
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Sort property can not be read: " + property.getName(), ex);
+        }
+    }
+
+    /**
+     * @see Dao#findById(Integer)
+     */
+    @Override
+    public T findById(Integer id) {
+        return id == null ? null : models.get(id);
+    }
+
+    /**
+     * Checks if a model is stored, without the side effects a dao may give loading it
+     *
+     * @param id the model id
+     * @return {@code true} if the model is stored
+     */
+    protected boolean exists(Integer id) {
+        return id != null && models.containsKey(id);
+    }
+
+    /**
+     * Saves or updates the model, assigning an id to new models
+     *
+     * @see Dao#saveOrUpdate(org.academiadecodigo.javabank.persistence.model.Model)
+     */
+    @Override
+    public T saveOrUpdate(T modelObject) {
+
+        if (modelObject.getId() == null) {
+            modelObject.setId(lastId.incrementAndGet());
+            modelObject.setCreationTime(new Date());
+        }
+
+        touch(modelObject);
+
+        models.put(modelObject.getId(), modelObject);
+        return modelObject;
+    }
+
+    /**
+     * Bumps the model version and update time, as the data store does on every update
+     *
+     * @param modelObject the updated model
+     */
+    protected void touch(T modelObject) {
+        modelObject.setVersion(modelObject.getVersion() == null ? 0 : modelObject.getVersion() + 1);
+        modelObject.setUpdateTime(new Date());
+    }
+
+    /**
+     * @see Dao#delete(Integer)
+     * @throws IllegalArgumentException if the model does not exist
+     */
+    @Override
+    public void delete(Integer id) {
+        remove(id);
+    }
+
+    /**
+     * Removes the model, regardless of its associations
+     *
+     * @param id the model id
+     * @throws IllegalArgumentException if the model does not exist
+     */
+    protected void remove(Integer id) {
+
+        if (id == null || models.remove(id) == null) {
+            throw new IllegalArgumentException("Model does not exist: " + id);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory {@link AccountDao} implementation
+ * <p>
+ * The stored accounts are the ones handed out, so an account loaded by a writing transaction is locked until
+ * the transaction ends, as the data store locks a row, and balance updates wait on the same locks. A service
+ * reading a balance and writing it back later does not lose concurrent updates. A transaction only waits for
+ * an account with a higher id than the ones it holds, and for a second at most, so transactions never wait on
+ * each other in a cycle. Otherwise it fails with a conflict, to be retried once its locks are released. Split
+ * accounts keep no slots, as holding the account lock for a single update is already cheap.
+ */
+@Repository
+@Profile("memory")
+public class MemoryAccountDao extends GenericMemoryDao<Account> implements AccountDao {
+
+    // as long as the test database waits for a row lock
+    private static final long LOCK_TIMEOUT = 1000;
+
+    private final ConcurrentMap<Integer, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final ThreadLocal<NavigableSet<Integer>> heldIds = ThreadLocal.withInitial(TreeSet::new);
+
+    /**
+     * @see GenericMemoryDao#GenericMemoryDao(Class)
+     */
+    public MemoryAccountDao() {
+        super(Account.class);
+    }
+
+    /**
+     * Gets the account, locking it until the end of the current transaction unless the transaction only reads
+     *
+     * @see GenericMemoryDao#findById(Integer)
+     */
+    @Override
+    public Account findById(Integer id) {
+
+        Account account = super.findById(id);
+
+        if (account != null && TransactionSynchronizationManager.isActualTransactionActive() &&
+                !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            lockUntilCompletion(id, LOCK_TIMEOUT);
+        }
+
+        return account;
+    }
+
+    /**
+     * Gets the accounts in ascending id order, so that they are locked in the same order by every transaction
+     *
+     * @see AccountDao#findByIds(Collection)
+     */
+    @Override
+    public List<Account> findByIds(Collection<Integer> ids) {
+
+        List<Account> accounts = new ArrayList<>();
+
+        for (Integer id : new TreeSet<>(ids)) {
+
+            Account account = findById(id);
+
+            if (account != null) {
+                accounts.add(account);
+            }
+        }
+
+        return accounts;
+    }
+
+    /**
+     * Gets the account, locking it until the end of the current transaction, if there is one
+     *
+     * @see AccountDao#findByIdForUpdate(Integer, int)
+     */
+    @Override
+    public Account findByIdForUpdate(Integer id, int timeout) {
+
+        Account account = super.findById(id);
+
+        if (account != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            lockUntilCompletion(id, timeout < 0 ? LOCK_TIMEOUT : timeout);
+        }
+
+        return account;
+    }
+
+    /**
+     * @see AccountDao#lock(Integer)
+     */
+    @Override
+    public boolean lock(Integer id) {
+        return findByIdForUpdate(id, -1) != null;
+    }
+
+    /**
+     * @see AccountDao#debitIfSufficient(Integer, Money)
+     */
+    @Override
+    public boolean debitIfSufficient(Integer id, Money amount) {
+
+        Account account = super.findById(id);
+
+        if (account == null) {
+            return false;
+        }
+
+        return locked(id, () -> {
+
+            if (!account.canDebit(amount)) {
+                return false;
+            }
+
+            account.debit(amount);
+            touch(account);
+            return true;
+        });
+    }
+
+    /**
+     * @see AccountDao#credit(Integer, Money)
+     */
+    @Override
+    public boolean credit(Integer id, Money amount) {
+
+        Account account = super.findById(id);
+
+        if (account == null) {
+            return false;
+        }
+
+        return locked(id, () -> {
+            account.credit(amount);
+            touch(account);
+            return true;
+        });
+    }
+
+    /**
+     * Credits the account itself, as in-memory accounts keep no slots
+     *
+     * @see AccountDao#creditSlot(Integer, int, Money)
+     */
+    @Override
+    public boolean creditSlot(Integer id, int slot, Money amount) {
+
+        Account account = super.findById(id);
+
+        if (account == null || slot < 0 || slot >= account.getSlots()) {
+            return false;
+        }
+
+        return credit(id, amount);
+    }
+
+    /**
+     * Moves nothing, as in-memory accounts keep no slots
+     *
+     * @see AccountDao#consolidate(Integer)
+     */
+    @Override
+    public Money consolidate(Integer id) {
+        return Money.ZERO;
+    }
+
+    /**
+     * @see AccountDao#split(Integer, int)
+     */
+    @Override
+    public boolean split(Integer id, int slots) {
+
+        Account account = super.findById(id);
+
+        if (account == null) {
+            return false;
+        }
+
+        return locked(id, () -> {
+            account.setSlots(slots);
+            touch(account);
+            return true;
+        });
+    }
+
+    /**
+     * @see AccountDao#findSplitIds()
+     */
+    @Override
+    public List<Integer> findSplitIds() {
+        return models.values().stream()
+                .filter(Account::isSplit)
+                .map(Account::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @see AccountDao#findCustomerId(Integer)
+     */
+    @Override
+    public Integer findCustomerId(Integer id) {
+
+        Account account = super.findById(id);
+        return account == null || account.getCustomer() == null ? null : account.getCustomer().getId();
+    }
+
+    /**
+     * Gets the total balance of the accounts of a customer, looking through every account
+     *
+     * @see AccountDao#getCustomerBalance(Integer)
+     */
+    @Override
+    public Money getCustomerBalance(Integer customerId) {
+        return getCustomerBalances(Collections.singleton(customerId)).get(customerId);
+    }
+
+    /**
+     * Gets the total balances of the accounts of many customers, looking through every account once
+     *
+     * @see AccountDao#getCustomerBalances(Collection)
+     */
+    @Override
+    public Map<Integer, Money> getCustomerBalances(Collection<Integer> customerIds) {
+
+        Map<Integer, Money> balances = new HashMap<>();
+
+        for (Account account : models.values()) {
+
+            Customer customer = account.getCustomer();
+
+            if (customer != null && customerIds.contains(customer.getId())) {
+                balances.merge(customer.getId(), account.getBalance(), Money::plus);
+            }
+        }
+
+        return balances;
+    }
+
+    /**
+     * Gets the balances of one partition of the customers, looking through every account once
+     *
+     * @see AccountDao#findCustomerBalances(int, int)
+     */
+    @Override
+    public List<CustomerBalance> findCustomerBalances(int partition, int partitions) {
+
+        Map<Integer, CustomerBalance> balances = new HashMap<>();
+
+        for (Account account : models.values()) {
+
+            Customer customer = account.getCustomer();
+
+            if (customer != null && customer.getId() % partitions == partition) {
+                balances.merge(customer.getId(), new CustomerBalance(customer.getId(), account.getBalance(), 1),
+                        (balance, other) -> balance.plus(other.getBalance(), other.getAccounts()));
+            }
+        }
+
+        return new ArrayList<>(balances.values());
+    }
+
+    /**
+     * Saves or updates the account, holding its lock so that concurrent balance updates are not lost
+     *
+     * @see GenericMemoryDao#saveOrUpdate(org.academiadecodigo.javabank.persistence.model.AbstractModel)
+     */
+    @Override
+    public Account saveOrUpdate(Account account) {
+
+        if (account.getId() == null) {
+            return super.saveOrUpdate(account);
+        }
+
+        return locked(account.getId(), () -> super.saveOrUpdate(account));
+    }
+
+    /**
+     * Deletes the account, unless it is owned by a customer, as owned accounts are closed through
+     * their customer instead
+     *
+     * @see GenericMemoryDao#delete(Integer)
+     */
+    @Override
+    public void delete(Integer id) {
+
+        Account account = super.findById(id);
+
+        // owned accounts are removed as orphans when their customer closes them
+        if (account != null && account.getCustomer() != null) {
+            return;
+        }
+
+        remove(id);
+    }
+
+    /**
+     * Runs an update of an account holding its lock, until the end of the current transaction if there is one,
+     * or else just for the update
+     *
+     * @param id     the account id
+     * @param update the update
+     * @param <R>    the update result type
+     * @return the update result
+     */
+    private <R> R locked(Integer id, Supplier<R> update) {
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            lockUntilCompletion(id, LOCK_TIMEOUT);
+            return update.get();
+        }
+
+        ReentrantLock lock = acquire(id, LOCK_TIMEOUT);
+
+        try {
+            return update.get();
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void lockUntilCompletion(Integer id, long timeout) {
+
+        if (locks.computeIfAbsent(id, key -> new ReentrantLock()).isHeldByCurrentThread()) {
+            return;
+        }
+
+        // waiting for a lower id than one already held could close a cycle of waiting transactions
+        NavigableSet<Integer> held = heldIds.get();
+        ReentrantLock lock = acquire(id, held.isEmpty() || held.last() < id ? timeout : 0);
+        held.add(id);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCompletion(int status) {
+                held.remove(id);
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock acquire(Integer id, long timeout) {
+
+        ReentrantLock lock = locks.computeIfAbsent(id, key -> new ReentrantLock());
+
+        try {
+
+            if (!lock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
+                throw new PessimisticLockingFailureException("Account is locked by another transaction: " + id);
+            }
+
+        } catch (InterruptedException ex) {
+
+            Thread.currentThread().interrupt();
+            throw new PessimisticLockingFailureException("Interrupted while waiting for the account lock: " + id, ex);
+        }
+
+        return lock;
+    }
+}
@@ -0,0 +1,166 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
+import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.model.AbstractModel;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An in-memory {@link CustomerDao} implementation
+ * <p>
+ * Customers are kept together with their accounts and recipients, so every finder returns the whole
+ * customer. Saving and deleting a customer cascades to its accounts and recipients, removing the ones
+ * unlinked from the customer since it was last saved, as the JPA mapping does.
+ */
+@Repository
+@Profile("memory")
+public class MemoryCustomerDao extends GenericMemoryDao<Customer> implements CustomerDao {
+
+    // the accounts and recipients of each customer when it was last saved, to find the unlinked ones
+    private final ConcurrentMap<Integer, Set<Integer>> accountIds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Set<Integer>> recipientIds = new ConcurrentHashMap<>();
+
+    private MemoryAccountDao accountDao;
+    private MemoryRecipientDao recipientDao;
+
+    /**
+     * @see GenericMemoryDao#GenericMemoryDao(Class)
+     */
+    public MemoryCustomerDao() {
+        super(Customer.class);
+    }
+
+    /**
+     * Sets the account data access object the accounts are cascaded to
+     *
+     * @param accountDao the account DAO to set
+     */
+    @Autowired
+    public void setAccountDao(MemoryAccountDao accountDao) {
+        this.accountDao = accountDao;
+    }
+
+    /**
+     * Sets the recipient data access object the recipients are cascaded to
+     *
+     * @param recipientDao the recipient DAO to set
+     */
+    @Autowired
+    public void setRecipientDao(MemoryRecipientDao recipientDao) {
+        this.recipientDao = recipientDao;
+    }
+
+    /**
+     * @see CustomerDao#findWithAccounts(Integer)
+     */
+    @Override
+    public Customer findWithAccounts(Integer id) {
+        return findById(id);
+    }
+
+    /**
+     * @see CustomerDao#findWithRecipients(Integer)
+     */
+    @Override
+    public Customer findWithRecipients(Integer id) {
+        return findById(id);
+    }
+
+    /**
+     * @see CustomerDao#findSummary(Integer)
+     */
+    @Override
+    public CustomerSummary findSummary(Integer id) {
+
+        Customer customer = findById(id);
+        return customer == null ? null : toSummary(customer);
+    }
+
+    /**
+     * @see CustomerDao#findSummaries(PageRequest)
+     */
+    @Override
+    public Page<CustomerSummary> findSummaries(PageRequest pageRequest) {
+        return findAll(pageRequest).map(this::toSummary);
+    }
+
+    /**
+     * Saves or updates the customer, together with its accounts and recipients
+     *
+     * @see GenericMemoryDao#saveOrUpdate(AbstractModel)
+     */
+    @Override
+    public Customer saveOrUpdate(Customer customer) {
+
+        synchronized (customer) {
+
+            super.saveOrUpdate(customer);
+
+            accountIds.put(customer.getId(),
+                    cascade(customer.getAccounts(), accountDao, accountIds.get(customer.getId())));
+            recipientIds.put(customer.getId(),
+                    cascade(customer.getRecipients(), recipientDao, recipientIds.get(customer.getId())));
+        }
+
+        return customer;
+    }
+
+    /**
+     * Deletes the customer, together with its accounts and recipients
+     *
+     * @see GenericMemoryDao#delete(Integer)
+     */
+    @Override
+    public void delete(Integer id) {
+
+        remove(id);
+
+        cascade(Collections.emptyList(), accountDao, accountIds.remove(id));
+        cascade(Collections.emptyList(), recipientDao, recipientIds.remove(id));
+    }
+
+    private <M extends AbstractModel> Set<Integer> cascade(List<M> children, GenericMemoryDao<M> dao,
+                                                           Set<Integer> previousIds) {
+
+        Set<Integer> ids = new HashSet<>();
+
+        for (M child : children) {
+
+            // children already stored are the same instances, so only new ones need saving
+            if (!dao.exists(child.getId())) {
+                dao.saveOrUpdate(child);
+            }
+
+            ids.add(child.getId());
+        }
+
+        if (previousIds != null) {
+
+            for (Integer id : previousIds) {
+
+                if (!ids.contains(id) && dao.exists(id)) {
+                    dao.remove(id);
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    private CustomerSummary toSummary(Customer customer) {
+        return new CustomerSummary(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                customer.getEmail(), customer.getPhone());
+    }
+}
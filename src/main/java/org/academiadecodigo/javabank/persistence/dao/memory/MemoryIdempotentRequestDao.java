@@ -0,0 +1,64 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.academiadecodigo.javabank.persistence.dao.IdempotentRequestDao;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An in-memory {@link IdempotentRequestDao} implementation
+ */
+@Repository
+@Profile("memory")
+public class MemoryIdempotentRequestDao implements IdempotentRequestDao {
+
+    private final ConcurrentMap<String, IdempotentRequest> requests = new ConcurrentHashMap<>();
+
+    /**
+     * @see IdempotentRequestDao#findByKey(String)
+     */
+    @Override
+    public IdempotentRequest findByKey(String key) {
+        return requests.get(key);
+    }
+
+    /**
+     * @see IdempotentRequestDao#insert(IdempotentRequest)
+     */
+    @Override
+    public void insert(IdempotentRequest request) {
+
+        if (requests.putIfAbsent(request.getKey(), request) != null) {
+            throw new IllegalStateException("Idempotent request exists: " + request.getKey());
+        }
+    }
+
+    /**
+     * @see IdempotentRequestDao#delete(String)
+     */
+    @Override
+    public void delete(String key) {
+        requests.remove(key);
+    }
+
+    /**
+     * @see IdempotentRequestDao#deleteCreatedBefore(Date)
+     */
+    @Override
+    public int deleteCreatedBefore(Date time) {
+
+        int deleted = 0;
+
+        for (IdempotentRequest request : requests.values()) {
+            if (request.getCreationTime().before(time) && requests.remove(request.getKey(), request)) {
+                deleted++;
+            }
+        }
+
+        return deleted;
+    }
+}
@@ -0,0 +1,107 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.persistence.model.journal.Posting;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory {@link JournalDao} implementation
+ * <p>
+ * Only the account side of each posting is kept, as the transactions of the account, sorted most recent
+ * first in a concurrent skip list, so pages are found by seeking past the cursor as the posting index does
+ * in the database. The sum of the postings of each account is kept alongside.
+ */
+@Repository
+@Profile("memory")
+public class MemoryJournalDao implements JournalDao {
+
+    private static final Comparator<Transaction> MOST_RECENT_FIRST = Comparator
+            .comparing(Transaction::getTime).reversed()
+            .thenComparing(Comparator.comparing(Transaction::getId).reversed());
+
+    private final ConcurrentMap<Integer, NavigableSet<Transaction>> transactions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, LongAdder> balances = new ConcurrentHashMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * @see JournalDao#append(JournalEntry)
+     */
+    @Override
+    public void append(JournalEntry entry) {
+
+        for (Posting posting : entry.getPostings()) {
+
+            // the external side of deposits and withdrawals has no history
+            if (posting.getAccountId() == null) {
+                continue;
+            }
+
+            Transaction transaction = new Transaction(lastId.incrementAndGet(), posting.getCreationTime(),
+                    entry.getType(), posting.getAmount().getCents());
+
+            transactions.computeIfAbsent(posting.getAccountId(), id -> new ConcurrentSkipListSet<>(MOST_RECENT_FIRST))
+                    .add(transaction);
+            balances.computeIfAbsent(posting.getAccountId(), id -> new LongAdder())
+                    .add(posting.getAmount().getCents());
+        }
+    }
+
+    /**
+     * @see JournalDao#appendAll(Collection)
+     */
+    @Override
+    public void appendAll(Collection<JournalEntry> entries) {
+
+        for (JournalEntry entry : entries) {
+            append(entry);
+        }
+    }
+
+    /**
+     * @see JournalDao#findTransactions(Integer, TransactionCursor, int)
+     */
+    @Override
+    public List<Transaction> findTransactions(Integer accountId, TransactionCursor after, int size) {
+
+        NavigableSet<Transaction> history = transactions.get(accountId);
+
+        if (history == null) {
+            return new ArrayList<>();
+        }
+
+        if (after != null) {
+            history = history.tailSet(new Transaction(after.getId(), after.getTime(), null, 0), false);
+        }
+
+        return history.stream()
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @see JournalDao#getBalance(Integer)
+     */
+    @Override
+    public Money getBalance(Integer accountId) {
+
+        LongAdder balance = balances.get(accountId);
+        return Money.ofCents(balance == null ? 0 : balance.sum());
+    }
+}
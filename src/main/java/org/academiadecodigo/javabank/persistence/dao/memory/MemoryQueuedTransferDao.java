@@ -0,0 +1,41 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.academiadecodigo.javabank.persistence.dao.QueuedTransferDao;
+import org.academiadecodigo.javabank.persistence.model.AbstractModel;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory {@link QueuedTransferDao} implementation
+ * <p>
+ * The queue does not survive a restart, which the memory profile gives up on anyway.
+ */
+@Repository
+@Profile("memory")
+public class MemoryQueuedTransferDao extends GenericMemoryDao<QueuedTransfer> implements QueuedTransferDao {
+
+    /**
+     * @see GenericMemoryDao#GenericMemoryDao(Class)
+     */
+    public MemoryQueuedTransferDao() {
+        super(QueuedTransfer.class);
+    }
+
+    /**
+     * @see QueuedTransferDao#findPending(int, int, int)
+     */
+    @Override
+    public List<QueuedTransfer> findPending(int partition, int partitions, int size) {
+
+        return models.values().stream()
+                .filter(queuedTransfer -> queuedTransfer.isPending() && queuedTransfer.getId() % partitions == partition)
+                .sorted(Comparator.comparing(AbstractModel::getId))
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+}
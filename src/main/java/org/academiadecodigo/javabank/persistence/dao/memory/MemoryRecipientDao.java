@@ -0,0 +1,103 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An in-memory {@link RecipientDao} implementation
+ * <p>
+ * Recipients are also counted by customer and account number, packed into a single key, which serves
+ * {@link #exists(Integer, Integer)} as the recipient index serves it in the database.
+ */
+@Repository
+@Profile("memory")
+public class MemoryRecipientDao extends GenericMemoryDao<Recipient> implements RecipientDao {
+
+    // the index key each recipient was last saved with, so that it is found again once the recipient changed
+    private final ConcurrentMap<Integer, Long> keys = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Integer> index = new ConcurrentHashMap<>();
+
+    /**
+     * @see GenericMemoryDao#GenericMemoryDao(Class)
+     */
+    public MemoryRecipientDao() {
+        super(Recipient.class);
+    }
+
+    /**
+     * @see RecipientDao#exists(Integer, Integer)
+     */
+    @Override
+    public boolean exists(Integer customerId, Integer accountNumber) {
+        return customerId != null && accountNumber != null && index.containsKey(key(customerId, accountNumber));
+    }
+
+    /**
+     * @see RecipientDao#findAccountNumbers(Integer, Collection)
+     */
+    @Override
+    public Set<Integer> findAccountNumbers(Integer customerId, Collection<Integer> accountNumbers) {
+
+        Set<Integer> found = new HashSet<>();
+
+        for (Integer accountNumber : accountNumbers) {
+            if (exists(customerId, accountNumber)) {
+                found.add(accountNumber);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Saves or updates the recipient, moving it in the index if its customer or account number changed
+     *
+     * @see GenericMemoryDao#saveOrUpdate(org.academiadecodigo.javabank.persistence.model.AbstractModel)
+     */
+    @Override
+    public Recipient saveOrUpdate(Recipient recipient) {
+
+        synchronized (recipient) {
+
+            super.saveOrUpdate(recipient);
+
+            unindex(keys.remove(recipient.getId()));
+
+            if (recipient.getCustomer() != null && recipient.getAccountNumber() != null) {
+                long key = key(recipient.getCustomer().getId(), recipient.getAccountNumber());
+                index.merge(key, 1, Integer::sum);
+                keys.put(recipient.getId(), key);
+            }
+        }
+
+        return recipient;
+    }
+
+    /**
+     * @see GenericMemoryDao#remove(Integer)
+     */
+    @Override
+    protected void remove(Integer id) {
+        super.remove(id);
+        unindex(keys.remove(id));
+    }
+
+    private void unindex(Long key) {
+
+        if (key != null) {
+            index.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private static long key(int customerId, int accountNumber) {
+        return ((long) customerId << Integer.SIZE) | (accountNumber & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,45 @@
+package org.academiadecodigo.javabank.persistence.dao.memory;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * A transaction manager for the in-memory data access objects, which has no resource to manage
+ * <p>
+ * Transactional services run unchanged on top of it, but their changes are visible as soon as they are made
+ * and are not undone on rollback. The in-memory daos keep each single update atomic instead, and the accounts
+ * loaded by a transaction stay locked until it completes, which is enough for load tests and demos, not for
+ * real money.
+ */
+public class MemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    /**
+     * @see AbstractPlatformTransactionManager#doGetTransaction()
+     */
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    /**
+     * @see AbstractPlatformTransactionManager#doBegin(Object, TransactionDefinition)
+     */
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    /**
+     * @see AbstractPlatformTransactionManager#doCommit(DefaultTransactionStatus)
+     */
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    /**
+     * @see AbstractPlatformTransactionManager#doRollback(DefaultTransactionStatus)
+     */
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+}
@@ -1,6 +1,8 @@
 package org.academiadecodigo.javabank.persistence.model;
 
 import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -8,11 +10,24 @@ import java.util.List;
 
 /**
  * The customer model entity
+ * <p>
+ * Accounts and recipients are loaded lazily, each use case asks for the ones it needs through the
+ * named entity graphs, so that loading a customer never brings in more than one collection. Customers
+ * and the ids of their accounts and recipients are kept in the second level cache.
  */
 @Entity
 @Table(name = "customer")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = Customer.WITH_ACCOUNTS, attributeNodes = @NamedAttributeNode("accounts")),
+        @NamedEntityGraph(name = Customer.WITH_RECIPIENTS, attributeNodes = @NamedAttributeNode("recipients"))
+})
 public class Customer extends AbstractModel {
 
+    public static final String WITH_ACCOUNTS = "Customer.withAccounts";
+    public static final String WITH_RECIPIENTS = "Customer.withRecipients";
+
     private String firstName;
     private String lastName;
     private String email;
@@ -29,9 +44,10 @@ public class Customer extends AbstractModel {
             // the many-to-one relationship instead of a join table
             mappedBy = "customer",
 
-            // fetch accounts from database together with user
-            fetch = FetchType.EAGER
+            // fetch accounts only when the use case asks for them
+            fetch = FetchType.LAZY
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Account> accounts = new ArrayList<>();
 
     @OneToMany(
@@ -45,6 +61,7 @@ public class Customer extends AbstractModel {
             // the many-to-one relationship instead of a join table
             mappedBy = "customer"
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Recipient> recipients = new ArrayList<>();
 
     /**
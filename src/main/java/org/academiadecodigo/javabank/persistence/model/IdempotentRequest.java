@@ -0,0 +1,171 @@
+package org.academiadecodigo.javabank.persistence.model;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.Date;
+
+/**
+ * The idempotent request model entity, recording the outcome of a request made with an idempotency key, so that
+ * retries of the request get the same outcome instead of being performed again
+ * <p>
+ * A request is claimed before it is performed, and has no status until its outcome is recorded. Requests are
+ * kept in the second level cache, so that retries are answered without reading the table.
+ */
+@Entity
+@Table(name = "idempotent_request", indexes = {
+        // purge of the expired requests, see IdempotentRequestDao#deleteCreatedBefore
+        @Index(name = "idempotent_request_creation_idx", columnList = "creationTime")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class IdempotentRequest {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    @Id
+    @Column(name = "idempotencyKey", length = MAX_KEY_LENGTH)
+    private String key;
+
+    @Column(nullable = false, updatable = false)
+    private Integer customerId;
+
+    @Column(nullable = false, updatable = false, length = 32)
+    private String operation;
+
+    // the request parameters, telling a retry from another request reusing the key
+    @Column(nullable = false, updatable = false)
+    private String fingerprint;
+
+    private Integer status;
+
+    @Column(nullable = false, updatable = false)
+    private Date creationTime;
+
+    /**
+     * Required by JPA, requests are created by the public constructor
+     */
+    protected IdempotentRequest() {
+    }
+
+    /**
+     * Initializes a new idempotent request, without an outcome
+     *
+     * @param key         the idempotency key
+     * @param customerId  the id of the customer making the request
+     * @param operation   the requested operation
+     * @param fingerprint the request parameters
+     */
+    public IdempotentRequest(String key, Integer customerId, String operation, String fingerprint) {
+        this.key = key;
+        this.customerId = customerId;
+        this.operation = operation;
+        this.fingerprint = fingerprint;
+        this.creationTime = new Date();
+    }
+
+    /**
+     * Gets the idempotency key
+     *
+     * @return the idempotency key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the id of the customer making the request
+     *
+     * @return the customer id
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the requested operation
+     *
+     * @return the operation
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the request parameters
+     *
+     * @return the request fingerprint
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets the outcome of the request
+     *
+     * @return the http status of the response, or {@code null} while the request is in progress
+     */
+    public Integer getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the outcome of the request
+     *
+     * @param status the http status of the response
+     */
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the time the request was claimed
+     *
+     * @return the creation time
+     */
+    public Date getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Checks if the request is still being performed, or was interrupted before its outcome was recorded
+     *
+     * @return {@code true} if the request has no outcome
+     */
+    public boolean isInProgress() {
+        return status == null;
+    }
+
+    /**
+     * Checks if another request is a retry of this one, made by the same customer with the same parameters
+     *
+     * @param customerId  the id of the customer making the other request
+     * @param operation   the other requested operation
+     * @param fingerprint the other request parameters
+     * @return {@code true} if the requests are the same
+     */
+    public boolean matches(Integer customerId, String operation, String fingerprint) {
+        return this.customerId.equals(customerId) && this.operation.equals(operation) &&
+                this.fingerprint.equals(fingerprint);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "IdempotentRequest{" +
+                "key='" + key + '\'' +
+                ", customerId=" + customerId +
+                ", operation='" + operation + '\'' +
+                ", status=" + status +
+                ", creationTime=" + creationTime +
+                '}';
+    }
+}
@@ -0,0 +1,216 @@
+package org.academiadecodigo.javabank.persistence.model;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferResult;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * The queued transfer model entity, a {@link Transfer} accepted for later processing together with its outcome
+ * <p>
+ * The table is the durable queue of the asynchronous transfers: a transfer is pending until a worker performs
+ * it and records its outcome in the same transaction, so that it is neither lost nor performed twice. The
+ * version guards against two workers recording the same transfer. The attempts count the times the transfer
+ * failed with an error, so that a transfer which can never be performed is eventually given up.
+ */
+@Entity
+@Table(name = "queued_transfer", indexes = {
+        // queue draining, see QueuedTransferDao#findPending
+        @Index(name = "queued_transfer_status_idx", columnList = "status, id")
+})
+public class QueuedTransfer extends AbstractModel {
+
+    @Column(nullable = false, updatable = false)
+    private Integer customerId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer srcId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer dstId;
+
+    // kept in cents, as the account balances
+    @Column(nullable = false, updatable = false)
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private TransferResult.Status status = TransferResult.Status.PENDING;
+
+    @Column(updatable = false)
+    private String callback;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Gets the id of the customer who submitted the transfer
+     *
+     * @return the customer id
+     */
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Sets the id of the customer who submitted the transfer
+     *
+     * @param customerId the customer id to set
+     */
+    public void setCustomerId(Integer customerId) {
+        this.customerId = customerId;
+    }
+
+    /**
+     * Gets the id of the source account
+     *
+     * @return the source id
+     */
+    public Integer getSrcId() {
+        return srcId;
+    }
+
+    /**
+     * Sets the id of the source account
+     *
+     * @param srcId the id to set
+     */
+    public void setSrcId(Integer srcId) {
+        this.srcId = srcId;
+    }
+
+    /**
+     * Gets the id of the destination account
+     *
+     * @return the destination id
+     */
+    public Integer getDstId() {
+        return dstId;
+    }
+
+    /**
+     * Sets the id of the destination account
+     *
+     * @param dstId the id to set
+     */
+    public void setDstId(Integer dstId) {
+        this.dstId = dstId;
+    }
+
+    /**
+     * Gets the amount of the transfer
+     *
+     * @return the transfer amount
+     */
+    public Money getAmount() {
+        return Money.ofCents(amount);
+    }
+
+    /**
+     * Sets the amount of the transfer
+     *
+     * @param amount the amount to set
+     */
+    public void setAmount(Money amount) {
+        this.amount = amount.getCents();
+    }
+
+    /**
+     * Gets the transfer outcome
+     *
+     * @return the transfer status, pending until the transfer is processed
+     */
+    public TransferResult.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the transfer outcome
+     *
+     * @param status the transfer status to set
+     */
+    public void setStatus(TransferResult.Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Checks if the transfer is waiting to be processed
+     *
+     * @return {@code true} if the transfer is pending
+     */
+    public boolean isPending() {
+        return status == TransferResult.Status.PENDING;
+    }
+
+    /**
+     * Gets the url notified of the transfer outcome
+     *
+     * @return the callback url, or {@code null} if the outcome is only polled
+     */
+    public String getCallback() {
+        return callback;
+    }
+
+    /**
+     * Sets the url notified of the transfer outcome
+     *
+     * @param callback the callback url to set
+     */
+    public void setCallback(String callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Gets the number of times the transfer failed with an error
+     *
+     * @return the failed attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Sets the number of times the transfer failed with an error
+     *
+     * @param attempts the failed attempts to set
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the queued transfer as a transfer
+     *
+     * @return the transfer
+     */
+    public Transfer toTransfer() {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(getAmount());
+
+        return transfer;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "QueuedTransfer{" +
+                "customerId=" + customerId +
+                ", srcId=" + srcId +
+                ", dstId=" + dstId +
+                ", amount=" + getAmount() +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                "} " + super.toString();
+    }
+}
@@ -1,14 +1,24 @@
 package org.academiadecodigo.javabank.persistence.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
 /**
- * The recipient model entity
+ * The recipient model entity, kept in the second level cache
  */
 @Entity
-@Table(name = "recipient")
+@Table(name = "recipient", indexes = {
+        // transfer authorization, see RecipientDao#exists
+        @Index(name = "recipient_customer_account_idx", columnList = "customer_id, accountNumber")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Recipient extends AbstractModel {
 
     private String name;
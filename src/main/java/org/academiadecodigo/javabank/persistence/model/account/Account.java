@@ -1,39 +1,108 @@
 package org.academiadecodigo.javabank.persistence.model.account;
 
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.persistence.model.AbstractModel;
 import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
 
 import javax.persistence.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A generic account model entity to be used as a base for concrete types of accounts
+ * <p>
+ * Accounts are kept in the second level cache, so that the cached accounts of a customer are not read back
+ * one by one. A balance updated in place by the account dao invalidates the cached account it changes until
+ * the update completes, leaving the other cached accounts in place.
+ * <p>
+ * The balance of a hot account may be split into {@link AccountSlot}s, credited apart from the account row so
+ * that concurrent credits do not wait on each other. The balance of the account is then its own balance plus
+ * the balance of its slots, which may cover its own balance running below zero until the slots are consolidated.
  */
 @Entity
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "account_type")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public abstract class Account extends AbstractModel {
 
-    private double balance = 0;
+    public static final int MAX_SLOTS = 64;
+
+    // kept in cents as a primitive, so that balance arithmetic does not allocate
+    private long balance = 0;
+
+    @ColumnDefault("0")
+    private int slots = 0;
+
+    // read together with the account, only split accounts pay for the subquery
+    @Formula("CASE WHEN slots = 0 THEN 0 ELSE " +
+            "(SELECT COALESCE(SUM(s.balance), 0) FROM account_slot s WHERE s.accountId = id) END")
+    private long slotBalance;
 
     @ManyToOne
     private Customer customer;
 
     /**
-     * Gets the account balance
+     * Gets the account balance, including the balance of its slots
      *
      * @return the account balance
      */
-    public double getBalance() {
-        return balance;
+    public Money getBalance() {
+        return Money.ofCents(getBalanceCents());
     }
 
     /**
-     * Sets the account balance
+     * Sets the account balance, including the balance of its slots
      *
      * @param balance the amount to set
      */
-    public void setBalance(double balance) {
-        this.balance = balance;
+    public void setBalance(Money balance) {
+        this.balance = balance.getCents() - slotBalance;
+    }
+
+    /**
+     * Gets the number of slots the account balance is split into
+     *
+     * @return the number of slots, zero if the balance is not split
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * Sets the number of slots the account balance is split into
+     *
+     * @param slots the number of slots to set, zero not to split the balance
+     */
+    public void setSlots(int slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Checks if the account balance is split into slots
+     *
+     * @return {@code true} if the account has slots
+     */
+    public boolean isSplit() {
+        return slots > 0;
+    }
+
+    /**
+     * Picks the slot of the next credit, at random so that concurrent credits spread over every slot
+     *
+     * @return the slot, from zero to the number of slots minus one
+     * @throws IllegalStateException if the account balance is not split
+     */
+    public int pickSlot() {
+
+        if (!isSplit()) {
+            throw new IllegalStateException("Account balance is not split");
+        }
+
+        return ThreadLocalRandom.current().nextInt(slots);
     }
 
     /**
@@ -65,11 +134,11 @@ public abstract class Account extends AbstractModel {
      * Credits account if possible
      *
      * @param amount the amount to credit
-     * @see Account#credit(double)
+     * @see Account#credit(Money)
      */
-    public void credit(double amount) {
+    public void credit(Money amount) {
         if (canCredit(amount)) {
-            balance += amount;
+            balance = Math.addExact(balance, amount.getCents());
         }
     }
 
@@ -77,11 +146,11 @@ public abstract class Account extends AbstractModel {
      * Debits the account if possible
      *
      * @param amount the amount to debit
-     * @see Account#canDebit(double)
+     * @see Account#canDebit(Money)
      */
-    public void debit(double amount) {
+    public void debit(Money amount) {
         if (canDebit(amount)) {
-            balance -= amount;
+            balance -= amount.getCents();
         }
     }
 
@@ -91,8 +160,8 @@ public abstract class Account extends AbstractModel {
      * @param amount the amount to check
      * @return {@code true} if the account can be credited
      */
-    public boolean canCredit(double amount) {
-        return amount > 0;
+    public boolean canCredit(Money amount) {
+        return amount.isPositive();
     }
 
     /**
@@ -101,8 +170,18 @@ public abstract class Account extends AbstractModel {
      * @param amount the amount to check
      * @return {@code true} if the account can be debited
      */
-    public boolean canDebit(double amount) {
-        return amount > 0 && amount <= balance;
+    public boolean canDebit(Money amount) {
+        return amount.isPositive() && amount.getCents() <= getBalanceCents();
+    }
+
+    /**
+     * Gets the account balance in cents, including the balance of its slots, without allocating a
+     * {@link Money} instance
+     *
+     * @return the balance in cents
+     */
+    protected long getBalanceCents() {
+        return balance + slotBalance;
     }
 
     /**
@@ -120,7 +199,8 @@ public abstract class Account extends AbstractModel {
     @Override
     public String toString() {
         return "Account{" +
-                "balance=" + balance +
+                "balance=" + getBalance() +
+                ", slots=" + slots +
                 ", customerId=" + (customer != null ? customer.getId() : null) +
                 "} " + super.toString();
     }
@@ -0,0 +1,101 @@
+package org.academiadecodigo.javabank.persistence.model.account;
+
+import org.academiadecodigo.javabank.domain.Money;
+
+import javax.persistence.*;
+
+/**
+ * The account slot model entity, one of the slots the balance of a hot {@link Account} is split into
+ * <p>
+ * Credits to a split account go to one of its slots instead of the account row, so that concurrent credits
+ * lock different rows. The slots are only written by single updates of the account dao, and are moved back
+ * into the account balance when it is consolidated. The account is kept as a plain id, as the slots are never
+ * navigated to from the account, only summed into its balance.
+ */
+@Entity
+@Table(name = "account_slot", indexes = {
+        // slot credits and the sum of the slots of an account
+        @Index(name = "account_slot_account_idx", columnList = "accountId, slot", unique = true)
+})
+public class AccountSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, updatable = false)
+    private Integer accountId;
+
+    @Column(nullable = false, updatable = false)
+    private int slot;
+
+    // kept in cents, as the account balances
+    @Column(nullable = false)
+    private long balance;
+
+    /**
+     * Required by JPA, slots are created when an account is split
+     */
+    protected AccountSlot() {
+    }
+
+    /**
+     * Initializes a new empty slot
+     *
+     * @param accountId the account id
+     * @param slot      the slot number, from zero to the number of slots of the account minus one
+     */
+    public AccountSlot(Integer accountId, int slot) {
+        this.accountId = accountId;
+        this.slot = slot;
+    }
+
+    /**
+     * Gets the slot id
+     *
+     * @return the slot id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Gets the id of the account the slot belongs to
+     *
+     * @return the account id
+     */
+    public Integer getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * Gets the slot number
+     *
+     * @return the slot number
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Gets the slot balance, the credits not yet moved into the account balance
+     *
+     * @return the slot balance
+     */
+    public Money getBalance() {
+        return Money.ofCents(balance);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "AccountSlot{" +
+                "id=" + id +
+                ", accountId=" + accountId +
+                ", slot=" + slot +
+                ", balance=" + getBalance() +
+                '}';
+    }
+}
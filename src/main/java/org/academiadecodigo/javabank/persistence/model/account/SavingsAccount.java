@@ -1,5 +1,7 @@
 package org.academiadecodigo.javabank.persistence.model.account;
 
+import org.academiadecodigo.javabank.domain.Money;
+
 import javax.persistence.Entity;
 
 /**
@@ -11,7 +13,7 @@ import javax.persistence.Entity;
 @Entity
 public class SavingsAccount extends Account {
 
-    public static final double MIN_BALANCE = 100;
+    public static final Money MIN_BALANCE = Money.of(100);
 
     /**
      * @see Account#getAccountType()
@@ -22,11 +24,11 @@ public class SavingsAccount extends Account {
     }
 
     /**
-     * @see Account#canDebit(double)
+     * @see Account#canDebit(Money)
      */
     @Override
-    public boolean canDebit(double amount) {
-        return super.canDebit(amount) && (getBalance() - amount) >= MIN_BALANCE;
+    public boolean canDebit(Money amount) {
+        return super.canDebit(amount) && (getBalanceCents() - amount.getCents()) >= MIN_BALANCE.getCents();
     }
 
     /**
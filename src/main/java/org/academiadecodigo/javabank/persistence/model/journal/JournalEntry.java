@@ -0,0 +1,175 @@
+package org.academiadecodigo.javabank.persistence.model.journal;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The journal entry model entity, an immutable record of a single money movement
+ * <p>
+ * Entries are double-entry: the amounts of the postings of an entry always add up to zero, with money entering
+ * or leaving the bank posted against the external side, which has no account. The balance of an account is
+ * therefore the sum of all of its postings.
+ * <p>
+ * Ids come from a sequence allocated in blocks, so that inserts can be grouped in JDBC batches, which
+ * {@link GenerationType#IDENTITY} prevents. The {@code pooled-lo} optimizer treats each sequence value as the
+ * start of a block of 50 ids, which the application hands out without asking the database again. Rows inserted
+ * by plain sql must therefore reserve a whole block too, advancing the sequence by the full increment and using
+ * only the value it returned: any other id, such as that value plus one or the highest id plus one, may lie in a
+ * block the application is handing out. The same holds for the posting sequence.
+ */
+@Entity
+@Immutable
+@Table(name = "journal_entry")
+public class JournalEntry {
+
+    @Id
+    @GeneratedValue(generator = "journal_entry_seq")
+    @GenericGenerator(name = "journal_entry_seq", strategy = "enhanced-sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "journal_entry_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private JournalEntryType type;
+
+    // assigned on creation rather than on insert, so that postings can share it
+    @Column(nullable = false, updatable = false)
+    private Date creationTime;
+
+    @OneToMany(
+            // postings are written together with their entry and never changed afterwards
+            cascade = {CascadeType.PERSIST},
+
+            // use entry foreign key on posting table
+            mappedBy = "entry"
+    )
+    private List<Posting> postings = new ArrayList<>();
+
+    /**
+     * Required by JPA, entries are created by the factory methods
+     */
+    protected JournalEntry() {
+    }
+
+    private JournalEntry(JournalEntryType type) {
+        this.type = type;
+        this.creationTime = new Date();
+    }
+
+    /**
+     * Creates the entry for the balance an account was opened with
+     *
+     * @param accountId the account id
+     * @param amount    the opening balance
+     * @return the journal entry
+     */
+    public static JournalEntry opening(Integer accountId, Money amount) {
+        return new JournalEntry(JournalEntryType.OPENING)
+                .post(accountId, amount)
+                .post(null, Money.ZERO.minus(amount));
+    }
+
+    /**
+     * Creates the entry for a deposit
+     *
+     * @param accountId the account id
+     * @param amount    the amount deposited
+     * @return the journal entry
+     */
+    public static JournalEntry deposit(Integer accountId, Money amount) {
+        return new JournalEntry(JournalEntryType.DEPOSIT)
+                .post(accountId, amount)
+                .post(null, Money.ZERO.minus(amount));
+    }
+
+    /**
+     * Creates the entry for a withdrawal
+     *
+     * @param accountId the account id
+     * @param amount    the amount withdrawn
+     * @return the journal entry
+     */
+    public static JournalEntry withdrawal(Integer accountId, Money amount) {
+        return new JournalEntry(JournalEntryType.WITHDRAWAL)
+                .post(accountId, Money.ZERO.minus(amount))
+                .post(null, amount);
+    }
+
+    /**
+     * Creates the entry for a transfer between two accounts
+     *
+     * @param srcAccountId the source account id
+     * @param dstAccountId the destination account id
+     * @param amount       the amount transferred
+     * @return the journal entry
+     */
+    public static JournalEntry transfer(Integer srcAccountId, Integer dstAccountId, Money amount) {
+        return new JournalEntry(JournalEntryType.TRANSFER)
+                .post(srcAccountId, Money.ZERO.minus(amount))
+                .post(dstAccountId, amount);
+    }
+
+    private JournalEntry post(Integer accountId, Money amount) {
+        postings.add(new Posting(this, accountId, amount));
+        return this;
+    }
+
+    /**
+     * Gets the journal entry id
+     *
+     * @return the journal entry id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the journal entry type
+     *
+     * @return the journal entry type
+     */
+    public JournalEntryType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the journal entry creation time
+     *
+     * @return the journal entry creation time
+     */
+    public Date getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Gets the journal entry postings
+     *
+     * @return the unmodifiable list of postings
+     */
+    public List<Posting> getPostings() {
+        return Collections.unmodifiableList(postings);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "JournalEntry{" +
+                "id=" + id +
+                ", type=" + type +
+                ", creationTime=" + creationTime +
+                '}';
+    }
+}
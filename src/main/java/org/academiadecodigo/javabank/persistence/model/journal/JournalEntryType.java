@@ -0,0 +1,27 @@
+package org.academiadecodigo.javabank.persistence.model.journal;
+
+/**
+ * The possible {@link JournalEntry} types
+ */
+public enum JournalEntryType {
+
+    /**
+     * The balance an account was opened with
+     */
+    OPENING,
+
+    /**
+     * @see org.academiadecodigo.javabank.services.AccountService#deposit
+     */
+    DEPOSIT,
+
+    /**
+     * @see org.academiadecodigo.javabank.services.AccountService#withdraw
+     */
+    WITHDRAWAL,
+
+    /**
+     * @see org.academiadecodigo.javabank.services.TransferService#transfer
+     */
+    TRANSFER
+}
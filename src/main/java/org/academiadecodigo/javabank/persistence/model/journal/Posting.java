@@ -0,0 +1,126 @@
+package org.academiadecodigo.javabank.persistence.model.journal;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * The posting model entity, the immutable share of a {@link JournalEntry} on a single account
+ * <p>
+ * The account is kept as a plain id rather than an association, so that postings are written without
+ * loading accounts and outlive the accounts they refer to. The creation time of the entry is copied into
+ * each posting, so that the account history is read in order from a single index.
+ */
+@Entity
+@Immutable
+@Table(name = "posting", indexes = {
+        // account history, most recent first
+        @Index(name = "posting_account_idx", columnList = "accountId, creationTime, id")
+})
+public class Posting {
+
+    @Id
+    @GeneratedValue(generator = "posting_seq")
+    @GenericGenerator(name = "posting_seq", strategy = "enhanced-sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "posting_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(updatable = false)
+    private JournalEntry entry;
+
+    // null on the external side of deposits and withdrawals
+    @Column(updatable = false)
+    private Integer accountId;
+
+    // signed cents, negative when money leaves the account
+    @Column(nullable = false, updatable = false)
+    private long amount;
+
+    @Column(nullable = false, updatable = false)
+    private Date creationTime;
+
+    /**
+     * Required by JPA, postings are created together with their {@link JournalEntry}
+     */
+    protected Posting() {
+    }
+
+    /**
+     * Initializes a new posting
+     *
+     * @param entry     the journal entry
+     * @param accountId the account id, {@code null} for the external side
+     * @param amount    the signed amount
+     */
+    Posting(JournalEntry entry, Integer accountId, Money amount) {
+        this.entry = entry;
+        this.accountId = accountId;
+        this.amount = amount.getCents();
+        this.creationTime = entry.getCreationTime();
+    }
+
+    /**
+     * Gets the posting id
+     *
+     * @return the posting id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the posting journal entry
+     *
+     * @return the journal entry
+     */
+    public JournalEntry getEntry() {
+        return entry;
+    }
+
+    /**
+     * Gets the posting account id
+     *
+     * @return the account id, {@code null} for the external side
+     */
+    public Integer getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * Gets the posting amount
+     *
+     * @return the amount, negative if money left the account
+     */
+    public Money getAmount() {
+        return Money.ofCents(amount);
+    }
+
+    /**
+     * Gets the posting creation time
+     *
+     * @return the creation time of the journal entry
+     */
+    public Date getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "Posting{" +
+                "id=" + id +
+                ", accountId=" + accountId +
+                ", amount=" + getAmount() +
+                '}';
+    }
+}
@@ -1,10 +1,15 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 
+import java.util.List;
+
 /**
  * Common interface for account services, provides methods to manage accounts and perform account transactions
  */
@@ -28,7 +33,7 @@ public interface AccountService {
      * @throws CustomerNotFoundException
      * @throws TransactionInvalidException
      */
-    void deposit(Integer id, Integer customerId, double amount)
+    void deposit(Integer id, Integer customerId, Money amount)
             throws AccountNotFoundException, CustomerNotFoundException, TransactionInvalidException;
 
     /**
@@ -41,6 +46,33 @@ public interface AccountService {
      * @throws CustomerNotFoundException
      * @throws TransactionInvalidException
      */
-    void withdraw(Integer id, Integer customerId, double amount)
+    void withdraw(Integer id, Integer customerId, Money amount)
             throws AccountNotFoundException, CustomerNotFoundException, TransactionInvalidException;
+
+    /**
+     * Splits the balance of an {@link Account} into slots credited apart from each other, so that concurrent
+     * credits to a hot account do not wait on each other
+     *
+     * @param id         the account id
+     * @param customerId the customer id
+     * @param slots      the number of slots, zero to merge the slots back into the account
+     * @throws AccountNotFoundException
+     * @throws CustomerNotFoundException
+     * @throws TransactionInvalidException if the number of slots is not valid
+     */
+    void split(Integer id, Integer customerId, int slots)
+            throws AccountNotFoundException, CustomerNotFoundException, TransactionInvalidException;
+
+    /**
+     * Gets a page of the {@link Account} transactions, most recent first
+     *
+     * @param id         the account id
+     * @param customerId the customer id
+     * @param after      the last transaction seen, or {@code null} for the first page
+     * @param size       the page size
+     * @return the account transactions
+     * @throws AccountNotFoundException
+     */
+    List<Transaction> listTransactions(Integer id, Integer customerId, TransactionCursor after, int size)
+            throws AccountNotFoundException;
 }
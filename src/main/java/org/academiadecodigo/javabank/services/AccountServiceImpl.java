@@ -1,16 +1,23 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
 import org.academiadecodigo.javabank.persistence.dao.AccountDao;
 import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
-import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
+import org.academiadecodigo.javabank.services.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,8 +26,10 @@ import java.util.Optional;
 @Service
 public class AccountServiceImpl implements AccountService {
 
-    private AccountDao accountDao;
-    private CustomerDao customerDao;
+    protected AccountDao accountDao;
+    protected CustomerDao customerDao;
+    protected JournalDao journalDao;
+    protected CustomerBalanceReadModel customerBalanceReadModel;
 
     /**
      * Sets the account data access object
@@ -42,6 +51,26 @@ public class AccountServiceImpl implements AccountService {
         this.customerDao = customerDao;
     }
 
+    /**
+     * Sets the journal data access object
+     *
+     * @param journalDao the journal DAO to set
+     */
+    @Autowired
+    public void setJournalDao(JournalDao journalDao) {
+        this.journalDao = journalDao;
+    }
+
+    /**
+     * Sets the customer balance read model
+     *
+     * @param customerBalanceReadModel the customer balance read model to set
+     */
+    @Autowired
+    public void setCustomerBalanceReadModel(CustomerBalanceReadModel customerBalanceReadModel) {
+        this.customerBalanceReadModel = customerBalanceReadModel;
+    }
+
     /**
      * @see AccountService#get(Integer)
      */
@@ -51,49 +80,42 @@ public class AccountServiceImpl implements AccountService {
     }
 
     /**
-     * @see AccountService#deposit(Integer, Integer, double)
+     * @see AccountService#deposit(Integer, Integer, Money)
      */
+    @RetryOnConflict
     @Transactional
     @Override
-    public void deposit(Integer id, Integer customerId, double amount)
+    public void deposit(Integer id, Integer customerId, Money amount)
             throws AccountNotFoundException, CustomerNotFoundException, TransactionInvalidException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(customerId))
-                .orElseThrow(CustomerNotFoundException::new);
-
-        Account account = Optional.ofNullable(accountDao.findById(id))
-                .orElseThrow(AccountNotFoundException::new);
-
-        if (!account.getCustomer().getId().equals(customerId)) {
-            throw new AccountNotFoundException();
-        }
+        Account account = findCustomerAccount(id, customerId);
 
         if (!account.canCredit(amount)) {
             throw new TransactionInvalidException();
         }
 
-        for (Account a : customer.getAccounts()) {
-            if (a.getId().equals(id)) {
-                a.credit(amount);
-            }
+        // a single update, so concurrent deposits neither conflict nor need the account version
+        boolean credited = account.isSplit() ?
+                accountDao.creditSlot(id, account.pickSlot(), amount) : accountDao.credit(id, amount);
+
+        if (!credited) {
+            throw new AccountNotFoundException();
         }
 
-        customerDao.saveOrUpdate(customer);
+        journalDao.append(JournalEntry.deposit(id, amount));
+        customerBalanceReadModel.credited(customerId, amount);
     }
 
     /**
-     * @see AccountService#withdraw(Integer, Integer, double)
+     * @see AccountService#withdraw(Integer, Integer, Money)
      */
+    @RetryOnConflict
     @Transactional
     @Override
-    public void withdraw(Integer id, Integer customerId, double amount)
+    public void withdraw(Integer id, Integer customerId, Money amount)
             throws AccountNotFoundException, CustomerNotFoundException, TransactionInvalidException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(customerId))
-                .orElseThrow(CustomerNotFoundException::new);
-
-        Account account = Optional.ofNullable(accountDao.findById(id))
-                .orElseThrow(AccountNotFoundException::new);
+        Account account = findCustomerAccount(id, customerId);
 
         // in UI the user cannot click on Withdraw so this is here for safety because the user can bypass
         // the UI limitation easily
@@ -101,21 +123,74 @@ public class AccountServiceImpl implements AccountService {
             throw new TransactionInvalidException();
         }
 
-        if (!account.getCustomer().getId().equals(customerId)) {
-            throw new AccountNotFoundException();
+        // the balance check and the debit are a single conditional update
+        if (!amount.isPositive() || !accountDao.debitIfSufficient(id, amount)) {
+            throw new TransactionInvalidException();
         }
 
-        // make sure transaction can be performed
-        if (!account.canDebit(amount)) {
+        journalDao.append(JournalEntry.withdrawal(id, amount));
+        customerBalanceReadModel.debited(customerId, amount);
+    }
+
+    /**
+     * @see AccountService#split(Integer, Integer, int)
+     */
+    @RetryOnConflict
+    @Transactional
+    @Override
+    public void split(Integer id, Integer customerId, int slots)
+            throws AccountNotFoundException, CustomerNotFoundException, TransactionInvalidException {
+
+        findCustomerAccount(id, customerId);
+
+        if (slots < 0 || slots > Account.MAX_SLOTS) {
             throw new TransactionInvalidException();
         }
 
-        for (Account a : customer.getAccounts()) {
-            if (a.getId().equals(id)) {
-                a.debit(amount);
-            }
+        if (!accountDao.split(id, slots)) {
+            throw new AccountNotFoundException();
+        }
+    }
+
+    /**
+     * @see AccountService#listTransactions(Integer, Integer, TransactionCursor, int)
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<Transaction> listTransactions(Integer id, Integer customerId, TransactionCursor after, int size)
+            throws AccountNotFoundException {
+
+        // only the owner is needed, so neither the account nor the customer are loaded
+        if (!customerId.equals(accountDao.findCustomerId(id))) {
+            throw new AccountNotFoundException();
+        }
+
+        return journalDao.findTransactions(id, after, size);
+    }
+
+    /**
+     * Finds an account of a customer
+     *
+     * @param id         the account id
+     * @param customerId the customer id
+     * @return the account, together with its customer
+     * @throws CustomerNotFoundException if the customer does not exist
+     * @throws AccountNotFoundException  if the account does not exist or belongs to another customer
+     */
+    protected Account findCustomerAccount(Integer id, Integer customerId)
+            throws CustomerNotFoundException, AccountNotFoundException {
+
+        // the account is loaded together with its customer, which proves the customer exists
+        Account account = accountDao.findById(id);
+
+        if (account != null && account.getCustomer() != null && account.getCustomer().getId().equals(customerId)) {
+            return account;
         }
 
-        customerDao.saveOrUpdate(customer);
+        // only a failed lookup needs to tell a missing customer from a missing account
+        Optional.ofNullable(customerDao.findSummary(customerId))
+                .orElseThrow(CustomerNotFoundException::new);
+
+        throw new AccountNotFoundException();
     }
 }
@@ -0,0 +1,67 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.services.aggregator.CreditAggregator;
+import org.academiadecodigo.javabank.services.retry.RetryOnConflict;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * An {@link AccountService} implementation which hands the deposits to the {@link CreditAggregator}
+ * <p>
+ * Enabled by the {@code aggregator} profile. Deposits to the same account are applied as a single balance update
+ * per flush instead of one update each, which suits accounts receiving a steady stream of credits. A deposit
+ * returns once its flush commits, so it takes up to a flush interval longer, and is rejected as invalid if no
+ * flush takes it within the credit timeout. Withdrawals and transfers still update the balances directly.
+ */
+@Service
+@Primary
+@Profile("aggregator")
+public class AggregatingAccountServiceImpl extends AccountServiceImpl {
+
+    private CreditAggregator creditAggregator;
+
+    /**
+     * Sets the credit aggregator
+     *
+     * @param creditAggregator the credit aggregator to set
+     */
+    @Autowired
+    public void setCreditAggregator(CreditAggregator creditAggregator) {
+        this.creditAggregator = creditAggregator;
+    }
+
+    /**
+     * Runs outside of a transaction, as the deposit is written by the flush and waiting for it
+     * would otherwise hold a connection
+     *
+     * @see AccountService#deposit(Integer, Integer, Money)
+     */
+    @RetryOnConflict
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public void deposit(Integer id, Integer customerId, Money amount)
+            throws AccountNotFoundException, CustomerNotFoundException, TransactionInvalidException {
+
+        Account account = findCustomerAccount(id, customerId);
+
+        if (!account.canCredit(amount)) {
+            throw new TransactionInvalidException();
+        }
+
+        // the flush credits the account and journals the deposit in the same transaction
+        if (!creditAggregator.credit(id, amount)) {
+            throw new AccountNotFoundException();
+        }
+
+        customerBalanceReadModel.credited(customerId, amount);
+    }
+}
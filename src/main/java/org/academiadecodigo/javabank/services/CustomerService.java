@@ -1,11 +1,17 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.exceptions.*;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.Recipient;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Common interface for customer services, provides methods to manage customers
@@ -27,7 +33,15 @@ public interface CustomerService {
      * @return the balance of the customer with the given id
      * @throws CustomerNotFoundException
      */
-    double getBalance(Integer id) throws CustomerNotFoundException;
+    Money getBalance(Integer id) throws CustomerNotFoundException;
+
+    /**
+     * Gets the balances of many customers at once
+     *
+     * @param ids the customer ids
+     * @return the balances by customer id, zero for the customers owning no accounts
+     */
+    Map<Integer, Money> getBalances(Collection<Integer> ids);
 
     /**
      * Saves a customer
@@ -47,11 +61,22 @@ public interface CustomerService {
     void delete(Integer id) throws AssociationExistsException, CustomerNotFoundException;
 
     /**
-     * Gets a list of the customers
+     * Gets a page of the customers
+     *
+     * @param pageRequest the page request
+     * @return the customers page
+     * @throws IllegalArgumentException if the customers can not be sorted by the requested property
+     */
+    Page<Customer> list(PageRequest pageRequest);
+
+    /**
+     * Gets a page of the customer summaries, which unlike {@link #list(PageRequest)} does not load any accounts
      *
-     * @return the customers list
+     * @param pageRequest the page request
+     * @return the customer summaries page
+     * @throws IllegalArgumentException if the customers can not be sorted by the requested property
      */
-    List<Customer> list();
+    Page<CustomerSummary> listSummaries(PageRequest pageRequest);
 
     /**
      * Gets the list of customer recipients
@@ -1,27 +1,41 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.exceptions.*;
 import org.academiadecodigo.javabank.persistence.dao.AccountDao;
 import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
 import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
-import org.academiadecodigo.javabank.persistence.model.AbstractModel;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.Recipient;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.services.memo.RequestScopedCustomerService;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * The {@link CustomerService} implementation, injected wherever a customer service is needed except in the web
+ * controllers, which read through {@link RequestScopedCustomerService}
+ */
 @Service
+@Primary
 public class CustomerServiceImpl implements CustomerService {
 
     private CustomerDao customerDao;
     private RecipientDao recipientDao;
     private AccountDao accountDao;
+    private JournalDao journalDao;
+    private CustomerBalanceReadModel customerBalanceReadModel;
 
     /**
      * Sets the customer data access object
@@ -53,26 +67,69 @@ public class CustomerServiceImpl implements CustomerService {
         this.accountDao = accountDao;
     }
 
+    /**
+     * Sets the journal data access object
+     *
+     * @param journalDao the journal DAO to set
+     */
+    @Autowired
+    public void setJournalDao(JournalDao journalDao) {
+        this.journalDao = journalDao;
+    }
+
+    /**
+     * Sets the customer balance read model
+     *
+     * @param customerBalanceReadModel the customer balance read model to set
+     */
+    @Autowired
+    public void setCustomerBalanceReadModel(CustomerBalanceReadModel customerBalanceReadModel) {
+        this.customerBalanceReadModel = customerBalanceReadModel;
+    }
+
     /**
      * @see CustomerService#get(Integer)
      */
+    @Transactional(readOnly = true)
     @Override
     public Customer get(Integer id) {
-        return customerDao.findById(id);
+        return customerDao.findWithAccounts(id);
     }
 
     /**
      * @see CustomerService#getBalance(Integer)
      */
+    @Transactional(readOnly = true)
     @Override
-    public double getBalance(Integer id) throws CustomerNotFoundException {
+    public Money getBalance(Integer id) throws CustomerNotFoundException {
+
+        Money balance = accountDao.getCustomerBalance(id);
 
-        Customer customer = Optional.ofNullable(customerDao.findById(id))
+        if (balance != null) {
+            return balance;
+        }
+
+        // no accounts were summed, the customer may not exist at all
+        Optional.ofNullable(customerDao.findById(id))
                 .orElseThrow(CustomerNotFoundException::new);
 
-        return customer.getAccounts().stream()
-                .mapToDouble(Account::getBalance)
-                .sum();
+        return Money.ZERO;
+    }
+
+    /**
+     * @see CustomerService#getBalances(Collection)
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Integer, Money> getBalances(Collection<Integer> ids) {
+
+        Map<Integer, Money> balances = accountDao.getCustomerBalances(ids);
+
+        for (Integer id : ids) {
+            balances.putIfAbsent(id, Money.ZERO);
+        }
+
+        return balances;
     }
 
     /**
@@ -91,7 +148,7 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     public void delete(Integer id) throws CustomerNotFoundException, AssociationExistsException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(id))
+        Customer customer = Optional.ofNullable(customerDao.findWithAccounts(id))
                 .orElseThrow(CustomerNotFoundException::new);
 
         if (!customer.getAccounts().isEmpty()) {
@@ -102,11 +159,21 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     /**
-     * @see CustomerService#list()
+     * @see CustomerService#list(PageRequest)
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Page<Customer> list(PageRequest pageRequest) {
+        return customerDao.findAll(pageRequest);
+    }
+
+    /**
+     * @see CustomerService#listSummaries(PageRequest)
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<Customer> list() {
-        return customerDao.findAll();
+    public Page<CustomerSummary> listSummaries(PageRequest pageRequest) {
+        return customerDao.findSummaries(pageRequest);
     }
 
     /**
@@ -119,7 +186,7 @@ public class CustomerServiceImpl implements CustomerService {
         // check then act logic requires transaction,
         // event if read only
 
-        Customer customer = Optional.ofNullable(customerDao.findById(id))
+        Customer customer = Optional.ofNullable(customerDao.findWithRecipients(id))
                 .orElseThrow(CustomerNotFoundException::new);
 
         return new ArrayList<>(customer.getRecipients());
@@ -132,11 +199,18 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     public Recipient addRecipient(Integer id, Recipient recipient) throws CustomerNotFoundException, AccountNotFoundException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(id))
+        Customer customer = Optional.ofNullable(customerDao.findWithRecipients(id))
                 .orElseThrow(CustomerNotFoundException::new);
 
-        if (accountDao.findById(recipient.getAccountNumber()) == null ||
-                getAccountIds(customer).contains(recipient.getAccountNumber())) {
+        // only the owner of the recipient account is needed, so the customer accounts are not loaded
+        Integer ownerId = accountDao.findCustomerId(recipient.getAccountNumber());
+
+        // an account with no owner is a valid recipient, as long as it exists
+        if (ownerId == null && accountDao.findById(recipient.getAccountNumber()) == null) {
+            throw new AccountNotFoundException();
+        }
+
+        if (id.equals(ownerId)) {
             throw new AccountNotFoundException();
         }
 
@@ -156,7 +230,7 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     public void removeRecipient(Integer id, Integer recipientId) throws CustomerNotFoundException, RecipientNotFoundException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(id))
+        Customer customer = Optional.ofNullable(customerDao.findWithRecipients(id))
                 .orElseThrow(CustomerNotFoundException::new);
 
         Recipient recipient = Optional.ofNullable(recipientDao.findById(recipientId))
@@ -177,18 +251,27 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     public Account addAccount(Integer id, Account account) throws CustomerNotFoundException, TransactionInvalidException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(id))
+        Customer customer = Optional.ofNullable(customerDao.findWithAccounts(id))
                 .orElseThrow(CustomerNotFoundException::new);
 
         if (!account.canWithdraw() &&
-                account.getBalance() < SavingsAccount.MIN_BALANCE) {
+                account.getBalance().compareTo(SavingsAccount.MIN_BALANCE) < 0) {
             throw new TransactionInvalidException();
         }
 
         customer.addAccount(account);
         customerDao.saveOrUpdate(customer);
 
-        return customer.getAccounts().get(customer.getAccounts().size() - 1);
+        Account added = customer.getAccounts().get(customer.getAccounts().size() - 1);
+
+        // keep the account balance derivable from the journal
+        if (!added.getBalance().isZero()) {
+            journalDao.append(JournalEntry.opening(added.getId(), added.getBalance()));
+        }
+
+        customerBalanceReadModel.accountOpened(id, added.getBalance());
+
+        return added;
     }
 
     /**
@@ -199,7 +282,7 @@ public class CustomerServiceImpl implements CustomerService {
     public void closeAccount(Integer id, Integer accountId)
             throws CustomerNotFoundException, AccountNotFoundException, TransactionInvalidException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(id))
+        Customer customer = Optional.ofNullable(customerDao.findWithAccounts(id))
                 .orElseThrow(CustomerNotFoundException::new);
 
         Account account = Optional.ofNullable(accountDao.findById(accountId))
@@ -210,20 +293,19 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         //different from 0 in case we later decide that negative values are acceptable
-        if (account.getBalance() != 0) {
+        if (!account.getBalance().isZero()) {
+            throw new TransactionInvalidException();
+        }
+
+        // the slots of a split account must be merged back first, so that none outlives the account
+        if (account.isSplit()) {
             throw new TransactionInvalidException();
         }
 
         customer.removeAccount(account);
         customerDao.saveOrUpdate(customer);
-    }
-
-    private Set<Integer> getAccountIds(Customer customer) {
-        List<Account> accounts = customer.getAccounts();
 
-        return accounts.stream()
-                .map(AbstractModel::getId)
-                .collect(Collectors.toSet());
+        customerBalanceReadModel.accountClosed(id, account.getBalance());
     }
 }
 
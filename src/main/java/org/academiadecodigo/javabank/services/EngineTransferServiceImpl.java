@@ -0,0 +1,562 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.services.engine.BalanceEngine;
+import org.academiadecodigo.javabank.services.retry.RetryOnConflict;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link TransferService} implementation which applies transfers on the in-memory {@link BalanceEngine}
+ * and persists them in batches
+ * <p>
+ * Enabled by the {@code engine} profile. While enabled, transfers are approved against the balances held by
+ * the engine, so concurrent transfers serialize on its striped locks instead of failing on {@code @Version}
+ * checks. Each flush writes the net balance delta of every account as a conditional update, which like a
+ * conditional transfer never takes the stored balance below the account minimum. If deposits, withdrawals or
+ * other transfers left a stored balance short of a net debit, the transfers of the flush are settled one by
+ * one instead, and those the stored balances do not cover are rejected. The journal entries of the settled
+ * transfers are appended in the same transaction.
+ * <p>
+ * Callers wait for the flush holding their transfer, so a transfer is only acknowledged once it is settled,
+ * and a rejected or failed one is reported to its caller. A transfer no flush has taken within the transfer
+ * timeout is abandoned and taken back from the engine.
+ */
+@Service
+@Primary
+@Profile("engine")
+public class EngineTransferServiceImpl extends TransferServiceImpl implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(EngineTransferServiceImpl.class);
+
+    private final Queue<PendingTransfer> pendingTransfers = new ConcurrentLinkedQueue<>();
+
+    private BalanceEngine balanceEngine;
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService writer;
+    private long flushInterval = 50;
+    private long transferTimeout = 5000;
+    private volatile boolean running;
+
+    /**
+     * Sets the balance engine
+     *
+     * @param balanceEngine the balance engine to set
+     */
+    @Autowired
+    public void setBalanceEngine(BalanceEngine balanceEngine) {
+        this.balanceEngine = balanceEngine;
+    }
+
+    /**
+     * Sets the transaction manager used to apply the transfers on the engine and to persist them
+     *
+     * @param transactionManager the transaction manager to set
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sets the interval between balance delta flushes
+     *
+     * @param flushInterval the interval in milliseconds
+     */
+    @Value("${engine.flush.interval:50}")
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Sets the time a transfer waits to be taken by a flush
+     *
+     * @param transferTimeout the timeout in milliseconds
+     */
+    @Value("${engine.transfer.timeout:5000}")
+    public void setTransferTimeout(long transferTimeout) {
+        this.transferTimeout = transferTimeout;
+    }
+
+    /**
+     * Starts the background writer
+     *
+     * @see InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-engine-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        writer.scheduleWithFixedDelay(() -> {
+
+            // anything thrown out of the task would cancel every later flush, leaving the callers waiting
+            try {
+                flush();
+
+            } catch (Throwable ex) {
+                logger.error("Unable to flush the transfers - {}", ex.getMessage());
+            }
+
+        }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background writer, flushing any pending transfers once it is done
+     *
+     * @see DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+
+        running = false;
+        writer.shutdown();
+
+        // the transfers left to a flush still running are completed by it, or abandoned by their callers
+        if (!writer.awaitTermination(flushInterval * 10, TimeUnit.MILLISECONDS)) {
+            logger.warn("Balance engine writer did not stop in time, pending transfers are not flushed");
+            return;
+        }
+
+        flush();
+    }
+
+    /**
+     * Runs outside of a transaction, as the transfer is persisted by a flush and waiting for it would
+     * otherwise hold a connection
+     *
+     * @see TransferService#transfer(Transfer)
+     */
+    @RetryOnConflict
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @Override
+    public void transfer(Transfer transfer) throws AccountNotFoundException, TransactionInvalidException {
+
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        try {
+            super.transfer(transfer);
+
+        } catch (Throwable ex) {
+            transactionManager.rollback(status);
+            throw ex;
+        }
+
+        await(commit(status));
+    }
+
+    /**
+     * Runs outside of a transaction, as the transfer is persisted by a flush and waiting for it would
+     * otherwise hold a connection
+     *
+     * @see TransferService#transfer(Transfer, Integer)
+     */
+    @RetryOnConflict
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @Override
+    public void transfer(Transfer transfer, Integer customerId)
+            throws CustomerNotFoundException, AccountNotFoundException, TransactionInvalidException {
+
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        try {
+            super.transfer(transfer, customerId);
+
+        } catch (Throwable ex) {
+            transactionManager.rollback(status);
+            throw ex;
+        }
+
+        await(commit(status));
+    }
+
+    /**
+     * Persists the transfers applied by the engine since the last flush, together with their journal entries,
+     * settles them in the engine and reports their outcome to their callers
+     */
+    public synchronized void flush() {
+
+        List<PendingTransfer> transfers = drainTransfers();
+
+        // transfers abandoned by their callers are taken back by them
+        transfers.removeIf(transfer -> !transfer.take());
+
+        if (transfers.isEmpty()) {
+            return;
+        }
+
+        Settlement settlement;
+
+        try {
+
+            settlement = transactionTemplate.execute(status -> settleNet(transfers, status));
+
+            // a stored balance does not cover its net debit, so only the transfers it does not cover are rejected
+            if (settlement == null) {
+                settlement = transactionTemplate.execute(status -> settleEach(transfers));
+            }
+
+        } catch (Throwable ex) {
+
+            logger.error("Unable to flush {} transfers - {}", transfers.size(), ex.getMessage());
+
+            for (PendingTransfer transfer : transfers) {
+                balanceEngine.cancel(transfer.srcId, transfer.dstId, transfer.amount);
+                transfer.outcome.completeExceptionally(ex);
+            }
+
+            return;
+        }
+
+        balanceEngine.settle(deltasOf(transfers), settlement.accounts);
+
+        for (PendingTransfer transfer : transfers) {
+            transfer.outcome.complete(settlement.statuses.get(transfer));
+        }
+    }
+
+    /**
+     * Locks nothing, as the engine serializes the balance updates of each account itself
+     *
+     * @see TransferServiceImpl#lockAccounts(Transfer)
+     */
+    @Override
+    protected void lockAccounts(Transfer transfer) {
+    }
+
+    /**
+     * Applies the transfer on the engine, queueing it for a flush once the transaction commits
+     *
+     * @see TransferServiceImpl#accountTransfer(Account, Account, Money)
+     */
+    @Override
+    protected void accountTransfer(Account srcAccount, Account dstAccount, Money amount)
+            throws AccountNotFoundException, TransactionInvalidException {
+
+        Optional.ofNullable(srcAccount)
+                .orElseThrow(AccountNotFoundException::new);
+
+        Optional.ofNullable(dstAccount)
+                .orElseThrow(AccountNotFoundException::new);
+
+        balanceEngine.transfer(srcAccount, dstAccount, amount);
+        TransactionSynchronizationManager.registerSynchronization(
+                new PendingTransfer(srcAccount, dstAccount, amount));
+    }
+
+    private PendingTransfer commit(TransactionStatus status) {
+
+        PendingTransfer reserved = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingTransfer && ((PendingTransfer) synchronization).isOf(this)) {
+                reserved = (PendingTransfer) synchronization;
+            }
+        }
+
+        transactionManager.commit(status);
+
+        return reserved;
+    }
+
+    private void await(PendingTransfer transfer) throws AccountNotFoundException, TransactionInvalidException {
+
+        // a transfer queued while the writer stops is flushed by its caller
+        if (!running) {
+            flush();
+        }
+
+        TransferResult.Status status;
+
+        try {
+            status = transfer.outcome.get(transferTimeout, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException ex) {
+
+            if (transfer.take()) {
+                balanceEngine.cancel(transfer.srcId, transfer.dstId, transfer.amount);
+                logger.warn("Abandoned a transfer of {} from account {} to account {} after {} ms",
+                        transfer.amount, transfer.srcId, transfer.dstId, transferTimeout);
+                throw new TransactionInvalidException();
+            }
+
+            // a flush holds the transfer already, and completes it however it ends
+            status = awaitFlush(transfer);
+
+        } catch (InterruptedException ex) {
+
+            // the transfer is still flushed, the caller just does not learn its outcome
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the transfer flush", ex);
+
+        } catch (ExecutionException ex) {
+            throw failureOf(ex);
+        }
+
+        if (status == TransferResult.Status.ACCOUNT_NOT_FOUND) {
+            throw new AccountNotFoundException();
+        }
+
+        if (status != TransferResult.Status.TRANSFERRED) {
+            throw new TransactionInvalidException();
+        }
+    }
+
+    private TransferResult.Status awaitFlush(PendingTransfer transfer) {
+
+        try {
+            return transfer.outcome.get();
+
+        } catch (InterruptedException ex) {
+
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the transfer flush", ex);
+
+        } catch (ExecutionException ex) {
+            throw failureOf(ex);
+        }
+    }
+
+    private RuntimeException failureOf(ExecutionException ex) {
+
+        if (ex.getCause() instanceof RuntimeException) {
+            return (RuntimeException) ex.getCause();
+        }
+
+        return new IllegalStateException(ex.getCause());
+    }
+
+    private Settlement settleNet(List<PendingTransfer> transfers, TransactionStatus status) {
+
+        // ascending ids, so that the rows are locked in the same order as by the conditional transfers
+        Map<Integer, Long> deltas = deltasOf(transfers);
+
+        for (Map.Entry<Integer, Long> delta : deltas.entrySet()) {
+
+            long cents = delta.getValue();
+            boolean updated = cents >= 0 ?
+                    cents == 0 || accountDao.credit(delta.getKey(), Money.ofCents(cents)) :
+                    accountDao.debitIfSufficient(delta.getKey(), Money.ofCents(-cents));
+
+            if (!updated) {
+                status.setRollbackOnly();
+                return null;
+            }
+        }
+
+        Map<PendingTransfer, TransferResult.Status> statuses = new HashMap<>();
+        for (PendingTransfer transfer : transfers) {
+            statuses.put(transfer, TransferResult.Status.TRANSFERRED);
+        }
+
+        journal(transfers);
+        return new Settlement(findAccounts(deltas.keySet()), statuses);
+    }
+
+    private Settlement settleEach(List<PendingTransfer> transfers) {
+
+        List<PendingTransfer> settled = new ArrayList<>(transfers.size());
+        Map<PendingTransfer, TransferResult.Status> statuses = new HashMap<>();
+
+        for (PendingTransfer transfer : transfers) {
+
+            TransferResult.Status status = settle(transfer);
+            statuses.put(transfer, status);
+
+            if (status == TransferResult.Status.TRANSFERRED) {
+                settled.add(transfer);
+            }
+        }
+
+        journal(settled);
+        return new Settlement(findAccounts(deltasOf(transfers).keySet()), statuses);
+    }
+
+    private TransferResult.Status settle(PendingTransfer transfer) {
+
+        if (transfer.dstId < transfer.srcId && !accountDao.lock(transfer.dstId)) {
+            return TransferResult.Status.ACCOUNT_NOT_FOUND;
+        }
+
+        if (!accountDao.debitIfSufficient(transfer.srcId, transfer.amount)) {
+            return TransferResult.Status.TRANSACTION_INVALID;
+        }
+
+        // the destination is gone, give the amount back to the source
+        if (!accountDao.credit(transfer.dstId, transfer.amount)) {
+            accountDao.credit(transfer.srcId, transfer.amount);
+            return TransferResult.Status.ACCOUNT_NOT_FOUND;
+        }
+
+        return TransferResult.Status.TRANSFERRED;
+    }
+
+    private void journal(List<PendingTransfer> transfers) {
+
+        // entries are only built here, so that a failed flush does not leave them half persisted
+        List<JournalEntry> entries = new ArrayList<>(transfers.size());
+        for (PendingTransfer transfer : transfers) {
+            entries.add(JournalEntry.transfer(transfer.srcId, transfer.dstId, transfer.amount));
+
+            // the read model is moved once the flush commits
+            customerBalanceReadModel.debited(transfer.srcCustomerId, transfer.amount);
+            customerBalanceReadModel.credited(transfer.dstCustomerId, transfer.amount);
+        }
+
+        journalDao.appendAll(entries);
+    }
+
+    private Map<Integer, Account> findAccounts(Collection<Integer> ids) {
+
+        Map<Integer, Account> accounts = new HashMap<>();
+        for (Account account : accountDao.findByIds(ids)) {
+            accounts.put(account.getId(), account);
+        }
+
+        return accounts;
+    }
+
+    private Map<Integer, Long> deltasOf(List<PendingTransfer> transfers) {
+
+        Map<Integer, Long> deltas = new TreeMap<>();
+        for (PendingTransfer transfer : transfers) {
+            deltas.merge(transfer.srcId, -transfer.amount.getCents(), Long::sum);
+            deltas.merge(transfer.dstId, transfer.amount.getCents(), Long::sum);
+        }
+
+        return deltas;
+    }
+
+    private List<PendingTransfer> drainTransfers() {
+
+        List<PendingTransfer> transfers = new ArrayList<>();
+
+        PendingTransfer transfer;
+        while ((transfer = pendingTransfers.poll()) != null) {
+            transfers.add(transfer);
+        }
+
+        return transfers;
+    }
+
+    private static Integer customerId(Account account) {
+        return account.getCustomer() == null ? null : account.getCustomer().getId();
+    }
+
+    /**
+     * The outcome of a flush, with the stored accounts it settled
+     */
+    private static class Settlement {
+
+        private final Map<Integer, Account> accounts;
+        private final Map<PendingTransfer, TransferResult.Status> statuses;
+
+        private Settlement(Map<Integer, Account> accounts, Map<PendingTransfer, TransferResult.Status> statuses) {
+            this.accounts = accounts;
+            this.statuses = statuses;
+        }
+    }
+
+    /**
+     * A transfer applied on the engine, queued for a flush once the transaction applying it commits
+     */
+    private class PendingTransfer extends TransactionSynchronizationAdapter {
+
+        private final Integer srcId;
+        private final Integer dstId;
+        private final Integer srcCustomerId;
+        private final Integer dstCustomerId;
+        private final Money amount;
+        private final CompletableFuture<TransferResult.Status> outcome = new CompletableFuture<>();
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        private PendingTransfer(Account srcAccount, Account dstAccount, Money amount) {
+            this.srcId = srcAccount.getId();
+            this.dstId = dstAccount.getId();
+            this.srcCustomerId = customerId(srcAccount);
+            this.dstCustomerId = customerId(dstAccount);
+            this.amount = amount;
+        }
+
+        private boolean isOf(EngineTransferServiceImpl transferService) {
+            return transferService == EngineTransferServiceImpl.this;
+        }
+
+        /**
+         * Takes the transfer, either for a flush or for its caller to abandon it, whichever comes first
+         *
+         * @return {@code true} if the transfer was taken
+         */
+        private boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+
+        /**
+         * Queues the transfer for a flush
+         *
+         * @see TransactionSynchronization#afterCommit()
+         */
+        @Override
+        public void afterCommit() {
+            pendingTransfers.add(this);
+        }
+
+        /**
+         * Takes the transfer back from the engine if the transaction did not commit
+         *
+         * @see TransactionSynchronization#afterCompletion(int)
+         */
+        @Override
+        public void afterCompletion(int status) {
+
+            if (status != STATUS_COMMITTED) {
+                balanceEngine.cancel(srcId, dstId, amount);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+
+/**
+ * Common interface for idempotency services, provides methods to perform a request only once per idempotency key
+ */
+public interface IdempotencyService {
+
+    /**
+     * Claims an idempotency key for a request about to be performed
+     * <p>
+     * Only one of many concurrent claims of the same key succeeds. Keys claimed longer ago than the time to live
+     * are claimed again.
+     *
+     * @param key         the idempotency key
+     * @param customerId  the id of the customer making the request
+     * @param operation   the requested operation
+     * @param fingerprint the request parameters
+     * @return {@code null} if the key was claimed, otherwise the request which claimed it first
+     */
+    IdempotentRequest claim(String key, Integer customerId, String operation, String fingerprint);
+
+    /**
+     * Records the outcome of a claimed request, returned to its retries
+     * <p>
+     * Never fails, as the request is already performed: an outcome which can not be recorded yet is still
+     * returned to the retries.
+     *
+     * @param key    the idempotency key
+     * @param status the http status of the response
+     */
+    void complete(String key, int status);
+
+    /**
+     * Releases the key of a request which failed without an outcome, so that it can be retried
+     *
+     * @param key the idempotency key
+     */
+    void release(String key);
+
+    /**
+     * Deletes the requests older than the time to live
+     *
+     * @return the number of deleted requests
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,271 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.persistence.dao.IdempotentRequestDao;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link IdempotencyService} implementation, keeping the requests in a table fronted by the second level cache
+ * <p>
+ * Keys are claimed in a transaction of their own, committed before the request is performed, so that a retry
+ * arriving meanwhile, or after a crash, never performs the request again. The table is bounded by the time to live,
+ * expired requests being purged in the background, and the cache by its number of entries, see ehcache.xml.
+ * <p>
+ * An outcome which can not be recorded, the request being already performed, is kept in memory, returned to the
+ * retries reaching this instance, and recorded again in the background until it is stored.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(IdempotencyServiceImpl.class);
+
+    private static final long RECORD_RETRY_INTERVAL = 1000;
+
+    private final ConcurrentMap<String, Integer> unrecordedOutcomes = new ConcurrentHashMap<>();
+
+    private IdempotentRequestDao idempotentRequestDao;
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService purger;
+    private long ttl;
+    private long purgeInterval;
+
+    /**
+     * Sets the idempotent request data access object
+     *
+     * @param idempotentRequestDao the idempotent request dao to set
+     */
+    @Autowired
+    public void setIdempotentRequestDao(IdempotentRequestDao idempotentRequestDao) {
+        this.idempotentRequestDao = idempotentRequestDao;
+    }
+
+    /**
+     * Sets the transaction manager used to claim the keys and purge the expired requests
+     *
+     * @param transactionManager the transaction manager to set
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sets the time the outcome of a request is kept
+     *
+     * @param ttl the time to live in milliseconds
+     */
+    @Value("${idempotency.ttl:86400000}")
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Sets the interval between purges of the expired requests
+     *
+     * @param purgeInterval the interval in milliseconds
+     */
+    @Value("${idempotency.purge.interval:600000}")
+    public void setPurgeInterval(long purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    /**
+     * Starts the background purge
+     *
+     * @see InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        purger.scheduleWithFixedDelay(() -> {
+
+            try {
+                logger.debug("Purged {} expired idempotent requests", purgeExpired());
+
+            } catch (RuntimeException ex) {
+                logger.error("Unable to purge the expired idempotent requests - {}", ex.getMessage());
+            }
+
+        }, purgeInterval, purgeInterval, TimeUnit.MILLISECONDS);
+
+        purger.scheduleWithFixedDelay(() -> {
+
+            try {
+                recordOutcomes();
+
+            } catch (RuntimeException ex) {
+                logger.error("Unable to record the idempotent request outcomes - {}", ex.getMessage());
+            }
+
+        }, RECORD_RETRY_INTERVAL, RECORD_RETRY_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background purge
+     *
+     * @see DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * @see IdempotencyService#claim(String, Integer, String, String)
+     */
+    @Override
+    public IdempotentRequest claim(String key, Integer customerId, String operation, String fingerprint) {
+
+        IdempotentRequest claimed = load(key);
+
+        if (claimed != null && !isExpired(claimed)) {
+            return withOutcome(claimed);
+        }
+
+        boolean expired = claimed != null;
+
+        try {
+
+            transactionTemplate.execute(status -> {
+
+                // an expired request is only replaced once purged, and a purge never removes a concurrent claim
+                if (expired) {
+                    idempotentRequestDao.deleteCreatedBefore(expiry());
+                }
+
+                idempotentRequestDao.insert(new IdempotentRequest(key, customerId, operation, fingerprint));
+                return null;
+            });
+
+            return null;
+
+        } catch (RuntimeException ex) {
+
+            // lost the race for the key to a concurrent claim
+            claimed = load(key);
+
+            if (claimed == null || isExpired(claimed)) {
+                throw ex;
+            }
+
+            return withOutcome(claimed);
+        }
+    }
+
+    /**
+     * Keeps the outcome in memory if it can not be recorded, so that the key is not left in progress
+     *
+     * @see IdempotencyService#complete(String, int)
+     */
+    @Override
+    public void complete(String key, int status) {
+
+        try {
+            record(key, status);
+
+        } catch (RuntimeException ex) {
+
+            // the request was performed, so its retries must get the outcome rather than a conflict
+            unrecordedOutcomes.put(key, status);
+            logger.warn("Unable to record the outcome of idempotent request {}, retrying - {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * @see IdempotencyService#release(String)
+     */
+    @Override
+    public void release(String key) {
+
+        transactionTemplate.execute(status -> {
+            idempotentRequestDao.delete(key);
+            return null;
+        });
+    }
+
+    /**
+     * @see IdempotencyService#purgeExpired()
+     */
+    @Override
+    public int purgeExpired() {
+        return transactionTemplate.execute(status -> idempotentRequestDao.deleteCreatedBefore(expiry()));
+    }
+
+    /**
+     * Records the outcomes which could not be recorded when their requests completed
+     *
+     * @return the number of outcomes recorded
+     */
+    public int recordOutcomes() {
+
+        int recorded = 0;
+
+        for (Map.Entry<String, Integer> outcome : unrecordedOutcomes.entrySet()) {
+
+            record(outcome.getKey(), outcome.getValue());
+            unrecordedOutcomes.remove(outcome.getKey(), outcome.getValue());
+            recorded++;
+        }
+
+        return recorded;
+    }
+
+    private void record(String key, int status) {
+
+        transactionTemplate.execute(transactionStatus -> {
+
+            IdempotentRequest request = idempotentRequestDao.findByKey(key);
+
+            if (request != null) {
+                request.setStatus(status);
+            }
+
+            return null;
+        });
+    }
+
+    private IdempotentRequest withOutcome(IdempotentRequest claimed) {
+
+        Integer status = unrecordedOutcomes.get(claimed.getKey());
+
+        if (status != null && claimed.isInProgress()) {
+            claimed.setStatus(status);
+        }
+
+        return claimed;
+    }
+
+    private IdempotentRequest load(String key) {
+        return transactionTemplate.execute(status -> idempotentRequestDao.findByKey(key));
+    }
+
+    private boolean isExpired(IdempotentRequest request) {
+        return request.getCreationTime().before(expiry());
+    }
+
+    private Date expiry() {
+        return new Date(System.currentTimeMillis() - ttl);
+    }
+}
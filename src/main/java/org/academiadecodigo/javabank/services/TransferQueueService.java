@@ -0,0 +1,77 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+
+import java.util.List;
+
+/**
+ * Common interface for transfer queue services, provides methods to submit transfers performed later on
+ */
+public interface TransferQueueService {
+
+    /**
+     * Checks a transfer as {@link TransferService#transfer(Transfer, Integer)} does and queues it, without
+     * performing it
+     * <p>
+     * The balances are checked again when the transfer is performed, so a queued transfer may still fail.
+     *
+     * @param transfer   the transfer object
+     * @param customerId the customer id
+     * @param callback   the url notified of the transfer outcome, or {@code null}
+     * @return the queued transfer
+     * @throws CustomerNotFoundException
+     * @throws AccountNotFoundException
+     * @throws TransactionInvalidException
+     */
+    QueuedTransfer submit(Transfer transfer, Integer customerId, String callback)
+            throws CustomerNotFoundException, AccountNotFoundException, TransactionInvalidException;
+
+    /**
+     * Gets a queued transfer
+     *
+     * @param id the queued transfer id
+     * @return the queued transfer, or {@code null} if it does not exist
+     */
+    QueuedTransfer get(Integer id);
+
+    /**
+     * Performs the oldest pending transfers of a partition of the queue, recording their outcome in the same
+     * transaction
+     *
+     * @param partition  the partition, from zero to the number of partitions
+     * @param partitions the number of partitions
+     * @param size       the maximum number of transfers
+     * @return the processed transfers, in submission order
+     */
+    List<QueuedTransfer> process(int partition, int partitions, int size);
+
+    /**
+     * Gets the pending transfers of a partition of the queue, in submission order
+     *
+     * @param partition  the partition
+     * @param partitions the number of partitions
+     * @param size       the maximum number of transfers
+     * @return the pending transfers
+     */
+    List<QueuedTransfer> findPending(int partition, int partitions, int size);
+
+    /**
+     * Performs a single pending transfer in its own transaction, recording its outcome
+     *
+     * @param id the queued transfer id
+     * @return the processed transfer, or {@code null} if it does not exist
+     */
+    QueuedTransfer process(Integer id);
+
+    /**
+     * Records a failed attempt to perform a pending transfer, giving it up once it failed too many times
+     *
+     * @param id the queued transfer id
+     * @return the queued transfer, failed or still pending, or {@code null} if it does not exist
+     */
+    QueuedTransfer recordFailure(Integer id);
+}
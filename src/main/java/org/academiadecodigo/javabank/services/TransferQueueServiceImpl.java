@@ -0,0 +1,266 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.QueuedTransferDao;
+import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.services.retry.RetryOnConflict;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link TransferQueueService} implementation, queueing the transfers in a table
+ */
+@Service
+public class TransferQueueServiceImpl implements TransferQueueService {
+
+    private QueuedTransferDao queuedTransferDao;
+    private CustomerDao customerDao;
+    private AccountDao accountDao;
+    private RecipientDao recipientDao;
+    private TransferService transferService;
+    private int maxAttempts = 3;
+
+    /**
+     * Sets the queued transfer data access object
+     *
+     * @param queuedTransferDao the queued transfer dao to set
+     */
+    @Autowired
+    public void setQueuedTransferDao(QueuedTransferDao queuedTransferDao) {
+        this.queuedTransferDao = queuedTransferDao;
+    }
+
+    /**
+     * Sets the customer data access object
+     *
+     * @param customerDao the customer dao to set
+     */
+    @Autowired
+    public void setCustomerDao(CustomerDao customerDao) {
+        this.customerDao = customerDao;
+    }
+
+    /**
+     * Sets the account data access object
+     *
+     * @param accountDao the account dao to set
+     */
+    @Autowired
+    public void setAccountDao(AccountDao accountDao) {
+        this.accountDao = accountDao;
+    }
+
+    /**
+     * Sets the recipient data access object
+     *
+     * @param recipientDao the recipient dao to set
+     */
+    @Autowired
+    public void setRecipientDao(RecipientDao recipientDao) {
+        this.recipientDao = recipientDao;
+    }
+
+    /**
+     * Sets the transfer service performing the queued transfers
+     *
+     * @param transferService the transfer service to set
+     */
+    @Autowired
+    public void setTransferService(TransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    /**
+     * Sets the number of failed attempts after which a queued transfer is given up
+     *
+     * @param maxAttempts the maximum attempts
+     */
+    @Value("${queue.max.attempts:3}")
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @see TransferQueueService#submit(Transfer, Integer, String)
+     */
+    @Transactional
+    @Override
+    public QueuedTransfer submit(Transfer transfer, Integer customerId, String callback)
+            throws CustomerNotFoundException, AccountNotFoundException, TransactionInvalidException {
+
+        Account srcAccount = accountDao.findById(transfer.getSrcId());
+
+        if (!isOwnedBy(srcAccount, customerId)) {
+
+            // only a failed lookup needs to tell a missing customer from a missing account
+            Optional.ofNullable(customerDao.findSummary(customerId))
+                    .orElseThrow(CustomerNotFoundException::new);
+
+            throw new AccountNotFoundException();
+        }
+
+        Account dstAccount = Optional.ofNullable(accountDao.findById(transfer.getDstId()))
+                .orElseThrow(AccountNotFoundException::new);
+
+        if (!isOwnedBy(dstAccount, customerId) && !recipientDao.exists(customerId, dstAccount.getId())) {
+            throw new AccountNotFoundException();
+        }
+
+        // rejects what would fail right now, the balances are checked again when performed
+        if (!srcAccount.canDebit(transfer.getAmount()) || !dstAccount.canCredit(transfer.getAmount())) {
+            throw new TransactionInvalidException();
+        }
+
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setCustomerId(customerId);
+        queuedTransfer.setSrcId(transfer.getSrcId());
+        queuedTransfer.setDstId(transfer.getDstId());
+        queuedTransfer.setAmount(transfer.getAmount());
+        queuedTransfer.setCallback(callback);
+
+        return queuedTransferDao.saveOrUpdate(queuedTransfer);
+    }
+
+    /**
+     * @see TransferQueueService#get(Integer)
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public QueuedTransfer get(Integer id) {
+        return queuedTransferDao.findById(id);
+    }
+
+    /**
+     * Performs the transfers of each customer as a best effort batch, joining this transaction, so that
+     * either the transfers and their outcomes are written together or the transfers stay pending.
+     *
+     * @see TransferQueueService#process(int, int, int)
+     */
+    @RetryOnConflict
+    @Transactional
+    @Override
+    public List<QueuedTransfer> process(int partition, int partitions, int size) {
+
+        List<QueuedTransfer> pending = queuedTransferDao.findPending(partition, partitions, size);
+
+        Map<Integer, List<QueuedTransfer>> byCustomer = new LinkedHashMap<>();
+        for (QueuedTransfer queuedTransfer : pending) {
+            byCustomer.computeIfAbsent(queuedTransfer.getCustomerId(), id -> new ArrayList<>()).add(queuedTransfer);
+        }
+
+        for (Map.Entry<Integer, List<QueuedTransfer>> customerTransfers : byCustomer.entrySet()) {
+            process(customerTransfers.getKey(), customerTransfers.getValue());
+        }
+
+        return pending;
+    }
+
+    /**
+     * @see TransferQueueService#findPending(int, int, int)
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<QueuedTransfer> findPending(int partition, int partitions, int size) {
+        return queuedTransferDao.findPending(partition, partitions, size);
+    }
+
+    /**
+     * @see TransferQueueService#process(Integer)
+     */
+    @RetryOnConflict
+    @Transactional
+    @Override
+    public QueuedTransfer process(Integer id) {
+
+        QueuedTransfer queuedTransfer = queuedTransferDao.findById(id);
+
+        if (queuedTransfer != null && queuedTransfer.isPending()) {
+            process(queuedTransfer.getCustomerId(), Collections.singletonList(queuedTransfer));
+        }
+
+        return queuedTransfer;
+    }
+
+    /**
+     * @see TransferQueueService#recordFailure(Integer)
+     */
+    @RetryOnConflict
+    @Transactional
+    @Override
+    public QueuedTransfer recordFailure(Integer id) {
+
+        QueuedTransfer queuedTransfer = queuedTransferDao.findById(id);
+
+        if (queuedTransfer == null || !queuedTransfer.isPending()) {
+            return queuedTransfer;
+        }
+
+        queuedTransfer.setAttempts(queuedTransfer.getAttempts() + 1);
+
+        if (queuedTransfer.getAttempts() >= maxAttempts) {
+            queuedTransfer.setStatus(TransferResult.Status.FAILED);
+        }
+
+        return queuedTransferDao.saveOrUpdate(queuedTransfer);
+    }
+
+    private void process(Integer customerId, List<QueuedTransfer> queuedTransfers) {
+
+        List<Transfer> transfers = new ArrayList<>(queuedTransfers.size());
+        for (QueuedTransfer queuedTransfer : queuedTransfers) {
+            transfers.add(queuedTransfer.toTransfer());
+        }
+
+        // checked first, as a failing batch would roll back the whole transaction and keep the transfers pending
+        if (customerDao.findSummary(customerId) == null) {
+
+            // the customer was removed after submitting
+            for (QueuedTransfer queuedTransfer : queuedTransfers) {
+                queuedTransfer.setStatus(TransferResult.Status.ACCOUNT_NOT_FOUND);
+            }
+
+        } else {
+
+            List<TransferResult> results = transferAll(transfers, customerId);
+            for (int i = 0; i < queuedTransfers.size(); i++) {
+                queuedTransfers.get(i).setStatus(results.get(i).getStatus());
+            }
+        }
+
+        for (QueuedTransfer queuedTransfer : queuedTransfers) {
+            queuedTransferDao.saveOrUpdate(queuedTransfer);
+        }
+    }
+
+    private List<TransferResult> transferAll(List<Transfer> transfers, Integer customerId) {
+
+        try {
+            return transferService.transferAll(transfers, customerId, TransferBatchMode.BEST_EFFORT);
+
+        } catch (CustomerNotFoundException ex) {
+            throw new IllegalStateException("Customer removed while processing its transfers: " + customerId, ex);
+        }
+    }
+
+    private boolean isOwnedBy(Account account, Integer customerId) {
+        return account != null && account.getCustomer() != null && account.getCustomer().getId().equals(customerId);
+    }
+}
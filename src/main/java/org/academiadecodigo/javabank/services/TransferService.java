@@ -1,11 +1,15 @@
 package org.academiadecodigo.javabank.services;
 
 import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 
+import java.util.List;
+
 /**
  * Common interface for transfer services, provides methods to perform account transfers
  */
@@ -32,4 +36,18 @@ public interface TransferService {
      */
     void transfer(Transfer transfer, Integer customerId)
             throws CustomerNotFoundException, AccountNotFoundException, TransactionInvalidException;
+
+    /**
+     * Performs a batch of transfers between {@link Account} in a single transaction, in the given order
+     * <p>
+     * Each transfer is checked as if performed alone, against the balances left by the transfers before it.
+     *
+     * @param transfers  the transfers
+     * @param customerId the customer id
+     * @param mode       whether the batch is performed only if every transfer is possible
+     * @return the outcome of each transfer, in the same order
+     * @throws CustomerNotFoundException
+     */
+    List<TransferResult> transferAll(List<Transfer> transfers, Integer customerId, TransferBatchMode mode)
+            throws CustomerNotFoundException;
 }
@@ -1,22 +1,37 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferLockMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.factories.AccountFactory;
 import org.academiadecodigo.javabank.persistence.dao.AccountDao;
 import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
-import org.academiadecodigo.javabank.persistence.model.Customer;
-import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
+import org.academiadecodigo.javabank.services.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * A {@link TransferService} implementation
@@ -24,8 +39,15 @@ import java.util.stream.Collectors;
 @Service
 public class TransferServiceImpl implements TransferService {
 
-    private CustomerDao customerDao;
-    private AccountDao accountDao;
+    protected CustomerDao customerDao;
+    protected AccountDao accountDao;
+    protected JournalDao journalDao;
+    protected RecipientDao recipientDao;
+    protected CustomerBalanceReadModel customerBalanceReadModel;
+    protected AccountFactory accountFactory;
+
+    protected TransferLockMode lockMode = TransferLockMode.CONDITIONAL_UPDATE;
+    protected int lockTimeout = -1;
 
     /**
      * Sets the customer data access object
@@ -47,13 +69,77 @@ public class TransferServiceImpl implements TransferService {
         this.accountDao = accountDao;
     }
 
+    /**
+     * Sets the journal data access object
+     *
+     * @param journalDao the journal dao to set
+     */
+    @Autowired
+    public void setJournalDao(JournalDao journalDao) {
+        this.journalDao = journalDao;
+    }
+
+    /**
+     * Sets the recipient data access object
+     *
+     * @param recipientDao the recipient dao to set
+     */
+    @Autowired
+    public void setRecipientDao(RecipientDao recipientDao) {
+        this.recipientDao = recipientDao;
+    }
+
+    /**
+     * Sets the customer balance read model
+     *
+     * @param customerBalanceReadModel the customer balance read model to set
+     */
+    @Autowired
+    public void setCustomerBalanceReadModel(CustomerBalanceReadModel customerBalanceReadModel) {
+        this.customerBalanceReadModel = customerBalanceReadModel;
+    }
+
+    /**
+     * Sets the account factory, used to check a batch of transfers on copies of its accounts
+     *
+     * @param accountFactory the account factory to set
+     */
+    @Autowired
+    public void setAccountFactory(AccountFactory accountFactory) {
+        this.accountFactory = accountFactory;
+    }
+
+    /**
+     * Sets how transfers guard the balances of their accounts against concurrent transfers
+     *
+     * @param lockMode the lock mode to set
+     */
+    @Value("${transfer.lock.mode:CONDITIONAL_UPDATE}")
+    public void setLockMode(TransferLockMode lockMode) {
+        this.lockMode = lockMode;
+    }
+
+    /**
+     * Sets how long the pessimistic lock mode waits for each account lock
+     *
+     * @param lockTimeout the lock timeout in milliseconds, zero not to wait at all, or negative to wait as long
+     *                    as the data store does
+     */
+    @Value("${transfer.lock.timeout:-1}")
+    public void setLockTimeout(int lockTimeout) {
+        this.lockTimeout = lockTimeout;
+    }
+
     /**
      * @see TransferService#transfer(Transfer)
      */
-    @Transactional
+    @RetryOnConflict
+    @Transactional(rollbackOn = JavaBankException.class)
     @Override
     public void transfer(Transfer transfer) throws AccountNotFoundException, TransactionInvalidException {
 
+        lockAccounts(transfer);
+
         Account srcAccount = accountDao.findById(transfer.getSrcId());
         Account dstAccount = accountDao.findById(transfer.getDstId());
 
@@ -63,43 +149,219 @@ public class TransferServiceImpl implements TransferService {
     /**
      * @see TransferService#transfer(Transfer, Integer)
      */
-    @Transactional
+    @RetryOnConflict
+    @Transactional(rollbackOn = JavaBankException.class)
     @Override
     public void transfer(Transfer transfer, Integer customerId)
             throws CustomerNotFoundException, AccountNotFoundException, TransactionInvalidException {
 
-        Customer customer = Optional.ofNullable(customerDao.findById(customerId))
-                .orElseThrow(CustomerNotFoundException::new);
+        lockAccounts(transfer);
 
-        Account srcAccount = Optional.ofNullable(accountDao.findById(transfer.getSrcId()))
-                .orElseThrow(AccountNotFoundException::new);
-        Account dstAccount = Optional.ofNullable(accountDao.findById(transfer.getDstId()))
-                .orElseThrow(AccountNotFoundException::new);
+        // the accounts are loaded together with their customer, which proves the customer exists
+        Account srcAccount = accountDao.findById(transfer.getSrcId());
+
+        if (!isOwnedBy(srcAccount, customerId)) {
+
+            // only a failed lookup needs to tell a missing customer from a missing account
+            Optional.ofNullable(customerDao.findSummary(customerId))
+                    .orElseThrow(CustomerNotFoundException::new);
 
-        if (!customer.getAccounts().contains(srcAccount)) {
             throw new AccountNotFoundException();
         }
 
+        Account dstAccount = Optional.ofNullable(accountDao.findById(transfer.getDstId()))
+                .orElseThrow(AccountNotFoundException::new);
+
         // make sure destination account is a part of the recipient list
-        verifyRecipientId(customer, dstAccount);
+        verifyRecipientId(customerId, dstAccount);
 
         accountTransfer(srcAccount, dstAccount, transfer.getAmount());
     }
 
-    private void accountTransfer(Account srcAccount, Account dstAccount, Double amount)
+    /**
+     * Loads every account of the batch in a single query and performs the transfers on detached copies of them,
+     * so that nothing is written unless the batch goes through. The resulting balances are then written as
+     * versioned updates, sent in jdbc batches when the transaction flushes, together with the journal entries.
+     *
+     * @see TransferService#transferAll(List, Integer, TransferBatchMode)
+     */
+    @RetryOnConflict
+    @Transactional(rollbackOn = JavaBankException.class)
+    @Override
+    public List<TransferResult> transferAll(List<Transfer> transfers, Integer customerId, TransferBatchMode mode)
+            throws CustomerNotFoundException {
+
+        Set<Integer> ids = new HashSet<>();
+        for (Transfer transfer : transfers) {
+            ids.add(transfer.getSrcId());
+            ids.add(transfer.getDstId());
+        }
+
+        Map<Integer, Account> accounts = new HashMap<>();
+        for (Account account : accountDao.findByIds(ids)) {
+            accounts.put(account.getId(), account);
+        }
+
+        Set<Integer> foreignIds = new HashSet<>();
+        boolean foreignSrc = false;
+
+        for (Transfer transfer : transfers) {
+
+            foreignSrc |= !isOwnedBy(accounts.get(transfer.getSrcId()), customerId);
+
+            Account dstAccount = accounts.get(transfer.getDstId());
+            if (dstAccount != null && !isOwnedBy(dstAccount, customerId)) {
+                foreignIds.add(dstAccount.getId());
+            }
+        }
+
+        // only a failed lookup needs to tell a missing customer from a missing account
+        if (foreignSrc) {
+            Optional.ofNullable(customerDao.findSummary(customerId))
+                    .orElseThrow(CustomerNotFoundException::new);
+        }
+
+        // a single indexed query for every destination which is not owned by the customer
+        Set<Integer> recipientIds = foreignIds.isEmpty() ? foreignIds :
+                recipientDao.findAccountNumbers(customerId, foreignIds);
+
+        // copies in id order, so that the updates are sent, and the rows locked, in a stable order
+        Map<Integer, Account> copies = new TreeMap<>();
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        boolean failed = false;
+
+        for (Transfer transfer : transfers) {
+
+            TransferResult.Status status = transferCopies(transfer, customerId, accounts, recipientIds, copies);
+
+            failed |= status != TransferResult.Status.TRANSFERRED;
+            results.add(new TransferResult(transfer, status));
+        }
+
+        if (failed && mode == TransferBatchMode.ALL_OR_NOTHING) {
+            return notPerformed(results);
+        }
+
+        for (Account copy : copies.values()) {
+
+            Account account = accounts.get(copy.getId());
+            Money delta = copy.getBalance().minus(account.getBalance());
+
+            if (!delta.isZero()) {
+                account.setBalance(account.getBalance().plus(delta));
+                accountDao.saveOrUpdate(account);
+            }
+        }
+
+        List<JournalEntry> entries = new ArrayList<>(results.size());
+        for (TransferResult result : results) {
+
+            if (result.isTransferred()) {
+
+                Transfer transfer = result.getTransfer();
+                entries.add(JournalEntry.transfer(transfer.getSrcId(), transfer.getDstId(), transfer.getAmount()));
+                customerBalancesMoved(accounts.get(transfer.getSrcId()), accounts.get(transfer.getDstId()),
+                        transfer.getAmount());
+            }
+        }
+
+        journalDao.appendAll(entries);
+
+        return results;
+    }
+
+    /**
+     * Moves the given amount from the source to the destination account
+     *
+     * @param srcAccount the source account
+     * @param dstAccount the destination account
+     * @param amount     the amount to transfer
+     * @throws AccountNotFoundException
+     * @throws TransactionInvalidException
+     */
+    protected void accountTransfer(Account srcAccount, Account dstAccount, Money amount)
             throws AccountNotFoundException, TransactionInvalidException {
 
         // make sure transaction can be performed
         verifyTransferAccountInformation(srcAccount, dstAccount, amount);
 
-        srcAccount.debit(amount);
-        dstAccount.credit(amount);
+        if (lockMode == TransferLockMode.CONDITIONAL_UPDATE) {
+
+            // the rows are locked in ascending id order, so that opposite transfers between the same accounts
+            // queue up instead of deadlocking, while a split destination only takes the row of one of its slots
+            if (!dstAccount.isSplit() && dstAccount.getId() < srcAccount.getId()) {
+                accountDao.lock(dstAccount.getId());
+            }
+
+            // the source balance check and the debit are a single conditional update
+            if (!accountDao.debitIfSufficient(srcAccount.getId(), amount)) {
+                throw new TransactionInvalidException();
+            }
+
+            // split accounts are credited on one of their slots, so that concurrent credits do not wait on each other
+            boolean credited = dstAccount.isSplit() ?
+                    accountDao.creditSlot(dstAccount.getId(), dstAccount.pickSlot(), amount) :
+                    accountDao.credit(dstAccount.getId(), amount);
+
+            // the transaction rolls back the debit if the destination is gone by now
+            if (!credited) {
+                throw new AccountNotFoundException();
+            }
+
+        } else {
+
+            if (!srcAccount.canDebit(amount)) {
+                throw new TransactionInvalidException();
+            }
+
+            // versioned updates, which only conflict if the accounts are not locked
+            srcAccount.debit(amount);
+            dstAccount.credit(amount);
+            accountDao.saveOrUpdate(srcAccount);
+            accountDao.saveOrUpdate(dstAccount);
+        }
+
+        journalDao.append(JournalEntry.transfer(srcAccount.getId(), dstAccount.getId(), amount));
+        customerBalancesMoved(srcAccount, dstAccount, amount);
+    }
+
+    /**
+     * Reports a transfer to the customer balance read model
+     *
+     * @param srcAccount the source account
+     * @param dstAccount the destination account
+     * @param amount     the transferred amount
+     */
+    protected void customerBalancesMoved(Account srcAccount, Account dstAccount, Money amount) {
+
+        // accounts without a customer are ignored by the read model
+        customerBalanceReadModel.debited(customerId(srcAccount), amount);
+        customerBalanceReadModel.credited(customerId(dstAccount), amount);
+    }
+
+    /**
+     * Locks the accounts of a transfer in the pessimistic lock mode, so that the transfer then reads them from
+     * the persistence context, already locked
+     *
+     * @param transfer the transfer
+     */
+    protected void lockAccounts(Transfer transfer) {
+
+        if (lockMode != TransferLockMode.PESSIMISTIC) {
+            return;
+        }
+
+        // ascending ids, so that opposite transfers between the same accounts queue up instead of deadlocking
+        Set<Integer> ids = new TreeSet<>();
+        Optional.ofNullable(transfer.getSrcId()).ifPresent(ids::add);
+        Optional.ofNullable(transfer.getDstId()).ifPresent(ids::add);
 
-        accountDao.saveOrUpdate(srcAccount);
-        accountDao.saveOrUpdate(dstAccount);
+        for (Integer id : ids) {
+            accountDao.findByIdForUpdate(id, lockTimeout);
+        }
     }
 
-    private void verifyTransferAccountInformation(Account srcAccount, Account dstAccount, double amount)
+    private void verifyTransferAccountInformation(Account srcAccount, Account dstAccount, Money amount)
             throws AccountNotFoundException, TransactionInvalidException {
 
         Optional.ofNullable(srcAccount)
@@ -108,26 +370,76 @@ public class TransferServiceImpl implements TransferService {
         Optional.ofNullable(dstAccount)
                 .orElseThrow(AccountNotFoundException::new);
 
-        if (!srcAccount.canDebit(amount) || !dstAccount.canCredit(amount)) {
+        if (!dstAccount.canCredit(amount)) {
             throw new TransactionInvalidException();
         }
 
     }
 
-    private void verifyRecipientId(Customer customer, Account dstAccount) throws AccountNotFoundException {
+    private void verifyRecipientId(Integer customerId, Account dstAccount) throws AccountNotFoundException {
 
-        List<Integer> recipientAccountIds = listRecipientAccountIds(customer);
+        if (isOwnedBy(dstAccount, customerId)) {
+            return;
+        }
 
-        if (!customer.getAccounts().contains(dstAccount) &&
-                !recipientAccountIds.contains(dstAccount.getId())) {
+        // an indexed lookup, the customer recipients are never loaded
+        if (!recipientDao.exists(customerId, dstAccount.getId())) {
             throw new AccountNotFoundException();
         }
     }
 
-    private List<Integer> listRecipientAccountIds(Customer customer) {
+    private TransferResult.Status transferCopies(Transfer transfer, Integer customerId, Map<Integer, Account> accounts,
+                                                 Set<Integer> recipientIds, Map<Integer, Account> copies) {
+
+        Account srcAccount = accounts.get(transfer.getSrcId());
+        Account dstAccount = accounts.get(transfer.getDstId());
+
+        if (!isOwnedBy(srcAccount, customerId) || dstAccount == null ||
+                !(isOwnedBy(dstAccount, customerId) || recipientIds.contains(dstAccount.getId()))) {
+            return TransferResult.Status.ACCOUNT_NOT_FOUND;
+        }
+
+        Account srcCopy = copies.computeIfAbsent(srcAccount.getId(), id -> copy(srcAccount));
+        Account dstCopy = copies.computeIfAbsent(dstAccount.getId(), id -> copy(dstAccount));
+
+        // the copies hold the balances left by the previous transfers of the batch
+        if (!dstCopy.canCredit(transfer.getAmount()) || !srcCopy.canDebit(transfer.getAmount())) {
+            return TransferResult.Status.TRANSACTION_INVALID;
+        }
+
+        srcCopy.debit(transfer.getAmount());
+        dstCopy.credit(transfer.getAmount());
+
+        return TransferResult.Status.TRANSFERRED;
+    }
+
+    private Account copy(Account account) {
+
+        // a detached copy, so that the account rules apply to the balance of the batch
+        Account copy = accountFactory.createAccount(account.getAccountType());
+        copy.setId(account.getId());
+        copy.setBalance(account.getBalance());
+
+        return copy;
+    }
+
+    private List<TransferResult> notPerformed(List<TransferResult> results) {
+
+        List<TransferResult> notPerformed = new ArrayList<>(results.size());
+
+        for (TransferResult result : results) {
+            notPerformed.add(result.isTransferred() ?
+                    new TransferResult(result.getTransfer(), TransferResult.Status.NOT_PERFORMED) : result);
+        }
+
+        return notPerformed;
+    }
+
+    private Integer customerId(Account account) {
+        return account.getCustomer() == null ? null : account.getCustomer().getId();
+    }
 
-        return customer.getRecipients().stream()
-                .map(Recipient::getAccountNumber)
-                .collect(Collectors.toList());
+    private boolean isOwnedBy(Account account, Integer customerId) {
+        return account != null && account.getCustomer() != null && account.getCustomer().getId().equals(customerId);
     }
 }
@@ -0,0 +1,320 @@
+package org.academiadecodigo.javabank.services.aggregator;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces the credits to each account into a single balance update per flush
+ * <p>
+ * Enabled by the {@code aggregator} profile. Credits are buffered in memory for a flush interval and then applied
+ * in one transaction, each account receiving the sum of its credits in a single update and each credit getting
+ * its own journal entry. Callers wait for the flush holding their credit to commit, so a credit is only
+ * acknowledged once it is durable, and a failed flush is reported to every credit it held. A credit no flush
+ * has taken within the credit timeout is abandoned, so that a stalled writer does not hold its callers forever.
+ */
+@Component
+@Profile("aggregator")
+public class CreditAggregator implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(CreditAggregator.class);
+
+    private final Queue<PendingCredit> pendingCredits = new ConcurrentLinkedQueue<>();
+
+    private AccountDao accountDao;
+    private JournalDao journalDao;
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService writer;
+    private long flushInterval = 5;
+    private long creditTimeout = 5000;
+    private volatile boolean running;
+
+    /**
+     * Sets the account data access object
+     *
+     * @param accountDao the account dao to set
+     */
+    @Autowired
+    public void setAccountDao(AccountDao accountDao) {
+        this.accountDao = accountDao;
+    }
+
+    /**
+     * Sets the journal data access object
+     *
+     * @param journalDao the journal dao to set
+     */
+    @Autowired
+    public void setJournalDao(JournalDao journalDao) {
+        this.journalDao = journalDao;
+    }
+
+    /**
+     * Sets the transaction manager used to flush the credits
+     *
+     * @param transactionManager the transaction manager to set
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sets the interval between credit flushes
+     *
+     * @param flushInterval the interval in milliseconds
+     */
+    @Value("${aggregator.flush.interval:5}")
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Sets the time a credit waits to be taken by a flush
+     *
+     * @param creditTimeout the timeout in milliseconds
+     */
+    @Value("${aggregator.credit.timeout:5000}")
+    public void setCreditTimeout(long creditTimeout) {
+        this.creditTimeout = creditTimeout;
+    }
+
+    /**
+     * Starts the background writer
+     *
+     * @see InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credit-aggregator-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        writer.scheduleWithFixedDelay(() -> {
+
+            // anything thrown out of the task would cancel every later flush, leaving the callers waiting
+            try {
+                flush();
+
+            } catch (Throwable ex) {
+                logger.error("Unable to flush the credits - {}", ex.getMessage());
+            }
+
+        }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background writer, flushing any pending credits
+     *
+     * @see DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+
+        running = false;
+        writer.shutdown();
+        writer.awaitTermination(flushInterval * 10, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Credits an account and journals the credit as a deposit, waiting for the flush holding it to commit
+     * <p>
+     * Callers must not hold a transaction, as it would keep a connection the flush may be waiting for.
+     *
+     * @param id     the account id
+     * @param amount the amount to credit
+     * @return {@code true} if the account was credited, {@code false} if it does not exist
+     * @throws TransactionInvalidException if no flush took the credit in time, which is then never applied
+     * @throws RuntimeException            the failure of the flush, which credited none of the accounts it held
+     */
+    public boolean credit(Integer id, Money amount) throws TransactionInvalidException {
+
+        PendingCredit credit = new PendingCredit(id, amount);
+        pendingCredits.add(credit);
+
+        // a credit queued while the writer stops is flushed by its caller
+        if (!running) {
+            flush();
+        }
+
+        try {
+            return credit.outcome.get(creditTimeout, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException ex) {
+
+            if (credit.take()) {
+                logger.warn("Abandoned a credit of {} to account {} after {} ms", amount, id, creditTimeout);
+                throw new TransactionInvalidException();
+            }
+
+            // a flush holds the credit already, and completes it however it ends
+            return awaitFlush(credit);
+
+        } catch (InterruptedException ex) {
+
+            // the credit is still flushed, the caller just does not learn its outcome
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the credit flush", ex);
+
+        } catch (ExecutionException ex) {
+
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private boolean awaitFlush(PendingCredit credit) {
+
+        try {
+            return credit.outcome.get();
+
+        } catch (InterruptedException ex) {
+
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the credit flush", ex);
+
+        } catch (ExecutionException ex) {
+
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Applies the pending credits in a single transaction, one balance update per account
+     */
+    public synchronized void flush() {
+
+        List<PendingCredit> credits = drainCredits();
+
+        // credits abandoned by their callers are dropped
+        credits.removeIf(credit -> !credit.take());
+
+        if (credits.isEmpty()) {
+            return;
+        }
+
+        // accounts are updated in ascending id order, so that flushes do not deadlock with other writers
+        Map<Integer, List<PendingCredit>> creditsById = new TreeMap<>();
+        for (PendingCredit credit : credits) {
+            creditsById.computeIfAbsent(credit.id, id -> new ArrayList<>()).add(credit);
+        }
+
+        Map<Integer, Boolean> credited;
+
+        try {
+            credited = transactionTemplate.execute(status -> apply(creditsById));
+
+        } catch (Throwable ex) {
+
+            logger.error("Unable to flush {} credits - {}", credits.size(), ex.getMessage());
+            credits.forEach(credit -> credit.outcome.completeExceptionally(ex));
+            return;
+        }
+
+        for (PendingCredit credit : credits) {
+            credit.outcome.complete(credited.get(credit.id));
+        }
+    }
+
+    private Map<Integer, Boolean> apply(Map<Integer, List<PendingCredit>> creditsById) {
+
+        Map<Integer, Boolean> credited = new TreeMap<>();
+        List<JournalEntry> entries = new ArrayList<>();
+
+        for (Map.Entry<Integer, List<PendingCredit>> accountCredits : creditsById.entrySet()) {
+
+            Money sum = Money.ZERO;
+            for (PendingCredit credit : accountCredits.getValue()) {
+                sum = sum.plus(credit.amount);
+            }
+
+            boolean found = accountDao.credit(accountCredits.getKey(), sum);
+            credited.put(accountCredits.getKey(), found);
+
+            if (found) {
+                for (PendingCredit credit : accountCredits.getValue()) {
+                    entries.add(JournalEntry.deposit(credit.id, credit.amount));
+                }
+            }
+        }
+
+        journalDao.appendAll(entries);
+
+        return credited;
+    }
+
+    private List<PendingCredit> drainCredits() {
+
+        List<PendingCredit> credits = new ArrayList<>();
+
+        PendingCredit credit;
+        while ((credit = pendingCredits.poll()) != null) {
+            credits.add(credit);
+        }
+
+        return credits;
+    }
+
+    /**
+     * A credit waiting for its flush
+     */
+    private static class PendingCredit {
+
+        private final Integer id;
+        private final Money amount;
+        private final CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        private PendingCredit(Integer id, Money amount) {
+            this.id = id;
+            this.amount = amount;
+        }
+
+        /**
+         * Takes the credit, either for a flush or for its caller to abandon it, whichever comes first
+         *
+         * @return {@code true} if the credit was taken
+         */
+        private boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package org.academiadecodigo.javabank.services.engine;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.factories.AccountFactory;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-memory ledger holding the hot account balances, guarded by a fixed set of striped locks
+ * <p>
+ * Each account is mapped to a stripe by its id, and transfers acquire the stripes of both accounts
+ * in ascending stripe order so that concurrent transfers in opposite directions can not deadlock.
+ * Every movement is also accumulated as a pending delta in cents until it is settled against the stored balance.
+ * <p>
+ * The balance held for an account is its stored balance plus its pending delta. It is reloaded whenever the
+ * account is settled, and taken from a newer version of the account whenever nothing is pending, so that the
+ * balance movements of other writers are followed.
+ */
+@Component
+@Profile("engine")
+public class BalanceEngine {
+
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final ConcurrentMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    private AccountFactory accountFactory;
+
+    /**
+     * Initializes a new engine with the default number of lock stripes
+     */
+    public BalanceEngine() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Initializes a new engine given the number of lock stripes
+     *
+     * @param stripeCount the number of lock stripes, must be a power of two
+     */
+    public BalanceEngine(int stripeCount) {
+
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Sets the account factory
+     *
+     * @param accountFactory the account factory to set
+     */
+    @Autowired
+    public void setAccountFactory(AccountFactory accountFactory) {
+        this.accountFactory = accountFactory;
+    }
+
+    /**
+     * Transfers an amount between two accounts, loading their balances into the engine on first use
+     *
+     * @param srcAccount the source account
+     * @param dstAccount the destination account
+     * @param amount     the amount to transfer
+     * @throws TransactionInvalidException if the in-memory balances do not allow the transfer
+     */
+    public void transfer(Account srcAccount, Account dstAccount, Money amount) throws TransactionInvalidException {
+
+        Entry src = entryFor(srcAccount);
+        Entry dst = entryFor(dstAccount);
+
+        int srcStripe = stripeOf(src.id);
+        int dstStripe = stripeOf(dst.id);
+
+        // always lock the lowest stripe first
+        ReentrantLock first = stripes[Math.min(srcStripe, dstStripe)];
+        ReentrantLock second = stripes[Math.max(srcStripe, dstStripe)];
+
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+
+        try {
+
+            src.refresh(srcAccount);
+            dst.refresh(dstAccount);
+
+            if (!src.account.canDebit(amount) || !dst.account.canCredit(amount)) {
+                throw new TransactionInvalidException();
+            }
+
+            src.account.debit(amount);
+            src.pending -= amount.getCents();
+
+            dst.account.credit(amount);
+            dst.pending += amount.getCents();
+
+        } finally {
+
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+    }
+
+    /**
+     * Takes back a transfer which will not be persisted, as if it never happened
+     * <p>
+     * Accounts dropped from the engine meanwhile are left alone.
+     *
+     * @param srcId  the source account id
+     * @param dstId  the destination account id
+     * @param amount the transferred amount
+     */
+    public void cancel(Integer srcId, Integer dstId, Money amount) {
+
+        Entry src = entries.get(srcId);
+        Entry dst = entries.get(dstId);
+
+        int srcStripe = stripeOf(srcId);
+        int dstStripe = stripeOf(dstId);
+
+        ReentrantLock first = stripes[Math.min(srcStripe, dstStripe)];
+        ReentrantLock second = stripes[Math.max(srcStripe, dstStripe)];
+
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+
+        try {
+
+            if (src != null) {
+                src.account.setBalance(src.account.getBalance().plus(amount));
+                src.pending += amount.getCents();
+            }
+
+            if (dst != null) {
+                dst.account.setBalance(dst.account.getBalance().minus(amount));
+                dst.pending -= amount.getCents();
+            }
+
+        } finally {
+
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+    }
+
+    /**
+     * Gets the in-memory balance of an account
+     *
+     * @param id the account id
+     * @return the balance, or {@code null} if the account is not held by the engine
+     */
+    public Money getBalance(Integer id) {
+
+        Entry entry = entries.get(id);
+
+        if (entry == null) {
+            return null;
+        }
+
+        ReentrantLock lock = stripes[stripeOf(id)];
+        lock.lock();
+        try {
+            return entry.account.getBalance();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the sum of all balances held by the engine, as a consistent snapshot
+     *
+     * @return the total balance
+     */
+    public Money getTotalBalance() {
+
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+
+        try {
+
+            long total = 0;
+            for (Entry entry : entries.values()) {
+                total += entry.account.getBalance().getCents();
+            }
+
+            return Money.ofCents(total);
+
+        } finally {
+
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets the balance deltas not settled yet
+     *
+     * @return the pending deltas in cents by account id
+     */
+    public Map<Integer, Long> getPendingDeltas() {
+
+        Map<Integer, Long> deltas = new HashMap<>();
+
+        for (Entry entry : entries.values()) {
+
+            ReentrantLock lock = stripes[stripeOf(entry.id)];
+            lock.lock();
+            try {
+
+                if (entry.pending != 0) {
+                    deltas.put(entry.id, entry.pending);
+                }
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return deltas;
+    }
+
+    /**
+     * Settles the deltas of transfers no longer pending, whether persisted or rejected, reloading the balances
+     * of their accounts from the stored accounts
+     * <p>
+     * Accounts no longer stored are dropped from the engine.
+     *
+     * @param deltas   the settled deltas in cents by account id
+     * @param accounts the stored accounts by id, read once the deltas were persisted
+     */
+    public void settle(Map<Integer, Long> deltas, Map<Integer, Account> accounts) {
+
+        for (Map.Entry<Integer, Long> delta : deltas.entrySet()) {
+
+            Entry entry = entries.get(delta.getKey());
+
+            if (entry == null) {
+                continue;
+            }
+
+            ReentrantLock lock = stripes[stripeOf(entry.id)];
+            lock.lock();
+
+            try {
+
+                entry.pending -= delta.getValue();
+
+                Account stored = accounts.get(entry.id);
+                if (stored == null) {
+                    entries.remove(entry.id, entry);
+                    continue;
+                }
+
+                entry.account.setBalance(stored.getBalance().plus(Money.ofCents(entry.pending)));
+                entry.version = stored.getVersion();
+
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Entry entryFor(Account account) {
+        return entries.computeIfAbsent(account.getId(), id -> new Entry(id, copyOf(account), account.getVersion()));
+    }
+
+    private Account copyOf(Account account) {
+
+        // keep a detached copy so that the account rules apply to the in-memory balance
+        Account copy = accountFactory.createAccount(account.getAccountType());
+        copy.setId(account.getId());
+        copy.setBalance(account.getBalance());
+
+        return copy;
+    }
+
+    private int stripeOf(int id) {
+        return id & (stripes.length - 1);
+    }
+
+    private static class Entry {
+
+        private final int id;
+        private final Account account;
+        private Integer version;
+        private long pending;
+
+        private Entry(int id, Account account, Integer version) {
+            this.id = id;
+            this.account = account;
+            this.version = version;
+        }
+
+        // an account read before the last settlement is older than the balance held, and with deltas pending
+        // the stored balance may or may not include them, so only a newer account with nothing pending is taken
+        private void refresh(Account stored) {
+
+            if (pending != 0 || stored.getVersion() == null || version != null && stored.getVersion() <= version) {
+                return;
+            }
+
+            account.setBalance(stored.getBalance());
+            version = stored.getVersion();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.academiadecodigo.javabank.services.memo;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of the request scoped memos, shared by every request
+ */
+@Component
+public class MemoCounters {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Gets the number of reads served from a memo, each one a database load avoided
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of reads passed on to the service, as they were not memoized yet
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of writes which discarded the memoized reads of a request
+     *
+     * @return the number of invalidations
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void missed() {
+        misses.increment();
+    }
+
+    void invalidated() {
+        invalidations.increment();
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "MemoCounters{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", invalidations=" + getInvalidations() +
+                '}';
+    }
+}
@@ -0,0 +1,214 @@
+package org.academiadecodigo.javabank.services.memo;
+
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
+import org.academiadecodigo.javabank.exceptions.*;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link CustomerService} which memoizes the customer reads of a single http request, so that each
+ * aggregate is loaded at most once per request however many times the views ask for it
+ * <p>
+ * Meant for the web controllers, which ask for the same customer several times while filling a model. Writes
+ * go through to the service and discard every memoized read. Writes made through other services are not
+ * seen, the controllers redirect after them instead of rendering in the same request.
+ */
+@Service(RequestScopedCustomerService.NAME)
+@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.INTERFACES)
+public class RequestScopedCustomerService implements CustomerService {
+
+    public static final String NAME = "requestScopedCustomerService";
+
+    private final Map<Integer, Customer> customers = new HashMap<>();
+    private final Map<Integer, Money> balances = new HashMap<>();
+    private final Map<Integer, List<Recipient>> recipients = new HashMap<>();
+
+    private CustomerService customerService;
+    private MemoCounters memoCounters;
+
+    /**
+     * Sets the customer service the reads are passed on to
+     *
+     * @param customerService the customer service to set
+     */
+    @Autowired
+    public void setCustomerService(CustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    /**
+     * Sets the memo counters
+     *
+     * @param memoCounters the memo counters to set
+     */
+    @Autowired
+    public void setMemoCounters(MemoCounters memoCounters) {
+        this.memoCounters = memoCounters;
+    }
+
+    /**
+     * @see CustomerService#get(Integer)
+     */
+    @Override
+    public Customer get(Integer id) {
+        return memoize(customers, id, () -> customerService.get(id));
+    }
+
+    /**
+     * @see CustomerService#getBalance(Integer)
+     */
+    @Override
+    public Money getBalance(Integer id) throws CustomerNotFoundException {
+
+        Customer customer = customers.get(id);
+
+        // the customer accounts are already loaded, so is the balance
+        if (customer != null) {
+            memoCounters.hit();
+            return Money.ofCents(customer.getAccounts().stream()
+                    .mapToLong(account -> account.getBalance().getCents())
+                    .reduce(0, Math::addExact));
+        }
+
+        return memoize(balances, id, () -> customerService.getBalance(id));
+    }
+
+    /**
+     * @see CustomerService#getBalances(Collection)
+     */
+    @Override
+    public Map<Integer, Money> getBalances(Collection<Integer> ids) {
+        return customerService.getBalances(ids);
+    }
+
+    /**
+     * @see CustomerService#save(Customer)
+     */
+    @Override
+    public Customer save(Customer customer) {
+        invalidate();
+        return customerService.save(customer);
+    }
+
+    /**
+     * @see CustomerService#delete(Integer)
+     */
+    @Override
+    public void delete(Integer id) throws AssociationExistsException, CustomerNotFoundException {
+        invalidate();
+        customerService.delete(id);
+    }
+
+    /**
+     * @see CustomerService#list(PageRequest)
+     */
+    @Override
+    public Page<Customer> list(PageRequest pageRequest) {
+        return customerService.list(pageRequest);
+    }
+
+    /**
+     * @see CustomerService#listSummaries(PageRequest)
+     */
+    @Override
+    public Page<CustomerSummary> listSummaries(PageRequest pageRequest) {
+        return customerService.listSummaries(pageRequest);
+    }
+
+    /**
+     * @see CustomerService#listRecipients(Integer)
+     */
+    @Override
+    public List<Recipient> listRecipients(Integer id) throws CustomerNotFoundException {
+        return memoize(recipients, id, () -> customerService.listRecipients(id));
+    }
+
+    /**
+     * @see CustomerService#addRecipient(Integer, Recipient)
+     */
+    @Override
+    public Recipient addRecipient(Integer id, Recipient recipient)
+            throws CustomerNotFoundException, AccountNotFoundException {
+        invalidate();
+        return customerService.addRecipient(id, recipient);
+    }
+
+    /**
+     * @see CustomerService#removeRecipient(Integer, Integer)
+     */
+    @Override
+    public void removeRecipient(Integer id, Integer recipientId)
+            throws CustomerNotFoundException, AccountNotFoundException, RecipientNotFoundException {
+        invalidate();
+        customerService.removeRecipient(id, recipientId);
+    }
+
+    /**
+     * @see CustomerService#addAccount(Integer, Account)
+     */
+    @Override
+    public Account addAccount(Integer id, Account account)
+            throws CustomerNotFoundException, TransactionInvalidException {
+        invalidate();
+        return customerService.addAccount(id, account);
+    }
+
+    /**
+     * @see CustomerService#closeAccount(Integer, Integer)
+     */
+    @Override
+    public void closeAccount(Integer id, Integer accountId)
+            throws CustomerNotFoundException, AccountNotFoundException, TransactionInvalidException {
+        invalidate();
+        customerService.closeAccount(id, accountId);
+    }
+
+    // a read which failed is not memoized, it fails again if asked again
+    private <T, E extends Exception> T memoize(Map<Integer, T> memo, Integer id, Read<T, E> read) throws E {
+
+        if (memo.containsKey(id)) {
+            memoCounters.hit();
+            return memo.get(id);
+        }
+
+        memoCounters.missed();
+
+        T value = read.read();
+        memo.put(id, value);
+
+        return value;
+    }
+
+    private void invalidate() {
+
+        if (customers.isEmpty() && balances.isEmpty() && recipients.isEmpty()) {
+            return;
+        }
+
+        memoCounters.invalidated();
+
+        customers.clear();
+        balances.clear();
+        recipients.clear();
+    }
+
+    @FunctionalInterface
+    private interface Read<T, E extends Exception> {
+        T read() throws E;
+    }
+}
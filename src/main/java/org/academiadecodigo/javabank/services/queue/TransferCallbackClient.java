@@ -0,0 +1,107 @@
+package org.academiadecodigo.javabank.services.queue;
+
+import org.academiadecodigo.javabank.converters.QueuedTransferToQueuedTransferDto;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Notifies the callback urls of the queued transfers of their outcome
+ * <p>
+ * Only local endpoints may be notified, so that submitting a transfer can not make the bank send requests to
+ * other hosts. Each outcome is posted once, a failed notification is logged and the outcome is left to be
+ * polled.
+ */
+@Component
+public class TransferCallbackClient {
+
+    private static final Logger logger = LogManager.getLogger(TransferCallbackClient.class);
+
+    private static final int CONNECT_TIMEOUT = 1000;
+    private static final int READ_TIMEOUT = 2000;
+
+    private RestTemplate restTemplate;
+    private QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto;
+
+    /**
+     * Initializes a new callback client, with short timeouts so that a slow endpoint does not hold a worker
+     */
+    public TransferCallbackClient() {
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+
+        restTemplate = new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Sets the rest template used to post the outcomes
+     *
+     * @param restTemplate the rest template to set
+     */
+    public void setRestTemplate(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Sets the converter for converting between queued transfers and queued transfer DTO
+     *
+     * @param queuedTransferToQueuedTransferDto the queued transfer to queued transfer DTO converter
+     */
+    @Autowired
+    public void setQueuedTransferToQueuedTransferDto(QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto) {
+        this.queuedTransferToQueuedTransferDto = queuedTransferToQueuedTransferDto;
+    }
+
+    /**
+     * Checks if a callback url may be notified, which requires a http url of the local host
+     *
+     * @param callback the callback url
+     * @return {@code true} if the url is allowed
+     */
+    public boolean isAllowed(String callback) {
+
+        try {
+
+            URI uri = new URI(callback);
+            String host = uri.getHost();
+
+            // the host is never resolved, so that a name can not point somewhere else later on
+            return ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) && host != null &&
+                    (host.equalsIgnoreCase("localhost") || host.equals("[::1]") || host.matches("127(\\.\\d{1,3}){3}"));
+
+        } catch (URISyntaxException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Posts the outcome of a queued transfer to its callback url, if any
+     *
+     * @param queuedTransfer the processed transfer
+     */
+    public void notify(QueuedTransfer queuedTransfer) {
+
+        if (queuedTransfer.getCallback() == null) {
+            return;
+        }
+
+        try {
+            restTemplate.postForEntity(queuedTransfer.getCallback(),
+                    queuedTransferToQueuedTransferDto.convert(queuedTransfer), Void.class);
+
+        } catch (RestClientException ex) {
+            logger.warn("Unable to notify transfer {} to {} - {}", queuedTransfer.getId(), queuedTransfer.getCallback(),
+                    ex.getMessage());
+        }
+    }
+}
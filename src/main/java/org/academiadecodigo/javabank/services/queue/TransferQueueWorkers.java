@@ -0,0 +1,185 @@
+package org.academiadecodigo.javabank.services.queue;
+
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.services.TransferQueueService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of background workers draining the transfer queue
+ * <p>
+ * Each worker owns a partition of the queue, so workers never contend for the same transfers. A worker
+ * processes batches back to back while it finds full ones, and polls again after an interval once the
+ * partition is drained. A failed batch is rolled back, and its transfers are then processed one per transaction,
+ * so that a transfer failing with an error only holds back itself. It stays pending until the next poll, and is
+ * given up once it failed too many times.
+ */
+@Component
+public class TransferQueueWorkers implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(TransferQueueWorkers.class);
+
+    private TransferQueueService transferQueueService;
+    private TransferCallbackClient transferCallbackClient;
+    private ScheduledExecutorService workers;
+    private volatile boolean stopping;
+    private int size;
+    private int batchSize;
+    private long pollInterval;
+
+    /**
+     * Sets the transfer queue service
+     *
+     * @param transferQueueService the transfer queue service to set
+     */
+    @Autowired
+    public void setTransferQueueService(TransferQueueService transferQueueService) {
+        this.transferQueueService = transferQueueService;
+    }
+
+    /**
+     * Sets the client notifying the transfer outcomes
+     *
+     * @param transferCallbackClient the transfer callback client to set
+     */
+    @Autowired
+    public void setTransferCallbackClient(TransferCallbackClient transferCallbackClient) {
+        this.transferCallbackClient = transferCallbackClient;
+    }
+
+    /**
+     * Sets the number of workers, which is also the number of partitions of the queue
+     *
+     * @param size the number of workers
+     */
+    @Value("${queue.workers:2}")
+    public void setSize(int size) {
+
+        if (size <= 0) {
+            throw new IllegalArgumentException("Workers must be positive");
+        }
+
+        this.size = size;
+    }
+
+    /**
+     * Sets the maximum number of transfers processed in a single transaction
+     *
+     * @param batchSize the batch size
+     */
+    @Value("${queue.batch.size:50}")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the interval between polls of a drained partition
+     *
+     * @param pollInterval the interval in milliseconds
+     */
+    @Value("${queue.poll.interval:100}")
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Starts the workers
+     *
+     * @see InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        workers = Executors.newScheduledThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "transfer-queue-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < size; i++) {
+            int partition = i;
+            workers.scheduleWithFixedDelay(() -> drain(partition), pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the workers, letting the batches in progress finish
+     *
+     * @see DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        stopping = true;
+        workers.shutdown();
+        workers.awaitTermination(pollInterval * 10, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Processes the pending transfers of a partition of the queue, until no full batch is left
+     *
+     * @param partition the partition
+     */
+    public void drain(int partition) {
+
+        try {
+
+            List<QueuedTransfer> processed;
+
+            do {
+
+                try {
+                    processed = transferQueueService.process(partition, size, batchSize);
+
+                } catch (RuntimeException ex) {
+
+                    logger.warn("Unable to process a batch of the transfer queue partition {}, " +
+                            "processing its transfers one by one - {}", partition, ex.getMessage());
+
+                    // the transfers still pending wait for the next poll
+                    processEach(partition);
+                    return;
+                }
+
+                // only notified once committed
+                for (QueuedTransfer queuedTransfer : processed) {
+                    transferCallbackClient.notify(queuedTransfer);
+                }
+
+            } while (processed.size() == batchSize && !stopping);
+
+        } catch (RuntimeException ex) {
+            logger.error("Unable to process the transfer queue partition {} - {}", partition, ex.getMessage());
+        }
+    }
+
+    private void processEach(int partition) {
+
+        for (QueuedTransfer pending : transferQueueService.findPending(partition, size, batchSize)) {
+
+            QueuedTransfer processed;
+
+            try {
+                processed = transferQueueService.process(pending.getId());
+
+            } catch (RuntimeException ex) {
+
+                logger.error("Unable to process the queued transfer {} - {}", pending.getId(), ex.getMessage());
+                processed = transferQueueService.recordFailure(pending.getId());
+            }
+
+            if (processed != null && !processed.isPending()) {
+                transferCallbackClient.notify(processed);
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.academiadecodigo.javabank.services.readmodel;
+
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory read model holding the total balance and the number of accounts of each customer, so that
+ * they are read without summing the customer accounts
+ * <p>
+ * The services report every balance movement and every account opened or closed. Changes made inside a
+ * transaction are collected and applied once it has committed, so rolled back changes are never seen.
+ * <p>
+ * The model is rebuilt from the accounts at startup, and whenever asked to over jmx, reading the partitions of
+ * the customers concurrently. The partitions are read without holding back the commits, so a customer changed
+ * while they are read keeps the balance the model already held, as the read may or may not have seen the
+ * change. Balances the engine has not flushed yet are not seen by a rebuild.
+ */
+@Component
+@ManagedResource(objectName = CustomerBalanceReadModel.OBJECT_NAME)
+public class CustomerBalanceReadModel implements ApplicationListener<ContextRefreshedEvent> {
+
+    public static final int DEFAULT_PARTITIONS = 4;
+    public static final String OBJECT_NAME = "org.academiadecodigo.javabank:type=CustomerBalanceReadModel";
+
+    private static final Logger logger = LogManager.getLogger(CustomerBalanceReadModel.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile ConcurrentMap<Integer, CustomerBalance> balances = new ConcurrentHashMap<>();
+    private volatile Set<Integer> changedDuringRebuild;
+    private boolean built;
+
+    private AccountDao accountDao;
+    private TransactionTemplate transactionTemplate;
+    private int partitions = DEFAULT_PARTITIONS;
+
+    /**
+     * Sets the account data access object the model is rebuilt from
+     *
+     * @param accountDao the account DAO to set
+     */
+    @Autowired
+    public void setAccountDao(AccountDao accountDao) {
+        this.accountDao = accountDao;
+    }
+
+    /**
+     * Sets the transaction manager used to read the partitions of a rebuild
+     *
+     * @param transactionManager the transaction manager to set
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Sets the number of partitions read concurrently by a rebuild
+     *
+     * @param partitions the number of partitions
+     */
+    @Value("${readmodel.rebuild.partitions:" + DEFAULT_PARTITIONS + "}")
+    public void setPartitions(int partitions) {
+
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Partitions must be positive");
+        }
+
+        this.partitions = partitions;
+    }
+
+    /**
+     * Gets the balance of a customer
+     *
+     * @param customerId the customer id
+     * @return the customer balance, or {@code null} if the customer owns no accounts or does not exist
+     */
+    public CustomerBalance get(Integer customerId) {
+        return balances.get(customerId);
+    }
+
+    /**
+     * Gets the number of customers held by the model
+     *
+     * @return the number of customers
+     */
+    public int size() {
+        return balances.size();
+    }
+
+    /**
+     * Reports an amount credited to an account of a customer
+     *
+     * @param customerId the customer id, accounts without a customer are ignored
+     * @param amount     the credited amount
+     */
+    public void credited(Integer customerId, Money amount) {
+        change(customerId, amount, 0);
+    }
+
+    /**
+     * Reports an amount debited from an account of a customer
+     *
+     * @param customerId the customer id, accounts without a customer are ignored
+     * @param amount     the debited amount
+     */
+    public void debited(Integer customerId, Money amount) {
+        change(customerId, Money.ZERO.minus(amount), 0);
+    }
+
+    /**
+     * Reports an account opened by a customer
+     *
+     * @param customerId the customer id
+     * @param balance    the opening balance of the account
+     */
+    public void accountOpened(Integer customerId, Money balance) {
+        change(customerId, balance, 1);
+    }
+
+    /**
+     * Reports an account closed by a customer
+     *
+     * @param customerId the customer id
+     * @param balance    the balance of the account when closed
+     */
+    public void accountClosed(Integer customerId, Money balance) {
+        change(customerId, Money.ZERO.minus(balance), -1);
+    }
+
+    /**
+     * Recomputes the model from the stored accounts, replacing it once every partition is read
+     * <p>
+     * Customers changed while the partitions are read keep their current balance, unless the model was never
+     * built. If any partition fails, the model is left as it was.
+     */
+    @ManagedOperation(description = "Recomputes the customer balances from the stored accounts")
+    public synchronized void rebuild() {
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitions, runnable -> {
+            Thread thread = new Thread(runnable, "customer-balance-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+
+            // each partition takes a connection, so the commits must not be waiting on the rebuild meanwhile
+            List<Future<List<CustomerBalance>>> reads = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                reads.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> accountDao.findCustomerBalances(partition, partitions))));
+            }
+
+            ConcurrentMap<Integer, CustomerBalance> rebuilt = new ConcurrentHashMap<>();
+            for (Future<List<CustomerBalance>> read : reads) {
+                for (CustomerBalance balance : read.get()) {
+                    rebuilt.put(balance.getCustomerId(), balance);
+                }
+            }
+
+            swap(rebuilt);
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Customer balance rebuild was interrupted", ex);
+
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Unable to rebuild the customer balances", ex.getCause());
+
+        } finally {
+            changedDuringRebuild = null;
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds the model once the application is started
+     *
+     * @see ApplicationListener#onApplicationEvent(ApplicationEvent)
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+
+        // child contexts publish their refresh to this context as well
+        if (event.getApplicationContext().getParent() != null) {
+            return;
+        }
+
+        rebuild();
+        logger.info("Customer balances rebuilt for {} customers", balances.size());
+    }
+
+    private void change(Integer customerId, Money balanceDelta, long accountsDelta) {
+
+        if (customerId == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyLocked(customerId, balanceDelta, accountsDelta);
+            return;
+        }
+
+        PendingChanges pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges && ((PendingChanges) synchronization).isOf(this)) {
+                pending = (PendingChanges) synchronization;
+            }
+        }
+
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        pending.add(customerId, balanceDelta, accountsDelta);
+    }
+
+    private void swap(ConcurrentMap<Integer, CustomerBalance> rebuilt) {
+
+        lock.writeLock().lock();
+
+        try {
+
+            if (built) {
+                for (Integer customerId : changedDuringRebuild) {
+
+                    CustomerBalance current = balances.get(customerId);
+
+                    if (current == null) {
+                        rebuilt.remove(customerId);
+                    } else {
+                        rebuilt.put(customerId, current);
+                    }
+                }
+            }
+
+            balances = rebuilt;
+            built = true;
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(Integer customerId, Money balanceDelta, long accountsDelta) {
+
+        lock.readLock().lock();
+        try {
+            apply(customerId, balanceDelta, accountsDelta);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Integer customerId, Money balanceDelta, long accountsDelta) {
+
+        Set<Integer> changedCustomers = changedDuringRebuild;
+        if (changedCustomers != null) {
+            changedCustomers.add(customerId);
+        }
+
+        // customers left without accounts or balance are dropped, as the rebuild would not find them
+        balances.compute(customerId, (id, balance) -> {
+
+            CustomerBalance changed = balance == null ?
+                    new CustomerBalance(id, balanceDelta, accountsDelta) : balance.plus(balanceDelta, accountsDelta);
+
+            return changed.isEmpty() ? null : changed;
+        });
+    }
+
+    /**
+     * The changes of a single transaction, applied once it commits
+     */
+    private class PendingChanges extends TransactionSynchronizationAdapter {
+
+        private final Map<Integer, CustomerBalance> changes = new HashMap<>();
+
+        private boolean isOf(CustomerBalanceReadModel readModel) {
+            return readModel == CustomerBalanceReadModel.this;
+        }
+
+        private void add(Integer customerId, Money balanceDelta, long accountsDelta) {
+            changes.merge(customerId, new CustomerBalance(customerId, balanceDelta, accountsDelta),
+                    (change, other) -> change.plus(other.getBalance(), other.getAccounts()));
+        }
+
+        /**
+         * Applies the changes of the committed transaction
+         *
+         * @see TransactionSynchronization#afterCommit()
+         */
+        @Override
+        public void afterCommit() {
+
+            for (CustomerBalance change : changes.values()) {
+                applyLocked(change.getCustomerId(), change.getBalance(), change.getAccounts());
+            }
+        }
+    }
+}
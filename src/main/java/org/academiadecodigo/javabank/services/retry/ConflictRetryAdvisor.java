@@ -0,0 +1,59 @@
+package org.academiadecodigo.javabank.services.retry;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * An advisor applying the {@link ConflictRetryInterceptor} to {@link RetryOnConflict} methods
+ * <p>
+ * Registered as an infrastructure bean, so that it is picked up by the same auto proxy creator as the
+ * transaction advisor, and ordered ahead of it so that the retries wrap the whole transaction.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class ConflictRetryAdvisor extends AbstractPointcutAdvisor {
+
+    private final Pointcut pointcut = AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class);
+
+    private ConflictRetryInterceptor conflictRetryInterceptor;
+
+    /**
+     * Initializes a new advisor, ordered ahead of the transaction advisor
+     */
+    public ConflictRetryAdvisor() {
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    /**
+     * Sets the conflict retry interceptor
+     *
+     * @param conflictRetryInterceptor the interceptor to set
+     */
+    @Autowired
+    public void setConflictRetryInterceptor(ConflictRetryInterceptor conflictRetryInterceptor) {
+        this.conflictRetryInterceptor = conflictRetryInterceptor;
+    }
+
+    /**
+     * @see AbstractPointcutAdvisor#getPointcut()
+     */
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    /**
+     * @see AbstractPointcutAdvisor#getAdvice()
+     */
+    @Override
+    public Advice getAdvice() {
+        return conflictRetryInterceptor;
+    }
+}
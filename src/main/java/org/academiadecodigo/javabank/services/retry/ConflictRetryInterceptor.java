@@ -0,0 +1,182 @@
+package org.academiadecodigo.javabank.services.retry;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.LockTimeoutException;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PessimisticLockException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link MethodInterceptor} which retries {@link RetryOnConflict} methods failing on a concurrent update
+ * <p>
+ * Attempts are bounded, and spaced by an exponential backoff with full jitter, so that the
+ * contending callers of a hot account spread out instead of colliding again on the next attempt.
+ * It must run outside of the transaction, so that each attempt starts a new one.
+ */
+@Component
+public class ConflictRetryInterceptor implements MethodInterceptor {
+
+    private static final Logger logger = LogManager.getLogger(ConflictRetryInterceptor.class);
+
+    private final ConcurrentMap<Method, RetryCounters> counters = new ConcurrentHashMap<>();
+
+    private int maxAttempts = 4;
+    private long backoff = 5;
+    private long maxBackoff = 100;
+
+    /**
+     * Sets the maximum number of attempts for each invocation
+     *
+     * @param maxAttempts the maximum number of attempts, including the first one
+     */
+    @Value("${retry.conflict.attempts:4}")
+    public void setMaxAttempts(int maxAttempts) {
+
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Retry attempts must be at least one");
+        }
+
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Sets the base backoff, doubled after each conflict
+     *
+     * @param backoff the base backoff in milliseconds
+     */
+    @Value("${retry.conflict.backoff:5}")
+    public void setBackoff(long backoff) {
+        this.backoff = backoff;
+    }
+
+    /**
+     * Sets the maximum backoff
+     *
+     * @param maxBackoff the maximum backoff in milliseconds
+     */
+    @Value("${retry.conflict.backoff.max:100}")
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Gets the counters of each intercepted method
+     *
+     * @return the counters by method signature
+     */
+    public Map<String, RetryCounters> getCounters() {
+
+        Map<String, RetryCounters> result = new TreeMap<>();
+        for (Map.Entry<Method, RetryCounters> entry : counters.entrySet()) {
+            result.put(signatureOf(entry.getKey()), entry.getValue());
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @see MethodInterceptor#invoke(MethodInvocation)
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+
+        // a conflict inside an outer transaction marks it for rollback, so only the outer caller may retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+
+        RetryCounters methodCounters = counters.computeIfAbsent(invocation.getMethod(), method -> new RetryCounters());
+        methodCounters.invoked();
+
+        for (int attempt = 1; ; attempt++) {
+
+            try {
+
+                // a fresh copy of the invocation, so that every attempt goes through the transaction interceptor again
+                return ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+
+            } catch (RuntimeException ex) {
+
+                if (!isConflict(ex)) {
+                    throw ex;
+                }
+
+                methodCounters.conflicted();
+
+                if (attempt >= maxAttempts) {
+                    methodCounters.exhausted();
+                    logger.warn("Giving up on {} after {} attempts", signatureOf(invocation.getMethod()), attempt);
+                    throw ex;
+                }
+
+                if (!pause(attempt)) {
+                    throw ex;
+                }
+
+                methodCounters.retried();
+            }
+        }
+    }
+
+    private boolean pause(int attempt) {
+
+        long ceiling = Math.min(maxBackoff, backoff << Math.min(attempt - 1, 30));
+
+        if (ceiling <= 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean isConflict(Throwable ex) {
+
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+
+            if (cause instanceof OptimisticLockException ||
+                    cause instanceof PessimisticLockException ||
+                    cause instanceof LockTimeoutException ||
+                    cause instanceof StaleStateException ||
+                    cause instanceof LockAcquisitionException ||
+                    cause instanceof ConcurrencyFailureException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String signatureOf(Method method) {
+
+        return method.getDeclaringClass().getSimpleName() + "#" + method.getName() +
+                Arrays.stream(method.getParameterTypes())
+                        .map(Class::getSimpleName)
+                        .collect(Collectors.joining(", ", "(", ")"));
+    }
+}
@@ -0,0 +1,79 @@
+package org.academiadecodigo.javabank.services.retry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The conflict and retry counters of a single service method
+ */
+public class RetryCounters {
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    /**
+     * Gets the number of invocations, not counting retries
+     *
+     * @return the number of invocations
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * Gets the number of attempts which failed on a concurrent update
+     *
+     * @return the number of conflicts
+     */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Gets the number of attempts made after a conflict
+     *
+     * @return the number of retries
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets the number of invocations which still failed on a conflict after the last attempt
+     *
+     * @return the number of exhausted invocations
+     */
+    public long getExhausted() {
+        return exhausted.sum();
+    }
+
+    void invoked() {
+        invocations.increment();
+    }
+
+    void conflicted() {
+        conflicts.increment();
+    }
+
+    void retried() {
+        retries.increment();
+    }
+
+    void exhausted() {
+        exhausted.increment();
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "RetryCounters{" +
+                "invocations=" + getInvocations() +
+                ", conflicts=" + getConflicts() +
+                ", retries=" + getRetries() +
+                ", exhausted=" + getExhausted() +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package org.academiadecodigo.javabank.services.slots;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the slots of the split accounts back into their balances in the background
+ * <p>
+ * Credits to a split account pile up in its slots, so that debits would otherwise consolidate them, waiting on
+ * every slot, whenever the account balance falls short. Each account is consolidated in a transaction of its own,
+ * so that the slots of a single account are only locked for a moment, and an account busy with a debit is simply
+ * left for the next run.
+ */
+@Component
+public class SlotConsolidator implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LogManager.getLogger(SlotConsolidator.class);
+
+    private AccountDao accountDao;
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService consolidator;
+    private long interval = 1000;
+
+    /**
+     * Sets the account data access object
+     *
+     * @param accountDao the account dao to set
+     */
+    @Autowired
+    public void setAccountDao(AccountDao accountDao) {
+        this.accountDao = accountDao;
+    }
+
+    /**
+     * Sets the transaction manager used to consolidate each account
+     *
+     * @param transactionManager the transaction manager to set
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sets the interval between consolidations
+     *
+     * @param interval the interval in milliseconds
+     */
+    @Value("${slots.consolidation.interval:1000}")
+    public void setInterval(long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Starts the background consolidation
+     *
+     * @see InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        consolidator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slot-consolidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        consolidator.scheduleWithFixedDelay(() -> {
+
+            try {
+                logger.debug("Consolidated the slots of {} accounts", consolidate());
+
+            } catch (RuntimeException ex) {
+                logger.error("Unable to consolidate the account slots - {}", ex.getMessage());
+            }
+
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background consolidation
+     *
+     * @see DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() {
+        consolidator.shutdownNow();
+    }
+
+    /**
+     * Consolidates the slots of every split account
+     *
+     * @return the number of accounts which had a balance in their slots
+     */
+    public int consolidate() {
+
+        List<Integer> ids = transactionTemplate.execute(status -> accountDao.findSplitIds());
+        int consolidated = 0;
+
+        for (Integer id : ids) {
+
+            try {
+
+                Money moved = transactionTemplate.execute(status -> accountDao.consolidate(id));
+
+                if (!moved.isZero()) {
+                    consolidated++;
+                }
+
+            } catch (RuntimeException ex) {
+                logger.warn("Unable to consolidate the slots of account {} - {}", id, ex.getMessage());
+            }
+        }
+
+        return consolidated;
+    }
+}
@@ -0,0 +1,11 @@
+-- Converts the account BALANCE column from a floating point amount into a whole number of cents.
+-- Run once against the prod (MySQL) schema before deploying a build where Account keeps its balance in cents.
+-- Existing values are rounded to the nearest cent, any value with more precision than that is lost.
+
+ALTER TABLE account ADD COLUMN balance_cents BIGINT NOT NULL DEFAULT 0;
+
+UPDATE account SET balance_cents = ROUND(balance * 100);
+
+ALTER TABLE account DROP COLUMN balance;
+
+ALTER TABLE account CHANGE COLUMN balance_cents balance BIGINT NOT NULL;
@@ -0,0 +1,38 @@
+-- Creates the append-only journal and opens it with the current account balances.
+-- Run once against the prod (MySQL) schema before deploying a build where money movements are journaled.
+-- MySQL has no sequences, so the journal ids are allocated from single row tables instead.
+
+CREATE TABLE journal_entry (
+  id BIGINT NOT NULL,
+  type VARCHAR(255) NOT NULL,
+  creationTime DATETIME(6),
+  PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE posting (
+  id BIGINT NOT NULL,
+  entry_id BIGINT NOT NULL,
+  accountId INTEGER,
+  amount BIGINT NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT posting_entry_fk FOREIGN KEY (entry_id) REFERENCES journal_entry (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX posting_account_idx ON posting (accountId, id);
+
+-- one opening entry per account, each with the account posting and its external counterpart
+INSERT INTO journal_entry (id, type, creationTime)
+  SELECT id, 'OPENING', CURRENT_TIMESTAMP(6) FROM account WHERE balance <> 0;
+
+INSERT INTO posting (id, entry_id, accountId, amount)
+  SELECT id * 2 - 1, id, id, balance FROM account WHERE balance <> 0;
+
+INSERT INTO posting (id, entry_id, accountId, amount)
+  SELECT id * 2, id, NULL, -balance FROM account WHERE balance <> 0;
+
+-- the next block of ids starts right after the opening entries
+CREATE TABLE journal_entry_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO journal_entry_seq SELECT COALESCE(MAX(id), 0) + 1 FROM journal_entry;
+
+CREATE TABLE posting_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO posting_seq SELECT COALESCE(MAX(id), 0) + 1 FROM posting;
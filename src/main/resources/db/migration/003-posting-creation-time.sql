@@ -0,0 +1,15 @@
+-- Copies the journal entry creation time into its postings and indexes the account history by it.
+-- Run once against the prod (MySQL) schema before deploying a build with the keyset paginated transaction history.
+
+ALTER TABLE posting ADD COLUMN creationTime DATETIME(6);
+
+UPDATE posting p JOIN journal_entry e ON e.id = p.entry_id SET p.creationTime = e.creationTime;
+
+UPDATE journal_entry SET creationTime = CURRENT_TIMESTAMP(6) WHERE creationTime IS NULL;
+UPDATE posting SET creationTime = CURRENT_TIMESTAMP(6) WHERE creationTime IS NULL;
+
+ALTER TABLE journal_entry MODIFY COLUMN creationTime DATETIME(6) NOT NULL;
+ALTER TABLE posting MODIFY COLUMN creationTime DATETIME(6) NOT NULL;
+
+DROP INDEX posting_account_idx ON posting;
+CREATE INDEX posting_account_idx ON posting (accountId, creationTime, id);
@@ -0,0 +1,4 @@
+-- Indexes the recipients of a customer by account number, serving the transfer authorization check.
+-- Run once against the prod (MySQL) schema before deploying a build with the indexed recipient check.
+
+CREATE INDEX recipient_customer_account_idx ON recipient (customer_id, accountNumber);
@@ -0,0 +1,18 @@
+-- Creates the durable queue of the asynchronous transfers, drained by the transfer queue workers.
+-- Run once against the prod (MySQL) schema before deploying a build with asynchronous transfers.
+
+CREATE TABLE queued_transfer (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  version INTEGER,
+  creationTime DATETIME(6),
+  updateTime DATETIME(6),
+  customerId INTEGER NOT NULL,
+  srcId INTEGER NOT NULL,
+  dstId INTEGER NOT NULL,
+  amount BIGINT NOT NULL,
+  status VARCHAR(32) NOT NULL,
+  callback VARCHAR(255),
+  PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX queued_transfer_status_idx ON queued_transfer (status, id);
@@ -0,0 +1,15 @@
+-- Creates the table of the requests made with an idempotency key, answering their retries.
+-- Run once against the prod (MySQL) schema before deploying a build honouring the Idempotency-Key header.
+
+CREATE TABLE idempotent_request (
+  idempotencyKey VARCHAR(64) NOT NULL,
+  customerId INTEGER NOT NULL,
+  operation VARCHAR(32) NOT NULL,
+  fingerprint VARCHAR(255) NOT NULL,
+  status INTEGER,
+  creationTime DATETIME(6) NOT NULL,
+  PRIMARY KEY (idempotencyKey)
+) ENGINE=InnoDB;
+
+-- serves the purge of the expired requests
+CREATE INDEX idempotent_request_creation_idx ON idempotent_request (creationTime);
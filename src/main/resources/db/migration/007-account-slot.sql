@@ -0,0 +1,15 @@
+-- Adds the balance slots of the split accounts, credited apart from the account rows.
+-- Run once against the prod (MySQL) schema before deploying a build with split accounts.
+
+ALTER TABLE account ADD COLUMN slots INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE account_slot (
+  id INTEGER NOT NULL AUTO_INCREMENT,
+  accountId INTEGER NOT NULL,
+  slot INTEGER NOT NULL,
+  balance BIGINT NOT NULL,
+  PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+-- serves the slot credits and the sum of the slots of an account
+CREATE UNIQUE INDEX account_slot_account_idx ON account_slot (accountId, slot);
@@ -0,0 +1,4 @@
+-- Counts the failed attempts of the queued transfers, given up after queue.max.attempts.
+-- Run once against the prod (MySQL) schema before deploying a build which gives up failing queued transfers.
+
+ALTER TABLE queued_transfer ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
@@ -7,16 +7,28 @@ INSERT INTO customer(ID, CREATIONTIME, UPDATETIME, VERSION, FIRSTNAME, LASTNAME,
 
 DELETE FROM account;
 INSERT INTO account(ACCOUNT_TYPE, ID, CREATIONTIME, UPDATETIME, VERSION, BALANCE, CUSTOMER_ID) VALUES
-  ('CheckingAccount', 1, TIMESTAMP '2017-10-10 10:18:53.819', TIMESTAMP '2017-10-10 10:22:58.578', 2, 100.0, 1),
-  ('SavingsAccount', 2, TIMESTAMP '2017-10-10 10:23:02.194', TIMESTAMP '2017-10-10 10:23:19.801', 1, 50.5, 1),
-  ('CheckingAccount', 3, TIMESTAMP '2017-10-10 14:30:37.769', TIMESTAMP '2017-10-10 14:30:43.042', 1, 10.0, 2),
-  ('SavingsAccount', 4, TIMESTAMP '2017-10-10 14:30:38.426', TIMESTAMP '2017-10-10 14:30:46.471', 1, 150.0, 2),
-  ('CheckingAccount', 5, TIMESTAMP '2017-10-10 14:30:37.769', TIMESTAMP '2017-10-10 14:30:43.042', 1, 0.0, 3),
-  ('CheckingAccount', 6, TIMESTAMP '2017-10-10 14:30:38.426', TIMESTAMP '2017-10-10 14:30:46.471', 1, 0.0, 3),
-  ('CheckingAccount', 7, TIMESTAMP '2017-10-10 14:30:37.769', TIMESTAMP '2017-10-10 14:30:43.042', 1, 20.5, NULL );
+  ('CheckingAccount', 1, TIMESTAMP '2017-10-10 10:18:53.819', TIMESTAMP '2017-10-10 10:22:58.578', 2, 10000, 1),
+  ('SavingsAccount', 2, TIMESTAMP '2017-10-10 10:23:02.194', TIMESTAMP '2017-10-10 10:23:19.801', 1, 5050, 1),
+  ('CheckingAccount', 3, TIMESTAMP '2017-10-10 14:30:37.769', TIMESTAMP '2017-10-10 14:30:43.042', 1, 1000, 2),
+  ('SavingsAccount', 4, TIMESTAMP '2017-10-10 14:30:38.426', TIMESTAMP '2017-10-10 14:30:46.471', 1, 15000, 2),
+  ('CheckingAccount', 5, TIMESTAMP '2017-10-10 14:30:37.769', TIMESTAMP '2017-10-10 14:30:43.042', 1, 0, 3),
+  ('CheckingAccount', 6, TIMESTAMP '2017-10-10 14:30:38.426', TIMESTAMP '2017-10-10 14:30:46.471', 1, 0, 3),
+  ('CheckingAccount', 7, TIMESTAMP '2017-10-10 14:30:37.769', TIMESTAMP '2017-10-10 14:30:43.042', 1, 2050, NULL );
 
 DELETE FROM recipient;
 INSERT INTO recipient(ID, CREATIONTIME, UPDATETIME, VERSION, ACCOUNTNUMBER, NAME, EMAIL, DESCRIPTION, PHONE, CUSTOMER_ID) VALUES
   (1, TIMESTAMP '2017-10-10 08:45:56.468', TIMESTAMP '2017-10-10 08:45:56.468', 1, 3, 'Sergio Gouveia', 'sergio@gmail.com', 'My colleague Sergio from A/C', '777888', 1),
   (2, TIMESTAMP '2017-10-10 08:45:56.468', TIMESTAMP '2017-10-10 08:45:56.468', 1, 5, 'Bruno Ferreira', 'bruno@gmail.com', 'My colelague Bruno from A/C', '777888', 1);
 
+
+DELETE FROM posting;
+DELETE FROM journal_entry;
+INSERT INTO journal_entry(ID, TYPE, CREATIONTIME) VALUES
+  (NEXT VALUE FOR journal_entry_seq, 'OPENING', TIMESTAMP '2017-10-10 14:30:46.471');
+INSERT INTO posting(ID, ENTRY_ID, ACCOUNTID, AMOUNT, CREATIONTIME) VALUES
+  (NEXT VALUE FOR posting_seq, CURRVAL('journal_entry_seq'), 1, 10000, TIMESTAMP '2017-10-10 14:30:46.471'),
+  (NEXT VALUE FOR posting_seq, CURRVAL('journal_entry_seq'), 2, 5050, TIMESTAMP '2017-10-10 14:30:46.471'),
+  (NEXT VALUE FOR posting_seq, CURRVAL('journal_entry_seq'), 3, 1000, TIMESTAMP '2017-10-10 14:30:46.471'),
+  (NEXT VALUE FOR posting_seq, CURRVAL('journal_entry_seq'), 4, 15000, TIMESTAMP '2017-10-10 14:30:46.471'),
+  (NEXT VALUE FOR posting_seq, CURRVAL('journal_entry_seq'), 7, 2050, TIMESTAMP '2017-10-10 14:30:46.471'),
+  (NEXT VALUE FOR posting_seq, CURRVAL('journal_entry_seq'), NULL, -33100, TIMESTAMP '2017-10-10 14:30:46.471');
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.academiadecodigo.javabank.command.AccountDto;
 import org.academiadecodigo.javabank.converters.AccountDtoToAccount;
 import org.academiadecodigo.javabank.converters.AccountToAccountDto;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
@@ -26,6 +27,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 public class RestAccountControllerTest {
@@ -70,7 +72,7 @@ public class RestAccountControllerTest {
 
         Account checkingAccount = new CheckingAccount();
         checkingAccount.setCustomer(customer);
-        checkingAccount.setBalance(balance);
+        checkingAccount.setBalance(Money.of(balance));
         checkingAccount.setId(fakeAccountId);
         customer.addAccount(checkingAccount);
 
@@ -121,7 +123,7 @@ public class RestAccountControllerTest {
 
         Account checkingAccount = new CheckingAccount();
         checkingAccount.setCustomer(customer);
-        checkingAccount.setBalance(balance);
+        checkingAccount.setBalance(Money.of(balance));
         checkingAccount.setId(fakeAccountId);
         customer.addAccount(checkingAccount);
 
@@ -212,7 +214,7 @@ public class RestAccountControllerTest {
 
         Account account = new CheckingAccount();
         account.setCustomer(customer);
-        account.setBalance(balance);
+        account.setBalance(Money.of(balance));
         account.setId(fakeAccountId);
         customer.addAccount(account);
 
@@ -366,4 +368,43 @@ public class RestAccountControllerTest {
         verify(customerService, times(1)).closeAccount(fakeCustomerId, fakeAccountId);
     }
 
+    @Test
+    public void testSplitAccount() throws Exception {
+
+        int fakeCustomerId = 999;
+        int fakeAccountId = 888;
+
+        mockMvc.perform(put("/api/customer/{cid}/account/{aid}/slots", fakeCustomerId, fakeAccountId).param("slots", "4"))
+                .andExpect(status().isOk());
+
+        verify(accountService, times(1)).split(fakeAccountId, fakeCustomerId, 4);
+    }
+
+    @Test
+    public void testSplitInvalidAccount() throws Exception {
+
+        int fakeCustomerId = 999;
+        int fakeAccountId = 888;
+
+        doThrow(new AccountNotFoundException()).when(accountService).split(fakeAccountId, fakeCustomerId, 4);
+
+        mockMvc.perform(put("/api/customer/{cid}/account/{aid}/slots", fakeCustomerId, fakeAccountId).param("slots", "4"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testSplitAccountWithInvalidSlots() throws Exception {
+
+        int fakeCustomerId = 999;
+        int fakeAccountId = 888;
+
+        doThrow(new TransactionInvalidException()).when(accountService).split(fakeAccountId, fakeCustomerId, 65);
+
+        mockMvc.perform(put("/api/customer/{cid}/account/{aid}/slots", fakeCustomerId, fakeAccountId).param("slots", "65"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(put("/api/customer/{cid}/account/{aid}/slots", fakeCustomerId, fakeAccountId))
+                .andExpect(status().isBadRequest());
+    }
+
 }
@@ -0,0 +1,194 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import org.academiadecodigo.javabank.converters.TransactionToTransactionDto;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.academiadecodigo.javabank.services.AccountService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RestAccountTransactionControllerTest {
+
+    private static final String NDJSON = RestAccountTransactionController.APPLICATION_NDJSON_VALUE;
+
+    @Mock
+    private AccountService accountService;
+
+    @Spy
+    private TransactionToTransactionDto transactionToTransactionDto;
+
+    @InjectMocks
+    private RestAccountTransactionController restAccountTransactionController;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(restAccountTransactionController).build();
+    }
+
+    @Test
+    public void testListTransactions() throws Exception {
+
+        int fakeCustomerId = 999;
+        int fakeAccountId = 888;
+
+        Transaction deposit = new Transaction(12L, new Date(2000L), JournalEntryType.DEPOSIT, 1050);
+        Transaction withdrawal = new Transaction(11L, new Date(1000L), JournalEntryType.WITHDRAWAL, -500);
+
+        when(accountService.listTransactions(fakeAccountId, fakeCustomerId, null, 2))
+                .thenReturn(Arrays.asList(deposit, withdrawal));
+
+        mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", fakeCustomerId, fakeAccountId)
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(12))
+                .andExpect(jsonPath("$[0].type").value(JournalEntryType.DEPOSIT.toString()))
+                .andExpect(jsonPath("$[0].amount").value("10.50"))
+                .andExpect(jsonPath("$[0].time").value(2000))
+                .andExpect(jsonPath("$[1].amount").value("-5.00"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=1000:11")))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("size=2")))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")));
+
+        verify(accountService, times(1)).listTransactions(fakeAccountId, fakeCustomerId, null, 2);
+    }
+
+    @Test
+    public void testListTransactionsLastPage() throws Exception {
+
+        int fakeCustomerId = 999;
+        int fakeAccountId = 888;
+
+        when(accountService.listTransactions(fakeAccountId, fakeCustomerId, TransactionCursor.parse("1000:11"),
+                RestAccountTransactionController.DEFAULT_PAGE_SIZE))
+                .thenReturn(Collections.singletonList(new Transaction(10L, new Date(900L), JournalEntryType.OPENING, 100)));
+
+        mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", fakeCustomerId, fakeAccountId)
+                .param("after", "1000:11"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    public void testListTransactionsInvalidCursor() throws Exception {
+
+        mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", 999, 888)
+                .param("after", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verify(accountService, never()).listTransactions(anyInt(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    public void testListTransactionsInvalidSize() throws Exception {
+
+        mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", 999, 888)
+                .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", 999, 888)
+                .param("size", String.valueOf(RestAccountTransactionController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+
+        verify(accountService, never()).listTransactions(anyInt(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    public void testListTransactionsInvalidAccount() throws Exception {
+
+        when(accountService.listTransactions(anyInt(), anyInt(), any(), anyInt()))
+                .thenThrow(new AccountNotFoundException());
+
+        mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", 999, 888))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testExportTransactions() throws Exception {
+
+        int fakeCustomerId = 999;
+        int fakeAccountId = 888;
+
+        when(accountService.listTransactions(fakeAccountId, fakeCustomerId, null,
+                RestAccountTransactionController.EXPORT_CHUNK_SIZE))
+                .thenReturn(Arrays.asList(
+                        new Transaction(12L, new Date(2000L), JournalEntryType.DEPOSIT, 1050),
+                        new Transaction(11L, new Date(1000L), JournalEntryType.WITHDRAWAL, -500)));
+
+        String body = mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", fakeCustomerId, fakeAccountId)
+                .accept(NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":12,\"time\":2000,\"type\":\"DEPOSIT\",\"amount\":\"10.50\"}", lines[0]);
+        assertEquals("{\"id\":11,\"time\":1000,\"type\":\"WITHDRAWAL\",\"amount\":\"-5.00\"}", lines[1]);
+
+        verify(accountService, times(1)).listTransactions(anyInt(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    public void testExportTransactionsChunks() throws Exception {
+
+        int fakeCustomerId = 999;
+        int fakeAccountId = 888;
+        int chunkSize = RestAccountTransactionController.EXPORT_CHUNK_SIZE;
+
+        List<Transaction> firstChunk = new ArrayList<>();
+        for (int i = 0; i < chunkSize; i++) {
+            firstChunk.add(new Transaction((long) (chunkSize + 1 - i), new Date(5000L), JournalEntryType.DEPOSIT, 1));
+        }
+
+        when(accountService.listTransactions(fakeAccountId, fakeCustomerId, null, chunkSize))
+                .thenReturn(firstChunk);
+        when(accountService.listTransactions(fakeAccountId, fakeCustomerId, TransactionCursor.parse("5000:2"), chunkSize))
+                .thenReturn(Collections.singletonList(new Transaction(1L, new Date(4000L), JournalEntryType.OPENING, 1)));
+
+        String body = mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", fakeCustomerId, fakeAccountId)
+                .accept(NDJSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(chunkSize + 1, body.split("\n").length);
+        verify(accountService, times(2)).listTransactions(anyInt(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    public void testExportTransactionsInvalidAccount() throws Exception {
+
+        when(accountService.listTransactions(anyInt(), anyInt(), any(), anyInt()))
+                .thenThrow(new AccountNotFoundException());
+
+        mockMvc.perform(get("/api/customer/{cid}/account/{aid}/transactions", 999, 888)
+                .accept(NDJSON))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,87 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import org.academiadecodigo.javabank.converters.CustomerBalanceToCustomerBalanceDto;
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RestCustomerBalanceControllerTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private CustomerBalanceReadModel customerBalanceReadModel;
+
+    @Spy
+    private CustomerBalanceToCustomerBalanceDto customerBalanceToCustomerBalanceDto;
+
+    @InjectMocks
+    private RestCustomerBalanceController restCustomerBalanceController;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(restCustomerBalanceController).build();
+    }
+
+    @Test
+    public void testShowCustomerBalance() throws Exception {
+
+        // setup
+        int fakeCustomerId = 999;
+        when(customerBalanceReadModel.get(fakeCustomerId))
+                .thenReturn(new CustomerBalance(fakeCustomerId, Money.parse("150.50"), 2));
+
+        // exercise
+        mockMvc.perform(get("/api/customer/{cid}/balance", fakeCustomerId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.customerId").value(fakeCustomerId))
+                .andExpect(jsonPath("$.balance").value("150.50"))
+                .andExpect(jsonPath("$.accounts").value(2));
+
+        // verify
+        verify(customerBalanceReadModel, times(1)).get(fakeCustomerId);
+        verifyZeroInteractions(customerService);
+    }
+
+    @Test
+    public void testShowCustomerBalanceNoAccounts() throws Exception {
+
+        // setup
+        int fakeCustomerId = 999;
+        when(customerService.get(fakeCustomerId)).thenReturn(new Customer());
+
+        // exercise
+        mockMvc.perform(get("/api/customer/{cid}/balance", fakeCustomerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value("0.00"))
+                .andExpect(jsonPath("$.accounts").value(0));
+    }
+
+    @Test
+    public void testShowCustomerBalanceInvalidCustomer() throws Exception {
+
+        mockMvc.perform(get("/api/customer/{cid}/balance", 999))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -3,7 +3,11 @@ package org.academiadecodigo.javabank.controller.rest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.academiadecodigo.javabank.command.CustomerDto;
 import org.academiadecodigo.javabank.converters.CustomerDtoToCustomer;
+import org.academiadecodigo.javabank.converters.CustomerSummaryToCustomerDto;
 import org.academiadecodigo.javabank.converters.CustomerToCustomerDto;
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.exceptions.AssociationExistsException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.persistence.model.Customer;
@@ -19,7 +23,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItems;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,6 +41,8 @@ public class RestCustomerControllerTest {
     @Mock
     private CustomerDtoToCustomer customerDtoToCustomer;
 
+    @Spy
+    private CustomerSummaryToCustomerDto customerSummaryToCustomerDto;
 
     @InjectMocks
     private RestCustomerController restCustomerController;
@@ -60,26 +68,11 @@ public class RestCustomerControllerTest {
         String phone = "777888999";
         String email = "mail@gmail.com";
 
-        Customer customer = new Customer();
-        customer.setId(fakeID);
-        customer.setFirstName(firstName);
-        customer.setLastName(lastName);
-        customer.setPhone(phone);
-        customer.setEmail(email);
+        List<CustomerSummary> customers = new ArrayList<>();
+        customers.add(new CustomerSummary(fakeID, firstName, lastName, email, phone));
 
-        CustomerDto customerDto = new CustomerDto();
-        customerDto.setId(fakeID);
-        customerDto.setFirstName(firstName);
-        customerDto.setLastName(lastName);
-        customerDto.setPhone(phone);
-        customerDto.setEmail(email);
-
-        List<Customer> customers = new ArrayList<>();
-        customers.add(customer);
-
-
-        when(customerService.list()).thenReturn(customers);
-        when(customerToCustomerDto.convert(customer)).thenReturn(customerDto);
+        when(customerService.listSummaries(any(PageRequest.class)))
+                .thenAnswer(invocation -> Page.of(customers, invocation.getArgument(0)));
 
         mockMvc.perform(get("/api/customer/"))
                 .andExpect(jsonPath("$[0].id").value(fakeID))
@@ -87,10 +80,67 @@ public class RestCustomerControllerTest {
                 .andExpect(jsonPath("$[0].lastName").value(lastName))
                 .andExpect(jsonPath("$[0].email").value(email))
                 .andExpect(jsonPath("$[0].phone").value(phone))
+                .andExpect(header().doesNotExist("Link"))
                 .andExpect(status().isOk());
 
-        verify(customerService, times(1)).list();
-        verify(customerToCustomerDto, times(1)).convert(customer);
+        ArgumentCaptor<PageRequest> pageRequest = ArgumentCaptor.forClass(PageRequest.class);
+        verify(customerService, times(1)).listSummaries(pageRequest.capture());
+        assertEquals(0, pageRequest.getValue().getPage());
+        assertEquals(RestCustomerController.DEFAULT_PAGE_SIZE, pageRequest.getValue().getSize());
+        assertEquals("id,asc", pageRequest.getValue().getSortParameter());
+        verify(customerService, never()).list(any(PageRequest.class));
+    }
+
+    @Test
+    public void testListCustomersPage() throws Exception {
+
+        // setup
+        List<CustomerSummary> customers = new ArrayList<>();
+        customers.add(new CustomerSummary(1, "Rui", "Ferrão", "rui@gmail.com", "777888999"));
+        customers.add(new CustomerSummary(2, "Sérgio", "Gouveia", "sergio@gmail.com", "777888990"));
+        customers.add(new CustomerSummary(3, "Bruno", "Ferreira", "bruno@gmail.com", "777888991"));
+
+        when(customerService.listSummaries(any(PageRequest.class)))
+                .thenAnswer(invocation -> Page.of(customers, invocation.getArgument(0)));
+
+        // exercise
+        mockMvc.perform(get("/api/customer").param("page", "1").param("size", "2").param("sort", "lastName,desc"))
+
+                // verify
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().stringValues("Link", hasItems(
+                        containsString("page=0&size=2&sort=lastName,desc>; rel=\"prev\""),
+                        containsString("page=2&size=2&sort=lastName,desc>; rel=\"next\""))));
+
+        ArgumentCaptor<PageRequest> pageRequest = ArgumentCaptor.forClass(PageRequest.class);
+        verify(customerService).listSummaries(pageRequest.capture());
+        assertEquals(1, pageRequest.getValue().getPage());
+        assertEquals(2, pageRequest.getValue().getSize());
+        assertEquals("lastName", pageRequest.getValue().getSort());
+        assertFalse(pageRequest.getValue().isAscending());
+    }
+
+    @Test
+    public void testListCustomersInvalidPage() throws Exception {
+
+        // setup
+        when(customerService.listSummaries(any(PageRequest.class))).thenThrow(new IllegalArgumentException());
+
+        // exercise and verify
+        mockMvc.perform(get("/api/customer").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/customer").param("size", "" + (RestCustomerController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/customer").param("sort", "lastName,sideways"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/customer").param("sort", "accounts"))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, times(1)).listSummaries(any(PageRequest.class));
     }
 
     @Test
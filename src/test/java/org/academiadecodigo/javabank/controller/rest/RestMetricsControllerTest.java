@@ -0,0 +1,97 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import org.academiadecodigo.javabank.interceptor.LogRequestsInterceptor;
+import org.academiadecodigo.javabank.persistence.cache.CacheStatistics;
+import org.academiadecodigo.javabank.services.memo.MemoCounters;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RestMetricsControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+
+        LogRequestsInterceptor logRequestsInterceptor = new LogRequestsInterceptor();
+
+        RestMetricsController restMetricsController = new RestMetricsController();
+        restMetricsController.setLogRequestsInterceptor(logRequestsInterceptor);
+        restMetricsController.setCacheStatistics(new CacheStatistics());
+        restMetricsController.setMemoCounters(new MemoCounters());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(restMetricsController, new RestIndexController())
+                .addInterceptors(logRequestsInterceptor)
+                .build();
+    }
+
+    @Test
+    public void testShowMetrics() throws Exception {
+
+        // setup
+        mockMvc.perform(get("/api/"));
+        mockMvc.perform(get("/api/"));
+
+        // exercise and verify
+        mockMvc.perform(get("/api/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$['RestIndexController#showVersion'].requests").value(2))
+                .andExpect(jsonPath("$['RestIndexController#showVersion'].inFlight").value(0))
+                .andExpect(jsonPath("$['RestIndexController#showVersion'].serverErrors").value(0))
+                .andExpect(jsonPath("$['RestIndexController#showVersion'].latency.count").value(2))
+                .andExpect(jsonPath("$['RestIndexController#showVersion'].latency.p99").value(greaterThanOrEqualTo(0.0)))
+                .andExpect(jsonPath("$['RestMetricsController#showMetrics'].inFlight").value(1));
+    }
+
+    @Test
+    public void testShowPrometheusMetrics() throws Exception {
+
+        // setup
+        mockMvc.perform(get("/api/"));
+
+        // exercise and verify
+        mockMvc.perform(get("/api/metrics/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(RestMetricsController.PROMETHEUS_CONTENT_TYPE))
+                .andExpect(content().string(containsString(
+                        "# TYPE javabank_http_request_duration_seconds histogram\n")))
+                .andExpect(content().string(containsString(
+                        "javabank_http_request_duration_seconds_bucket{handler=\"RestIndexController#showVersion\",le=\"+Inf\"} 1\n")))
+                .andExpect(content().string(containsString(
+                        "javabank_http_request_duration_seconds_count{handler=\"RestIndexController#showVersion\"} 1\n")))
+                .andExpect(content().string(containsString(
+                        "javabank_http_request_errors_total{handler=\"RestIndexController#showVersion\",status=\"5xx\"} 0\n")))
+                .andExpect(content().string(containsString(
+                        "javabank_http_requests_in_flight{handler=\"RestMetricsController#showPrometheusMetrics\"} 1\n")))
+                .andExpect(content().string(containsString(
+                        "javabank_request_memo_reads_total{result=\"hit\"} 0\n")));
+    }
+
+    @Test
+    public void testShowCacheStatistics() throws Exception {
+
+        mockMvc.perform(get("/api/metrics/cache"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8));
+    }
+
+    @Test
+    public void testShowMemoCounters() throws Exception {
+
+        mockMvc.perform(get("/api/metrics/memo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(0))
+                .andExpect(jsonPath("$.misses").value(0));
+    }
+}
@@ -2,14 +2,25 @@ package org.academiadecodigo.javabank.controller.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.academiadecodigo.javabank.command.AccountTransactionDto;
+import org.academiadecodigo.javabank.command.TransferBatchDto;
 import org.academiadecodigo.javabank.command.TransferDto;
+import org.academiadecodigo.javabank.converters.QueuedTransferToQueuedTransferDto;
 import org.academiadecodigo.javabank.converters.TransferDtoToTransfer;
+import org.academiadecodigo.javabank.converters.TransferResultToTransferResultDto;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
 import org.academiadecodigo.javabank.services.AccountService;
+import org.academiadecodigo.javabank.services.IdempotencyService;
+import org.academiadecodigo.javabank.services.TransferQueueService;
 import org.academiadecodigo.javabank.services.TransferService;
+import org.academiadecodigo.javabank.services.queue.TransferCallbackClient;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.*;
@@ -17,9 +28,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class RestTransactionControllerTest {
@@ -33,6 +51,21 @@ public class RestTransactionControllerTest {
     @Mock
     private AccountService accountService;
 
+    @Spy
+    private TransferResultToTransferResultDto transferResultToTransferResultDto;
+
+    @Mock
+    private TransferQueueService transferQueueService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private TransferCallbackClient transferCallbackClient;
+
+    @Spy
+    private QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto;
+
     @InjectMocks
     private RestTransactionController restTransactionController;
 
@@ -54,12 +87,12 @@ public class RestTransactionControllerTest {
         int fakeCustomerId = 999;
         int fakeSrcId = 66;
         int fakeDstId = 77;
-        double amount = 9999;
+        Money amount = Money.of(9999);
 
         TransferDto transferDto = new TransferDto();
         transferDto.setSrcId(fakeSrcId);
         transferDto.setDstId(fakeDstId);
-        transferDto.setAmount(Double.toString(amount));
+        transferDto.setAmount(amount.toString());
 
         Transfer transfer = new Transfer();
         transfer.setSrcId(fakeSrcId);
@@ -82,7 +115,73 @@ public class RestTransactionControllerTest {
 
         assertEquals((Integer) fakeSrcId, boundTransfer.getValue().getSrcId());
         assertEquals((Integer) fakeDstId, boundTransfer.getValue().getDstId());
-        assertEquals(Double.toString(amount), boundTransfer.getValue().getAmount());
+        assertEquals(amount.toString(), boundTransfer.getValue().getAmount());
+    }
+
+    @Test
+    public void testTransferAll() throws Exception {
+
+        // setup
+        int fakeCustomerId = 999;
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(66);
+        transfer.setDstId(77);
+        transfer.setAmount(Money.of(10));
+        List<Transfer> transfers = Collections.singletonList(transfer);
+
+        when(transferDtoToTransfer.convert(ArgumentMatchers.<TransferDto>anyList())).thenReturn(transfers);
+        when(transferService.transferAll(transfers, fakeCustomerId, TransferBatchMode.BEST_EFFORT)).thenReturn(
+                Collections.singletonList(new TransferResult(transfer, TransferResult.Status.TRANSACTION_INVALID)));
+
+        // exercise
+        mockMvc.perform(post("/api/customer/{cid}/transfers/batch", fakeCustomerId)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.BEST_EFFORT))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].srcId").value(66))
+                .andExpect(jsonPath("$[0].amount").value("10.00"))
+                .andExpect(jsonPath("$[0].status").value("TRANSACTION_INVALID"));
+
+        // verify
+        verify(transferService, times(1)).transferAll(transfers, fakeCustomerId, TransferBatchMode.BEST_EFFORT);
+    }
+
+    @Test
+    public void testTransferAllNotPerformed() throws Exception {
+
+        // setup
+        int fakeCustomerId = 999;
+        Transfer transfer = new Transfer();
+        transfer.setAmount(Money.of(10));
+        List<Transfer> transfers = Arrays.asList(transfer, transfer);
+
+        when(transferDtoToTransfer.convert(ArgumentMatchers.<TransferDto>anyList())).thenReturn(transfers);
+        when(transferService.transferAll(transfers, fakeCustomerId, TransferBatchMode.ALL_OR_NOTHING)).thenReturn(
+                Arrays.asList(new TransferResult(transfer, TransferResult.Status.NOT_PERFORMED),
+                        new TransferResult(transfer, TransferResult.Status.ACCOUNT_NOT_FOUND)));
+
+        // exercise
+        mockMvc.perform(post("/api/customer/{cid}/transfers/batch", fakeCustomerId)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].status").value("NOT_PERFORMED"))
+                .andExpect(jsonPath("$[1].status").value("ACCOUNT_NOT_FOUND"));
+    }
+
+    @Test
+    public void testTransferAllInvalidCustomer() throws Exception {
+
+        // setup
+        int invalidCustomerId = 888;
+        when(transferService.transferAll(anyList(), eq(invalidCustomerId), any(TransferBatchMode.class)))
+                .thenThrow(new CustomerNotFoundException());
+
+        // exercise
+        mockMvc.perform(post("/api/customer/{cid}/transfers/batch", invalidCustomerId)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING))))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -175,7 +274,7 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isOk());
 
-        verify(accountService, times(1)).deposit(fakeAccountId, fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).deposit(fakeAccountId, fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
     }
 
     @Test
@@ -199,7 +298,7 @@ public class RestTransactionControllerTest {
         accountTransactionDto.setAmount(amount);
 
 
-        doThrow(new CustomerNotFoundException()).when(accountService).deposit(accountTransactionDto.getId(), invalidCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        doThrow(new CustomerNotFoundException()).when(accountService).deposit(accountTransactionDto.getId(), invalidCustomerId, Money.parse(accountTransactionDto.getAmount()));
 
         mockMvc.perform(put("/api/customer/{cid}/deposit", invalidCustomerId)
                 .accept(MediaType.APPLICATION_JSON_UTF8)
@@ -207,7 +306,7 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isNotFound());
 
-        verify(accountService, times(1)).deposit(accountTransactionDto.getId(), invalidCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).deposit(accountTransactionDto.getId(), invalidCustomerId, Money.parse(accountTransactionDto.getAmount()));
     }
 
 
@@ -223,7 +322,7 @@ public class RestTransactionControllerTest {
         accountTransactionDto.setAmount(amount);
 
 
-        doThrow(new AccountNotFoundException()).when(accountService).deposit(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        doThrow(new AccountNotFoundException()).when(accountService).deposit(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
 
         mockMvc.perform(put("/api/customer/{cid}/deposit", fakeCustomerId)
                 .accept(MediaType.APPLICATION_JSON_UTF8)
@@ -231,7 +330,7 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isNotFound());
 
-        verify(accountService, times(1)).deposit(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).deposit(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
     }
 
     @Test
@@ -246,7 +345,7 @@ public class RestTransactionControllerTest {
         accountTransactionDto.setAmount(amount);
 
 
-        doThrow(new TransactionInvalidException()).when(accountService).deposit(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        doThrow(new TransactionInvalidException()).when(accountService).deposit(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
 
         mockMvc.perform(put("/api/customer/{cid}/deposit", fakeCustomerId)
                 .accept(MediaType.APPLICATION_JSON_UTF8)
@@ -254,7 +353,7 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isBadRequest());
 
-        verify(accountService, times(1)).deposit(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).deposit(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
     }
 
     @Test
@@ -275,7 +374,7 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isOk());
 
-        verify(accountService, times(1)).withdraw(fakeAccountId, fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).withdraw(fakeAccountId, fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
 
     }
 
@@ -300,7 +399,7 @@ public class RestTransactionControllerTest {
         accountTransactionDto.setAmount(amount);
 
 
-        doThrow(new CustomerNotFoundException()).when(accountService).withdraw(accountTransactionDto.getId(), invalidCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        doThrow(new CustomerNotFoundException()).when(accountService).withdraw(accountTransactionDto.getId(), invalidCustomerId, Money.parse(accountTransactionDto.getAmount()));
 
         mockMvc.perform(put("/api/customer/{cid}/withdraw", invalidCustomerId)
                 .accept(MediaType.APPLICATION_JSON_UTF8)
@@ -308,7 +407,7 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isNotFound());
 
-        verify(accountService, times(1)).withdraw(accountTransactionDto.getId(), invalidCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).withdraw(accountTransactionDto.getId(), invalidCustomerId, Money.parse(accountTransactionDto.getAmount()));
     }
 
 
@@ -324,7 +423,7 @@ public class RestTransactionControllerTest {
         accountTransactionDto.setAmount(amount);
 
 
-        doThrow(new AccountNotFoundException()).when(accountService).withdraw(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        doThrow(new AccountNotFoundException()).when(accountService).withdraw(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
 
         mockMvc.perform(put("/api/customer/{cid}/withdraw", fakeCustomerId)
                 .accept(MediaType.APPLICATION_JSON_UTF8)
@@ -332,7 +431,7 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isNotFound());
 
-        verify(accountService, times(1)).withdraw(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).withdraw(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
     }
 
     @Test
@@ -347,7 +446,7 @@ public class RestTransactionControllerTest {
         accountTransactionDto.setAmount(amount);
 
 
-        doThrow(new TransactionInvalidException()).when(accountService).withdraw(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        doThrow(new TransactionInvalidException()).when(accountService).withdraw(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
 
         mockMvc.perform(put("/api/customer/{cid}/withdraw", fakeCustomerId)
                 .accept(MediaType.APPLICATION_JSON_UTF8)
@@ -355,7 +454,241 @@ public class RestTransactionControllerTest {
                 .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
                 .andExpect(status().isBadRequest());
 
-        verify(accountService, times(1)).withdraw(accountTransactionDto.getId(), fakeCustomerId, Double.parseDouble(accountTransactionDto.getAmount()));
+        verify(accountService, times(1)).withdraw(accountTransactionDto.getId(), fakeCustomerId, Money.parse(accountTransactionDto.getAmount()));
     }
 
+
+    @Test
+    public void testSubmitTransfer() throws Exception {
+
+        // setup
+        int fakeCustomerId = 999;
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(66);
+        transfer.setDstId(77);
+        transfer.setAmount(Money.of(10));
+
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setId(55);
+        queuedTransfer.setSrcId(66);
+        queuedTransfer.setDstId(77);
+        queuedTransfer.setAmount(Money.of(10));
+
+        String callback = "http://localhost:8080/transfers/done";
+
+        when(transferDtoToTransfer.convert(ArgumentMatchers.any(TransferDto.class))).thenReturn(transfer);
+        when(transferQueueService.submit(transfer, fakeCustomerId, callback)).thenReturn(queuedTransfer);
+
+        // exercise
+        mockMvc.perform(post("/api/customer/{cid}/transfer/async", fakeCustomerId)
+                .param("callback", callback)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING).getTransfers().get(0))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/transfer/55"))
+                .andExpect(jsonPath("$.id").value(55))
+                .andExpect(jsonPath("$.amount").value("10.00"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        // verify
+        verify(transferQueueService, times(1)).submit(transfer, fakeCustomerId, callback);
+    }
+
+    @Test
+    public void testSubmitTransferRemoteCallback() throws Exception {
+
+        // exercise
+        mockMvc.perform(post("/api/customer/{cid}/transfer/async", 999)
+                .param("callback", "http://example.com/transfers/done")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING).getTransfers().get(0))))
+                .andExpect(status().isBadRequest());
+
+        // verify
+        verifyZeroInteractions(transferQueueService);
+    }
+
+    @Test
+    public void testSubmitTransferInvalidAccount() throws Exception {
+
+        // setup
+        when(transferQueueService.submit(ArgumentMatchers.any(), eq(999), isNull()))
+                .thenThrow(new AccountNotFoundException());
+
+        // exercise
+        mockMvc.perform(post("/api/customer/{cid}/transfer/async", 999)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING).getTransfers().get(0))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testIdempotentTransfer() throws Exception {
+
+        // setup
+        int fakeCustomerId = 999;
+        Transfer transfer = new Transfer();
+        when(transferDtoToTransfer.convert(ArgumentMatchers.any(TransferDto.class))).thenReturn(transfer);
+
+        // exercise
+        mockMvc.perform(put("/api/customer/{cid}/transfer", fakeCustomerId)
+                .header(RestTransactionController.IDEMPOTENCY_KEY, "key")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING).getTransfers().get(0))))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RestTransactionController.IDEMPOTENT_REPLAYED));
+
+        // verify
+        verify(idempotencyService, times(1)).claim("key", fakeCustomerId, "transfer", "66:77:10.00");
+        verify(transferService, times(1)).transfer(transfer, fakeCustomerId);
+        verify(idempotencyService, times(1)).complete("key", 200);
+    }
+
+    @Test
+    public void testIdempotentTransferReplayed() throws Exception {
+
+        // setup
+        int fakeCustomerId = 999;
+        IdempotentRequest claimed = new IdempotentRequest("key", fakeCustomerId, "transfer", "66:77:10.00");
+        claimed.setStatus(400);
+        when(idempotencyService.claim("key", fakeCustomerId, "transfer", "66:77:10.00")).thenReturn(claimed);
+
+        // exercise
+        mockMvc.perform(put("/api/customer/{cid}/transfer", fakeCustomerId)
+                .header(RestTransactionController.IDEMPOTENCY_KEY, "key")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING).getTransfers().get(0))))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(RestTransactionController.IDEMPOTENT_REPLAYED, "true"));
+
+        // verify
+        verifyZeroInteractions(transferService);
+        verify(idempotencyService, never()).complete(anyString(), anyInt());
+    }
+
+    @Test
+    public void testIdempotentTransferReplayedSameAmount() throws Exception {
+
+        // setup
+        IdempotentRequest claimed = new IdempotentRequest("key", 999, "transfer", "66:77:10.00");
+        claimed.setStatus(200);
+        when(idempotencyService.claim("key", 999, "transfer", "66:77:10.00")).thenReturn(claimed);
+
+        TransferDto transferDto = batch(TransferBatchMode.ALL_OR_NOTHING).getTransfers().get(0);
+        transferDto.setAmount("10.0");
+
+        // exercise
+        mockMvc.perform(put("/api/customer/{cid}/transfer", 999)
+                .header(RestTransactionController.IDEMPOTENCY_KEY, "key")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(transferDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RestTransactionController.IDEMPOTENT_REPLAYED, "true"));
+
+        // verify
+        verifyZeroInteractions(transferService);
+    }
+
+    @Test
+    public void testIdempotentTransferInProgress() throws Exception {
+
+        // setup
+        when(idempotencyService.claim("key", 999, "transfer", "66:77:10.00"))
+                .thenReturn(new IdempotentRequest("key", 999, "transfer", "66:77:10.00"));
+
+        // exercise
+        mockMvc.perform(put("/api/customer/{cid}/transfer", 999)
+                .header(RestTransactionController.IDEMPOTENCY_KEY, "key")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(batch(TransferBatchMode.ALL_OR_NOTHING).getTransfers().get(0))))
+                .andExpect(status().isConflict());
+
+        // verify
+        verifyZeroInteractions(transferService);
+    }
+
+    @Test
+    public void testIdempotencyKeyReused() throws Exception {
+
+        // setup
+        IdempotentRequest claimed = new IdempotentRequest("key", 999, "transfer", "66:77:10.00");
+        claimed.setStatus(200);
+        when(idempotencyService.claim("key", 999, "deposit", "66:10.00")).thenReturn(claimed);
+
+        AccountTransactionDto accountTransactionDto = new AccountTransactionDto();
+        accountTransactionDto.setId(66);
+        accountTransactionDto.setAmount("10");
+
+        // exercise
+        mockMvc.perform(put("/api/customer/{cid}/deposit", 999)
+                .header(RestTransactionController.IDEMPOTENCY_KEY, "key")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
+                .andExpect(status().isUnprocessableEntity());
+
+        // verify
+        verifyZeroInteractions(accountService);
+    }
+
+    @Test
+    public void testIdempotencyKeyTooLong() throws Exception {
+
+        // setup
+        char[] key = new char[IdempotentRequest.MAX_KEY_LENGTH + 1];
+        Arrays.fill(key, 'k');
+
+        AccountTransactionDto accountTransactionDto = new AccountTransactionDto();
+        accountTransactionDto.setId(66);
+        accountTransactionDto.setAmount("10");
+
+        // exercise
+        mockMvc.perform(put("/api/customer/{cid}/withdraw", 999)
+                .header(RestTransactionController.IDEMPOTENCY_KEY, new String(key))
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(objectMapper.writeValueAsBytes(accountTransactionDto)))
+                .andExpect(status().isBadRequest());
+
+        // verify
+        verifyZeroInteractions(idempotencyService, accountService);
+    }
+
+    @Test
+    public void testIdempotentWithdrawFailed() throws Exception {
+
+        // setup
+        AccountTransactionDto accountTransactionDto = new AccountTransactionDto();
+        accountTransactionDto.setId(66);
+        accountTransactionDto.setAmount("10");
+
+        doThrow(new IllegalStateException()).when(accountService).withdraw(66, 999, Money.of(10));
+
+        // exercise
+        try {
+            mockMvc.perform(put("/api/customer/{cid}/withdraw", 999)
+                    .header(RestTransactionController.IDEMPOTENCY_KEY, "key")
+                    .contentType(MediaType.APPLICATION_JSON_UTF8)
+                    .content(objectMapper.writeValueAsBytes(accountTransactionDto)));
+
+        } catch (Exception ex) {
+            assertEquals(IllegalStateException.class, ex.getCause().getClass());
+        }
+
+        // verify
+        verify(idempotencyService, times(1)).release("key");
+        verify(idempotencyService, never()).complete(anyString(), anyInt());
+    }
+
+    private TransferBatchDto batch(TransferBatchMode mode) {
+
+        TransferDto transferDto = new TransferDto();
+        transferDto.setSrcId(66);
+        transferDto.setDstId(77);
+        transferDto.setAmount("10");
+
+        TransferBatchDto transferBatchDto = new TransferBatchDto();
+        transferBatchDto.setMode(mode);
+        transferBatchDto.setTransfers(Collections.singletonList(transferDto));
+
+        return transferBatchDto;
+    }
 }
@@ -0,0 +1,76 @@
+package org.academiadecodigo.javabank.controller.rest;
+
+import org.academiadecodigo.javabank.converters.QueuedTransferToQueuedTransferDto;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.services.TransferQueueService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RestTransferControllerTest {
+
+    @Mock
+    private TransferQueueService transferQueueService;
+
+    @Spy
+    private QueuedTransferToQueuedTransferDto queuedTransferToQueuedTransferDto;
+
+    @InjectMocks
+    private RestTransferController restTransferController;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+
+        MockitoAnnotations.initMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(restTransferController).build();
+    }
+
+    @Test
+    public void testShowTransfer() throws Exception {
+
+        // setup
+        int fakeId = 999;
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setId(fakeId);
+        queuedTransfer.setSrcId(66);
+        queuedTransfer.setDstId(77);
+        queuedTransfer.setAmount(Money.parse("10.50"));
+        queuedTransfer.setStatus(TransferResult.Status.TRANSFERRED);
+
+        when(transferQueueService.get(fakeId)).thenReturn(queuedTransfer);
+
+        // exercise
+        mockMvc.perform(get("/api/transfer/{id}", fakeId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.id").value(fakeId))
+                .andExpect(jsonPath("$.srcId").value(66))
+                .andExpect(jsonPath("$.dstId").value(77))
+                .andExpect(jsonPath("$.amount").value("10.50"))
+                .andExpect(jsonPath("$.status").value("TRANSFERRED"));
+
+        // verify
+        verify(transferQueueService, times(1)).get(fakeId);
+    }
+
+    @Test
+    public void testShowInvalidTransfer() throws Exception {
+
+        mockMvc.perform(get("/api/transfer/{id}", 999))
+                .andExpect(status().isNotFound());
+    }
+}
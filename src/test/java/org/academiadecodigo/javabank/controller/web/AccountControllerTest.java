@@ -5,6 +5,7 @@ import org.academiadecodigo.javabank.command.TransferDto;
 import org.academiadecodigo.javabank.controller.web.AccountController;
 import org.academiadecodigo.javabank.converters.AccountDtoToAccount;
 import org.academiadecodigo.javabank.converters.TransferDtoToTransfer;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.account.AccountType;
@@ -78,7 +79,7 @@ public class AccountControllerTest {
 
         //setup
         Integer fakeCustomerId = 9999;
-        Double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
         Integer fakeSrcId = 8888;
         Integer fakeDestId = 7777;
 
@@ -113,7 +114,7 @@ public class AccountControllerTest {
         //setup
         int fakeCustomerId = 9998;
         Integer fakeDestId = 8888;
-        Double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
 
 
         //exercise
@@ -135,7 +136,7 @@ public class AccountControllerTest {
         //setup
         int fakeCustomerId = 9998;
         Integer fakeDestId = 8888;
-        Double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
 
 
         //exercise
@@ -156,7 +157,7 @@ public class AccountControllerTest {
 
         //setup
         Integer fakeCustomerId = 9999;
-        Double fakeInitialAmount = 1000.0;
+        Money fakeInitialAmount = Money.of(1000);
         AccountType fakeAccountType = AccountType.CHECKING;
 
         Customer fakeCustomer = new Customer();
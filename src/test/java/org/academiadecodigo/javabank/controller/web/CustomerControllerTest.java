@@ -5,7 +5,11 @@ import org.academiadecodigo.javabank.command.CustomerDto;
 import org.academiadecodigo.javabank.command.RecipientDto;
 import org.academiadecodigo.javabank.converters.AccountToAccountDto;
 import org.academiadecodigo.javabank.converters.CustomerDtoToCustomer;
+import org.academiadecodigo.javabank.converters.CustomerSummaryToCustomerDto;
 import org.academiadecodigo.javabank.converters.CustomerToCustomerDto;
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.Recipient;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
@@ -17,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -41,6 +46,9 @@ public class CustomerControllerTest {
     @Mock
     private AccountToAccountDto accountToAccountDto;
 
+    @Spy
+    private CustomerSummaryToCustomerDto customerSummaryToCustomerDto;
+
     @InjectMocks
     private CustomerController customerController;
 
@@ -56,22 +64,19 @@ public class CustomerControllerTest {
     @Test
     public void testListCustomers() throws Exception {
 
-        List<Customer> customers = new ArrayList<>();
-        customers.add(new Customer());
-        customers.add(new Customer());
-
-        when(customerService.list()).thenReturn(customers);
-
-        List<CustomerDto> customerDtos = new ArrayList<>();
-        customerDtos.add(new CustomerDto());
-        customerDtos.add(new CustomerDto());
+        List<CustomerSummary> customers = new ArrayList<>();
+        customers.add(new CustomerSummary(1, "Rui", "Ferrão", "rui@gmail.com", "777888999"));
+        customers.add(new CustomerSummary(2, "Sérgio", "Gouveia", "sergio@gmail.com", "777888990"));
 
-        when(customerToCustomerDto.convert(customers)).thenReturn(customerDtos);
+        when(customerService.listSummaries(Mockito.any(PageRequest.class)))
+                .thenAnswer(invocation -> Page.of(customers, invocation.getArgument(0)));
 
         mockMvc.perform(get("/customer/list"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("customer/list"))
-                .andExpect(model().attribute("customers", hasSize(2)));
+                .andExpect(model().attribute("customers", hasSize(2)))
+                .andExpect(model().attributeExists("balances"))
+                .andExpect(model().attribute("page", hasProperty("request", hasProperty("page", equalTo(0)))));
 
         mockMvc.perform(get("/customer/"))
                 .andExpect(status().isOk())
@@ -83,8 +88,52 @@ public class CustomerControllerTest {
                 .andExpect(view().name("customer/list"))
                 .andExpect(model().attribute("customers", hasSize(2)));
 
-        verify(customerService, times(3)).list();
-        verify(customerToCustomerDto, times(3)).convert(customers);
+        verify(customerService, times(3)).listSummaries(Mockito.any(PageRequest.class));
+        verify(customerService, never()).list(Mockito.any(PageRequest.class));
+        verify(customerService, times(3)).getBalances(Arrays.asList(1, 2));
+        verify(customerService, never()).getBalance(anyInt());
+        verify(customerSummaryToCustomerDto, times(3)).convert(customers);
+    }
+
+    @Test
+    public void testListCustomersPage() throws Exception {
+
+        // setup
+        List<CustomerSummary> customers = new ArrayList<>();
+        customers.add(new CustomerSummary(1, "Rui", "Ferrão", "rui@gmail.com", "777888999"));
+        customers.add(new CustomerSummary(2, "Sérgio", "Gouveia", "sergio@gmail.com", "777888990"));
+
+        when(customerService.listSummaries(Mockito.any(PageRequest.class)))
+                .thenAnswer(invocation -> Page.of(customers, invocation.getArgument(0)));
+
+        // exercise
+        mockMvc.perform(get("/customer/list").param("page", "2").param("size", "1").param("sort", "email,desc"))
+
+                // verify
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("customers", hasSize(1)))
+                .andExpect(model().attribute("page", hasProperty("request", hasProperty("page", equalTo(2)))));
+
+        ArgumentCaptor<PageRequest> pageRequest = ArgumentCaptor.forClass(PageRequest.class);
+        verify(customerService).listSummaries(pageRequest.capture());
+        assertEquals(1, pageRequest.getValue().getSize());
+        assertEquals("email,desc", pageRequest.getValue().getSortParameter());
+    }
+
+    @Test
+    public void testListCustomersInvalidPage() throws Exception {
+
+        // setup
+        when(customerService.listSummaries(Mockito.any(PageRequest.class)))
+                .thenAnswer(invocation -> Page.of(new ArrayList<>(), invocation.getArgument(0)));
+
+        // exercise
+        mockMvc.perform(get("/customer/list").param("page", "-1").param("sort", "nothing,desc"))
+
+                // verify
+                .andExpect(status().isOk())
+                .andExpect(view().name("customer/list"))
+                .andExpect(model().attribute("page", hasProperty("request", hasProperty("page", equalTo(0)))));
     }
 
     @Test
@@ -6,6 +6,7 @@ import org.academiadecodigo.javabank.command.RecipientDto;
 import org.academiadecodigo.javabank.command.TransferDto;
 import org.academiadecodigo.javabank.controller.web.RecipientController;
 import org.academiadecodigo.javabank.converters.*;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.Recipient;
@@ -317,7 +318,7 @@ public class RecipientControllerTest {
 
         //setup
         Integer fakeCustomerId = 9999;
-        Double fakeAmount = 100.0;
+        Money fakeAmount = Money.of(100);
         Integer fakeDestId = 1;
         Integer fakeSrcId = 2;
 
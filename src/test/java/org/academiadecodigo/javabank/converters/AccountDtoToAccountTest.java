@@ -1,6 +1,7 @@
 package org.academiadecodigo.javabank.converters;
 
 import org.academiadecodigo.javabank.command.AccountDto;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.factories.AccountFactory;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.academiadecodigo.javabank.persistence.model.account.AccountType;
@@ -31,7 +32,7 @@ public class AccountDtoToAccountTest {
     public void testConvert() {
 
         //setup
-        Double fakeInitialAmount = 1000.00;
+        Money fakeInitialAmount = Money.of(1000);
         AccountType accountType = AccountType.CHECKING;
         Account fakeAccount = spy(CheckingAccount.class);
         AccountDto fakeAccountDto = mock(AccountDto.class);
@@ -50,6 +51,6 @@ public class AccountDtoToAccountTest {
         verify(fakeAccount, times(1)).credit(fakeInitialAmount);
 
         assertTrue(account.getAccountType() == fakeAccountDto.getType());
-        assertTrue(account.getBalance() == fakeInitialAmount);
+        assertTrue(account.getBalance().equals(fakeInitialAmount));
     }
 }
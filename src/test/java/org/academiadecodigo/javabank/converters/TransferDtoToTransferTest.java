@@ -1,6 +1,7 @@
 package org.academiadecodigo.javabank.converters;
 
 import org.academiadecodigo.javabank.command.TransferDto;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
 import org.junit.Before;
 import org.junit.Test;
@@ -23,13 +24,13 @@ public class TransferDtoToTransferTest {
         //setup
         int fakeSrcId = 9999;
         int fakeDstId = 8888;
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
 
         TransferDto fakeTransferDto = mock(TransferDto.class);
 
         when(fakeTransferDto.getSrcId()).thenReturn(fakeSrcId);
         when(fakeTransferDto.getDstId()).thenReturn(fakeDstId);
-        when(fakeTransferDto.getAmount()).thenReturn(String.valueOf(fakeAmount));
+        when(fakeTransferDto.getAmount()).thenReturn(fakeAmount.toString());
 
         //exercise
         Transfer transfer = transferDtoToTransfer.convert(fakeTransferDto);
@@ -41,7 +42,7 @@ public class TransferDtoToTransferTest {
 
         assertTrue(transfer.getSrcId() == fakeSrcId);
         assertTrue(transfer.getDstId() == fakeDstId);
-        assertTrue(transfer.getAmount() == fakeAmount);
+        assertTrue(transfer.getAmount().equals(fakeAmount));
     }
 
 }
@@ -0,0 +1,58 @@
+package org.academiadecodigo.javabank.domain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MoneyTest {
+
+    @Test
+    public void testParse() {
+
+        assertEquals(1000, Money.parse("10").getCents());
+        assertEquals(1050, Money.parse("10.5").getCents());
+        assertEquals(1050, Money.parse(" $10.50 ").getCents());
+        assertEquals(-1, Money.parse("-0.01").getCents());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseTooManyDecimals() {
+        Money.parse("10.005");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseInvalid() {
+        Money.parse("ten");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseNull() {
+        Money.parse(null);
+    }
+
+    @Test
+    public void testArithmetic() {
+
+        Money amount = Money.parse("0.10").plus(Money.parse("0.20"));
+
+        assertEquals(Money.parse("0.30"), amount);
+        assertEquals(Money.ZERO, amount.minus(Money.ofCents(30)));
+        assertTrue(amount.isPositive());
+        assertTrue(amount.minus(amount).isZero());
+        assertTrue(amount.compareTo(Money.of(1)) < 0);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testOverflow() {
+        Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1));
+    }
+
+    @Test
+    public void testToString() {
+
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("1000.00", Money.of(1000).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+    }
+}
@@ -0,0 +1,85 @@
+package org.academiadecodigo.javabank.domain;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PageRequestTest {
+
+    @Test
+    public void testOf() {
+
+        // exercise
+        PageRequest pageRequest = PageRequest.of(2, 10, " lastName , DESC ");
+
+        // verify
+        assertEquals(2, pageRequest.getPage());
+        assertEquals(10, pageRequest.getSize());
+        assertEquals(20, pageRequest.getOffset());
+        assertEquals("lastName", pageRequest.getSort());
+        assertFalse(pageRequest.isAscending());
+        assertEquals("lastName,desc", pageRequest.getSortParameter());
+    }
+
+    @Test
+    public void testOfDefaultSort() {
+
+        // exercise
+        PageRequest pageRequest = PageRequest.of(0, 10, "");
+
+        // verify
+        assertEquals(PageRequest.DEFAULT_SORT, pageRequest.getSort());
+        assertTrue(pageRequest.isAscending());
+        assertTrue(PageRequest.of(0, 10, "email").isAscending());
+    }
+
+    @Test
+    public void testOfInvalid() {
+
+        String[] sorts = {",asc", "lastName,up", "lastName,asc,desc"};
+
+        for (String sort : sorts) {
+            try {
+                PageRequest.of(0, 10, sort);
+                fail("Sort should not be valid: " + sort);
+
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfNegativePage() {
+        PageRequest.of(-1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfEmptyPage() {
+        PageRequest.of(0, 0);
+    }
+
+    @Test
+    public void testPage() {
+
+        // setup
+        List<Integer> rows = new ArrayList<>(Arrays.asList(1, 2, 3));
+
+        // exercise
+        Page<Integer> full = Page.of(rows, PageRequest.of(1, 2));
+        Page<Integer> last = Page.of(rows, PageRequest.of(1, 3));
+
+        // verify
+        assertEquals(Arrays.asList(1, 2), full.getContent());
+        assertTrue(full.hasNext());
+        assertTrue(full.hasPrevious());
+        assertEquals(Arrays.asList(1, 2, 3), last.getContent());
+        assertFalse(last.hasNext());
+        assertEquals(Arrays.asList("1", "2"), full.map(String::valueOf).getContent());
+        assertTrue(full.map(String::valueOf).hasNext());
+    }
+}
@@ -0,0 +1,47 @@
+package org.academiadecodigo.javabank.domain;
+
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+public class TransactionCursorTest {
+
+    @Test
+    public void testOf() {
+
+        Transaction transaction = new Transaction(42L, new Date(1507645846471L), JournalEntryType.DEPOSIT, 100);
+        TransactionCursor cursor = TransactionCursor.of(transaction);
+
+        assertEquals(new Date(1507645846471L), cursor.getTime());
+        assertEquals(Long.valueOf(42), cursor.getId());
+        assertEquals("1507645846471:42", cursor.toString());
+    }
+
+    @Test
+    public void testParse() {
+
+        TransactionCursor cursor = TransactionCursor.parse("1507645846471:42");
+
+        assertEquals(new Date(1507645846471L), cursor.getTime());
+        assertEquals(Long.valueOf(42), cursor.getId());
+        assertEquals(cursor, TransactionCursor.parse(cursor.toString()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingId() {
+        TransactionCursor.parse("1507645846471");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalid() {
+        TransactionCursor.parse("yesterday:42");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNull() {
+        TransactionCursor.parse(null);
+    }
+}
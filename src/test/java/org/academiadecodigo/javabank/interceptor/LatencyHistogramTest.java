@@ -0,0 +1,119 @@
+package org.academiadecodigo.javabank.interceptor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private static final double DELTA = 0.0001;
+
+    private LatencyHistogram latencyHistogram;
+
+    @Before
+    public void setup() {
+        latencyHistogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void testEmpty() {
+
+        // exercise
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.snapshot();
+
+        // verify
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean(), DELTA);
+        assertEquals(0, snapshot.getP99(), DELTA);
+        assertEquals(0, snapshot.getMax(), DELTA);
+    }
+
+    @Test
+    public void testRecord() {
+
+        // exercise
+        latencyHistogram.record(50);
+        latencyHistogram.record(100);
+        latencyHistogram.record(101);
+        latencyHistogram.record(20_000_000);
+
+        // verify
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.snapshot();
+        long[] counts = snapshot.getCounts();
+
+        assertEquals(4, snapshot.getCount());
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(snapshot.getBounds().length + 1, counts.length);
+        assertEquals(20_000.251, snapshot.getSum(), DELTA);
+        assertEquals(20_000, snapshot.getMax(), DELTA);
+    }
+
+    @Test
+    public void testPercentiles() {
+
+        // setup
+        for (int i = 1; i <= 100; i++) {
+            latencyHistogram.record(i * 10_000);
+        }
+
+        // exercise
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.snapshot();
+
+        // verify
+        assertEquals(1000, snapshot.getMax(), DELTA);
+        assertEquals(505, snapshot.getMean(), DELTA);
+        assertTrue(snapshot.getP50() > 250 && snapshot.getP50() <= 500);
+        assertTrue(snapshot.getP90() > 500 && snapshot.getP90() <= 1000);
+        assertEquals(1000, snapshot.getP999(), DELTA);
+        assertTrue(snapshot.percentile(1) <= 10);
+    }
+
+    @Test
+    public void testPercentileNeverAboveMax() {
+
+        // setup
+        latencyHistogram.record(3_000);
+
+        // exercise
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.snapshot();
+
+        // verify
+        assertEquals(3, snapshot.getP50(), DELTA);
+        assertEquals(3, snapshot.getP99(), DELTA);
+    }
+
+    @Test
+    public void testConcurrentRecord() throws InterruptedException {
+
+        // setup
+        int threads = 8;
+        int records = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // exercise
+        for (int i = 0; i < threads; i++) {
+            long latency = (i + 1) * 1_000;
+            executor.execute(() -> {
+                for (int j = 0; j < records; j++) {
+                    latencyHistogram.record(latency);
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // verify
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.snapshot();
+        assertEquals(threads * records, snapshot.getCount());
+        assertEquals(threads, snapshot.getMax(), DELTA);
+    }
+}
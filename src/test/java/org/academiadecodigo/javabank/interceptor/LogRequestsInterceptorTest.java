@@ -0,0 +1,116 @@
+package org.academiadecodigo.javabank.interceptor;
+
+import org.academiadecodigo.javabank.controller.rest.RestIndexController;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LogRequestsInterceptorTest {
+
+    private static final String HANDLER = "RestIndexController#showVersion";
+
+    private LogRequestsInterceptor logRequestsInterceptor;
+    private HandlerMethod handler;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setup() throws NoSuchMethodException {
+
+        logRequestsInterceptor = new LogRequestsInterceptor();
+        handler = new HandlerMethod(new RestIndexController(), RestIndexController.class.getDeclaredMethod("showVersion"));
+        request = new MockHttpServletRequest("GET", "/api/");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void testInFlight() {
+
+        // exercise
+        boolean proceed = logRequestsInterceptor.preHandle(request, response, handler);
+
+        // verify
+        assertTrue(proceed);
+
+        EndpointMetrics metrics = logRequestsInterceptor.getMetrics().get(HANDLER);
+        assertEquals(1, metrics.getInFlight());
+        assertEquals(0, metrics.getRequests());
+    }
+
+    @Test
+    public void testCompleted() {
+
+        // setup
+        logRequestsInterceptor.preHandle(request, response, handler);
+
+        // exercise
+        logRequestsInterceptor.afterCompletion(request, response, handler, null);
+
+        // verify
+        EndpointMetrics metrics = logRequestsInterceptor.getMetrics().get(HANDLER);
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(1, metrics.getRequests());
+        assertEquals(0, metrics.getClientErrors());
+        assertEquals(0, metrics.getServerErrors());
+        assertNull(request.getAttribute(LogRequestsInterceptor.START_TIME_ATTRIBUTE));
+    }
+
+    @Test
+    public void testCompletedWithErrors() {
+
+        // exercise
+        complete(404, null);
+        complete(500, null);
+        complete(200, new IllegalStateException());
+
+        // verify
+        EndpointMetrics metrics = logRequestsInterceptor.getMetrics().get(HANDLER);
+        assertEquals(3, metrics.getRequests());
+        assertEquals(1, metrics.getClientErrors());
+        assertEquals(2, metrics.getServerErrors());
+    }
+
+    @Test
+    public void testAsyncDispatch() throws Exception {
+
+        // setup
+        logRequestsInterceptor.preHandle(request, response, handler);
+        logRequestsInterceptor.afterConcurrentHandlingStarted(request, response, handler);
+
+        // exercise
+        logRequestsInterceptor.preHandle(request, response, handler);
+        logRequestsInterceptor.afterCompletion(request, response, handler, null);
+
+        // verify
+        EndpointMetrics metrics = logRequestsInterceptor.getMetrics().get(HANDLER);
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(1, metrics.getRequests());
+    }
+
+    @Test
+    public void testNotHandlerMethod() {
+
+        // exercise
+        logRequestsInterceptor.preHandle(request, response, new Object());
+        logRequestsInterceptor.afterCompletion(request, response, new Object(), null);
+
+        // verify
+        assertTrue(logRequestsInterceptor.getMetrics().isEmpty());
+    }
+
+    private void complete(int status, Exception ex) {
+
+        request = new MockHttpServletRequest("GET", "/api/");
+        response = new MockHttpServletResponse();
+
+        logRequestsInterceptor.preHandle(request, response, handler);
+        response.setStatus(status);
+        logRequestsInterceptor.afterCompletion(request, response, handler, ex);
+    }
+}
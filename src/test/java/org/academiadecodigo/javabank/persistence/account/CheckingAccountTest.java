@@ -1,5 +1,6 @@
 package org.academiadecodigo.javabank.persistence.account;
 
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
 import org.junit.Before;
 import org.junit.Test;
@@ -19,81 +20,93 @@ public class CheckingAccountTest {
     public void testInitialBalance() {
 
         // check initial account balance
-        assertEquals(0, account.getBalance(), 0.1);
+        assertEquals(Money.ZERO, account.getBalance());
 
     }
 
     @Test
     public void testCredit() {
 
-        int credit = 100;
-        double balance = account.getBalance();
+        Money credit = Money.of(100);
+        Money balance = account.getBalance();
 
         // credit the account
         account.credit(credit);
 
         // check if the balance has been updated
-        assertEquals(balance + credit, account.getBalance(), 0.1);
+        assertEquals(balance.plus(credit), account.getBalance());
     }
 
     @Test
     public void testCreditNegativeValue() {
 
-        double credit = -100;
-        double balance = account.getBalance();
+        Money credit = Money.of(-100);
+        Money balance = account.getBalance();
 
         // credit the account with a negative value
         account.credit(credit);
 
         // check if the balance has remained the same
-        assertEquals(balance, account.getBalance(), 0);
+        assertEquals(balance, account.getBalance());
 
     }
 
+    @Test
+    public void testCreditCents() {
+
+        // credit an amount which is not exactly representable as a double
+        for (int i = 0; i < 10; i++) {
+            account.credit(Money.parse("0.10"));
+        }
+
+        // check that no rounding error was accumulated
+        assertEquals(Money.of(1), account.getBalance());
+    }
+
     @Test
     public void testDebit() {
 
-        double initialBalance = account.getBalance();
-        double credit = 200;
-        double debit = 100;
+        Money initialBalance = account.getBalance();
+        Money credit = Money.of(200);
+        Money debit = Money.of(100);
 
         // check initial account balance
         account.credit(credit);
-        assertEquals(credit + initialBalance, account.getBalance(), 0);
+        assertEquals(credit.plus(initialBalance), account.getBalance());
 
         // debit from the account
         account.debit(debit);
 
         // check if value has been updated
-        assertEquals(credit + initialBalance - debit, account.getBalance(), 0);
+        assertEquals(credit.plus(initialBalance).minus(debit), account.getBalance());
 
     }
 
     @Test
     public void testDebitFail() {
 
-        double initialBalance = account.getBalance();
-        double credit = 100;
+        Money initialBalance = account.getBalance();
+        Money credit = Money.of(100);
 
         // check initial account balance
         account.credit(credit);
-        assertEquals(credit + initialBalance, account.getBalance(), 0);
+        assertEquals(credit.plus(initialBalance), account.getBalance());
 
         // debit from the account
-        account.debit(credit + initialBalance + 100);
+        account.debit(credit.plus(initialBalance).plus(Money.of(100)));
 
         // check if value has not been updated
-        assertEquals(credit + initialBalance, account.getBalance(), 0);
+        assertEquals(credit.plus(initialBalance), account.getBalance());
     }
 
     @Test
     public void testDebitNegativeValue() {
 
-        double balance = account.getBalance();
-        double debit = -100;
+        Money balance = account.getBalance();
+        Money debit = Money.of(-100);
 
         account.debit(debit);
-        assertEquals(balance, account.getBalance(), 0);
+        assertEquals(balance, account.getBalance());
 
     }
 
@@ -0,0 +1,43 @@
+package org.academiadecodigo.javabank.persistence.cache;
+
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheStatisticsIntegrationTest extends JpaIntegrationTestHelper {
+
+    private CacheStatistics cacheStatistics;
+    private CustomerService customerService;
+
+    @Before
+    public void setup() {
+        cacheStatistics = ctx.getBean(CacheStatistics.class);
+        customerService = ctx.getBean(CustomerService.class);
+    }
+
+    @Test
+    public void testRegions() {
+
+        // setup
+        customerService.get(1);
+
+        // exercise
+        customerService.get(1);
+
+        // verify
+        RegionStatistics customers = cacheStatistics.getRegions().get(Customer.class.getName());
+
+        assertNotNull("Customer region is missing", customers);
+        // read write regions look an entry up again before putting it
+        assertTrue(customers.getMisses() >= 1);
+        assertEquals(1, customers.getPuts());
+        assertTrue(customers.getHits() >= 1);
+        assertTrue(customers.getHitRatio() > 0);
+    }
+}
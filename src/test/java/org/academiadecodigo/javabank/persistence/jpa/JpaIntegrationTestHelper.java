@@ -7,16 +7,23 @@ import org.springframework.context.support.GenericXmlApplicationContext;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 
+import static org.junit.Assert.assertEquals;
+
 public class JpaIntegrationTestHelper {
 
+    protected GenericXmlApplicationContext ctx;
     protected EntityManagerFactory emf;
     protected EntityManager em;
+    protected SqlStatementCounter sqlStatementCounter;
 
     @Before
     public void init() {
 
-        GenericXmlApplicationContext ctx = new GenericXmlApplicationContext();
-        ctx.getEnvironment().setActiveProfiles("test");
+        sqlStatementCounter = new SqlStatementCounter();
+
+        ctx = new GenericXmlApplicationContext();
+        ctx.getEnvironment().setActiveProfiles(getActiveProfiles());
+        ctx.getBeanFactory().addBeanPostProcessor(sqlStatementCounter);
         ctx.load("file:src/main/webapp/WEB-INF/spring/spring-config.xml");
         ctx.refresh();
 
@@ -33,8 +40,37 @@ public class JpaIntegrationTestHelper {
             em.close();
         }
 
-        if (emf != null) {
-            emf.close();
+        // stops the background workers of the context together with the entity manager factory
+        if (ctx != null) {
+            ctx.close();
+        }
+    }
+
+    /**
+     * Gets the profiles the context is started with
+     *
+     * @return the test profile, together with the profiles of the features under test
+     */
+    protected String[] getActiveProfiles() {
+        return new String[]{"test"};
+    }
+
+    /**
+     * Asserts the sql statements sent by a block, every kind of statement not expected must not happen
+     *
+     * @param expected the expected statements
+     * @param block    the block to run
+     */
+    protected void assertStatements(SqlStatements expected, SqlStatementCounter.Block block) {
+
+        try {
+            assertEquals("Sql statements are wrong", expected, sqlStatementCounter.count(block));
+
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+
+        } catch (Exception ex) {
+            throw new AssertionError("Block failed", ex);
         }
     }
 }
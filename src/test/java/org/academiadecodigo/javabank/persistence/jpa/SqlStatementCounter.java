@@ -0,0 +1,155 @@
+package org.academiadecodigo.javabank.persistence.jpa;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Counts the sql statements sent through a data source, by kind
+ * <p>
+ * The data source is wrapped in a JDBC proxy, which sees every statement, including the native and bulk ones
+ * Hibernate statistics leave out. Statements are counted once when prepared, so a JDBC batch counts as one.
+ * Only the statements of the thread running {@link #count(Block)} are counted, so background writers do not
+ * disturb the count.
+ * <p>
+ * As a {@link BeanPostProcessor}, it wraps every data source bean of the context it is added to.
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private final ThreadLocal<SqlStatements> recording = new ThreadLocal<>();
+
+    /**
+     * Counts the statements sent by the current thread while running a block
+     *
+     * @param block the block to run
+     * @return the statements count
+     * @throws Exception if the block fails
+     */
+    public SqlStatements count(Block block) throws Exception {
+
+        recording.set(SqlStatements.none());
+
+        try {
+            block.run();
+            return recording.get();
+
+        } finally {
+            recording.remove();
+        }
+    }
+
+    /**
+     * Wraps a data source, so that its statements are counted
+     *
+     * @param dataSource the data source to wrap
+     * @return the counting data source
+     */
+    public DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args) ->
+                method.getName().equals("getConnection") ? wrap((Connection) invoke(dataSource, method, args)) : null);
+    }
+
+    /**
+     * @see BeanPostProcessor#postProcessBeforeInitialization(Object, String)
+     */
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    /**
+     * @see BeanPostProcessor#postProcessAfterInitialization(Object, String)
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource ? wrap((DataSource) bean) : bean;
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+
+            switch (method.getName()) {
+
+                case "prepareStatement":
+                case "prepareCall":
+                    record((String) args[0]);
+                    return invoke(connection, method, args);
+
+                case "createStatement":
+                    return wrap((Statement) invoke(connection, method, args));
+
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private Statement wrap(Statement statement) {
+        return proxy(Statement.class, statement, (method, args) -> {
+
+            if (method.getName().startsWith("execute") && args != null && args[0] instanceof String) {
+                record((String) args[0]);
+            }
+
+            return null;
+        });
+    }
+
+    private void record(String sql) {
+
+        SqlStatements statements = recording.get();
+
+        if (statements != null) {
+            recording.set(statements.plus(sql));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Interception interception) {
+
+        InvocationHandler handler = (proxy, method, args) -> {
+
+            Object intercepted = interception.intercept(method, args);
+            return intercepted != null ? intercepted : invoke(target, method, args);
+        };
+
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+
+        try {
+            return method.invoke(target, args);
+
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * A block of code sending sql statements
+     */
+    @FunctionalInterface
+    public interface Block {
+
+        /**
+         * Runs the block
+         *
+         * @throws Exception if the block fails
+         */
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Interception {
+
+        // returns the result of the intercepted call, or null to let the target handle it
+        Object intercept(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,217 @@
+package org.academiadecodigo.javabank.persistence.jpa;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * An immutable count of sql statements, by kind
+ * <p>
+ * Expected counts are built from {@link #none()}, so that every kind left out is expected not to happen:
+ * <pre>
+ *     SqlStatements.none().selects(1).updates(1)
+ * </pre>
+ */
+public final class SqlStatements {
+
+    private static final SqlStatements NONE = new SqlStatements(0, 0, 0, 0, 0);
+
+    private final long selects;
+    private final long inserts;
+    private final long updates;
+    private final long deletes;
+    private final long others;
+
+    private SqlStatements(long selects, long inserts, long updates, long deletes, long others) {
+        this.selects = selects;
+        this.inserts = inserts;
+        this.updates = updates;
+        this.deletes = deletes;
+        this.others = others;
+    }
+
+    /**
+     * Gets the empty count
+     *
+     * @return the count of no statements
+     */
+    public static SqlStatements none() {
+        return NONE;
+    }
+
+    /**
+     * Sets the number of selects
+     *
+     * @param selects the number of selects
+     * @return the new count
+     */
+    public SqlStatements selects(long selects) {
+        return new SqlStatements(selects, inserts, updates, deletes, others);
+    }
+
+    /**
+     * Sets the number of inserts
+     *
+     * @param inserts the number of inserts
+     * @return the new count
+     */
+    public SqlStatements inserts(long inserts) {
+        return new SqlStatements(selects, inserts, updates, deletes, others);
+    }
+
+    /**
+     * Sets the number of updates
+     *
+     * @param updates the number of updates
+     * @return the new count
+     */
+    public SqlStatements updates(long updates) {
+        return new SqlStatements(selects, inserts, updates, deletes, others);
+    }
+
+    /**
+     * Sets the number of deletes
+     *
+     * @param deletes the number of deletes
+     * @return the new count
+     */
+    public SqlStatements deletes(long deletes) {
+        return new SqlStatements(selects, inserts, updates, deletes, others);
+    }
+
+    /**
+     * Sets the number of other statements, such as sequence calls
+     *
+     * @param others the number of other statements
+     * @return the new count
+     */
+    public SqlStatements others(long others) {
+        return new SqlStatements(selects, inserts, updates, deletes, others);
+    }
+
+    /**
+     * Adds one statement of the kind of the given sql
+     *
+     * @param sql the statement sql
+     * @return the new count
+     */
+    public SqlStatements plus(String sql) {
+
+        String statement = sql.trim().toLowerCase(Locale.ROOT);
+
+        if (statement.startsWith("select") || statement.startsWith("with")) {
+            return selects(selects + 1);
+        }
+
+        if (statement.startsWith("insert")) {
+            return inserts(inserts + 1);
+        }
+
+        if (statement.startsWith("update")) {
+            return updates(updates + 1);
+        }
+
+        if (statement.startsWith("delete")) {
+            return deletes(deletes + 1);
+        }
+
+        return others(others + 1);
+    }
+
+    /**
+     * Gets the number of selects
+     *
+     * @return the number of selects
+     */
+    public long getSelects() {
+        return selects;
+    }
+
+    /**
+     * Gets the number of inserts
+     *
+     * @return the number of inserts
+     */
+    public long getInserts() {
+        return inserts;
+    }
+
+    /**
+     * Gets the number of updates
+     *
+     * @return the number of updates
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Gets the number of deletes
+     *
+     * @return the number of deletes
+     */
+    public long getDeletes() {
+        return deletes;
+    }
+
+    /**
+     * Gets the number of other statements
+     *
+     * @return the number of other statements
+     */
+    public long getOthers() {
+        return others;
+    }
+
+    /**
+     * Gets the number of statements of every kind
+     *
+     * @return the total number of statements
+     */
+    public long getTotal() {
+        return selects + inserts + updates + deletes + others;
+    }
+
+    /**
+     * @see Object#equals(Object)
+     */
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SqlStatements that = (SqlStatements) o;
+        return selects == that.selects &&
+                inserts == that.inserts &&
+                updates == that.updates &&
+                deletes == that.deletes &&
+                others == that.others;
+    }
+
+    /**
+     * @see Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(selects, inserts, updates, deletes, others);
+    }
+
+    /**
+     * @see Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "SqlStatements{" +
+                "selects=" + selects +
+                ", inserts=" + inserts +
+                ", updates=" + updates +
+                ", deletes=" + deletes +
+                ", others=" + others +
+                '}';
+    }
+}
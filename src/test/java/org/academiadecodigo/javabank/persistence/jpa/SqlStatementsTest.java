@@ -0,0 +1,31 @@
+package org.academiadecodigo.javabank.persistence.jpa;
+
+import org.junit.Test;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.assertEquals;
+
+public class SqlStatementsTest {
+
+    @Test
+    public void testPlus() {
+
+        // exercise
+        SqlStatements statements = none()
+                .plus("select * from account")
+                .plus("  WITH t as (select 1) select * from t")
+                .plus("insert into posting values (?)")
+                .plus("update account set balance = ?")
+                .plus("delete from recipient where id = ?")
+                .plus("call next value for posting_seq");
+
+        // verify
+        assertEquals(none().selects(2).inserts(1).updates(1).deletes(1).others(1), statements);
+        assertEquals(6, statements.getTotal());
+    }
+
+    @Test
+    public void testNone() {
+        assertEquals(0, none().getTotal());
+    }
+}
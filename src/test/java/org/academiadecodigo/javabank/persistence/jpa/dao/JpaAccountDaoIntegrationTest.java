@@ -1,22 +1,31 @@
 package org.academiadecodigo.javabank.persistence.jpa.dao;
 
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.persistence.dao.jpa.JpaAccountDao;
 import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.academiadecodigo.javabank.persistence.model.account.AccountType;
 import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.persistence.model.account.AccountSlot;
+import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.academiadecodigo.javabank.services.slots.SlotConsolidator;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
 import javax.persistence.Query;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
 public class JpaAccountDaoIntegrationTest extends JpaIntegrationTestHelper {
 
     private final static Integer INVALID_ID = 9999;
-    private final static double DOUBLE_DELTA = 0.1;
 
     private JpaAccountDao accountDao;
 
@@ -26,6 +35,9 @@ public class JpaAccountDaoIntegrationTest extends JpaIntegrationTestHelper {
         accountDao = new JpaAccountDao();
         accountDao.setEm(em);
 
+        // the slots are consolidated by the tests themselves
+        ctx.getBean(SlotConsolidator.class).destroy();
+
     }
 
     @Test
@@ -41,8 +53,55 @@ public class JpaAccountDaoIntegrationTest extends JpaIntegrationTestHelper {
         assertNotNull("Account is null", account);
         assertEquals("Account id is wrong", id, account.getId().intValue());
         assertEquals("Account type is wrong", AccountType.CHECKING.toString(), account.getAccountType().toString());
-        assertEquals("Account balance is wrong", 100, account.getBalance(), DOUBLE_DELTA);
+        assertEquals("Account balance is wrong", Money.of(100), account.getBalance());
+
+    }
+
+    @Test
+    public void testFindByIds() {
+
+        // exercise
+        List<Account> accounts = accountDao.findByIds(Arrays.asList(1, 3, INVALID_ID));
+
+        // verify
+        assertEquals("Number of accounts is wrong", 2, accounts.size());
+        for (Account account : accounts) {
+            assertNotNull("Account customer is null", account.getCustomer());
+        }
+        assertTrue("No ids should have no accounts", accountDao.findByIds(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testFindByIdForUpdate() {
+
+        // setup
+        int id = 1;
+        EntityManager other = emf.createEntityManager();
+
+        // exercise
+        em.getTransaction().begin();
+        Account account = accountDao.findByIdForUpdate(id, -1);
+
+        // verify, the other transaction gives up on the locked row
+        assertNotNull("Account is null", account);
+        assertNotNull("Account customer is null", account.getCustomer());
+        assertNull("Account should be null", accountDao.findByIdForUpdate(INVALID_ID, -1));
+
+        other.getTransaction().begin();
+        other.createNativeQuery("SET LOCK_TIMEOUT 50").executeUpdate();
+
+        try {
+            other.createNativeQuery("UPDATE account SET balance = 0 WHERE id = " + id).executeUpdate();
+            fail("Account should be locked");
 
+        } catch (PersistenceException ex) {
+            // the lock timed out
+
+        } finally {
+            other.getTransaction().rollback();
+            other.close();
+            em.getTransaction().rollback();
+        }
     }
 
     @Test
@@ -113,7 +172,7 @@ public class JpaAccountDaoIntegrationTest extends JpaIntegrationTestHelper {
         // setup
         int id = 1;
         Account account = em.find(Account.class, id);
-        account.credit(100);
+        account.credit(Money.of(100));
 
         // exercise
         em.getTransaction().begin();
@@ -122,11 +181,224 @@ public class JpaAccountDaoIntegrationTest extends JpaIntegrationTestHelper {
 
         // verify
         account = em.find(Account.class, id);
-        assertEquals("Account balance is wrong", 200, account.getBalance(), DOUBLE_DELTA);
+        assertEquals("Account balance is wrong", Money.of(200), account.getBalance());
 
     }
 
 
+    @Test
+    public void testDebitIfSufficient() {
+
+        // setup
+        int id = 1;
+        Integer version = em.find(Account.class, id).getVersion();
+        em.clear();
+
+        // exercise
+        em.getTransaction().begin();
+        boolean debited = accountDao.debitIfSufficient(id, Money.of(40));
+        em.getTransaction().commit();
+
+        // verify
+        assertTrue("Account was not debited", debited);
+        Account account = em.find(Account.class, id);
+        assertEquals("Account balance is wrong", Money.of(60), account.getBalance());
+        assertEquals("Account version is wrong", version + 1, account.getVersion().intValue());
+
+    }
+
+    @Test
+    public void testDebitIfSufficientInsufficientFunds() {
+
+        // setup
+        int id = 1;
+
+        // exercise
+        em.getTransaction().begin();
+        boolean debited = accountDao.debitIfSufficient(id, Money.parse("100.01"));
+        em.getTransaction().commit();
+
+        // verify
+        assertFalse("Account should not be debited", debited);
+        em.clear();
+        assertEquals("Account balance is wrong", Money.of(100), em.find(Account.class, id).getBalance());
+
+    }
+
+    @Test
+    public void testDebitIfSufficientSavingsMinBalance() {
+
+        // setup
+        int id = 4;
+        Money allowed = Money.of(150).minus(SavingsAccount.MIN_BALANCE);
+
+        // exercise
+        em.getTransaction().begin();
+        boolean belowMinimum = accountDao.debitIfSufficient(id, allowed.plus(Money.ofCents(1)));
+        boolean atMinimum = accountDao.debitIfSufficient(id, allowed);
+        em.getTransaction().commit();
+
+        // verify
+        assertFalse("Account should not go below its minimum balance", belowMinimum);
+        assertTrue("Account was not debited", atMinimum);
+        em.clear();
+        assertEquals("Account balance is wrong", SavingsAccount.MIN_BALANCE, em.find(Account.class, id).getBalance());
+
+    }
+
+    @Test
+    public void testDebitIfSufficientInvalid() {
+
+        // exercise
+        em.getTransaction().begin();
+        boolean debited = accountDao.debitIfSufficient(INVALID_ID, Money.of(1));
+        em.getTransaction().commit();
+
+        // verify
+        assertFalse("Invalid account should not be debited", debited);
+
+    }
+
+    @Test
+    public void testCredit() {
+
+        // setup
+        int id = 3;
+
+        // exercise
+        em.getTransaction().begin();
+        boolean credited = accountDao.credit(id, Money.parse("0.50"));
+        em.getTransaction().commit();
+
+        // verify
+        assertTrue("Account was not credited", credited);
+        Account account = em.find(Account.class, id);
+        assertEquals("Account balance is wrong", Money.parse("10.50"), account.getBalance());
+
+    }
+
+    @Test
+    public void testCreditInvalid() {
+
+        // exercise
+        em.getTransaction().begin();
+        boolean credited = accountDao.credit(INVALID_ID, Money.of(1));
+        em.getTransaction().commit();
+
+        // verify
+        assertFalse("Invalid account should not be credited", credited);
+
+    }
+
+    @Test
+    public void testSplit() {
+
+        // exercise
+        em.getTransaction().begin();
+        boolean split = accountDao.split(1, 4);
+        boolean invalid = accountDao.split(INVALID_ID, 4);
+        em.getTransaction().commit();
+
+        // verify
+        assertTrue("Account was not split", split);
+        assertFalse("Invalid account was split", invalid);
+        em.clear();
+        Account account = em.find(Account.class, 1);
+        assertEquals("Account slots are wrong", 4, account.getSlots());
+        assertEquals("Account balance is wrong", Money.of(100), account.getBalance());
+        assertEquals("Number of slots is wrong", 4, slots(1).size());
+        assertEquals("Split accounts are wrong", Collections.singletonList(1), accountDao.findSplitIds());
+
+    }
+
+    @Test
+    public void testCreditSlot() {
+
+        // setup
+        int id = 1;
+        em.getTransaction().begin();
+        accountDao.split(id, 2);
+        em.getTransaction().commit();
+        em.clear();
+        Integer version = em.find(Account.class, id).getVersion();
+        em.clear();
+
+        // exercise
+        em.getTransaction().begin();
+        boolean credited = accountDao.creditSlot(id, 1, Money.of(10));
+        boolean invalid = accountDao.creditSlot(id, 2, Money.of(10));
+        em.getTransaction().commit();
+
+        // verify, the account row is left alone
+        assertTrue("Slot was not credited", credited);
+        assertFalse("Invalid slot should not be credited", invalid);
+        assertEquals("Slot balance is wrong", Money.of(10), slots(id).get(1).getBalance());
+        em.clear();
+        Account account = em.find(Account.class, id);
+        assertEquals("Account balance is wrong", Money.of(110), account.getBalance());
+        assertEquals("Account version is wrong", version, account.getVersion());
+        assertEquals("Customer balance is wrong", Money.parse("160.50"), accountDao.getCustomerBalance(1));
+
+    }
+
+    @Test
+    public void testConsolidate() {
+
+        // setup
+        int id = 1;
+        em.getTransaction().begin();
+        accountDao.split(id, 2);
+        accountDao.creditSlot(id, 0, Money.of(10));
+        accountDao.creditSlot(id, 1, Money.of(5));
+        em.getTransaction().commit();
+
+        // exercise
+        em.getTransaction().begin();
+        Money moved = accountDao.consolidate(id);
+        Money none = accountDao.consolidate(id);
+        Money unsplit = accountDao.consolidate(3);
+        em.getTransaction().commit();
+
+        // verify
+        assertEquals("Moved balance is wrong", Money.of(15), moved);
+        assertEquals("Empty slots should move nothing", Money.ZERO, none);
+        assertEquals("Unsplit account should move nothing", Money.ZERO, unsplit);
+        for (AccountSlot slot : slots(id)) {
+            assertEquals("Slot balance is wrong", Money.ZERO, slot.getBalance());
+        }
+        em.clear();
+        assertEquals("Account balance is wrong", Money.of(115), em.find(Account.class, id).getBalance());
+
+    }
+
+    @Test
+    public void testDebitIfSufficientConsolidates() {
+
+        // setup
+        int id = 4;
+        em.getTransaction().begin();
+        accountDao.split(id, 2);
+        accountDao.creditSlot(id, 1, Money.of(50));
+        em.getTransaction().commit();
+        em.clear();
+        assertTrue("Account should be able to debit its slots", em.find(Account.class, id).canDebit(Money.of(100)));
+        em.clear();
+
+        // exercise
+        em.getTransaction().begin();
+        boolean debited = accountDao.debitIfSufficient(id, Money.of(100));
+        boolean belowMinimum = accountDao.debitIfSufficient(id, Money.ofCents(1));
+        em.getTransaction().commit();
+
+        // verify
+        assertTrue("Account was not debited", debited);
+        assertFalse("Account should not go below its minimum balance", belowMinimum);
+        em.clear();
+        assertEquals("Account balance is wrong", SavingsAccount.MIN_BALANCE, em.find(Account.class, id).getBalance());
+        assertEquals("Slot balance is wrong", Money.ZERO, slots(id).get(1).getBalance());
+
+    }
+
     @Test
     public void testDeleteAccountOwned() {
 
@@ -169,4 +441,57 @@ public class JpaAccountDaoIntegrationTest extends JpaIntegrationTestHelper {
         em.getTransaction().commit();
     }
 
+    @Test
+    public void testFindCustomerId() {
+
+        // exercise and verify
+        assertEquals("Customer id is wrong", Integer.valueOf(2), accountDao.findCustomerId(3));
+        assertNull("Orphan account should have no customer", accountDao.findCustomerId(7));
+        assertNull("Invalid account should have no customer", accountDao.findCustomerId(INVALID_ID));
+    }
+
+    @Test
+    public void testGetCustomerBalance() {
+
+        // exercise and verify
+        assertEquals("Customer balance is wrong", Money.parse("150.50"), accountDao.getCustomerBalance(1));
+        assertEquals("Customer balance is wrong", Money.ZERO, accountDao.getCustomerBalance(3));
+        assertNull("Customer without accounts should have no balance", accountDao.getCustomerBalance(4));
+        assertNull("Invalid customer should have no balance", accountDao.getCustomerBalance(INVALID_ID));
+    }
+
+    @Test
+    public void testGetCustomerBalances() {
+
+        // exercise
+        Map<Integer, Money> balances = accountDao.getCustomerBalances(Arrays.asList(1, 2, 4, INVALID_ID));
+
+        // verify
+        assertEquals("Number of balances is wrong", 2, balances.size());
+        assertEquals("Customer balance is wrong", Money.parse("150.50"), balances.get(1));
+        assertEquals("Customer balance is wrong", Money.of(160), balances.get(2));
+        assertTrue("No customers should have no balances", accountDao.getCustomerBalances(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testFindCustomerBalances() {
+
+        // exercise
+        List<CustomerBalance> odd = accountDao.findCustomerBalances(1, 2);
+        List<CustomerBalance> even = accountDao.findCustomerBalances(0, 2);
+
+        // verify
+        assertEquals("Number of balances is wrong", 2, odd.size());
+        assertTrue("Customer balance is wrong", odd.contains(new CustomerBalance(1, Money.parse("150.50"), 2)));
+        assertTrue("Customer balance is wrong", odd.contains(new CustomerBalance(3, Money.ZERO, 2)));
+        assertEquals("Customer balance is wrong", Collections.singletonList(new CustomerBalance(2, Money.of(160), 2)), even);
+    }
+
+    private List<AccountSlot> slots(Integer id) {
+
+        em.clear();
+        return em.createQuery("SELECT s FROM AccountSlot s WHERE s.accountId = :id ORDER BY s.slot", AccountSlot.class)
+                .setParameter("id", id)
+                .getResultList();
+    }
 }
@@ -1,11 +1,16 @@
 package org.academiadecodigo.javabank.persistence.jpa.dao;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.persistence.dao.jpa.JpaCustomerDao;
 import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
 import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.hibernate.Session;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -17,7 +22,6 @@ import static org.junit.Assert.*;
 public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
 
     private final static Integer INVALID_ID = 9999;
-    private final static double DOUBLE_DELTA = 0.1;
 
     private JpaCustomerDao customerDao;
 
@@ -54,6 +58,65 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
 
     }
 
+    @Test
+    public void testFindByIdLazy() {
+
+        // exercise
+        Customer customer = customerDao.findById(1);
+
+        // verify
+        assertFalse("Accounts should not be loaded", isLoaded(customer, "accounts"));
+        assertFalse("Recipients should not be loaded", isLoaded(customer, "recipients"));
+    }
+
+    @Test
+    public void testFindWithAccounts() {
+
+        // exercise
+        Customer customer = customerDao.findWithAccounts(1);
+
+        // verify
+        assertTrue("Accounts should be loaded", isLoaded(customer, "accounts"));
+        assertFalse("Recipients should not be loaded", isLoaded(customer, "recipients"));
+        assertEquals("Number of accounts is wrong", 2, customer.getAccounts().size());
+    }
+
+    @Test
+    public void testFindWithRecipients() {
+
+        // exercise
+        Customer customer = customerDao.findWithRecipients(1);
+
+        // verify
+        assertFalse("Accounts should not be loaded", isLoaded(customer, "accounts"));
+        assertTrue("Recipients should be loaded", isLoaded(customer, "recipients"));
+        assertEquals("Number of recipients is wrong", 2, customer.getRecipients().size());
+    }
+
+    @Test
+    public void testFindWithInvalid() {
+        assertNull("invalid customer should not be found", customerDao.findWithAccounts(INVALID_ID));
+        assertNull("invalid customer should not be found", customerDao.findWithRecipients(INVALID_ID));
+    }
+
+    @Test
+    public void testFindSummary() {
+
+        // exercise
+        CustomerSummary summary = customerDao.findSummary(1);
+
+        // verify
+        assertNotNull("Customer summary is null", summary);
+        assertEquals("Customer name is wrong", "Rui", summary.getFirstName());
+        assertEquals("No entity should be loaded", 0,
+                em.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    public void testFindSummaryInvalid() {
+        assertNull("invalid customer should not be found", customerDao.findSummary(INVALID_ID));
+    }
+
     @Test
     public void testFindAll() {
 
@@ -88,6 +151,62 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
 
     }
 
+    @Test
+    public void testFindAllPage() {
+
+        // exercise
+        Page<Customer> page = customerDao.findAll(PageRequest.of(0, 2, "lastName,desc"));
+
+        // verify
+        assertEquals("Number of customers is wrong", 2, page.getContent().size());
+        assertEquals("Customer order is wrong", 4, page.getContent().get(0).getId().intValue());
+        assertEquals("Customer order is wrong", 2, page.getContent().get(1).getId().intValue());
+        assertTrue("Next page is missing", page.hasNext());
+        assertFalse("Previous page should not exist", page.hasPrevious());
+    }
+
+    @Test
+    public void testFindAllLastPage() {
+
+        // exercise, all customers share the same email so the id breaks the ties
+        Page<Customer> page = customerDao.findAll(PageRequest.of(1, 3, "email"));
+
+        // verify
+        assertEquals("Number of customers is wrong", 1, page.getContent().size());
+        assertEquals("Customer order is wrong", 4, page.getContent().get(0).getId().intValue());
+        assertFalse("Next page should not exist", page.hasNext());
+        assertTrue("Previous page is missing", page.hasPrevious());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindAllPageInvalidSort() {
+        customerDao.findAll(PageRequest.of(0, 2, "accounts"));
+    }
+
+    @Test
+    public void testFindSummaries() {
+
+        // setup
+        em.clear();
+
+        // exercise
+        Page<CustomerSummary> page = customerDao.findSummaries(PageRequest.of(0, 10, "firstName"));
+
+        // verify
+        assertEquals("Number of customers is wrong", 4, page.getContent().size());
+        assertFalse("Next page should not exist", page.hasNext());
+
+        CustomerSummary summary = page.getContent().get(0);
+        assertEquals("Customer order is wrong", 3, summary.getId().intValue());
+        assertEquals("Customer name is wrong", "Bruno", summary.getFirstName());
+        assertEquals("Customer name is wrong", "Ferreira", summary.getLastName());
+        assertEquals("Customer email is wrong", "mail@gmail.com", summary.getEmail());
+        assertEquals("Customer phone is wrong", "777888", summary.getPhone());
+
+        assertEquals("No entity should be loaded", 0,
+                em.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     @Test
     public void testAddCustomerNoAccounts() {
 
@@ -112,8 +231,8 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
     public void testAddCustomerWithAccounts() {
 
         // setup
-        double caBalance = 100;
-        double saBalance = 101;
+        Money caBalance = Money.of(100);
+        Money saBalance = Money.of(101);
         Account ca = new CheckingAccount();
         Account sa = new SavingsAccount();
         ca.credit(caBalance);
@@ -134,8 +253,8 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
         assertNotNull("customer not found", addedCustomer);
         assertNotNull("customer accounts not found", customer.getAccounts());
         assertEquals("customer number of accounts wrong", newCustomer.getAccounts().size(), customer.getAccounts().size());
-        assertEquals("first account balance is wrong", caBalance, customer.getAccounts().get(0).getBalance(), DOUBLE_DELTA);
-        assertEquals("second account balance is wrong", saBalance, customer.getAccounts().get(1).getBalance(), DOUBLE_DELTA);
+        assertEquals("first account balance is wrong", caBalance, customer.getAccounts().get(0).getBalance());
+        assertEquals("second account balance is wrong", saBalance, customer.getAccounts().get(1).getBalance());
 
     }
 
@@ -167,7 +286,7 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
         String name = "updated customer";
         Customer existingCustomer = em.find(Customer.class, id);
         existingCustomer.setFirstName(name);
-        existingCustomer.getAccounts().get(0).canCredit(100);
+        existingCustomer.getAccounts().get(0).canCredit(Money.of(100));
 
         // exercise
         em.getTransaction().begin();
@@ -178,7 +297,7 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
         Customer customer = em.find(Customer.class, id);
         assertEquals("customer name is wrong", name, customer.getFirstName());
         assertEquals("number of accounts is wrong", 2, customer.getAccounts().size());
-        assertEquals("account balance is wrong", 100, customer.getAccounts().get(0).getBalance(), DOUBLE_DELTA);
+        assertEquals("account balance is wrong", Money.of(100), customer.getAccounts().get(0).getBalance());
 
     }
 
@@ -201,7 +320,7 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
         Customer customer = em.find(Customer.class, id);
         assertEquals("customer name is wrong", name, customer.getFirstName());
         assertEquals("number of accounts is wrong", 1, customer.getAccounts().size());
-        assertEquals("account balance is wrong", 100, customer.getAccounts().get(0).getBalance(), DOUBLE_DELTA);
+        assertEquals("account balance is wrong", Money.of(100), customer.getAccounts().get(0).getBalance());
 
     }
 
@@ -245,4 +364,8 @@ public class JpaCustomerDaoIntegrationTest extends JpaIntegrationTestHelper {
         customerDao.delete(INVALID_ID);
         em.getTransaction().commit();
     }
+
+    private boolean isLoaded(Customer customer, String attribute) {
+        return emf.getPersistenceUnitUtil().isLoaded(customer, attribute);
+    }
 }
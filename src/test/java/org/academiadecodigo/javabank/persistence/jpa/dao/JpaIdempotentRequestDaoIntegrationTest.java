@@ -0,0 +1,113 @@
+package org.academiadecodigo.javabank.persistence.jpa.dao;
+
+import org.academiadecodigo.javabank.persistence.dao.jpa.JpaIdempotentRequestDao;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.PersistenceException;
+import java.util.Date;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.*;
+
+public class JpaIdempotentRequestDaoIntegrationTest extends JpaIntegrationTestHelper {
+
+    private JpaIdempotentRequestDao idempotentRequestDao;
+
+    @Before
+    public void setup() {
+
+        idempotentRequestDao = new JpaIdempotentRequestDao();
+        idempotentRequestDao.setEm(em);
+    }
+
+    @Test
+    public void testFindFromCache() {
+
+        // setup
+        em.getTransaction().begin();
+        idempotentRequestDao.insert(new IdempotentRequest("key", 1, "transfer", "1:2:10.00"));
+        em.getTransaction().commit();
+
+        // a later session, as the cache only serves entries written before the session started
+        JpaIdempotentRequestDao laterDao = new JpaIdempotentRequestDao();
+        laterDao.setEm(emf.createEntityManager());
+
+        // exercise
+        assertStatements(none(), () -> {
+
+            IdempotentRequest request = laterDao.findByKey("key");
+
+            // verify
+            assertNotNull("Idempotent request not found", request);
+            assertTrue("Idempotent request is wrong", request.matches(1, "transfer", "1:2:10.00"));
+            assertTrue("Idempotent request should be in progress", request.isInProgress());
+        });
+    }
+
+    @Test
+    public void testInsertExisting() {
+
+        // setup
+        em.getTransaction().begin();
+        idempotentRequestDao.insert(new IdempotentRequest("key", 1, "transfer", "1:2:10.00"));
+        em.getTransaction().commit();
+        em.clear();
+
+        // exercise
+        try {
+            em.getTransaction().begin();
+            idempotentRequestDao.insert(new IdempotentRequest("key", 2, "deposit", "3:5.00"));
+            em.getTransaction().commit();
+            fail("Existing idempotency key should not be inserted");
+
+        } catch (PersistenceException ex) {
+
+            // verify
+            em.clear();
+            assertTrue(idempotentRequestDao.findByKey("key").matches(1, "transfer", "1:2:10.00"));
+        }
+    }
+
+    @Test
+    public void testDeleteCreatedBefore() {
+
+        // setup
+        em.getTransaction().begin();
+        idempotentRequestDao.insert(new IdempotentRequest("key", 1, "transfer", "1:2:10.00"));
+        em.getTransaction().commit();
+
+        // exercise
+        em.getTransaction().begin();
+        int notExpired = idempotentRequestDao.deleteCreatedBefore(new Date(System.currentTimeMillis() - 60000));
+        int expired = idempotentRequestDao.deleteCreatedBefore(new Date(System.currentTimeMillis() + 60000));
+        em.getTransaction().commit();
+        em.clear();
+
+        // verify
+        assertEquals(0, notExpired);
+        assertEquals(1, expired);
+        assertNull(idempotentRequestDao.findByKey("key"));
+    }
+
+    @Test
+    public void testDelete() {
+
+        // setup
+        em.getTransaction().begin();
+        idempotentRequestDao.insert(new IdempotentRequest("key", 1, "transfer", "1:2:10.00"));
+        em.getTransaction().commit();
+
+        // exercise
+        em.getTransaction().begin();
+        idempotentRequestDao.delete("key");
+        idempotentRequestDao.delete("other");
+        em.getTransaction().commit();
+        em.clear();
+
+        // verify
+        assertNull(idempotentRequestDao.findByKey("key"));
+    }
+}
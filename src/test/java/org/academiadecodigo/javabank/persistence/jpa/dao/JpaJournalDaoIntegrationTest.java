@@ -0,0 +1,198 @@
+package org.academiadecodigo.javabank.persistence.jpa.dao;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.persistence.dao.jpa.JpaJournalDao;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.academiadecodigo.javabank.services.AccountService;
+import org.academiadecodigo.javabank.services.TransferService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JpaJournalDaoIntegrationTest extends JpaIntegrationTestHelper {
+
+    private final static Integer INVALID_ID = 9999;
+
+    private JpaJournalDao journalDao;
+
+    @Before
+    public void setup() {
+
+        journalDao = new JpaJournalDao();
+        journalDao.setEm(em);
+
+    }
+
+    @Test
+    public void testGetBalance() {
+
+        // exercise and verify
+        for (Account account : em.createQuery("from Account", Account.class).getResultList()) {
+            assertEquals("Account balance is not derivable from the journal",
+                    account.getBalance(), journalDao.getBalance(account.getId()));
+        }
+    }
+
+    @Test
+    public void testGetBalanceInvalid() {
+
+        // exercise
+        Money balance = journalDao.getBalance(INVALID_ID);
+
+        // verify
+        assertEquals("Balance should be zero", Money.ZERO, balance);
+    }
+
+    @Test
+    public void testAppend() {
+
+        // setup
+        JournalEntry entry = JournalEntry.transfer(1, 3, Money.of(10));
+
+        // exercise
+        em.getTransaction().begin();
+        journalDao.append(entry);
+        em.getTransaction().commit();
+
+        // verify
+        assertNotNull("Entry id not assigned", entry.getId());
+        assertNotNull("Entry creation time not assigned", entry.getCreationTime());
+        assertEquals("Source balance is wrong", Money.of(90), journalDao.getBalance(1));
+        assertEquals("Destination balance is wrong", Money.of(20), journalDao.getBalance(3));
+    }
+
+    @Test
+    public void testAppendAll() {
+
+        // setup
+        journalDao.setBatchSize(2);
+
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(JournalEntry.deposit(5, Money.of(1)));
+        }
+
+        // exercise
+        em.getTransaction().begin();
+        journalDao.appendAll(entries);
+        em.getTransaction().commit();
+
+        // verify
+        em.clear();
+        assertEquals("Balance is wrong", Money.of(5), journalDao.getBalance(5));
+        assertEquals("Number of transactions is wrong", 5, journalDao.findTransactions(5, null, 10).size());
+
+        Long total = em.createQuery("SELECT SUM(p.amount) FROM Posting p", Long.class).getSingleResult();
+        assertEquals("Journal is not balanced", 0, total.longValue());
+    }
+
+    @Test
+    public void testFindTransactions() {
+
+        // setup
+        em.getTransaction().begin();
+        journalDao.append(JournalEntry.deposit(6, Money.of(1)));
+        journalDao.append(JournalEntry.deposit(6, Money.of(2)));
+        journalDao.append(JournalEntry.withdrawal(6, Money.of(3)));
+        em.getTransaction().commit();
+        em.clear();
+
+        // exercise
+        List<Transaction> firstPage = journalDao.findTransactions(6, null, 2);
+        List<Transaction> secondPage = journalDao.findTransactions(6, TransactionCursor.of(firstPage.get(1)), 2);
+
+        // verify
+        assertEquals("Number of transactions is wrong", 2, firstPage.size());
+        assertEquals("Number of transactions is wrong", 1, secondPage.size());
+
+        assertEquals("Transactions are not most recent first", Money.of(-3), firstPage.get(0).getAmount());
+        assertEquals("Transactions are not most recent first", Money.of(2), firstPage.get(1).getAmount());
+        assertEquals("Transactions are not most recent first", Money.of(1), secondPage.get(0).getAmount());
+        assertEquals("Transaction type is wrong", JournalEntryType.WITHDRAWAL, firstPage.get(0).getType());
+    }
+
+    @Test
+    public void testFindTransactionsWalk() {
+
+        // setup, entries created in a row usually share the same time, which the id must break ties for
+        em.getTransaction().begin();
+        for (int i = 0; i < 5; i++) {
+            journalDao.append(JournalEntry.transfer(1, 3, Money.of(1)));
+        }
+        em.getTransaction().commit();
+        em.clear();
+
+        List<Transaction> history = journalDao.findTransactions(1, null, 10);
+
+        // exercise
+        List<Transaction> walked = new ArrayList<>();
+        TransactionCursor cursor = null;
+        List<Transaction> page;
+
+        do {
+            page = journalDao.findTransactions(1, cursor, 1);
+            walked.addAll(page);
+            cursor = page.isEmpty() ? null : TransactionCursor.of(page.get(0));
+        } while (!page.isEmpty());
+
+        // verify
+        assertEquals("Number of transactions is wrong", 6, history.size());
+        assertEquals("Walking one transaction at a time should see the whole history", history.size(), walked.size());
+
+        for (int i = 0; i < history.size(); i++) {
+            assertEquals("Transaction order is wrong", history.get(i).getId(), walked.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testFindTransactionsInvalid() {
+
+        // exercise
+        List<Transaction> transactions = journalDao.findTransactions(INVALID_ID, null, 10);
+
+        // verify
+        assertNotNull("Transactions are null", transactions);
+        assertTrue("Transactions should be empty", transactions.isEmpty());
+    }
+
+    @Test
+    public void testServicesJournalMoneyMovements() throws JavaBankException {
+
+        // setup
+        AccountService accountService = ctx.getBean(AccountService.class);
+        TransferService transferService = ctx.getBean(TransferService.class);
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(1);
+        transfer.setDstId(3);
+        transfer.setAmount(Money.parse("12.50"));
+
+        // exercise
+        accountService.deposit(1, 1, Money.of(30));
+        accountService.withdraw(1, 1, Money.of(5));
+        transferService.transfer(transfer);
+
+        // verify
+        em.clear();
+        for (Account account : em.createQuery("from Account", Account.class).getResultList()) {
+            assertEquals("Account balance is not derivable from the journal",
+                    account.getBalance(), journalDao.getBalance(account.getId()));
+        }
+
+        List<Transaction> history = accountService.listTransactions(1, 1, null, 10);
+        assertEquals("Number of transactions is wrong", 4, history.size());
+        assertEquals("Transaction type is wrong", JournalEntryType.TRANSFER, history.get(0).getType());
+        assertEquals("Transaction type is wrong", JournalEntryType.OPENING, history.get(3).getType());
+    }
+}
@@ -0,0 +1,95 @@
+package org.academiadecodigo.javabank.persistence.jpa.dao;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.dao.jpa.JpaQueuedTransferDao;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.services.queue.TransferQueueWorkers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.*;
+
+public class JpaQueuedTransferDaoIntegrationTest extends JpaIntegrationTestHelper {
+
+    private JpaQueuedTransferDao queuedTransferDao;
+
+    @Before
+    public void setup() throws InterruptedException {
+
+        // the background workers would process the transfers queued by the tests
+        ctx.getBean(TransferQueueWorkers.class).destroy();
+
+        queuedTransferDao = new JpaQueuedTransferDao();
+        queuedTransferDao.setEm(em);
+    }
+
+    @Test
+    public void testSaveQueuedTransfer() {
+
+        // exercise
+        em.getTransaction().begin();
+        QueuedTransfer saved = queuedTransferDao.saveOrUpdate(queuedTransfer());
+        em.getTransaction().commit();
+        em.clear();
+
+        // verify
+        QueuedTransfer queuedTransfer = queuedTransferDao.findById(saved.getId());
+        assertNotNull("Queued transfer not found", queuedTransfer);
+        assertEquals("Queued transfer amount is wrong", Money.parse("10.50"), queuedTransfer.getAmount());
+        assertTrue("Queued transfer is not pending", queuedTransfer.isPending());
+    }
+
+    @Test
+    public void testFindPending() {
+
+        // setup
+        em.getTransaction().begin();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(queuedTransferDao.saveOrUpdate(queuedTransfer()).getId());
+        }
+        queuedTransferDao.findById(ids.get(1)).setStatus(TransferResult.Status.TRANSFERRED);
+        em.getTransaction().commit();
+        em.clear();
+
+        // exercise
+        List<Integer> pending = new ArrayList<>();
+        assertStatements(none().selects(1), () -> {
+            for (QueuedTransfer queuedTransfer : queuedTransferDao.findPending(0, 1, 10)) {
+                pending.add(queuedTransfer.getId());
+            }
+        });
+
+        // verify
+        assertEquals("Pending transfers are wrong", Arrays.asList(ids.get(0), ids.get(2), ids.get(3)), pending);
+        assertEquals("Pending transfers are not limited", 2, queuedTransferDao.findPending(0, 1, 2).size());
+
+        int partitioned = 0;
+        for (int partition = 0; partition < 2; partition++) {
+            for (QueuedTransfer queuedTransfer : queuedTransferDao.findPending(partition, 2, 10)) {
+                assertEquals("Pending transfer in the wrong partition", partition, queuedTransfer.getId() % 2);
+                partitioned++;
+            }
+        }
+
+        assertEquals("Partitions miss pending transfers", 3, partitioned);
+    }
+
+    private static QueuedTransfer queuedTransfer() {
+
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setCustomerId(1);
+        queuedTransfer.setSrcId(1);
+        queuedTransfer.setDstId(2);
+        queuedTransfer.setAmount(Money.parse("10.50"));
+
+        return queuedTransfer;
+    }
+}
@@ -7,7 +7,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import javax.persistence.Query;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -144,6 +148,37 @@ public class JpaRecipientDaoIntegrationTest extends JpaIntegrationTestHelper {
 
     }
 
+    @Test
+    public void testExists() {
+
+        // exercise and verify
+        assertTrue("Recipient not found", recipientDao.exists(1, 3));
+        assertTrue("Recipient not found", recipientDao.exists(1, 5));
+    }
+
+    @Test
+    public void testFindAccountNumbers() {
+
+        // exercise
+        Set<Integer> accountNumbers = recipientDao.findAccountNumbers(1, Arrays.asList(3, 4, 5, INVALID_ID));
+
+        // verify
+        assertEquals("Recipient account numbers are wrong", new HashSet<>(Arrays.asList(3, 5)), accountNumbers);
+        assertTrue("Recipients of invalid customer found",
+                recipientDao.findAccountNumbers(INVALID_ID, Arrays.asList(3, 5)).isEmpty());
+        assertTrue("No account numbers should have no recipients",
+                recipientDao.findAccountNumbers(1, Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testExistsOtherCustomer() {
+
+        // exercise and verify
+        assertFalse("Recipient of another customer found", recipientDao.exists(2, 3));
+        assertFalse("Recipient not in the list found", recipientDao.exists(1, 4));
+        assertFalse("Recipient of invalid customer found", recipientDao.exists(INVALID_ID, 3));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testDeleteInvalid() {
 
@@ -0,0 +1,247 @@
+package org.academiadecodigo.javabank.persistence.memory;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.PageRequest;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferLockMode;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryCustomerDao;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.services.AccountService;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.academiadecodigo.javabank.services.TransferService;
+import org.academiadecodigo.javabank.services.TransferServiceImpl;
+import org.academiadecodigo.javabank.services.retry.ConflictRetryInterceptor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the services on top of the in-memory daos, with no database
+ */
+public class MemoryProfileIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    private GenericXmlApplicationContext ctx;
+    private CustomerService customerService;
+    private AccountService accountService;
+    private TransferService transferService;
+
+    @Before
+    public void init() {
+
+        ctx = new GenericXmlApplicationContext();
+        ctx.getEnvironment().setActiveProfiles("memory");
+        ctx.load("file:src/main/webapp/WEB-INF/spring/spring-config.xml");
+        ctx.refresh();
+
+        customerService = ctx.getBean(CustomerService.class);
+        accountService = ctx.getBean(AccountService.class);
+        transferService = ctx.getBean(TransferService.class);
+
+        // enough attempts for every thread to eventually get through the contended accounts
+        ConflictRetryInterceptor conflictRetryInterceptor = ctx.getBean(ConflictRetryInterceptor.class);
+        conflictRetryInterceptor.setMaxAttempts(100);
+        conflictRetryInterceptor.setBackoff(1);
+        conflictRetryInterceptor.setMaxBackoff(20);
+    }
+
+    @After
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Test
+    public void testMemoryDaos() {
+        assertTrue("Customer dao is not the in-memory one", ctx.getBean(CustomerDao.class) instanceof MemoryCustomerDao);
+    }
+
+    @Test
+    public void testMoneyMovements() throws JavaBankException {
+
+        // setup
+        Customer rui = customerService.save(customer("Rui"));
+        Customer sergio = customerService.save(customer("Sergio"));
+        Account checking = customerService.addAccount(rui.getId(), account(100));
+        Account savings = customerService.addAccount(rui.getId(), account(0));
+        Account other = customerService.addAccount(sergio.getId(), account(0));
+
+        Recipient recipient = new Recipient();
+        recipient.setAccountNumber(other.getId());
+        customerService.addRecipient(rui.getId(), recipient);
+
+        // exercise
+        accountService.deposit(checking.getId(), rui.getId(), Money.of(50));
+        accountService.withdraw(checking.getId(), rui.getId(), Money.of(20));
+        transferService.transfer(transfer(checking, savings, 30), rui.getId());
+        transferService.transfer(transfer(checking, other, 40), rui.getId());
+
+        // verify
+        assertEquals(Money.of(90), customerService.getBalance(rui.getId()));
+        assertEquals(Money.of(30), accountService.get(savings.getId()).getBalance());
+        assertEquals(Money.of(40), customerService.getBalance(sergio.getId()));
+        assertEquals(5, accountService.listTransactions(checking.getId(), rui.getId(), null, 10).size());
+        assertEquals(2, customerService.listSummaries(PageRequest.of(0, 10)).getContent().size());
+    }
+
+    @Test(expected = TransactionInvalidException.class)
+    public void testWithdrawInsufficientFunds() throws JavaBankException {
+
+        // setup
+        Customer rui = customerService.save(customer("Rui"));
+        Account checking = customerService.addAccount(rui.getId(), account(10));
+
+        // exercise
+        accountService.withdraw(checking.getId(), rui.getId(), Money.of(20));
+    }
+
+    @Test
+    public void testCloseAccount() throws JavaBankException {
+
+        // setup
+        Customer rui = customerService.save(customer("Rui"));
+        Account checking = customerService.addAccount(rui.getId(), account(0));
+
+        // exercise
+        customerService.closeAccount(rui.getId(), checking.getId());
+
+        // verify
+        assertNull("Account was not removed", accountService.get(checking.getId()));
+        assertTrue("Account was not unlinked", customerService.get(rui.getId()).getAccounts().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentBatchTransfers() throws JavaBankException, InterruptedException {
+
+        // setup
+        Customer rui = customerService.save(customer("Rui"));
+        Account checking = customerService.addAccount(rui.getId(), account(0));
+        Account savings = customerService.addAccount(rui.getId(), account(0));
+
+        // exercise, each batch reads the balances and writes them back while the deposits go on
+        List<Throwable> failures = runConcurrently(forward -> {
+
+            if (forward) {
+                accountService.deposit(checking.getId(), rui.getId(), Money.of(1));
+            } else {
+                transferService.transferAll(Collections.singletonList(transfer(checking, savings, 1)),
+                        rui.getId(), TransferBatchMode.BEST_EFFORT);
+            }
+        });
+
+        // verify, no deposit is lost and every batch moved money the account had
+        Money deposits = Money.of(THREADS / 2 * OPERATIONS_PER_THREAD);
+        Money moved = accountService.get(savings.getId()).getBalance();
+
+        assertTrue("Operations failed: " + failures, failures.isEmpty());
+        assertEquals("Deposits were lost", deposits, accountService.get(checking.getId()).getBalance().plus(moved));
+    }
+
+    @Test
+    public void testConcurrentTransfersOptimistic() throws JavaBankException, InterruptedException {
+
+        // setup
+        AopTestUtils.<TransferServiceImpl>getTargetObject(transferService).setLockMode(TransferLockMode.OPTIMISTIC);
+
+        Customer rui = customerService.save(customer("Rui"));
+        Account checking = customerService.addAccount(rui.getId(), account(100));
+        Account savings = customerService.addAccount(rui.getId(), account(100));
+
+        // exercise
+        List<Throwable> failures = runConcurrently(forward -> {
+
+            try {
+                transferService.transfer(forward ? transfer(checking, savings, 1) : transfer(savings, checking, 1),
+                        rui.getId());
+            } catch (TransactionInvalidException ex) {
+                // insufficient funds is a valid outcome
+            }
+        });
+
+        // verify
+        assertTrue("Transfers failed: " + failures, failures.isEmpty());
+        assertEquals("Money was created or destroyed", Money.of(200), customerService.getBalance(rui.getId()));
+    }
+
+    private List<Throwable> runConcurrently(Operation operation) throws InterruptedException {
+
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+
+            boolean forward = t % 2 == 0;
+
+            workers.add(new Thread(() -> {
+
+                try {
+
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.run(forward);
+                    }
+
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            }));
+        }
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        start.countDown();
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        return failures;
+    }
+
+    private interface Operation {
+        void run(boolean forward) throws Exception;
+    }
+
+    private Customer customer(String firstName) {
+
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        return customer;
+    }
+
+    private Account account(int balance) {
+
+        Account account = new CheckingAccount();
+        account.credit(Money.of(balance));
+        return account;
+    }
+
+    private Transfer transfer(Account src, Account dst, int amount) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(src.getId());
+        transfer.setDstId(dst.getId());
+        transfer.setAmount(Money.of(amount));
+        return transfer;
+    }
+}
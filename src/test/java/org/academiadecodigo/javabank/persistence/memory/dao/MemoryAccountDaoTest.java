@@ -0,0 +1,254 @@
+package org.academiadecodigo.javabank.persistence.memory.dao;
+
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryAccountDao;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class MemoryAccountDaoTest {
+
+    private MemoryAccountDao accountDao;
+
+    @Before
+    public void setup() {
+        accountDao = new MemoryAccountDao();
+    }
+
+    @Test
+    public void testDebitIfSufficient() {
+
+        // setup
+        Account account = account(new CheckingAccount(), 100);
+
+        // exercise and verify
+        assertTrue("Account was not debited", accountDao.debitIfSufficient(account.getId(), Money.of(60)));
+        assertFalse("Account was overdrawn", accountDao.debitIfSufficient(account.getId(), Money.of(60)));
+        assertEquals(Money.of(40), account.getBalance());
+    }
+
+    @Test
+    public void testDebitIfSufficientSavingsMinBalance() {
+
+        // setup
+        Account account = account(new SavingsAccount(), 150);
+
+        // exercise and verify
+        assertFalse("Savings account went below its minimum", accountDao.debitIfSufficient(account.getId(), Money.of(60)));
+        assertTrue("Savings account was not debited", accountDao.debitIfSufficient(account.getId(), Money.of(50)));
+    }
+
+    @Test
+    public void testCredit() {
+
+        // setup
+        Account account = account(new CheckingAccount(), 0);
+        Integer version = account.getVersion();
+
+        // exercise and verify
+        assertTrue("Account was not credited", accountDao.credit(account.getId(), Money.of(10)));
+        assertEquals(Money.of(10), account.getBalance());
+        assertEquals(version + 1, account.getVersion().intValue());
+        assertFalse("Invalid account was credited", accountDao.credit(9999, Money.of(10)));
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+
+        // setup
+        Account account = account(new CheckingAccount(), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // exercise
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    accountDao.credit(account.getId(), Money.ofCents(2));
+                    accountDao.debitIfSufficient(account.getId(), Money.ofCents(1));
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        executor.shutdown();
+
+        // verify
+        assertEquals(Money.ofCents(4000), account.getBalance());
+    }
+
+    @Test
+    public void testFindCustomerId() {
+
+        // setup
+        Customer customer = new Customer();
+        customer.setId(7);
+        Account owned = new CheckingAccount();
+        customer.addAccount(owned);
+        accountDao.saveOrUpdate(owned);
+        Account orphan = account(new CheckingAccount(), 0);
+
+        // exercise and verify
+        assertEquals(7, accountDao.findCustomerId(owned.getId()).intValue());
+        assertNull("Orphan account has an owner", accountDao.findCustomerId(orphan.getId()));
+        assertNull("Invalid account has an owner", accountDao.findCustomerId(9999));
+    }
+
+    @Test
+    public void testDeleteOwned() {
+
+        // setup
+        Account account = new CheckingAccount();
+        new Customer().addAccount(account);
+        accountDao.saveOrUpdate(account);
+
+        // exercise
+        accountDao.delete(account.getId());
+
+        // verify
+        assertNotNull("Owned account was deleted", accountDao.findById(account.getId()));
+    }
+
+    @Test
+    public void testDeleteOrphan() {
+
+        // setup
+        Account account = account(new CheckingAccount(), 0);
+
+        // exercise
+        accountDao.delete(account.getId());
+
+        // verify
+        assertNull("Orphan account was not deleted", accountDao.findById(account.getId()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeleteInvalid() {
+        accountDao.delete(9999);
+    }
+
+    @Test
+    public void testGetCustomerBalances() {
+
+        // setup
+        Customer customer = new Customer();
+        customer.setId(1);
+
+        Account checking = new CheckingAccount();
+        Account savings = new SavingsAccount();
+        checking.setCustomer(customer);
+        savings.setCustomer(customer);
+
+        account(checking, 100);
+        account(savings, 150);
+        account(new CheckingAccount(), 50);
+
+        // exercise
+        Map<Integer, Money> balances = accountDao.getCustomerBalances(Arrays.asList(1, 2));
+
+        // verify
+        assertEquals(1, balances.size());
+        assertEquals(Money.of(250), balances.get(1));
+        assertEquals(Money.of(250), accountDao.getCustomerBalance(1));
+        assertNull(accountDao.getCustomerBalance(2));
+    }
+
+    @Test
+    public void testFindByIds() {
+
+        // setup
+        Account account = account(new CheckingAccount(), 100);
+
+        // exercise and verify
+        assertEquals(Collections.singletonList(account), accountDao.findByIds(Arrays.asList(account.getId(), 9999)));
+    }
+
+    @Test
+    public void testFindByIdForUpdate() {
+
+        // setup
+        Account account = account(new CheckingAccount(), 100);
+
+        // exercise and verify
+        assertSame(account, accountDao.findByIdForUpdate(account.getId(), 0));
+        assertNull(accountDao.findByIdForUpdate(9999, 0));
+    }
+
+    @Test
+    public void testSplit() {
+
+        // setup
+        Account account = account(new CheckingAccount(), 100);
+        account(new CheckingAccount(), 100);
+
+        // exercise
+        boolean split = accountDao.split(account.getId(), 4);
+
+        // verify
+        assertTrue("Account was not split", split);
+        assertEquals(4, account.getSlots());
+        assertEquals(Collections.singletonList(account.getId()), accountDao.findSplitIds());
+        assertFalse("Invalid account was split", accountDao.split(9999, 4));
+    }
+
+    @Test
+    public void testCreditSlot() {
+
+        // setup
+        Account account = account(new CheckingAccount(), 100);
+        accountDao.split(account.getId(), 2);
+
+        // exercise and verify
+        assertTrue("Slot was not credited", accountDao.creditSlot(account.getId(), 1, Money.of(10)));
+        assertFalse("Invalid slot was credited", accountDao.creditSlot(account.getId(), 2, Money.of(10)));
+        assertFalse("Invalid account was credited", accountDao.creditSlot(9999, 0, Money.of(10)));
+        assertEquals(Money.of(110), account.getBalance());
+        assertEquals(Money.ZERO, accountDao.consolidate(account.getId()));
+    }
+
+    @Test
+    public void testFindCustomerBalances() {
+
+        // setup
+        Customer customer = new Customer();
+        customer.setId(1);
+
+        Account checking = new CheckingAccount();
+        Account savings = new SavingsAccount();
+        checking.setCustomer(customer);
+        savings.setCustomer(customer);
+
+        account(checking, 100);
+        account(savings, 150);
+        account(new CheckingAccount(), 50);
+
+        // exercise and verify
+        assertEquals(Collections.singletonList(new CustomerBalance(1, Money.of(250), 2)),
+                accountDao.findCustomerBalances(1, 2));
+        assertTrue(accountDao.findCustomerBalances(0, 2).isEmpty());
+    }
+
+    private Account account(Account account, int balance) {
+
+        account.credit(Money.of(balance));
+        return accountDao.saveOrUpdate(account);
+    }
+}
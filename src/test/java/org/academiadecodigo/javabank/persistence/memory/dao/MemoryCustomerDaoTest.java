@@ -0,0 +1,165 @@
+package org.academiadecodigo.javabank.persistence.memory.dao;
+
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryAccountDao;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryCustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryRecipientDao;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class MemoryCustomerDaoTest {
+
+    private MemoryCustomerDao customerDao;
+    private MemoryAccountDao accountDao;
+    private MemoryRecipientDao recipientDao;
+
+    @Before
+    public void setup() {
+
+        accountDao = new MemoryAccountDao();
+        recipientDao = new MemoryRecipientDao();
+
+        customerDao = new MemoryCustomerDao();
+        customerDao.setAccountDao(accountDao);
+        customerDao.setRecipientDao(recipientDao);
+    }
+
+    @Test
+    public void testSaveNew() {
+
+        // setup
+        Customer customer = customer("Rui");
+        customer.addAccount(new CheckingAccount());
+
+        // exercise
+        Customer saved = customerDao.saveOrUpdate(customer);
+
+        // verify
+        assertSame(customer, saved);
+        assertNotNull("Customer id is null", customer.getId());
+        assertNotNull("Customer creation time is null", customer.getCreationTime());
+        assertSame(customer, customerDao.findById(customer.getId()));
+        assertNotNull("Account id is null", customer.getAccounts().get(0).getId());
+        assertSame(customer.getAccounts().get(0), accountDao.findById(customer.getAccounts().get(0).getId()));
+    }
+
+    @Test
+    public void testSaveAssignsDistinctIds() {
+
+        // exercise
+        Customer first = customerDao.saveOrUpdate(customer("Rui"));
+        Customer second = customerDao.saveOrUpdate(customer("Sergio"));
+
+        // verify
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(2, customerDao.findAll().size());
+    }
+
+    @Test
+    public void testSaveRemovesUnlinkedAccountsAndRecipients() {
+
+        // setup
+        Customer customer = customer("Rui");
+        Account account = new CheckingAccount();
+        Recipient recipient = new Recipient();
+        recipient.setAccountNumber(99);
+        customer.addAccount(account);
+        customer.addRecipient(recipient);
+        customerDao.saveOrUpdate(customer);
+
+        // exercise
+        customer.removeAccount(account);
+        customer.removeRecipient(recipient);
+        customerDao.saveOrUpdate(customer);
+
+        // verify
+        assertNull("Unlinked account was not removed", accountDao.findById(account.getId()));
+        assertNull("Unlinked recipient was not removed", recipientDao.findById(recipient.getId()));
+        assertFalse("Unlinked recipient is still indexed", recipientDao.exists(customer.getId(), 99));
+    }
+
+    @Test
+    public void testDelete() {
+
+        // setup
+        Customer customer = customer("Rui");
+        Recipient recipient = new Recipient();
+        customer.addRecipient(recipient);
+        customerDao.saveOrUpdate(customer);
+
+        // exercise
+        customerDao.delete(customer.getId());
+
+        // verify
+        assertNull("Customer was not removed", customerDao.findById(customer.getId()));
+        assertNull("Recipient was not removed", recipientDao.findById(recipient.getId()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeleteInvalid() {
+        customerDao.delete(9999);
+    }
+
+    @Test
+    public void testFindSummary() {
+
+        // setup
+        Customer customer = customerDao.saveOrUpdate(customer("Rui"));
+
+        // exercise
+        CustomerSummary summary = customerDao.findSummary(customer.getId());
+
+        // verify
+        assertEquals(customer.getId(), summary.getId());
+        assertEquals("Rui", summary.getFirstName());
+        assertNull("Invalid customer summary found", customerDao.findSummary(9999));
+    }
+
+    @Test
+    public void testFindAllPageSorted() {
+
+        // setup
+        customerDao.saveOrUpdate(customer("Sergio"));
+        customerDao.saveOrUpdate(customer("Bruno"));
+        customerDao.saveOrUpdate(customer("Rui"));
+
+        // exercise
+        Page<Customer> first = customerDao.findAll(PageRequest.of(0, 2, "firstName,desc"));
+        Page<CustomerSummary> second = customerDao.findSummaries(PageRequest.of(1, 2, "firstName,desc"));
+
+        // verify
+        assertEquals("Sergio,Rui", first.getContent().stream()
+                .map(Customer::getFirstName).collect(Collectors.joining(",")));
+        assertTrue("First page has no next page", first.hasNext());
+        assertEquals(1, second.getContent().size());
+        assertEquals("Bruno", second.getContent().get(0).getFirstName());
+        assertFalse("Last page has a next page", second.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindAllPageSortedByCollection() {
+        customerDao.findAll(PageRequest.of(0, 2, "accounts"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindAllPageSortedByInvalidProperty() {
+        customerDao.findAll(PageRequest.of(0, 2, "invalid"));
+    }
+
+    private Customer customer(String firstName) {
+
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        return customer;
+    }
+}
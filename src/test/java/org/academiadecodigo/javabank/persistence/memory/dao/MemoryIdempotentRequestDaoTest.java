@@ -0,0 +1,60 @@
+package org.academiadecodigo.javabank.persistence.memory.dao;
+
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryIdempotentRequestDao;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MemoryIdempotentRequestDaoTest {
+
+    private MemoryIdempotentRequestDao idempotentRequestDao;
+
+    @Before
+    public void setup() {
+        idempotentRequestDao = new MemoryIdempotentRequestDao();
+    }
+
+    @Test
+    public void testInsert() {
+
+        // setup
+        IdempotentRequest request = new IdempotentRequest("key", 1, "transfer", "1:2:10.00");
+
+        // exercise
+        idempotentRequestDao.insert(request);
+
+        // verify
+        assertSame(request, idempotentRequestDao.findByKey("key"));
+        assertNull(idempotentRequestDao.findByKey("other"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertExisting() {
+
+        // setup
+        idempotentRequestDao.insert(new IdempotentRequest("key", 1, "transfer", "1:2:10.00"));
+
+        // exercise
+        idempotentRequestDao.insert(new IdempotentRequest("key", 2, "deposit", "3:5.00"));
+    }
+
+    @Test
+    public void testDeleteCreatedBefore() {
+
+        // setup
+        idempotentRequestDao.insert(new IdempotentRequest("key", 1, "transfer", "1:2:10.00"));
+        Date before = new Date(System.currentTimeMillis() - 1000);
+        Date after = new Date(System.currentTimeMillis() + 1000);
+
+        // exercise and verify
+        assertEquals(0, idempotentRequestDao.deleteCreatedBefore(before));
+        assertEquals(1, idempotentRequestDao.deleteCreatedBefore(after));
+        assertNull(idempotentRequestDao.findByKey("key"));
+    }
+}
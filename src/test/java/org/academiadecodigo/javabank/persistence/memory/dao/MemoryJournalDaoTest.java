@@ -0,0 +1,63 @@
+package org.academiadecodigo.javabank.persistence.memory.dao;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryJournalDao;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryJournalDaoTest {
+
+    private MemoryJournalDao journalDao;
+
+    @Before
+    public void setup() {
+        journalDao = new MemoryJournalDao();
+    }
+
+    @Test
+    public void testFindTransactions() {
+
+        // setup
+        journalDao.appendAll(Arrays.asList(
+                JournalEntry.deposit(1, Money.of(10)),
+                JournalEntry.transfer(1, 2, Money.of(3)),
+                JournalEntry.withdrawal(1, Money.of(2))));
+
+        // exercise
+        List<Transaction> first = journalDao.findTransactions(1, null, 2);
+        List<Transaction> second = journalDao.findTransactions(1, TransactionCursor.of(first.get(1)), 2);
+
+        // verify
+        assertEquals(2, first.size());
+        assertEquals(JournalEntryType.WITHDRAWAL, first.get(0).getType());
+        assertEquals(Money.of(-2), first.get(0).getAmount());
+        assertEquals(JournalEntryType.TRANSFER, first.get(1).getType());
+        assertEquals(1, second.size());
+        assertEquals(JournalEntryType.DEPOSIT, second.get(0).getType());
+        assertEquals(1, journalDao.findTransactions(2, null, 10).size());
+        assertTrue("Invalid account has transactions", journalDao.findTransactions(9999, null, 10).isEmpty());
+    }
+
+    @Test
+    public void testGetBalance() {
+
+        // setup
+        journalDao.append(JournalEntry.opening(1, Money.of(100)));
+        journalDao.append(JournalEntry.transfer(1, 2, Money.of(30)));
+
+        // exercise and verify
+        assertEquals(Money.of(70), journalDao.getBalance(1));
+        assertEquals(Money.of(30), journalDao.getBalance(2));
+        assertEquals(Money.ZERO, journalDao.getBalance(9999));
+    }
+}
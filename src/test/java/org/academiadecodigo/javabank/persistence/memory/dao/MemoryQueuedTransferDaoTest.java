@@ -0,0 +1,51 @@
+package org.academiadecodigo.javabank.persistence.memory.dao;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryQueuedTransferDao;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class MemoryQueuedTransferDaoTest {
+
+    private MemoryQueuedTransferDao queuedTransferDao;
+
+    @Before
+    public void setup() {
+        queuedTransferDao = new MemoryQueuedTransferDao();
+    }
+
+    @Test
+    public void testFindPending() {
+
+        // setup
+        QueuedTransfer first = queuedTransferDao.saveOrUpdate(queuedTransfer());
+        QueuedTransfer second = queuedTransferDao.saveOrUpdate(queuedTransfer());
+        QueuedTransfer third = queuedTransferDao.saveOrUpdate(queuedTransfer());
+        QueuedTransfer fourth = queuedTransferDao.saveOrUpdate(queuedTransfer());
+        second.setStatus(TransferResult.Status.TRANSFERRED);
+
+        // exercise and verify
+        assertEquals(Arrays.asList(first, third, fourth), queuedTransferDao.findPending(0, 1, 10));
+        assertEquals(Arrays.asList(first, third), queuedTransferDao.findPending(0, 1, 2));
+        assertEquals(Collections.singletonList(fourth), queuedTransferDao.findPending(0, 2, 10));
+        assertEquals(Arrays.asList(first, third), queuedTransferDao.findPending(1, 2, 10));
+    }
+
+    private static QueuedTransfer queuedTransfer() {
+
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setCustomerId(1);
+        queuedTransfer.setSrcId(1);
+        queuedTransfer.setDstId(2);
+        queuedTransfer.setAmount(Money.of(10));
+
+        return queuedTransfer;
+    }
+}
@@ -0,0 +1,90 @@
+package org.academiadecodigo.javabank.persistence.memory.dao;
+
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryRecipientDao;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryRecipientDaoTest {
+
+    private MemoryRecipientDao recipientDao;
+    private Customer customer;
+
+    @Before
+    public void setup() {
+
+        recipientDao = new MemoryRecipientDao();
+
+        customer = new Customer();
+        customer.setId(1);
+    }
+
+    @Test
+    public void testExists() {
+
+        // setup
+        recipientDao.saveOrUpdate(recipient(3));
+
+        // exercise and verify
+        assertTrue("Recipient not found", recipientDao.exists(1, 3));
+        assertFalse("Recipient of another customer found", recipientDao.exists(2, 3));
+        assertFalse("Recipient not in the list found", recipientDao.exists(1, 4));
+    }
+
+    @Test
+    public void testFindAccountNumbers() {
+
+        // setup
+        recipientDao.saveOrUpdate(recipient(3));
+        recipientDao.saveOrUpdate(recipient(5));
+
+        // exercise and verify
+        assertEquals(Collections.singleton(3), recipientDao.findAccountNumbers(1, Arrays.asList(3, 4)));
+        assertTrue(recipientDao.findAccountNumbers(2, Arrays.asList(3, 5)).isEmpty());
+    }
+
+    @Test
+    public void testExistsAfterUpdate() {
+
+        // setup
+        Recipient recipient = recipientDao.saveOrUpdate(recipient(3));
+
+        // exercise
+        recipient.setAccountNumber(4);
+        recipientDao.saveOrUpdate(recipient);
+
+        // verify
+        assertFalse("Previous account number found", recipientDao.exists(1, 3));
+        assertTrue("Updated account number not found", recipientDao.exists(1, 4));
+    }
+
+    @Test
+    public void testExistsAfterDelete() {
+
+        // setup
+        Recipient recipient = recipientDao.saveOrUpdate(recipient(3));
+        recipientDao.saveOrUpdate(recipient(3));
+
+        // exercise
+        recipientDao.delete(recipient.getId());
+
+        // verify
+        assertTrue("Duplicate recipient not found", recipientDao.exists(1, 3));
+    }
+
+    private Recipient recipient(int accountNumber) {
+
+        Recipient recipient = new Recipient();
+        recipient.setAccountNumber(accountNumber);
+        recipient.setCustomer(customer);
+        return recipient;
+    }
+}
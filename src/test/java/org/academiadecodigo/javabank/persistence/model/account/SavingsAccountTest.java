@@ -1,5 +1,6 @@
 package org.academiadecodigo.javabank.persistence.model.account;
 
+import org.academiadecodigo.javabank.domain.Money;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -18,54 +19,52 @@ public class SavingsAccountTest {
     public void testInitialBalance() {
 
         // check initial account balance
-        assertEquals(0, account.getBalance(), 0.1);
+        assertEquals(Money.ZERO, account.getBalance());
 
     }
 
     @Test
     public void testCredit() {
 
-        int credit = 100;
-        double balance = account.getBalance();
+        Money credit = Money.of(100);
+        Money balance = account.getBalance();
 
         // credit the account
         account.credit(credit);
 
         // check if the balance has been updated
-        assertEquals(balance + credit, account.getBalance(), 0.1);
+        assertEquals(balance.plus(credit), account.getBalance());
     }
 
     @Test
     public void testCreditNegativeValue() {
 
-        double credit = -100;
-        double balance = account.getBalance();
+        Money credit = Money.of(-100);
+        Money balance = account.getBalance();
 
         // credit the account with a negative value
         account.credit(credit);
 
         // check if the balance has remained the same
-        assertEquals(balance, account.getBalance(), 0);
+        assertEquals(balance, account.getBalance());
 
     }
 
     @Test
     public void testDebit() {
 
-        double credit = SavingsAccount.MIN_BALANCE + 100;
-        double debit = 100;
+        Money credit = SavingsAccount.MIN_BALANCE.plus(Money.of(100));
+        Money debit = Money.of(100);
 
         // check initial account balance
         account.credit(credit);
-        assertEquals(credit, account.getBalance(), 0);
-
-        double balance = account.getBalance();
+        assertEquals(credit, account.getBalance());
 
         // debit from the account
         account.debit(debit);
 
         // check if value has been updated
-        assertEquals(SavingsAccount.MIN_BALANCE, account.getBalance(), 0);
+        assertEquals(SavingsAccount.MIN_BALANCE, account.getBalance());
 
     }
 
@@ -73,35 +72,35 @@ public class SavingsAccountTest {
     @Test
     public void testDebitInsufficientFunds() {
 
-        double credit = SavingsAccount.MIN_BALANCE + 100;
+        Money credit = SavingsAccount.MIN_BALANCE.plus(Money.of(100));
 
         // check initial account balance
         account.credit(credit);
-        assertEquals(credit, account.getBalance(), 0);
+        assertEquals(credit, account.getBalance());
 
-        double maxDebit = account.getBalance() - SavingsAccount.MIN_BALANCE;
+        Money maxDebit = account.getBalance().minus(SavingsAccount.MIN_BALANCE);
 
         // debit more than what is allowed
-        account.debit(maxDebit + 10);
+        account.debit(maxDebit.plus(Money.ofCents(1)));
 
         // confirm that the account is still limited by its MIN_BALANCE
-        assertEquals(credit, account.getBalance(), 0);
+        assertEquals(credit, account.getBalance());
     }
 
     @Test
     public void testDebitNegativeValue() {
 
-        double credit = SavingsAccount.MIN_BALANCE + 100;
-        double debit = -100;
+        Money credit = SavingsAccount.MIN_BALANCE.plus(Money.of(100));
+        Money debit = Money.of(-100);
 
         // check initial account balance
         account.credit(credit);
-        assertEquals(credit, account.getBalance(), 0);
+        assertEquals(credit, account.getBalance());
 
-        double balance = account.getBalance();
+        Money balance = account.getBalance();
 
         account.debit(debit);
-        assertEquals(balance, account.getBalance(), 0);
+        assertEquals(balance, account.getBalance());
 
     }
 
@@ -0,0 +1,85 @@
+package org.academiadecodigo.javabank.persistence.model.journal;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class JournalEntryTest {
+
+    @Test
+    public void testOpening() {
+
+        JournalEntry entry = JournalEntry.opening(1, Money.of(100));
+
+        // check the account is credited against the external side
+        assertEquals(JournalEntryType.OPENING, entry.getType());
+        assertPosting(entry.getPostings().get(0), 1, Money.of(100));
+        assertPosting(entry.getPostings().get(1), null, Money.of(-100));
+        assertBalanced(entry);
+    }
+
+    @Test
+    public void testDeposit() {
+
+        JournalEntry entry = JournalEntry.deposit(1, Money.of(50));
+
+        // check the account is credited against the external side
+        assertEquals(JournalEntryType.DEPOSIT, entry.getType());
+        assertPosting(entry.getPostings().get(0), 1, Money.of(50));
+        assertPosting(entry.getPostings().get(1), null, Money.of(-50));
+        assertBalanced(entry);
+    }
+
+    @Test
+    public void testWithdrawal() {
+
+        JournalEntry entry = JournalEntry.withdrawal(1, Money.of(50));
+
+        // check the account is debited against the external side
+        assertEquals(JournalEntryType.WITHDRAWAL, entry.getType());
+        assertPosting(entry.getPostings().get(0), 1, Money.of(-50));
+        assertPosting(entry.getPostings().get(1), null, Money.of(50));
+        assertBalanced(entry);
+    }
+
+    @Test
+    public void testTransfer() {
+
+        JournalEntry entry = JournalEntry.transfer(1, 2, Money.parse("12.34"));
+
+        // check the source is debited and the destination credited
+        assertEquals(JournalEntryType.TRANSFER, entry.getType());
+        assertPosting(entry.getPostings().get(0), 1, Money.parse("-12.34"));
+        assertPosting(entry.getPostings().get(1), 2, Money.parse("12.34"));
+        assertBalanced(entry);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPostingsAreImmutable() {
+
+        List<Posting> postings = JournalEntry.deposit(1, Money.of(10)).getPostings();
+
+        // postings can not be added after the entry is created
+        postings.clear();
+    }
+
+    private void assertPosting(Posting posting, Integer accountId, Money amount) {
+
+        assertEquals(accountId, posting.getAccountId());
+        assertEquals(amount, posting.getAmount());
+    }
+
+    private void assertBalanced(JournalEntry entry) {
+
+        long total = 0;
+        for (Posting posting : entry.getPostings()) {
+            assertEquals(entry, posting.getEntry());
+            total += posting.getAmount().getCents();
+        }
+
+        assertEquals(0, total);
+    }
+}
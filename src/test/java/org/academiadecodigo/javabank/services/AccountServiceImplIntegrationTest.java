@@ -0,0 +1,108 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.services.slots.SlotConsolidator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Pins the sql statements sent by each {@link AccountService} method
+ * <p>
+ * Money movements are journaled with one sequence call per table and one insert per table.
+ */
+public class AccountServiceImplIntegrationTest extends JpaIntegrationTestHelper {
+
+    private AccountService accountService;
+
+    @Before
+    public void setup() {
+        accountService = ctx.getBean(AccountService.class);
+    }
+
+    @Test
+    public void testGet() {
+        assertStatements(none().selects(1), () -> accountService.get(1));
+    }
+
+    @Test
+    public void testDeposit() {
+        assertStatements(none().selects(1).updates(1).inserts(2).others(2),
+                () -> accountService.deposit(1, 1, Money.of(10)));
+    }
+
+    @Test
+    public void testDepositLoadsAccountOnly() {
+
+        // setup
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        // exercise
+        assertStatements(none().selects(1).updates(1).inserts(2).others(2),
+                () -> accountService.deposit(1, 1, Money.of(10)));
+
+        // verify, the account and its customer, but none of the other customer accounts
+        assertEquals("Number of entities loaded is wrong", 2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void testWithdraw() {
+        // the balance check and the debit are a single update
+        assertStatements(none().selects(1).updates(1).inserts(2).others(2),
+                () -> accountService.withdraw(1, 1, Money.of(10)));
+    }
+
+    @Test
+    public void testSplit() {
+        // the slot rows are inserted one by one, as their ids are generated by the database
+        assertStatements(none().selects(2).deletes(1).updates(1).inserts(4),
+                () -> accountService.split(1, 1, 4));
+    }
+
+    @Test
+    public void testDepositSplitAccount() throws JavaBankException {
+
+        // setup
+        ctx.getBean(SlotConsolidator.class).destroy();
+        accountService.split(1, 1, 4);
+
+        // exercise and verify, the account row is left alone
+        assertStatements(none().selects(1).updates(1).inserts(2).others(2),
+                () -> accountService.deposit(1, 1, Money.of(10)));
+        assertEquals("Account balance is wrong", Money.of(110), accountService.get(1).getBalance());
+    }
+
+    @Test
+    public void testWithdrawSplitAccount() throws JavaBankException {
+
+        // setup
+        ctx.getBean(SlotConsolidator.class).destroy();
+        accountService.split(1, 1, 4);
+        accountService.deposit(1, 1, Money.of(10));
+
+        // exercise and verify, the debit falling short consolidates the slots and is tried again, and the
+        // journal ids come from the ones allocated by the deposit
+        assertStatements(none().selects(3).updates(4).inserts(2),
+                () -> accountService.withdraw(1, 1, Money.of(105)));
+        assertEquals("Account balance is wrong", Money.of(5), accountService.get(1).getBalance());
+    }
+
+    @Test
+    public void testListTransactions() {
+        assertStatements(none().selects(2), () -> accountService.listTransactions(1, 1, null, 10));
+    }
+
+    @Test
+    public void testListTransactionsAfter() {
+        assertStatements(none().selects(2),
+                () -> accountService.listTransactions(1, 1, TransactionCursor.parse("1507646446471:1"), 10));
+    }
+}
@@ -1,17 +1,30 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transaction;
+import org.academiadecodigo.javabank.domain.TransactionCursor;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.JavaBankException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
 import org.academiadecodigo.javabank.persistence.dao.AccountDao;
 import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
 import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -19,9 +32,10 @@ import static org.mockito.Mockito.*;
 
 public class AccountServiceImplTest {
 
-    private static final double DOUBLE_PRECISION = 0.1;
     private AccountDao accountDao;
     private CustomerDao customerDao;
+    private JournalDao journalDao;
+    private CustomerBalanceReadModel customerBalanceReadModel;
     private AccountServiceImpl accountService;
 
     @Before
@@ -29,10 +43,14 @@ public class AccountServiceImplTest {
 
         accountDao = mock(AccountDao.class);
         customerDao = mock(CustomerDao.class);
+        journalDao = mock(JournalDao.class);
+        customerBalanceReadModel = mock(CustomerBalanceReadModel.class);
 
         accountService = new AccountServiceImpl();
         accountService.setAccountDao(accountDao);
         accountService.setCustomerDao(customerDao);
+        accountService.setJournalDao(journalDao);
+        accountService.setCustomerBalanceReadModel(customerBalanceReadModel);
     }
 
     @Test
@@ -58,7 +76,7 @@ public class AccountServiceImplTest {
         //setup
         int fakeCustomerId = 9999;
         int fakeAccountId = 8888;
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
 
         Account fakeAccount = spy(CheckingAccount.class);
         Customer fakeCustomer = new Customer();
@@ -66,19 +84,75 @@ public class AccountServiceImplTest {
         fakeCustomer.addAccount(fakeAccount);
         fakeAccount.setId(fakeAccountId);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+        when(accountDao.credit(fakeAccountId, fakeAmount)).thenReturn(true);
         when(fakeAccount.getCustomer()).thenReturn(fakeCustomer);
 
         //exercise
         accountService.deposit(fakeAccountId, fakeCustomerId, fakeAmount);
 
         //verify
-        assertTrue(fakeAccount.getBalance() == fakeAmount);
-        verify(customerDao, times(1)).findById(fakeCustomerId);
         verify(accountDao, times(1)).findById(fakeAccountId);
-        verify(customerDao, times(1)).saveOrUpdate(fakeCustomer);
-        verify(fakeAccount, times(1)).credit(fakeAmount);
+        verify(accountDao, times(1)).credit(fakeAccountId, fakeAmount);
+        verify(accountDao, never()).saveOrUpdate(any(Account.class));
+        verifyZeroInteractions(customerDao);
+
+        ArgumentCaptor<JournalEntry> entry = ArgumentCaptor.forClass(JournalEntry.class);
+        verify(journalDao, times(1)).append(entry.capture());
+        assertEquals(JournalEntryType.DEPOSIT, entry.getValue().getType());
+        assertEquals(fakeAccountId, entry.getValue().getPostings().get(0).getAccountId().intValue());
+        assertEquals(fakeAmount, entry.getValue().getPostings().get(0).getAmount());
+        verify(customerBalanceReadModel, times(1)).credited(fakeCustomerId, fakeAmount);
+    }
+
+    @Test
+    public void testDepositSplitAccount() throws JavaBankException {
+
+        //setup
+        int fakeCustomerId = 9999;
+        int fakeAccountId = 8888;
+        Money fakeAmount = Money.of(1000);
+
+        Customer fakeCustomer = new Customer();
+        fakeCustomer.setId(fakeCustomerId);
+        Account fakeAccount = new CheckingAccount();
+        fakeAccount.setId(fakeAccountId);
+        fakeAccount.setSlots(4);
+        fakeCustomer.addAccount(fakeAccount);
+
+        when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+        when(accountDao.creditSlot(eq(fakeAccountId), anyInt(), eq(fakeAmount))).thenReturn(true);
+
+        //exercise
+        accountService.deposit(fakeAccountId, fakeCustomerId, fakeAmount);
+
+        //verify
+        ArgumentCaptor<Integer> slot = ArgumentCaptor.forClass(Integer.class);
+        verify(accountDao, times(1)).creditSlot(eq(fakeAccountId), slot.capture(), eq(fakeAmount));
+        assertTrue(slot.getValue() >= 0 && slot.getValue() < 4);
+        verify(accountDao, never()).credit(anyInt(), any(Money.class));
+        verify(customerBalanceReadModel, times(1)).credited(fakeCustomerId, fakeAmount);
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testDepositAccountRemoved() throws JavaBankException {
+
+        //setup
+        int fakeCustomerId = 9999;
+        int fakeAccountId = 8888;
+        Money fakeAmount = Money.of(1000);
+
+        Customer fakeCustomer = new Customer();
+        fakeCustomer.setId(fakeCustomerId);
+        Account fakeAccount = new CheckingAccount();
+        fakeAccount.setId(fakeAccountId);
+        fakeCustomer.addAccount(fakeAccount);
+
+        when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+        when(accountDao.credit(fakeAccountId, fakeAmount)).thenReturn(false);
+
+        //exercise
+        accountService.deposit(fakeAccountId, fakeCustomerId, fakeAmount);
     }
 
     @Test(expected = CustomerNotFoundException.class)
@@ -87,10 +161,10 @@ public class AccountServiceImplTest {
         //setup
         int fakeCustomerId = 9999;
         int fakeAccountId = 8888;
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
         Account fakeAccount = mock(Account.class);
 
-        when(customerDao.findById(anyInt())).thenReturn(null);
+        when(customerDao.findSummary(anyInt())).thenReturn(null);
         when(accountDao.findById(anyInt())).thenReturn(fakeAccount);
 
         //exercise
@@ -103,10 +177,9 @@ public class AccountServiceImplTest {
         //setup
         int fakeCustomerId = 9999;
         int fakeAccountId = 8888;
-        double fakeAmount = 1000.00;
-        Customer fakeCustomer = mock(Customer.class);
+        Money fakeAmount = Money.of(1000);
 
-        when(customerDao.findById(anyInt())).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(anyInt())).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(anyInt())).thenReturn(null);
 
         //exercise
@@ -117,7 +190,7 @@ public class AccountServiceImplTest {
     public void testDepositInvalidAccountOwner() throws JavaBankException {
 
         // setup
-        double fakeAmount = 100;
+        Money fakeAmount = Money.of(100);
         int fakeCustomerThatIsDepositing = 9898;
 
         int fakeCustomerId = 9999;
@@ -129,7 +202,7 @@ public class AccountServiceImplTest {
         fakeAccount.setCustomer(fakeCustomer);
         fakeCustomer.addAccount(fakeAccount);
 
-        when(customerDao.findById(fakeCustomerThatIsDepositing)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerThatIsDepositing)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
 
         // exercise
@@ -140,7 +213,7 @@ public class AccountServiceImplTest {
     public void testDepositInvalidAmount() throws JavaBankException {
 
         // setup
-        double fakeAmount = -10;
+        Money fakeAmount = Money.of(-10);
 
         int fakeCustomerId = 9999;
         int fakeAccountId = 9999;
@@ -152,7 +225,7 @@ public class AccountServiceImplTest {
         fakeAccount.setCustomer(fakeCustomer);
         fakeCustomer.addAccount(fakeAccount);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
 
         // exercise
@@ -164,8 +237,8 @@ public class AccountServiceImplTest {
     public void testWithdraw() throws JavaBankException {
 
         // setup
-        double fakeAmountToWithdraw = 100;
-        double fakeAccountBalance = 9999;
+        Money fakeAmountToWithdraw = Money.of(100);
+        Money fakeAccountBalance = Money.of(9999);
 
         int fakeCustomerId = 9999;
         int fakeAccountId = 9999;
@@ -178,25 +251,57 @@ public class AccountServiceImplTest {
         fakeAccount.setCustomer(fakeCustomer);
         fakeCustomer.addAccount(fakeAccount);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+        when(accountDao.debitIfSufficient(fakeAccountId, fakeAmountToWithdraw)).thenReturn(true);
 
         // exercise
-        accountService.withdraw(fakeCustomerId, fakeAccountId, fakeAmountToWithdraw);
+        accountService.withdraw(fakeAccountId, fakeCustomerId, fakeAmountToWithdraw);
 
         //verify
-        assertEquals(accountService.get(fakeAccountId).getBalance(), fakeAccountBalance - fakeAmountToWithdraw, DOUBLE_PRECISION);
+        verify(accountDao, times(1)).debitIfSufficient(fakeAccountId, fakeAmountToWithdraw);
+        verifyZeroInteractions(customerDao);
+        assertEquals(fakeAccountBalance, fakeAccount.getBalance());
+
+        ArgumentCaptor<JournalEntry> entry = ArgumentCaptor.forClass(JournalEntry.class);
+        verify(journalDao, times(1)).append(entry.capture());
+        assertEquals(JournalEntryType.WITHDRAWAL, entry.getValue().getType());
+        assertEquals(Money.ZERO.minus(fakeAmountToWithdraw), entry.getValue().getPostings().get(0).getAmount());
+    }
+
+    @Test(expected = TransactionInvalidException.class)
+    public void testWithdrawInsufficientFunds() throws JavaBankException {
+
+        // setup
+        Money fakeAmount = Money.of(100);
+
+        int fakeCustomerId = 9999;
+        int fakeAccountId = 8888;
+        Customer fakeCustomer = new Customer();
+        fakeCustomer.setId(fakeCustomerId);
+        Account fakeAccount = new CheckingAccount();
+        fakeAccount.setId(fakeAccountId);
+
+        fakeAccount.setCustomer(fakeCustomer);
+        fakeCustomer.addAccount(fakeAccount);
+
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(mock(CustomerSummary.class));
+        when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+        when(accountDao.debitIfSufficient(fakeAccountId, fakeAmount)).thenReturn(false);
+
+        // exercise
+        accountService.withdraw(fakeAccountId, fakeCustomerId, fakeAmount);
     }
 
     @Test(expected = CustomerNotFoundException.class)
     public void testWithdrawInvalidCustomer() throws JavaBankException {
 
         // setup
-        double fakeAmount = 100;
+        Money fakeAmount = Money.of(100);
         int fakeCustomerId = 9999;
         int fakeAccountId = 9999;
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(null);
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(null);
 
         // exercise
         accountService.withdraw(fakeCustomerId, fakeAccountId, fakeAmount);
@@ -206,12 +311,12 @@ public class AccountServiceImplTest {
     public void testWithdrawInvalidAccount() throws JavaBankException {
 
         // setup
-        double fakeAmount = 100;
+        Money fakeAmount = Money.of(100);
         int fakeCustomerId = 9999;
         int fakeAccountId = 9999;
         Customer fakeCustomer = new Customer();
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeAccountId)).thenReturn(null);
 
         // exercise
@@ -222,7 +327,7 @@ public class AccountServiceImplTest {
     public void testWithdrawInvalidAccountOwner() throws JavaBankException {
 
         // setup
-        double fakeAmount = 100;
+        Money fakeAmount = Money.of(100);
         int fakeCustomerThatIsDepositing = 9898;
 
         int fakeCustomerId = 9999;
@@ -234,7 +339,7 @@ public class AccountServiceImplTest {
         fakeAccount.setCustomer(fakeCustomer);
         fakeCustomer.addAccount(fakeAccount);
 
-        when(customerDao.findById(fakeCustomerThatIsDepositing)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerThatIsDepositing)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
 
         // exercise
@@ -245,7 +350,7 @@ public class AccountServiceImplTest {
     public void testWithdrawInvalidAmount() throws JavaBankException {
 
         // setup
-        double fakeAmount = -10;
+        Money fakeAmount = Money.of(-10);
 
         int fakeCustomerId = 9999;
         int fakeAccountId = 9999;
@@ -257,7 +362,7 @@ public class AccountServiceImplTest {
         fakeAccount.setCustomer(fakeCustomer);
         fakeCustomer.addAccount(fakeAccount);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
 
         // exercise
@@ -268,18 +373,115 @@ public class AccountServiceImplTest {
     public void testWithdrawInvalidAccountType() throws JavaBankException {
 
         // setup
-        double fakeAmount = 100;
+        Money fakeAmount = Money.of(100);
 
         int fakeCustomerId = 9999;
         int fakeAccountId = 9999;
         Customer fakeCustomer = new Customer();
+        fakeCustomer.setId(fakeCustomerId);
         Account fakeAccount = new SavingsAccount();
+        fakeAccount.setCustomer(fakeCustomer);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
 
         // exercise
         accountService.withdraw(fakeCustomerId, fakeAccountId, fakeAmount);
     }
 
+    @Test
+    public void testSplit() throws JavaBankException {
+
+        // setup
+        int fakeCustomerId = 9999;
+        int fakeAccountId = 8888;
+
+        Customer fakeCustomer = new Customer();
+        fakeCustomer.setId(fakeCustomerId);
+        Account fakeAccount = new CheckingAccount();
+        fakeAccount.setId(fakeAccountId);
+        fakeCustomer.addAccount(fakeAccount);
+
+        when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+        when(accountDao.split(fakeAccountId, 4)).thenReturn(true);
+
+        // exercise
+        accountService.split(fakeAccountId, fakeCustomerId, 4);
+
+        // verify
+        verify(accountDao, times(1)).split(fakeAccountId, 4);
+    }
+
+    @Test(expected = TransactionInvalidException.class)
+    public void testSplitInvalidSlots() throws JavaBankException {
+
+        // setup
+        int fakeCustomerId = 9999;
+        int fakeAccountId = 8888;
+
+        Customer fakeCustomer = new Customer();
+        fakeCustomer.setId(fakeCustomerId);
+        Account fakeAccount = new CheckingAccount();
+        fakeAccount.setId(fakeAccountId);
+        fakeCustomer.addAccount(fakeAccount);
+
+        when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+
+        // exercise
+        accountService.split(fakeAccountId, fakeCustomerId, Account.MAX_SLOTS + 1);
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testSplitInvalidAccount() throws JavaBankException {
+
+        // setup
+        when(customerDao.findSummary(anyInt())).thenReturn(mock(CustomerSummary.class));
+        when(accountDao.findById(anyInt())).thenReturn(null);
+
+        // exercise
+        accountService.split(8888, 9999, 4);
+    }
+
+    @Test
+    public void testListTransactions() throws JavaBankException {
+
+        // setup
+        int fakeCustomerId = 9999;
+        int fakeAccountId = 8888;
+        TransactionCursor fakeCursor = TransactionCursor.parse("1507645846471:42");
+        List<Transaction> fakeTransactions = Collections.singletonList(
+                new Transaction(41L, new Date(), JournalEntryType.DEPOSIT, 1000));
+
+        when(accountDao.findCustomerId(fakeAccountId)).thenReturn(fakeCustomerId);
+        when(journalDao.findTransactions(fakeAccountId, fakeCursor, 20)).thenReturn(fakeTransactions);
+
+        // exercise
+        List<Transaction> transactions = accountService.listTransactions(fakeAccountId, fakeCustomerId, fakeCursor, 20);
+
+        // verify
+        assertEquals(fakeTransactions, transactions);
+        verify(journalDao, times(1)).findTransactions(fakeAccountId, fakeCursor, 20);
+        verify(accountDao, never()).findById(anyInt());
+        verify(customerDao, never()).findById(anyInt());
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testListTransactionsInvalidAccount() throws JavaBankException {
+
+        // setup
+        when(accountDao.findCustomerId(anyInt())).thenReturn(null);
+
+        // exercise
+        accountService.listTransactions(8888, 9999, null, 20);
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testListTransactionsInvalidAccountOwner() throws JavaBankException {
+
+        // setup
+        when(accountDao.findCustomerId(8888)).thenReturn(7777);
+
+        // exercise
+        accountService.listTransactions(8888, 9999, null, 20);
+    }
 }
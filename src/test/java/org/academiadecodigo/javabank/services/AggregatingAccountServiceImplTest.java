@@ -0,0 +1,111 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.services.aggregator.CreditAggregator;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.*;
+
+public class AggregatingAccountServiceImplTest {
+
+    private static final int CUSTOMER_ID = 9999;
+    private static final int ACCOUNT_ID = 8888;
+
+    private AccountDao accountDao;
+    private JournalDao journalDao;
+    private CreditAggregator creditAggregator;
+    private CustomerBalanceReadModel customerBalanceReadModel;
+    private AggregatingAccountServiceImpl accountService;
+
+    @Before
+    public void setup() {
+
+        accountDao = mock(AccountDao.class);
+        journalDao = mock(JournalDao.class);
+        creditAggregator = mock(CreditAggregator.class);
+        customerBalanceReadModel = mock(CustomerBalanceReadModel.class);
+
+        accountService = new AggregatingAccountServiceImpl();
+        accountService.setAccountDao(accountDao);
+        accountService.setCustomerDao(mock(CustomerDao.class));
+        accountService.setJournalDao(journalDao);
+        accountService.setCreditAggregator(creditAggregator);
+        accountService.setCustomerBalanceReadModel(customerBalanceReadModel);
+
+        Customer customer = new Customer();
+        customer.setId(CUSTOMER_ID);
+        Account account = new CheckingAccount();
+        account.setId(ACCOUNT_ID);
+        customer.addAccount(account);
+
+        when(accountDao.findById(ACCOUNT_ID)).thenReturn(account);
+    }
+
+    @Test
+    public void testDeposit() throws JavaBankException {
+
+        // setup
+        Money fakeAmount = Money.of(1000);
+        when(creditAggregator.credit(ACCOUNT_ID, fakeAmount)).thenReturn(true);
+
+        // exercise
+        accountService.deposit(ACCOUNT_ID, CUSTOMER_ID, fakeAmount);
+
+        // verify, the aggregator credits and journals the deposit
+        verify(creditAggregator, times(1)).credit(ACCOUNT_ID, fakeAmount);
+        verify(accountDao, never()).credit(anyInt(), any(Money.class));
+        verify(journalDao, never()).append(any(JournalEntry.class));
+        verify(customerBalanceReadModel, times(1)).credited(CUSTOMER_ID, fakeAmount);
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testDepositAccountRemoved() throws JavaBankException {
+
+        // setup
+        when(creditAggregator.credit(anyInt(), any(Money.class))).thenReturn(false);
+
+        // exercise
+        accountService.deposit(ACCOUNT_ID, CUSTOMER_ID, Money.of(1000));
+    }
+
+    @Test(expected = TransactionInvalidException.class)
+    public void testDepositInvalidAmount() throws JavaBankException {
+
+        try {
+            // exercise
+            accountService.deposit(ACCOUNT_ID, CUSTOMER_ID, Money.of(-1));
+
+        } finally {
+            // verify
+            verifyZeroInteractions(creditAggregator);
+        }
+    }
+
+    @Test(expected = TransactionInvalidException.class)
+    public void testDepositTimeout() throws JavaBankException {
+
+        // setup
+        when(creditAggregator.credit(anyInt(), any(Money.class))).thenThrow(new TransactionInvalidException());
+
+        try {
+            // exercise
+            accountService.deposit(ACCOUNT_ID, CUSTOMER_ID, Money.of(1000));
+
+        } finally {
+            // verify
+            verifyZeroInteractions(customerBalanceReadModel);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.PageRequest;
+import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+
+/**
+ * Pins the sql statements sent by each {@link CustomerService} method
+ */
+public class CustomerServiceImplIntegrationTest extends JpaIntegrationTestHelper {
+
+    private CustomerService customerService;
+
+    @Before
+    public void setup() {
+        customerService = ctx.getBean(CustomerService.class);
+    }
+
+    @Test
+    public void testGet() {
+        assertStatements(none().selects(1), () -> customerService.get(1).getAccounts().size());
+    }
+
+    @Test
+    public void testGetCached() throws CustomerNotFoundException {
+
+        // the customer is put in the second level cache without its accounts
+        customerService.listRecipients(1);
+
+        // the accounts are still loaded with the customer, not on access after the session is closed
+        assertStatements(none().selects(1), () -> customerService.get(1).getAccounts().size());
+    }
+
+    @Test
+    public void testGetBalance() {
+        // summed by the database, the accounts are not loaded
+        assertStatements(none().selects(1), () -> customerService.getBalance(1));
+    }
+
+    @Test
+    public void testGetBalanceNoAccounts() {
+        // the customer is looked up only when it owns no accounts
+        assertStatements(none().selects(2), () -> customerService.getBalance(4));
+    }
+
+    @Test
+    public void testGetBalances() {
+        assertStatements(none().selects(1), () -> customerService.getBalances(Arrays.asList(1, 2, 3, 4)));
+    }
+
+    @Test
+    public void testSave() {
+
+        Customer customer = new Customer();
+        customer.setFirstName("Catarina");
+
+        assertStatements(none().inserts(1), () -> customerService.save(customer));
+    }
+
+    @Test
+    public void testSaveExisting() {
+
+        Customer customer = customerService.get(1);
+        customer.setPhone("999888");
+
+        // the detached customer is merged from the second level cache
+        assertStatements(none().updates(1), () -> customerService.save(customer));
+    }
+
+    @Test
+    public void testDelete() {
+        // the recipients are loaded to cascade the removal
+        assertStatements(none().selects(2).deletes(1), () -> customerService.delete(4));
+    }
+
+    @Test
+    public void testList() {
+        assertStatements(none().selects(1), () -> customerService.list(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void testListSummaries() {
+        assertStatements(none().selects(1), () -> customerService.listSummaries(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void testListRecipients() {
+        assertStatements(none().selects(1), () -> customerService.listRecipients(1));
+    }
+
+    @Test
+    public void testAddRecipient() {
+
+        Recipient recipient = new Recipient();
+        recipient.setAccountNumber(4);
+        recipient.setName("Sergio Gouveia");
+
+        assertStatements(none().selects(2).inserts(1), () -> customerService.addRecipient(1, recipient));
+    }
+
+    @Test
+    public void testAddRecipientAccountWithoutOwner() {
+
+        Recipient recipient = new Recipient();
+        recipient.setAccountNumber(7);
+        recipient.setName("Sergio Gouveia");
+
+        assertStatements(none().selects(3).inserts(1), () -> customerService.addRecipient(1, recipient));
+    }
+
+    @Test
+    public void testRemoveRecipient() {
+        assertStatements(none().selects(1).deletes(1), () -> customerService.removeRecipient(1, 2));
+    }
+
+    @Test
+    public void testAddAccount() {
+
+        CheckingAccount account = new CheckingAccount();
+        account.credit(Money.of(10));
+
+        // the opening balance is journaled, with one sequence call per table
+        assertStatements(none().selects(1).inserts(3).others(2), () -> customerService.addAccount(3, account));
+    }
+
+    @Test
+    public void testCloseAccount() {
+        assertStatements(none().selects(1).deletes(1), () -> customerService.closeAccount(3, 5));
+    }
+}
@@ -1,19 +1,29 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Page;
+import org.academiadecodigo.javabank.domain.PageRequest;
 import org.academiadecodigo.javabank.exceptions.*;
 import org.academiadecodigo.javabank.persistence.dao.AccountDao;
 import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
 import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
 import org.academiadecodigo.javabank.persistence.model.Customer;
 import org.academiadecodigo.javabank.persistence.model.Recipient;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
 import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
 import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static junit.framework.TestCase.assertNotNull;
 import static org.junit.Assert.*;
@@ -21,24 +31,28 @@ import static org.mockito.Mockito.*;
 
 public class CustomerServiceImplTest {
 
-    private static final double DOUBLE_PRECISION = 0.1;
-
     private CustomerDao customerDao;
+    private JournalDao journalDao;
     private CustomerServiceImpl customerService;
     private RecipientDao recipientDao;
     private AccountDao accountDao;
+    private CustomerBalanceReadModel customerBalanceReadModel;
 
     @Before
     public void setup() {
 
         customerDao = mock(CustomerDao.class);
+        journalDao = mock(JournalDao.class);
         recipientDao = mock(RecipientDao.class);
         accountDao = mock(AccountDao.class);
+        customerBalanceReadModel = mock(CustomerBalanceReadModel.class);
 
         customerService = new CustomerServiceImpl();
         customerService.setCustomerDao(customerDao);
+        customerService.setJournalDao(journalDao);
         customerService.setRecipientDao(recipientDao);
         customerService.setAccountDao(accountDao);
+        customerService.setCustomerBalanceReadModel(customerBalanceReadModel);
     }
 
     @Test
@@ -47,7 +61,7 @@ public class CustomerServiceImplTest {
         // setup
         int fakeId = 9999;
         Customer fakeCustomer = new Customer();
-        when(customerDao.findById(fakeId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeId)).thenReturn(fakeCustomer);
 
         // exercise
         Customer customer = customerService.get(fakeId);
@@ -61,46 +75,93 @@ public class CustomerServiceImplTest {
 
         // setup
         int fakeId = 9999;
-        Account a1 = new CheckingAccount();
-        Account a2 = new CheckingAccount();
-        a1.credit(100);
-        a2.credit(200);
-        Customer fakeCustomer = new Customer();
-        fakeCustomer.getAccounts().add(0, a1);
-        fakeCustomer.getAccounts().add(1, a2);
-        when(customerDao.findById(fakeId)).thenReturn(fakeCustomer);
+        when(accountDao.getCustomerBalance(fakeId)).thenReturn(Money.of(300));
+
+        // exercise
+        Money result = customerService.getBalance(fakeId);
+
+        // verify
+        assertEquals(Money.of(300), result);
+        verify(customerDao, never()).findWithAccounts(anyInt());
+        verify(customerDao, never()).findById(anyInt());
+    }
+
+    @Test
+    public void testGetBalanceNoAccounts() throws JavaBankException {
+
+        // setup
+        int fakeId = 9999;
+        when(accountDao.getCustomerBalance(fakeId)).thenReturn(null);
+        when(customerDao.findById(fakeId)).thenReturn(new Customer());
 
         // exercise
-        double result = customerService.getBalance(fakeId);
+        Money result = customerService.getBalance(fakeId);
 
         // verify
-        assertEquals(a1.getBalance() + a2.getBalance(), result, DOUBLE_PRECISION);
+        assertEquals(Money.ZERO, result);
     }
 
     @Test(expected = CustomerNotFoundException.class)
     public void testGetBalanceInvalidCustomer() throws JavaBankException {
 
         // setup
+        when(accountDao.getCustomerBalance(anyInt())).thenReturn(null);
         when(customerDao.findById(anyInt())).thenReturn(null);
 
         // exercise
         customerService.getBalance(1);
     }
 
+    @Test
+    public void testGetBalances() {
+
+        // setup
+        Map<Integer, Money> fakeBalances = new HashMap<>();
+        fakeBalances.put(1, Money.of(100));
+        when(accountDao.getCustomerBalances(Arrays.asList(1, 2))).thenReturn(fakeBalances);
+
+        // exercise
+        Map<Integer, Money> balances = customerService.getBalances(Arrays.asList(1, 2));
+
+        // verify
+        assertEquals(Money.of(100), balances.get(1));
+        assertEquals(Money.ZERO, balances.get(2));
+        verify(customerDao, never()).findWithAccounts(anyInt());
+    }
+
     @Test
     public void testList() {
 
         //setup
-        List<Customer> fakeList = mock(ArrayList.class);
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<Customer> fakePage = Page.of(new ArrayList<>(), pageRequest);
+
+        when(customerDao.findAll(pageRequest)).thenReturn(fakePage);
+
+        //exercise
+        Page<Customer> page = customerService.list(pageRequest);
+
+        //verify
+        assertEquals(fakePage, page);
+        verify(customerDao, times(1)).findAll(pageRequest);
+        verify(customerDao, never()).findAll();
+    }
+
+    @Test
+    public void testListSummaries() {
+
+        //setup
+        PageRequest pageRequest = PageRequest.of(1, 10, "lastName,desc");
+        Page<CustomerSummary> fakePage = Page.of(new ArrayList<>(), pageRequest);
 
-        when(customerDao.findAll()).thenReturn(fakeList);
+        when(customerDao.findSummaries(pageRequest)).thenReturn(fakePage);
 
         //exercise
-        List<Customer> list = customerService.list();
+        Page<CustomerSummary> page = customerService.listSummaries(pageRequest);
 
         //verify
-        assertNotNull(list);
-        verify(customerDao, times(1)).findAll();
+        assertEquals(fakePage, page);
+        verify(customerDao, times(1)).findSummaries(pageRequest);
     }
 
     @Test
@@ -111,7 +172,7 @@ public class CustomerServiceImplTest {
         Customer fakeCustomer = new Customer();
         Recipient fakeRecipient = new Recipient();
         fakeCustomer.getRecipients().add(fakeRecipient);
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(fakeCustomer);
 
         // exercise
         List<Recipient> recipients = customerService.listRecipients(fakeCustomerId);
@@ -126,7 +187,7 @@ public class CustomerServiceImplTest {
     public void testListRecipientsInvalidCustomer() throws JavaBankException {
 
         // setup
-        when(customerDao.findById(anyInt())).thenReturn(null);
+        when(customerDao.findWithRecipients(anyInt())).thenReturn(null);
 
         // exercise
         customerService.listRecipients(1);
@@ -140,7 +201,7 @@ public class CustomerServiceImplTest {
         int fakeCustomerId = 9999;
         fakeCustomer.setId(fakeCustomerId);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
 
         //exercise
         customerService.delete(fakeCustomerId);
@@ -155,13 +216,13 @@ public class CustomerServiceImplTest {
 
         //setup
         Account a1 = new CheckingAccount();
-        a1.credit(100);
+        a1.credit(Money.of(100));
         Customer fakeCustomer = new Customer();
         int fakeCustomerId = 9999;
         fakeCustomer.setId(fakeCustomerId);
         fakeCustomer.getAccounts().add(0, a1);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
 
         //exercise
         customerService.delete(fakeCustomerId);
@@ -187,14 +248,14 @@ public class CustomerServiceImplTest {
         fakeRecipient2.setCustomer(fakeCustomer);
         fakeCustomer.getRecipients().add(fakeRecipient);
         fakeCustomer.getRecipients().add(fakeRecipient2);
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(fakeCustomer);
         when(fakeCustomer.getId()).thenReturn(fakeCustomerId);
         when(recipientDao.findById(fakeRecipientId)).thenReturn(fakeRecipient);
         when(recipientDao.findById(fakeRecipient2Id)).thenReturn(fakeRecipient2);
 
         // exercise
         customerService.removeRecipient(fakeCustomerId, fakeRecipientId);
-        List<Recipient> list = customerDao.findById(fakeCustomerId).getRecipients();
+        List<Recipient> list = customerDao.findWithRecipients(fakeCustomerId).getRecipients();
 
         // verify
         assertFalse(list.isEmpty());
@@ -213,7 +274,7 @@ public class CustomerServiceImplTest {
         // setup
         int fakeRecipientId = 8888;
         Recipient fakeRecipient = new Recipient();
-        when(customerDao.findById(anyInt())).thenReturn(null);
+        when(customerDao.findWithRecipients(anyInt())).thenReturn(null);
         when(recipientDao.findById(fakeRecipientId)).thenReturn(fakeRecipient);
 
         // exercise
@@ -226,7 +287,7 @@ public class CustomerServiceImplTest {
         // setup
         int fakeCustomerId = 9999;
         Customer fakeCustomer = new Customer();
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(fakeCustomer);
         when(recipientDao.findById(anyInt())).thenReturn(null);
 
         // exercise
@@ -249,7 +310,7 @@ public class CustomerServiceImplTest {
         fakeRecipient.setCustomer(fakeCustomer);
 
         when(recipientDao.findById(fakeRecipientId)).thenReturn(fakeRecipient);
-        when(customerDao.findById(fakeCustomerIdThatIsTryingToRemove)).thenReturn(fakeCustomer);
+        when(customerDao.findWithRecipients(fakeCustomerIdThatIsTryingToRemove)).thenReturn(fakeCustomer);
 
         // exercise
         customerService.removeRecipient(fakeCustomerIdThatIsTryingToRemove, fakeRecipientId);
@@ -280,14 +341,38 @@ public class CustomerServiceImplTest {
 
         Recipient fakeRecipient = new Recipient();
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
-        when(accountDao.findById(fakeRecipient.getAccountNumber())).thenReturn(new SavingsAccount());
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(accountDao.findCustomerId(fakeRecipient.getAccountNumber())).thenReturn(fakeCustomerId + 1);
 
         // exercise
         customerService.addRecipient(fakeCustomerId, fakeRecipient);
 
         // verify
         assertTrue(customerService.get(fakeCustomerId).getRecipients().contains(fakeRecipient));
+        verify(accountDao, never()).findById(anyInt());
+    }
+
+    @Test
+    public void testAddRecipientAccountWithoutOwner() throws JavaBankException {
+
+        // setup
+        int fakeCustomerId = 8888;
+        Customer fakeCustomer = new Customer();
+
+        Recipient fakeRecipient = new Recipient();
+        fakeRecipient.setAccountNumber(7);
+
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(accountDao.findCustomerId(fakeRecipient.getAccountNumber())).thenReturn(null);
+        when(accountDao.findById(fakeRecipient.getAccountNumber())).thenReturn(new CheckingAccount());
+
+        // exercise
+        customerService.addRecipient(fakeCustomerId, fakeRecipient);
+
+        // verify
+        assertTrue(fakeCustomer.getRecipients().contains(fakeRecipient));
+        verify(customerDao, times(1)).saveOrUpdate(fakeCustomer);
     }
 
     @Test(expected = CustomerNotFoundException.class)
@@ -298,7 +383,24 @@ public class CustomerServiceImplTest {
 
         Recipient fakeRecipient = new Recipient();
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(null);
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(null);
+
+        // exercise
+        customerService.addRecipient(fakeCustomerId, fakeRecipient);
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testAddRecipientOwnAccount() throws JavaBankException {
+
+        // setup
+        int fakeCustomerId = 8888;
+        Customer fakeCustomer = new Customer();
+
+        Recipient fakeRecipient = new Recipient();
+        fakeRecipient.setAccountNumber(1);
+
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(accountDao.findCustomerId(fakeRecipient.getAccountNumber())).thenReturn(fakeCustomerId);
 
         // exercise
         customerService.addRecipient(fakeCustomerId, fakeRecipient);
@@ -313,8 +415,8 @@ public class CustomerServiceImplTest {
 
         Recipient fakeRecipient = new Recipient();
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
-        when(accountDao.findById(fakeRecipient.getAccountNumber())).thenReturn(null);
+        when(customerDao.findWithRecipients(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(accountDao.findCustomerId(fakeRecipient.getAccountNumber())).thenReturn(null);
 
         // exercise
         customerService.addRecipient(fakeCustomerId, fakeRecipient);
@@ -330,7 +432,7 @@ public class CustomerServiceImplTest {
         Account fakeAccount = new CheckingAccount();
         fakeCustomer.getAccounts().add(fakeAccount);
         fakeAccount.setCustomer(fakeCustomer);
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
         when(fakeCustomer.getId()).thenReturn(fakeCustomerId);
 
@@ -345,6 +447,7 @@ public class CustomerServiceImplTest {
         assertEquals(0, fakeCustomer.getAccounts().size());
         verify(fakeCustomer, times(1)).removeAccount(fakeAccount);
         verify(customerDao, times(1)).saveOrUpdate(fakeCustomer);
+        verify(customerBalanceReadModel, times(1)).accountClosed(fakeCustomerId, Money.ZERO);
     }
 
     @Test(expected = CustomerNotFoundException.class)
@@ -354,7 +457,7 @@ public class CustomerServiceImplTest {
         int fakeAccountId = 8888;
         Account fakeAccount = new CheckingAccount();
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
-        when(customerDao.findById(anyInt())).thenReturn(null);
+        when(customerDao.findWithAccounts(anyInt())).thenReturn(null);
 
         // exercise
         customerService.closeAccount(1, fakeAccountId);
@@ -367,7 +470,7 @@ public class CustomerServiceImplTest {
         int fakeCustomerId = 9999;
         Customer fakeCustomer = new Customer();
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
         when(accountDao.findById(anyInt())).thenReturn(null);
 
         //exercise
@@ -380,7 +483,7 @@ public class CustomerServiceImplTest {
         // setup
         int fakeCustomerId = 9999;
         Customer fakeCustomer = new Customer();
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
         when(accountDao.findById(anyInt())).thenReturn(null);
 
         int fakeRecipientId = 8888;
@@ -393,7 +496,7 @@ public class CustomerServiceImplTest {
         fakeAccount.setCustomer(fakeCustomer);
 
         when(accountDao.findById(fakeRecipientId)).thenReturn(fakeAccount);
-        when(customerDao.findById(fakeCustomerIdThatIsTryingToClose)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerIdThatIsTryingToClose)).thenReturn(fakeCustomer);
 
         // exercise
         customerService.closeAccount(fakeCustomerIdThatIsTryingToClose, fakeRecipientId);
@@ -410,9 +513,9 @@ public class CustomerServiceImplTest {
         fakeCustomer.getAccounts().add(fakeAccount);
         fakeAccount.setCustomer(fakeCustomer);
 
-        fakeAccount.credit(1);
+        fakeAccount.credit(Money.of(1));
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
         when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
         when(fakeCustomer.getId()).thenReturn(fakeCustomerId);
 
@@ -423,18 +526,38 @@ public class CustomerServiceImplTest {
         customerService.closeAccount(fakeCustomerId, fakeAccountId);
     }
 
+    @Test(expected = TransactionInvalidException.class)
+    public void testCloseAccountInvalidSplitAccount() throws JavaBankException {
+
+        // setup
+        int fakeCustomerId = 9999;
+        int fakeAccountId = 8888;
+        Customer fakeCustomer = spy(new Customer());
+        Account fakeAccount = new CheckingAccount();
+        fakeCustomer.getAccounts().add(fakeAccount);
+        fakeAccount.setCustomer(fakeCustomer);
+        fakeAccount.setSlots(4);
+
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(accountDao.findById(fakeAccountId)).thenReturn(fakeAccount);
+        when(fakeCustomer.getId()).thenReturn(fakeCustomerId);
+
+        // exercise
+        customerService.closeAccount(fakeCustomerId, fakeAccountId);
+    }
+
     @Test
     public void testAddAccountSavings() throws JavaBankException {
 
         // setup
         int fakeCustomerId = 8888;
-        int fakeAmount = 120;
+        Money fakeAmount = Money.of(120);
         Customer fakeCustomer = new Customer();
 
         Account fakeAccount = new SavingsAccount();
         fakeAccount.credit(fakeAmount);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
 
         // exercise
         customerService.addAccount(fakeCustomerId, fakeAccount);
@@ -448,13 +571,13 @@ public class CustomerServiceImplTest {
 
         // setup
         int fakeCustomerId = 8888;
-        int fakeAmount = 10;
+        Money fakeAmount = Money.of(10);
         Customer fakeCustomer = new Customer();
 
         Account fakeAccount = new SavingsAccount();
         fakeAccount.credit(fakeAmount);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
 
         // exercise
         customerService.addAccount(fakeCustomerId, fakeAccount);
@@ -465,19 +588,38 @@ public class CustomerServiceImplTest {
 
         // setup
         int fakeCustomerId = 8888;
-        int fakeAmount = 120;
+        Money fakeAmount = Money.of(120);
         Customer fakeCustomer = new Customer();
 
         Account fakeAccount = new CheckingAccount();
         fakeAccount.credit(fakeAmount);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
 
         // exercise
         customerService.addAccount(fakeCustomerId, fakeAccount);
 
         // verify
         assertTrue(customerService.get(fakeCustomerId).getAccounts().contains(fakeAccount));
+        verify(journalDao, times(1)).append(any(JournalEntry.class));
+        verify(customerBalanceReadModel, times(1)).accountOpened(fakeCustomerId, fakeAmount);
+    }
+
+    @Test
+    public void testAddAccountEmpty() throws JavaBankException {
+
+        // setup
+        int fakeCustomerId = 8888;
+        Customer fakeCustomer = new Customer();
+        Account fakeAccount = new CheckingAccount();
+
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(fakeCustomer);
+
+        // exercise
+        customerService.addAccount(fakeCustomerId, fakeAccount);
+
+        // verify
+        verify(journalDao, never()).append(any(JournalEntry.class));
     }
 
     @Test(expected = CustomerNotFoundException.class)
@@ -488,7 +630,7 @@ public class CustomerServiceImplTest {
 
         Account fakeAccount = new CheckingAccount();
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(null);
+        when(customerDao.findWithAccounts(fakeCustomerId)).thenReturn(null);
 
         // exercise
         customerService.addAccount(fakeCustomerId, fakeAccount);
@@ -0,0 +1,154 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.academiadecodigo.javabank.services.engine.BalanceEngine;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the {@link EngineTransferServiceImpl} flushes against the stored balances, as moved by other writers
+ */
+public class EngineTransferServiceImplIntegrationTest extends JpaIntegrationTestHelper {
+
+    private TransferService transferService;
+    private EngineTransferServiceImpl engineTransferService;
+    private AccountService accountService;
+    private BalanceEngine balanceEngine;
+
+    @Override
+    protected String[] getActiveProfiles() {
+        return new String[]{"test", "engine"};
+    }
+
+    @Before
+    public void setup() throws InterruptedException {
+
+        transferService = ctx.getBean(TransferService.class);
+        engineTransferService = AopTestUtils.getTargetObject(transferService);
+        accountService = ctx.getBean(AccountService.class);
+        balanceEngine = ctx.getBean(BalanceEngine.class);
+
+        // stop the background writer, so that the callers flush their transfers themselves
+        engineTransferService.destroy();
+    }
+
+    @Test
+    public void testTransfer() throws Exception {
+
+        // exercise, with the writer stopped the caller flushes its transfer itself
+        transferService.transfer(transfer(1, 3, Money.of(10)));
+
+        // verify
+        assertEquals(Money.of(90), em.find(Account.class, 1).getBalance());
+        assertEquals(Money.of(20), em.find(Account.class, 3).getBalance());
+        assertEquals(1, countTransfers());
+    }
+
+    @Test
+    public void testTransferFollowsStoredBalance() throws Exception {
+
+        // setup
+        transferService.transfer(transfer(1, 3, Money.of(10)));
+        accountService.withdraw(1, 1, Money.of(85));
+
+        // exercise
+        try {
+            transferService.transfer(transfer(1, 3, Money.of(50)));
+            fail("Transfer should fail on the stored balance");
+
+        } catch (TransactionInvalidException ex) {
+
+            // verify
+            assertEquals(Money.of(5), em.find(Account.class, 1).getBalance());
+            assertEquals(1, countTransfers());
+        }
+    }
+
+    @Test
+    public void testFlushRejectsTransferOverdrawingStoredBalance() throws Exception {
+
+        // setup, a writer which does not flush on its own, so that the transfers wait for the test
+        engineTransferService.setFlushInterval(60000);
+        engineTransferService.afterPropertiesSet();
+
+        // a withdrawal leaves the stored balance short of what the engine approved
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        Thread covered = transferInBackground(transfer(1, 3, Money.of(10)), failures);
+        awaitQueued(covered);
+
+        accountService.withdraw(1, 1, Money.of(85));
+
+        Thread uncovered = transferInBackground(transfer(1, 3, Money.of(50)), failures);
+        awaitQueued(uncovered);
+
+        // exercise
+        engineTransferService.flush();
+        covered.join();
+        uncovered.join();
+
+        // verify, only the transfer the stored balance covers is settled, the other one fails its caller
+        assertEquals(1, failures.size());
+        assertEquals(TransactionInvalidException.class, failures.get(0).getClass());
+
+        assertEquals(Money.of(5), em.find(Account.class, 1).getBalance());
+        assertEquals(Money.of(20), em.find(Account.class, 3).getBalance());
+        assertEquals(1, countTransfers());
+        assertEquals(Money.of(5), balanceEngine.getBalance(1));
+        assertEquals(Money.parse("55.50"), ctx.getBean(CustomerBalanceReadModel.class).get(1).getBalance());
+    }
+
+    private Thread transferInBackground(Transfer transfer, List<Throwable> failures) {
+
+        Thread thread = new Thread(() -> {
+
+            try {
+                transferService.transfer(transfer);
+
+            } catch (Throwable ex) {
+                failures.add(ex);
+            }
+        });
+
+        thread.start();
+        return thread;
+    }
+
+    private void awaitQueued(Thread caller) throws InterruptedException {
+
+        // once queued, the caller waits for the flush holding its transfer
+        while (caller.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+
+    private long countTransfers() {
+
+        return em.createQuery("SELECT COUNT(e) FROM JournalEntry e WHERE e.type = :type", Long.class)
+                .setParameter("type", JournalEntryType.TRANSFER)
+                .getSingleResult();
+    }
+
+    private static Transfer transfer(Integer srcId, Integer dstId, Money amount) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(amount);
+
+        return transfer;
+    }
+}
@@ -0,0 +1,360 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryTransactionManager;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.academiadecodigo.javabank.services.engine.BalanceEngine;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EngineTransferServiceImplTest {
+
+    private EngineTransferServiceImpl transferService;
+    private BalanceEngine balanceEngine;
+    private AccountDao accountDao;
+    private JournalDao journalDao;
+    private CustomerBalanceReadModel customerBalanceReadModel;
+
+    @Before
+    public void setup() {
+
+        accountDao = mock(AccountDao.class);
+        journalDao = mock(JournalDao.class);
+        balanceEngine = mock(BalanceEngine.class);
+        customerBalanceReadModel = mock(CustomerBalanceReadModel.class);
+
+        // the writer is not started, so each caller flushes its transfer itself
+        transferService = new EngineTransferServiceImpl();
+        transferService.setAccountDao(accountDao);
+        transferService.setCustomerDao(mock(CustomerDao.class));
+        transferService.setJournalDao(journalDao);
+        transferService.setBalanceEngine(balanceEngine);
+        transferService.setTransactionManager(new MemoryTransactionManager());
+        transferService.setCustomerBalanceReadModel(customerBalanceReadModel);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTransfer() throws JavaBankException {
+
+        // setup
+        List<Account> accounts = Arrays.asList(account(1), account(2));
+
+        when(accountDao.debitIfSufficient(1, Money.of(10))).thenReturn(true);
+        when(accountDao.credit(2, Money.of(10))).thenReturn(true);
+        when(accountDao.findByIds(any())).thenReturn(accounts);
+
+        // exercise
+        transfer(1, 2, Money.of(10));
+
+        // verify, the transfer returns once it is written as conditional updates and journaled
+        Map<Integer, Long> deltas = new HashMap<>();
+        deltas.put(1, -1000L);
+        deltas.put(2, 1000L);
+
+        Map<Integer, Account> stored = new HashMap<>();
+        stored.put(1, accounts.get(0));
+        stored.put(2, accounts.get(1));
+
+        verify(balanceEngine, times(1)).transfer(any(Account.class), any(Account.class), eq(Money.of(10)));
+        verify(accountDao, never()).saveOrUpdate(any(Account.class));
+        verify(balanceEngine, times(1)).settle(deltas, stored);
+
+        ArgumentCaptor<Collection<JournalEntry>> entries = ArgumentCaptor.forClass(Collection.class);
+        verify(journalDao, times(1)).appendAll(entries.capture());
+
+        List<JournalEntry> appended = (List<JournalEntry>) entries.getValue();
+        assertEquals(1, appended.size());
+        assertEquals(JournalEntryType.TRANSFER, appended.get(0).getType());
+        assertEquals(Money.of(10), appended.get(0).getPostings().get(1).getAmount());
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testTransferInvalidAccount() throws JavaBankException {
+
+        // setup
+        Transfer fakeTransfer = new Transfer();
+        fakeTransfer.setSrcId(1);
+        fakeTransfer.setDstId(2);
+        fakeTransfer.setAmount(Money.of(10));
+
+        when(accountDao.findById(1)).thenReturn(mock(Account.class));
+
+        try {
+            // exercise
+            transferService.transfer(fakeTransfer);
+
+        } finally {
+            // verify
+            verifyZeroInteractions(balanceEngine);
+        }
+    }
+
+    @Test
+    public void testTransferRejectedByStoredBalance() throws JavaBankException {
+
+        // setup, the stored balance no longer covers what the engine approved
+        when(accountDao.debitIfSufficient(1, Money.of(10))).thenReturn(false);
+
+        try {
+
+            // exercise
+            transfer(1, 2, Money.of(10));
+            fail("Transfer should be rejected");
+
+        } catch (TransactionInvalidException ex) {
+
+            // verify
+            verify(accountDao, never()).credit(anyInt(), any(Money.class));
+            verify(journalDao, times(1)).appendAll(Collections.emptyList());
+            verifyZeroInteractions(customerBalanceReadModel);
+            verify(balanceEngine, times(1)).settle(anyMap(), anyMap());
+        }
+    }
+
+    @Test
+    public void testTransferToRemovedAccount() throws JavaBankException {
+
+        // setup
+        Account stored = account(1);
+        when(accountDao.debitIfSufficient(1, Money.of(10))).thenReturn(true);
+        when(accountDao.credit(1, Money.of(10))).thenReturn(true);
+        when(accountDao.credit(2, Money.of(10))).thenReturn(false);
+        when(accountDao.findByIds(any())).thenReturn(Collections.singletonList(stored));
+
+        try {
+
+            // exercise
+            transfer(1, 2, Money.of(10));
+            fail("Transfer should be rejected");
+
+        } catch (AccountNotFoundException ex) {
+
+            // verify, the debit is given back and the engine drops the removed account
+            verify(accountDao, times(2)).debitIfSufficient(1, Money.of(10));
+            verify(accountDao, times(1)).credit(1, Money.of(10));
+            verify(journalDao, times(1)).appendAll(Collections.emptyList());
+            verify(balanceEngine, times(1)).settle(anyMap(), eq(Collections.singletonMap(1, stored)));
+        }
+    }
+
+    @Test
+    public void testTransferNotCommitted() throws JavaBankException {
+
+        // setup
+        transferService.setTransactionManager(new MemoryTransactionManager() {
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                throw new TransactionSystemException("commit failed");
+            }
+        });
+
+        try {
+
+            // exercise
+            transfer(1, 2, Money.of(10));
+            fail("Transfer should fail");
+
+        } catch (TransactionSystemException ex) {
+
+            // verify, the transfer is taken back from the engine and never flushed
+            verify(balanceEngine, times(1)).cancel(1, 2, Money.of(10));
+            verify(accountDao, never()).debitIfSufficient(anyInt(), any(Money.class));
+        }
+    }
+
+    @Test
+    public void testFlushFailureFailsTransfers() throws JavaBankException {
+
+        // setup
+        when(accountDao.debitIfSufficient(1, Money.of(10))).thenThrow(new IllegalStateException("database down"));
+
+        try {
+
+            // exercise
+            transfer(1, 2, Money.of(10));
+            fail("Transfer should fail");
+
+        } catch (IllegalStateException ex) {
+
+            // verify
+            verify(balanceEngine, times(1)).cancel(1, 2, Money.of(10));
+            verify(balanceEngine, never()).settle(anyMap(), anyMap());
+        }
+    }
+
+    @Test
+    public void testTransferTimeout() throws Exception {
+
+        // setup, the writer does not flush before the transfer times out
+        transferService.setFlushInterval(60000);
+        transferService.setTransferTimeout(10);
+        transferService.afterPropertiesSet();
+
+        try {
+
+            // exercise
+            transfer(1, 2, Money.of(10));
+            fail("Transfer should time out");
+
+        } catch (TransactionInvalidException ex) {
+
+            // verify, the abandoned transfer is taken back and not persisted by a later flush
+            transferService.destroy();
+            verify(balanceEngine, times(1)).cancel(1, 2, Money.of(10));
+            verify(accountDao, never()).debitIfSufficient(anyInt(), any(Money.class));
+        }
+    }
+
+    @Test
+    public void testFlushNetsTransfers() throws Exception {
+
+        // setup
+        when(accountDao.debitIfSufficient(1, Money.of(25))).thenReturn(true);
+        when(accountDao.credit(2, Money.of(25))).thenReturn(true);
+
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> callers = transferAll(failures, newTransfer(1, 2, Money.of(10)), newTransfer(1, 2, Money.of(15)));
+
+        // exercise
+        transferService.flush();
+        join(callers);
+
+        // verify, each account gets a single update
+        assertTrue("Transfers failed: " + failures, failures.isEmpty());
+        verify(accountDao, times(1)).debitIfSufficient(1, Money.of(25));
+        verify(accountDao, times(1)).credit(2, Money.of(25));
+        verify(journalDao, times(1)).appendAll(argThat(entries -> entries.size() == 2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushRejectsUncoveredTransfers() throws Exception {
+
+        // setup, the stored balance of account 1 no longer covers its transfer
+        when(accountDao.debitIfSufficient(1, Money.of(10))).thenReturn(false);
+        when(accountDao.debitIfSufficient(3, Money.of(10))).thenReturn(true);
+        when(accountDao.credit(anyInt(), any(Money.class))).thenReturn(true);
+        when(accountDao.lock(2)).thenReturn(true);
+
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> callers = transferAll(failures, newTransfer(1, 2, Money.of(10)), newTransfer(3, 2, Money.of(10)));
+
+        // exercise
+        transferService.flush();
+        join(callers);
+
+        // verify, the transfers are settled one by one and only the uncovered one fails its caller
+        assertEquals(1, failures.size());
+        assertEquals(TransactionInvalidException.class, failures.get(0).getClass());
+
+        InOrder inOrder = inOrder(accountDao);
+        inOrder.verify(accountDao).lock(2);
+        inOrder.verify(accountDao).debitIfSufficient(3, Money.of(10));
+        inOrder.verify(accountDao).credit(2, Money.of(10));
+
+        ArgumentCaptor<Collection<JournalEntry>> entries = ArgumentCaptor.forClass(Collection.class);
+        verify(journalDao, times(1)).appendAll(entries.capture());
+        assertEquals(1, entries.getValue().size());
+        verify(balanceEngine, times(1)).settle(anyMap(), anyMap());
+    }
+
+    private void transfer(Integer srcId, Integer dstId, Money amount) throws JavaBankException {
+        transferService.transfer(newTransfer(srcId, dstId, amount));
+    }
+
+    private Transfer newTransfer(Integer srcId, Integer dstId, Money amount) {
+
+        Account fakeSrcAccount = mock(Account.class);
+        Account fakeDstAccount = mock(Account.class);
+        when(fakeSrcAccount.getId()).thenReturn(srcId);
+        when(fakeDstAccount.getId()).thenReturn(dstId);
+
+        when(accountDao.findById(srcId)).thenReturn(fakeSrcAccount);
+        when(accountDao.findById(dstId)).thenReturn(fakeDstAccount);
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(amount);
+
+        return transfer;
+    }
+
+    private List<Thread> transferAll(List<Throwable> failures, Transfer... transfers) throws InterruptedException {
+
+        // a writer which does not flush on its own, so that the transfers wait for the test
+        transferService.setFlushInterval(60000);
+        transferService.afterPropertiesSet();
+
+        List<Thread> callers = new ArrayList<>();
+        for (Transfer transfer : transfers) {
+
+            Thread caller = new Thread(() -> {
+
+                try {
+                    transferService.transfer(transfer);
+
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            });
+
+            caller.start();
+            callers.add(caller);
+
+            // once queued, the caller waits for the flush holding its transfer
+            while (caller.getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(1);
+            }
+        }
+
+        return callers;
+    }
+
+    private void join(List<Thread> callers) throws InterruptedException {
+
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        transferService.destroy();
+    }
+
+    private Account account(Integer id) {
+
+        Account account = new CheckingAccount();
+        account.setId(id);
+
+        return account;
+    }
+}
@@ -0,0 +1,85 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the {@link IdempotencyService} against the idempotent request table and its cache region
+ */
+public class IdempotencyServiceImplIntegrationTest extends JpaIntegrationTestHelper {
+
+    private static final int CLAIMS = 8;
+
+    private IdempotencyService idempotencyService;
+
+    @Before
+    public void setup() {
+        idempotencyService = ctx.getBean(IdempotencyService.class);
+    }
+
+    @Test
+    public void testReplayWithoutStatements() {
+
+        // setup
+        assertNull(idempotencyService.claim("key", 1, "transfer", "1:2:10.00"));
+        idempotencyService.complete("key", 200);
+
+        // exercise
+        assertStatements(none(), () -> {
+
+            IdempotentRequest claimed = idempotencyService.claim("key", 1, "transfer", "1:2:10.00");
+
+            // verify
+            assertEquals(Integer.valueOf(200), claimed.getStatus());
+        });
+    }
+
+    @Test
+    public void testConcurrentClaims() throws Exception {
+
+        // setup
+        ExecutorService executor = Executors.newFixedThreadPool(CLAIMS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Callable<IdempotentRequest> claim = () -> {
+            start.await();
+            return idempotencyService.claim("key", 1, "transfer", "1:2:10.00");
+        };
+
+        try {
+
+            List<Future<IdempotentRequest>> claims = new ArrayList<>();
+            for (int i = 0; i < CLAIMS; i++) {
+                claims.add(executor.submit(claim));
+            }
+
+            // exercise
+            start.countDown();
+
+            // verify
+            int claimed = 0;
+            for (Future<IdempotentRequest> future : claims) {
+                claimed += future.get() == null ? 1 : 0;
+            }
+
+            assertEquals("Key should be claimed exactly once", 1, claimed);
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.persistence.dao.IdempotentRequestDao;
+import org.academiadecodigo.javabank.persistence.dao.memory.MemoryIdempotentRequestDao;
+import org.academiadecodigo.javabank.persistence.model.IdempotentRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyServiceImplTest {
+
+    private static final String KEY = "2f1c5b7e-retry";
+
+    private IdempotentRequestDao idempotentRequestDao;
+    private IdempotencyServiceImpl idempotencyService;
+
+    @Before
+    public void setup() {
+
+        idempotentRequestDao = spy(new MemoryIdempotentRequestDao());
+
+        idempotencyService = new IdempotencyServiceImpl();
+        idempotencyService.setIdempotentRequestDao(idempotentRequestDao);
+        idempotencyService.setTransactionManager(mock(PlatformTransactionManager.class));
+        idempotencyService.setTtl(60000);
+    }
+
+    @Test
+    public void testClaim() {
+
+        // exercise
+        IdempotentRequest first = idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+        IdempotentRequest second = idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+
+        // verify
+        assertNull("First claim should succeed", first);
+        assertNotNull("Second claim should find the first", second);
+        assertTrue(second.isInProgress());
+        assertTrue(second.matches(1, "transfer", "1:2:10.00"));
+        assertFalse(second.matches(2, "transfer", "1:2:10.00"));
+        assertFalse(second.matches(1, "deposit", "1:2:10.00"));
+        assertFalse(second.matches(1, "transfer", "1:2:20.00"));
+    }
+
+    @Test
+    public void testComplete() {
+
+        // setup
+        idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+
+        // exercise
+        idempotencyService.complete(KEY, 200);
+
+        // verify
+        IdempotentRequest claimed = idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+        assertFalse(claimed.isInProgress());
+        assertEquals(Integer.valueOf(200), claimed.getStatus());
+    }
+
+    @Test
+    public void testCompleteNotRecorded() {
+
+        // setup
+        idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+        doThrow(new IllegalStateException("connection lost")).doCallRealMethod().when(idempotentRequestDao).findByKey(KEY);
+
+        // exercise
+        idempotencyService.complete(KEY, 200);
+
+        // verify, the retries get the outcome, which is recorded later
+        assertTrue(idempotentRequestDao.findByKey(KEY).isInProgress());
+        assertEquals(1, idempotencyService.recordOutcomes());
+        assertEquals(Integer.valueOf(200), idempotentRequestDao.findByKey(KEY).getStatus());
+        assertEquals(0, idempotencyService.recordOutcomes());
+    }
+
+    @Test
+    public void testClaimNotRecordedOutcome() {
+
+        // setup
+        idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+        doThrow(new IllegalStateException("connection lost")).doCallRealMethod().when(idempotentRequestDao).findByKey(KEY);
+        idempotencyService.complete(KEY, 200);
+
+        // exercise
+        IdempotentRequest claimed = idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+
+        // verify
+        assertFalse(claimed.isInProgress());
+        assertEquals(Integer.valueOf(200), claimed.getStatus());
+    }
+
+    @Test
+    public void testRelease() {
+
+        // setup
+        idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+
+        // exercise
+        idempotencyService.release(KEY);
+
+        // verify
+        assertNull("Released key should be claimed again", idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00"));
+    }
+
+    @Test
+    public void testClaimExpired() {
+
+        // setup
+        idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+        idempotencyService.complete(KEY, 200);
+        idempotencyService.setTtl(-1);
+
+        // exercise
+        IdempotentRequest claimed = idempotencyService.claim(KEY, 2, "deposit", "3:5.00");
+
+        // verify
+        assertNull("Expired key should be claimed again", claimed);
+        assertTrue(idempotentRequestDao.findByKey(KEY).matches(2, "deposit", "3:5.00"));
+    }
+
+    @Test
+    public void testClaimRaceLost() {
+
+        // setup, a concurrent claim commits between the lookup and the insert
+        IdempotentRequest winner = new IdempotentRequest(KEY, 1, "transfer", "1:2:10.00");
+        doReturn(null).doCallRealMethod().when(idempotentRequestDao).findByKey(KEY);
+        idempotentRequestDao.insert(winner);
+
+        // exercise
+        IdempotentRequest claimed = idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+
+        // verify
+        assertSame(winner, claimed);
+    }
+
+    @Test
+    public void testPurgeExpired() {
+
+        // setup
+        idempotencyService.claim(KEY, 1, "transfer", "1:2:10.00");
+        idempotencyService.claim("other", 1, "transfer", "1:2:10.00");
+
+        // exercise and verify
+        assertEquals(0, idempotencyService.purgeExpired());
+
+        idempotencyService.setTtl(-1);
+        assertEquals(2, idempotencyService.purgeExpired());
+        assertNull(idempotentRequestDao.findByKey(KEY));
+    }
+}
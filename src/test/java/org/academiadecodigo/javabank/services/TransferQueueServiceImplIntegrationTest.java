@@ -0,0 +1,95 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the transfers queued by the {@link TransferQueueService}, as performed by the background workers
+ */
+public class TransferQueueServiceImplIntegrationTest extends JpaIntegrationTestHelper {
+
+    private static final long PROCESSING_TIMEOUT = 5000;
+
+    private TransferQueueService transferQueueService;
+
+    @Before
+    public void setup() {
+        transferQueueService = ctx.getBean(TransferQueueService.class);
+    }
+
+    @Test
+    public void testQueuedTransfersPerformed() throws Exception {
+
+        // exercise
+        QueuedTransfer toOwnAccount = transferQueueService.submit(transfer(1, 2, Money.of(10)), 1, null);
+        QueuedTransfer toRecipient = transferQueueService.submit(transfer(1, 3, Money.of(20)), 1, null);
+
+        // verify
+        assertTrue("Transfer was performed on submit", toOwnAccount.isPending());
+        assertEquals(TransferResult.Status.TRANSFERRED, awaitProcessed(toOwnAccount).getStatus());
+        assertEquals(TransferResult.Status.TRANSFERRED, awaitProcessed(toRecipient).getStatus());
+        assertEquals(Money.of(70), em.find(Account.class, 1).getBalance());
+        assertEquals(Money.parse("60.50"), em.find(Account.class, 2).getBalance());
+        assertEquals(Money.of(30), em.find(Account.class, 3).getBalance());
+    }
+
+    @Test
+    public void testQueuedTransferFailed() throws Exception {
+
+        // setup, each transfer is possible alone but not after the other
+        QueuedTransfer first = transferQueueService.submit(transfer(3, 4, Money.of(10)), 2, null);
+        QueuedTransfer second = transferQueueService.submit(transfer(3, 4, Money.of(10)), 2, null);
+
+        // exercise
+        first = awaitProcessed(first);
+        second = awaitProcessed(second);
+
+        // verify
+        assertTrue("One of the transfers should have been performed",
+                first.getStatus() == TransferResult.Status.TRANSFERRED ^
+                        second.getStatus() == TransferResult.Status.TRANSFERRED);
+        assertTrue("One of the transfers should have been invalid",
+                first.getStatus() == TransferResult.Status.TRANSACTION_INVALID ^
+                        second.getStatus() == TransferResult.Status.TRANSACTION_INVALID);
+        assertEquals(Money.ZERO, em.find(Account.class, 3).getBalance());
+        assertEquals(Money.of(160), em.find(Account.class, 4).getBalance());
+    }
+
+    private QueuedTransfer awaitProcessed(QueuedTransfer queuedTransfer) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + PROCESSING_TIMEOUT;
+
+        while (System.currentTimeMillis() < deadline) {
+
+            QueuedTransfer processed = transferQueueService.get(queuedTransfer.getId());
+            if (!processed.isPending()) {
+                return processed;
+            }
+
+            Thread.sleep(20);
+        }
+
+        fail("Queued transfer was not processed: " + queuedTransfer);
+        return null;
+    }
+
+    private static Transfer transfer(Integer srcId, Integer dstId, Money amount) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(amount);
+
+        return transfer;
+    }
+}
@@ -0,0 +1,265 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.QueuedTransferDao;
+import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class TransferQueueServiceImplTest {
+
+    private TransferQueueServiceImpl transferQueueService;
+    private QueuedTransferDao queuedTransferDao;
+    private CustomerDao customerDao;
+    private AccountDao accountDao;
+    private RecipientDao recipientDao;
+    private TransferService transferService;
+
+    @Before
+    public void setup() {
+
+        queuedTransferDao = mock(QueuedTransferDao.class);
+        customerDao = mock(CustomerDao.class);
+        accountDao = mock(AccountDao.class);
+        recipientDao = mock(RecipientDao.class);
+        transferService = mock(TransferService.class);
+
+        transferQueueService = new TransferQueueServiceImpl();
+        transferQueueService.setQueuedTransferDao(queuedTransferDao);
+        transferQueueService.setCustomerDao(customerDao);
+        transferQueueService.setAccountDao(accountDao);
+        transferQueueService.setRecipientDao(recipientDao);
+        transferQueueService.setTransferService(transferService);
+
+        when(queuedTransferDao.saveOrUpdate(any(QueuedTransfer.class))).then(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    public void testSubmit() throws JavaBankException {
+
+        // setup
+        when(accountDao.findById(1)).thenReturn(account(1, 1, Money.of(100)));
+        when(accountDao.findById(3)).thenReturn(account(3, 2, Money.ZERO));
+        when(recipientDao.exists(1, 3)).thenReturn(true);
+
+        // exercise
+        QueuedTransfer queuedTransfer = transferQueueService.submit(transfer(1, 3, Money.of(10)), 1,
+                "http://localhost/done");
+
+        // verify
+        assertEquals(Integer.valueOf(1), queuedTransfer.getCustomerId());
+        assertEquals(Integer.valueOf(1), queuedTransfer.getSrcId());
+        assertEquals(Integer.valueOf(3), queuedTransfer.getDstId());
+        assertEquals(Money.of(10), queuedTransfer.getAmount());
+        assertEquals("http://localhost/done", queuedTransfer.getCallback());
+        assertTrue(queuedTransfer.isPending());
+        verify(queuedTransferDao, times(1)).saveOrUpdate(queuedTransfer);
+        verifyZeroInteractions(transferService);
+    }
+
+    @Test(expected = CustomerNotFoundException.class)
+    public void testSubmitInvalidCustomer() throws JavaBankException {
+
+        // setup
+        when(accountDao.findById(1)).thenReturn(account(1, 1, Money.of(100)));
+
+        // exercise
+        transferQueueService.submit(transfer(1, 3, Money.of(10)), 999, null);
+    }
+
+    @Test
+    public void testSubmitNotRecipient() throws JavaBankException {
+
+        // setup
+        when(accountDao.findById(1)).thenReturn(account(1, 1, Money.of(100)));
+        when(accountDao.findById(4)).thenReturn(account(4, 2, Money.ZERO));
+
+        // exercise
+        try {
+            transferQueueService.submit(transfer(1, 4, Money.of(10)), 1, null);
+
+        } catch (AccountNotFoundException ex) {
+
+            // verify
+            verify(queuedTransferDao, never()).saveOrUpdate(any(QueuedTransfer.class));
+            return;
+        }
+
+        throw new AssertionError("Transfer to a foreign account should not be queued");
+    }
+
+    @Test(expected = TransactionInvalidException.class)
+    public void testSubmitInsufficientFunds() throws JavaBankException {
+
+        // setup
+        when(accountDao.findById(1)).thenReturn(account(1, 1, Money.of(5)));
+        when(accountDao.findById(2)).thenReturn(account(2, 1, Money.ZERO));
+
+        // exercise
+        transferQueueService.submit(transfer(1, 2, Money.of(10)), 1, null);
+    }
+
+    @Test
+    public void testProcess() throws JavaBankException {
+
+        // setup
+        QueuedTransfer first = queued(1, 1, 2);
+        QueuedTransfer second = queued(2, 1, 3);
+        QueuedTransfer third = queued(3, 2, 4);
+
+        when(queuedTransferDao.findPending(0, 2, 10)).thenReturn(Arrays.asList(first, third, second));
+        when(customerDao.findSummary(anyInt())).thenReturn(mock(CustomerSummary.class));
+        when(transferService.transferAll(anyList(), eq(1), eq(TransferBatchMode.BEST_EFFORT))).then(invocation ->
+                results(invocation.getArgument(0), TransferResult.Status.TRANSFERRED, TransferResult.Status.TRANSACTION_INVALID));
+        when(transferService.transferAll(anyList(), eq(2), eq(TransferBatchMode.BEST_EFFORT))).then(invocation ->
+                results(invocation.getArgument(0), TransferResult.Status.ACCOUNT_NOT_FOUND));
+
+        // exercise
+        List<QueuedTransfer> processed = transferQueueService.process(0, 2, 10);
+
+        // verify
+        assertEquals(Arrays.asList(first, third, second), processed);
+        assertEquals(TransferResult.Status.TRANSFERRED, first.getStatus());
+        assertEquals(TransferResult.Status.TRANSACTION_INVALID, second.getStatus());
+        assertEquals(TransferResult.Status.ACCOUNT_NOT_FOUND, third.getStatus());
+        verify(transferService, times(2)).transferAll(anyList(), anyInt(), eq(TransferBatchMode.BEST_EFFORT));
+        verify(queuedTransferDao, times(3)).saveOrUpdate(any(QueuedTransfer.class));
+    }
+
+    @Test
+    public void testProcessRemovedCustomer() {
+
+        // setup
+        QueuedTransfer queuedTransfer = queued(1, 1, 2);
+        when(queuedTransferDao.findPending(0, 1, 10)).thenReturn(Collections.singletonList(queuedTransfer));
+
+        // exercise
+        transferQueueService.process(0, 1, 10);
+
+        // verify
+        assertEquals(TransferResult.Status.ACCOUNT_NOT_FOUND, queuedTransfer.getStatus());
+        verifyZeroInteractions(transferService);
+        verify(queuedTransferDao, times(1)).saveOrUpdate(queuedTransfer);
+    }
+
+    @Test
+    public void testProcessOne() throws JavaBankException {
+
+        // setup
+        QueuedTransfer queuedTransfer = queued(1, 1, 2);
+        queuedTransfer.setId(7);
+
+        when(queuedTransferDao.findById(7)).thenReturn(queuedTransfer);
+        when(customerDao.findSummary(1)).thenReturn(mock(CustomerSummary.class));
+        when(transferService.transferAll(anyList(), eq(1), eq(TransferBatchMode.BEST_EFFORT))).then(invocation ->
+                results(invocation.getArgument(0), TransferResult.Status.TRANSFERRED));
+
+        // exercise
+        QueuedTransfer processed = transferQueueService.process(7);
+
+        // verify
+        assertEquals(TransferResult.Status.TRANSFERRED, processed.getStatus());
+        verify(transferService, times(1)).transferAll(anyList(), eq(1), eq(TransferBatchMode.BEST_EFFORT));
+        verify(queuedTransferDao, times(1)).saveOrUpdate(queuedTransfer);
+    }
+
+    @Test
+    public void testProcessOneNotPending() {
+
+        // setup
+        QueuedTransfer queuedTransfer = queued(1, 1, 2);
+        queuedTransfer.setStatus(TransferResult.Status.TRANSFERRED);
+        when(queuedTransferDao.findById(7)).thenReturn(queuedTransfer);
+
+        // exercise
+        transferQueueService.process(7);
+
+        // verify
+        verifyZeroInteractions(transferService);
+        verify(queuedTransferDao, never()).saveOrUpdate(any(QueuedTransfer.class));
+    }
+
+    @Test
+    public void testRecordFailure() {
+
+        // setup
+        QueuedTransfer queuedTransfer = queued(1, 1, 2);
+        when(queuedTransferDao.findById(7)).thenReturn(queuedTransfer);
+        transferQueueService.setMaxAttempts(2);
+
+        // exercise
+        transferQueueService.recordFailure(7);
+        assertTrue("Transfer was given up after a single failure", queuedTransfer.isPending());
+        transferQueueService.recordFailure(7);
+
+        // verify
+        assertEquals(2, queuedTransfer.getAttempts());
+        assertEquals(TransferResult.Status.FAILED, queuedTransfer.getStatus());
+        verify(queuedTransferDao, times(2)).saveOrUpdate(queuedTransfer);
+    }
+
+    private static List<TransferResult> results(List<Transfer> transfers, TransferResult.Status... statuses) {
+
+        TransferResult[] results = new TransferResult[transfers.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new TransferResult(transfers.get(i), statuses[i]);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private static CheckingAccount account(Integer id, Integer customerId, Money balance) {
+
+        Customer customer = new Customer();
+        customer.setId(customerId);
+
+        CheckingAccount account = new CheckingAccount();
+        account.setId(id);
+        account.setCustomer(customer);
+        account.setBalance(balance);
+
+        return account;
+    }
+
+    private static QueuedTransfer queued(Integer srcId, Integer customerId, Integer dstId) {
+
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setCustomerId(customerId);
+        queuedTransfer.setSrcId(srcId);
+        queuedTransfer.setDstId(dstId);
+        queuedTransfer.setAmount(Money.of(10));
+
+        return queuedTransfer;
+    }
+
+    private static Transfer transfer(Integer srcId, Integer dstId, Money amount) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(amount);
+
+        return transfer;
+    }
+}
@@ -0,0 +1,163 @@
+package org.academiadecodigo.javabank.services;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferLockMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pins the sql statements sent by each {@link TransferServiceImpl} method
+ * <p>
+ * Transfers are a debit and a credit update, journaled with one sequence call per table and one insert per table.
+ */
+public class TransferServiceImplIntegrationTest extends JpaIntegrationTestHelper {
+
+    private TransferService transferService;
+    private AccountService accountService;
+
+    @Before
+    public void setup() {
+
+        accountService = ctx.getBean(AccountService.class);
+
+        // the synchronous implementation, the engine defers its writes
+        transferService = ctx.getBean("transferServiceImpl", TransferService.class);
+    }
+
+    @Test
+    public void testTransfer() {
+        assertStatements(none().selects(2).updates(2).inserts(2).others(2),
+                () -> transferService.transfer(transfer(1, 3)));
+    }
+
+    @Test
+    public void testTransferToOwnAccount() {
+        // ownership is read from the accounts, none of the other customer accounts is loaded
+        assertStatements(none().selects(2).updates(2).inserts(2).others(2),
+                () -> transferService.transfer(transfer(1, 2), 1));
+    }
+
+    @Test
+    public void testTransferToRecipient() {
+        // the recipient list is checked by an indexed query instead of being loaded
+        assertStatements(none().selects(3).updates(2).inserts(2).others(2),
+                () -> transferService.transfer(transfer(1, 3), 1));
+    }
+
+    @Test
+    public void testTransferPessimistic() {
+
+        // setup
+        AopTestUtils.<TransferServiceImpl>getTargetObject(transferService).setLockMode(TransferLockMode.PESSIMISTIC);
+
+        // the accounts are locked by a select each, their customers were not cached yet, and both checking
+        // accounts are updated by version in a single jdbc batch
+        assertStatements(none().selects(4).updates(1).inserts(2).others(2),
+                () -> transferService.transfer(transfer(3, 1)));
+
+        assertEquals(Money.of(110), accountService.get(1).getBalance());
+        assertEquals(Money.ZERO, accountService.get(3).getBalance());
+    }
+
+    @Test
+    public void testTransferAll() {
+
+        List<Transfer> transfers = Arrays.asList(transfer(1, 2), transfer(1, 3), transfer(1, 5));
+
+        // the accounts are loaded by a single query, the recipients by another, and the balance updates and
+        // journal inserts are sent in jdbc batches, one batch of updates per account type
+        assertStatements(none().selects(2).updates(2).inserts(2).others(2),
+                () -> transferService.transferAll(transfers, 1, TransferBatchMode.ALL_OR_NOTHING));
+
+        assertEquals(Money.of(70), accountService.get(1).getBalance());
+        assertEquals(Money.parse("60.50"), accountService.get(2).getBalance());
+        assertEquals(Money.of(20), accountService.get(3).getBalance());
+        assertEquals(Money.of(10), accountService.get(5).getBalance());
+    }
+
+    @Test
+    public void testTransferAllNotPerformed() throws Exception {
+
+        // exercise
+        List<TransferResult> results = transferService.transferAll(
+                Arrays.asList(transfer(1, 2), transfer(1, 4)), 1, TransferBatchMode.ALL_OR_NOTHING);
+
+        // verify, account 4 is not a recipient of the customer
+        assertEquals(TransferResult.Status.NOT_PERFORMED, results.get(0).getStatus());
+        assertEquals(TransferResult.Status.ACCOUNT_NOT_FOUND, results.get(1).getStatus());
+        assertEquals(Money.of(100), accountService.get(1).getBalance());
+    }
+
+    @Test
+    public void testTransferEvictsCachedBalances() throws Exception {
+
+        // setup
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        Money srcBalance = accountService.get(1).getBalance();
+        Money dstBalance = accountService.get(3).getBalance();
+        accountService.get(1);
+
+        // exercise
+        transferService.transfer(transfer(1, 3));
+
+        // verify, the balances were cached but are read again after the transfer
+        Account src = accountService.get(1);
+        Account dst = accountService.get(3);
+
+        assertTrue("Accounts were not cached", statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(srcBalance.minus(Money.of(10)), src.getBalance());
+        assertEquals(dstBalance.plus(Money.of(10)), dst.getBalance());
+    }
+
+    @Test
+    public void testTransferKeepsOtherCachedAccounts() throws Exception {
+
+        // setup
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        accountService.get(1);
+        accountService.get(2);
+        accountService.get(3);
+
+        // exercise
+        transferService.transfer(transfer(1, 3));
+
+        // verify, only the accounts the transfer updated are read again
+        statistics.clear();
+        accountService.get(2);
+        assertEquals("Unrelated account was evicted", 0, statistics.getSecondLevelCacheMissCount());
+
+        statistics.clear();
+        accountService.get(1);
+        accountService.get(3);
+        assertEquals("Updated accounts were not evicted", 2, statistics.getSecondLevelCacheMissCount());
+    }
+
+    static Transfer transfer(Integer srcId, Integer dstId) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(Money.of(10));
+
+        return transfer;
+    }
+}
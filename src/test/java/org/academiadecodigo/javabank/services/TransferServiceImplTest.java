@@ -1,21 +1,35 @@
 package org.academiadecodigo.javabank.services;
 
+import org.academiadecodigo.javabank.domain.CustomerSummary;
+import org.academiadecodigo.javabank.domain.Money;
 import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferBatchMode;
+import org.academiadecodigo.javabank.domain.TransferLockMode;
+import org.academiadecodigo.javabank.domain.TransferResult;
 import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
 import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
 import org.academiadecodigo.javabank.exceptions.JavaBankException;
 import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.factories.AccountFactory;
 import org.academiadecodigo.javabank.persistence.dao.AccountDao;
 import org.academiadecodigo.javabank.persistence.dao.CustomerDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.dao.RecipientDao;
 import org.academiadecodigo.javabank.persistence.model.Customer;
-import org.academiadecodigo.javabank.persistence.model.Recipient;
 import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.academiadecodigo.javabank.services.readmodel.CustomerBalanceReadModel;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 public class TransferServiceImplTest {
@@ -23,15 +37,25 @@ public class TransferServiceImplTest {
     private TransferServiceImpl transferService;
     private AccountDao accountDao;
     private CustomerDao customerDao;
+    private JournalDao journalDao;
+    private RecipientDao recipientDao;
+    private CustomerBalanceReadModel customerBalanceReadModel;
 
     @Before
     public void setup() {
         accountDao = mock(AccountDao.class);
         customerDao = mock(CustomerDao.class);
+        journalDao = mock(JournalDao.class);
+        recipientDao = mock(RecipientDao.class);
+        customerBalanceReadModel = mock(CustomerBalanceReadModel.class);
 
         transferService = new TransferServiceImpl();
         transferService.setAccountDao(accountDao);
         transferService.setCustomerDao(customerDao);
+        transferService.setJournalDao(journalDao);
+        transferService.setRecipientDao(recipientDao);
+        transferService.setCustomerBalanceReadModel(customerBalanceReadModel);
+        transferService.setAccountFactory(new AccountFactory());
     }
 
     @Test
@@ -40,7 +64,7 @@ public class TransferServiceImplTest {
         //setup
         int fakeSrcId = 9999;
         int fakeDstId = 8888;
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
 
         Account fakeSrcAccount = mock(Account.class);
         Account fakeDstAccount = mock(Account.class);
@@ -52,8 +76,11 @@ public class TransferServiceImplTest {
 
         when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
         when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
-        when(fakeSrcAccount.canDebit(fakeAmount)).thenReturn(true);
+        when(fakeSrcAccount.getId()).thenReturn(fakeSrcId);
+        when(fakeDstAccount.getId()).thenReturn(fakeDstId);
         when(fakeDstAccount.canCredit(fakeAmount)).thenReturn(true);
+        when(accountDao.debitIfSufficient(fakeSrcId, fakeAmount)).thenReturn(true);
+        when(accountDao.credit(fakeDstId, fakeAmount)).thenReturn(true);
 
         //exercise
         transferService.transfer(fakeTransfer);
@@ -61,19 +88,116 @@ public class TransferServiceImplTest {
         //verify
         verify(accountDao, times(1)).findById(fakeSrcId);
         verify(accountDao, times(1)).findById(fakeDstId);
-        verify(fakeSrcAccount, times(1)).canDebit(fakeAmount);
         verify(fakeDstAccount, times(1)).canCredit(fakeAmount);
-        verify(fakeSrcAccount, times(1)).debit(fakeAmount);
-        verify(fakeDstAccount, times(1)).credit(fakeAmount);
-        verify(accountDao, times(1)).saveOrUpdate(fakeSrcAccount);
-        verify(accountDao, times(1)).saveOrUpdate(fakeDstAccount);
+        verify(accountDao, times(1)).debitIfSufficient(fakeSrcId, fakeAmount);
+        verify(accountDao, times(1)).credit(fakeDstId, fakeAmount);
+        verify(accountDao, never()).saveOrUpdate(any(Account.class));
+        verify(journalDao, times(1)).append(any(JournalEntry.class));
+    }
+
+    @Test
+    public void testTransferSplitDstAccount() throws JavaBankException {
+
+        //setup
+        int fakeSrcId = 9999;
+        int fakeDstId = 8888;
+        Money fakeAmount = Money.of(1000);
+
+        Account fakeSrcAccount = mock(Account.class);
+        Account fakeDstAccount = mock(Account.class);
+
+        Transfer fakeTransfer = new Transfer();
+        fakeTransfer.setSrcId(fakeSrcId);
+        fakeTransfer.setDstId(fakeDstId);
+        fakeTransfer.setAmount(fakeAmount);
+
+        when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
+        when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
+        when(fakeSrcAccount.getId()).thenReturn(fakeSrcId);
+        when(fakeDstAccount.getId()).thenReturn(fakeDstId);
+        when(fakeDstAccount.canCredit(fakeAmount)).thenReturn(true);
+        when(fakeDstAccount.isSplit()).thenReturn(true);
+        when(fakeDstAccount.pickSlot()).thenReturn(2);
+        when(accountDao.debitIfSufficient(fakeSrcId, fakeAmount)).thenReturn(true);
+        when(accountDao.creditSlot(fakeDstId, 2, fakeAmount)).thenReturn(true);
+
+        //exercise
+        transferService.transfer(fakeTransfer);
+
+        //verify
+        verify(accountDao, times(1)).debitIfSufficient(fakeSrcId, fakeAmount);
+        verify(accountDao, times(1)).creditSlot(fakeDstId, 2, fakeAmount);
+        verify(accountDao, never()).credit(anyInt(), any(Money.class));
+        verify(journalDao, times(1)).append(any(JournalEntry.class));
+    }
+
+    @Test
+    public void testTransferLocksInIdOrder() throws JavaBankException {
+
+        //setup
+        int lowId = 8888;
+        int highId = 9999;
+        Money fakeAmount = Money.of(1000);
+
+        Account fakeLowAccount = mock(Account.class);
+        Account fakeHighAccount = mock(Account.class);
+
+        when(accountDao.findById(lowId)).thenReturn(fakeLowAccount);
+        when(accountDao.findById(highId)).thenReturn(fakeHighAccount);
+        when(fakeLowAccount.getId()).thenReturn(lowId);
+        when(fakeHighAccount.getId()).thenReturn(highId);
+        when(fakeLowAccount.canCredit(fakeAmount)).thenReturn(true);
+        when(fakeHighAccount.canCredit(fakeAmount)).thenReturn(true);
+        when(accountDao.debitIfSufficient(anyInt(), any(Money.class))).thenReturn(true);
+        when(accountDao.credit(anyInt(), any(Money.class))).thenReturn(true);
+
+        //exercise
+        transferService.transfer(transfer(highId, lowId, 1000));
+        transferService.transfer(transfer(lowId, highId, 1000));
+
+        //verify, the lower id is locked first in both directions
+        InOrder inOrder = inOrder(accountDao);
+        inOrder.verify(accountDao).lock(lowId);
+        inOrder.verify(accountDao).debitIfSufficient(highId, fakeAmount);
+        inOrder.verify(accountDao).credit(lowId, fakeAmount);
+        inOrder.verify(accountDao).debitIfSufficient(lowId, fakeAmount);
+        inOrder.verify(accountDao).credit(highId, fakeAmount);
+        verify(accountDao, times(1)).lock(anyInt());
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testTransferDstAccountRemoved() throws JavaBankException {
+
+        //setup
+        int fakeSrcId = 9999;
+        int fakeDstId = 8888;
+        Money fakeAmount = Money.of(1000);
+
+        Account fakeSrcAccount = mock(Account.class);
+        Account fakeDstAccount = mock(Account.class);
+
+        Transfer fakeTransfer = new Transfer();
+        fakeTransfer.setSrcId(fakeSrcId);
+        fakeTransfer.setDstId(fakeDstId);
+        fakeTransfer.setAmount(fakeAmount);
+
+        when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
+        when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
+        when(fakeSrcAccount.getId()).thenReturn(fakeSrcId);
+        when(fakeDstAccount.getId()).thenReturn(fakeDstId);
+        when(fakeDstAccount.canCredit(fakeAmount)).thenReturn(true);
+        when(accountDao.debitIfSufficient(fakeSrcId, fakeAmount)).thenReturn(true);
+        when(accountDao.credit(fakeDstId, fakeAmount)).thenReturn(false);
+
+        //exercise
+        transferService.transfer(fakeTransfer);
     }
 
     @Test(expected = AccountNotFoundException.class)
     public void testTransferInvalidSrcAccount() throws JavaBankException {
 
         //setup
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
         int fakeDstAccountId = 9999;
         int invalidSrcAccountId = 8888;
 
@@ -95,7 +219,7 @@ public class TransferServiceImplTest {
     public void testTransferInvalidDstAccount() throws JavaBankException {
 
         //setup
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
         int invalidDstAccountId = 8888;
         int fakeSrcAccountId = 9999;
 
@@ -119,7 +243,7 @@ public class TransferServiceImplTest {
         //setup
         int fakeSrcId = 9999;
         int fakeDstId = 8888;
-        double invalidAmount = 1000.00;
+        Money invalidAmount = Money.of(1000);
 
         Account fakeSrcAccount = mock(Account.class);
         Account fakeDstAccount = mock(Account.class);
@@ -131,8 +255,9 @@ public class TransferServiceImplTest {
 
         when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
         when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
-        when(fakeSrcAccount.canDebit(invalidAmount)).thenReturn(false);
+        when(fakeSrcAccount.getId()).thenReturn(fakeSrcId);
         when(fakeDstAccount.canCredit(invalidAmount)).thenReturn(true);
+        when(accountDao.debitIfSufficient(fakeSrcId, invalidAmount)).thenReturn(false);
 
         //exercise
         transferService.transfer(fakeTransfer);
@@ -144,7 +269,7 @@ public class TransferServiceImplTest {
         //setup
         int fakeSrcId = 9999;
         int fakeDstId = 8888;
-        double invalidAmount = 1000.00;
+        Money invalidAmount = Money.of(1000);
 
         Account fakeSrcAccount = mock(Account.class);
         Account fakeDstAccount = mock(Account.class);
@@ -156,7 +281,6 @@ public class TransferServiceImplTest {
 
         when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
         when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
-        when(fakeSrcAccount.canDebit(invalidAmount)).thenReturn(true);
         when(fakeDstAccount.canCredit(invalidAmount)).thenReturn(false);
 
         //exercise
@@ -170,17 +294,10 @@ public class TransferServiceImplTest {
         int fakeSrcId = 9999;
         int fakeDstId = 8888;
         int fakeCustomerId = 7777;
-        double fakeAmount = 1000.00;
-
-        Account fakeSrcAccount = mock(Account.class);
-        Account fakeDstAccount = mock(Account.class);
-        Recipient fakeRecipient = mock(Recipient.class);
-        Customer fakeCustomer = mock(Customer.class);
-        List fakeRecipientAccountIds = mock(List.class);
-        List fakeAccountsList = mock(List.class);
+        Money fakeAmount = Money.of(1000);
 
-        List<Recipient> fakeRecipientList = new ArrayList<>();
-        fakeRecipientList.add(fakeRecipient);
+        Account fakeSrcAccount = mockAccount(fakeSrcId, fakeCustomerId);
+        Account fakeDstAccount = mockAccount(fakeDstId, 6666);
 
         Transfer fakeTransfer = new Transfer();
         fakeTransfer.setSrcId(fakeSrcId);
@@ -189,32 +306,54 @@ public class TransferServiceImplTest {
 
         when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
         when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
-        when(customerDao.findById(anyInt())).thenReturn(fakeCustomer);
-        when(fakeRecipient.getAccountNumber()).thenReturn(fakeDstId);
-        when(fakeSrcAccount.canDebit(fakeAmount)).thenReturn(true);
+        when(recipientDao.exists(fakeCustomerId, fakeDstId)).thenReturn(true);
         when(fakeDstAccount.canCredit(fakeAmount)).thenReturn(true);
-        when(fakeDstAccount.getId()).thenReturn(fakeDstId);
-        when(fakeCustomer.getAccounts()).thenReturn(fakeAccountsList);
-        when(fakeCustomer.getRecipients()).thenReturn(fakeRecipientList);
-        when(fakeAccountsList.contains(fakeSrcAccount)).thenReturn(true);
-        when(fakeAccountsList.contains(fakeDstAccount)).thenReturn(false);
-        when(fakeRecipientAccountIds.contains(fakeDstId)).thenReturn(true);
+        when(accountDao.debitIfSufficient(fakeSrcId, fakeAmount)).thenReturn(true);
+        when(accountDao.credit(fakeDstId, fakeAmount)).thenReturn(true);
 
         //exercise
         transferService.transfer(fakeTransfer, fakeCustomerId);
 
         //verify
-        verify(customerDao, times(1)).findById(fakeCustomerId);
         verify(accountDao, times(1)).findById(fakeSrcId);
         verify(accountDao, times(1)).findById(fakeDstId);
-        verify(fakeAccountsList, times(1)).contains(fakeSrcAccount);
-        verify(fakeAccountsList, times(1)).contains(fakeDstAccount);
-        verify(fakeSrcAccount, times(1)).canDebit(fakeAmount);
+        verify(recipientDao, times(1)).exists(fakeCustomerId, fakeDstId);
         verify(fakeDstAccount, times(1)).canCredit(fakeAmount);
-        verify(fakeSrcAccount, times(1)).debit(fakeAmount);
-        verify(fakeDstAccount, times(1)).credit(fakeAmount);
-        verify(accountDao, times(1)).saveOrUpdate(fakeSrcAccount);
-        verify(accountDao, times(1)).saveOrUpdate(fakeDstAccount);
+        verify(accountDao, times(1)).debitIfSufficient(fakeSrcId, fakeAmount);
+        verify(accountDao, times(1)).credit(fakeDstId, fakeAmount);
+        verify(accountDao, never()).saveOrUpdate(any(Account.class));
+        verifyZeroInteractions(customerDao);
+    }
+
+    @Test
+    public void testTransferCustomerOwnAccount() throws JavaBankException {
+
+        //setup
+        int fakeSrcId = 9999;
+        int fakeDstId = 8888;
+        int fakeCustomerId = 7777;
+        Money fakeAmount = Money.of(1000);
+
+        Account fakeSrcAccount = mockAccount(fakeSrcId, fakeCustomerId);
+        Account fakeDstAccount = mockAccount(fakeDstId, fakeCustomerId);
+
+        Transfer fakeTransfer = new Transfer();
+        fakeTransfer.setSrcId(fakeSrcId);
+        fakeTransfer.setDstId(fakeDstId);
+        fakeTransfer.setAmount(fakeAmount);
+
+        when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
+        when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
+        when(fakeDstAccount.canCredit(fakeAmount)).thenReturn(true);
+        when(accountDao.debitIfSufficient(fakeSrcId, fakeAmount)).thenReturn(true);
+        when(accountDao.credit(fakeDstId, fakeAmount)).thenReturn(true);
+
+        //exercise
+        transferService.transfer(fakeTransfer, fakeCustomerId);
+
+        //verify
+        verify(accountDao, times(1)).credit(fakeDstId, fakeAmount);
+        verifyZeroInteractions(recipientDao);
     }
 
     @Test(expected = CustomerNotFoundException.class)
@@ -224,14 +363,14 @@ public class TransferServiceImplTest {
         int invalidCustomerId = 9999;
         int fakeSrcId = 8888;
         int fakeDstId = 7777;
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
 
         Transfer fakeTransfer = new Transfer();
         fakeTransfer.setSrcId(fakeSrcId);
         fakeTransfer.setDstId(fakeDstId);
         fakeTransfer.setAmount(fakeAmount);
 
-        when(customerDao.findById(anyInt())).thenReturn(null);
+        when(customerDao.findSummary(anyInt())).thenReturn(null);
 
         //exercise
         transferService.transfer(fakeTransfer, invalidCustomerId);
@@ -244,23 +383,17 @@ public class TransferServiceImplTest {
         int fakeCustomerId = 9999;
         int fakeSrcId = 8888;
         int fakeDstId = 7777;
-        double fakeAmount = 1000.00;
+        Money fakeAmount = Money.of(1000);
 
         Transfer fakeTransfer = new Transfer();
         fakeTransfer.setSrcId(fakeSrcId);
         fakeTransfer.setDstId(fakeDstId);
         fakeTransfer.setAmount(fakeAmount);
 
-        Account fakeSrcAccount = mock(Account.class);
-        Account fakeDstAccount = mock(Account.class);
-        Customer fakeCustomer = mock(Customer.class);
-        List fakeAccountsList = mock(List.class);
+        Account fakeSrcAccount = mockAccount(fakeSrcId, 6666);
 
-        when(customerDao.findById(fakeCustomerId)).thenReturn(fakeCustomer);
+        when(customerDao.findSummary(fakeCustomerId)).thenReturn(mock(CustomerSummary.class));
         when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
-        when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
-        when(fakeCustomer.getAccounts()).thenReturn(fakeAccountsList);
-        when(fakeAccountsList.contains(fakeSrcAccount)).thenReturn(false);
 
         //exercise
         transferService.transfer(fakeTransfer, fakeCustomerId);
@@ -273,18 +406,10 @@ public class TransferServiceImplTest {
         int fakeCustomerId = 7777;
         int fakeSrcId = 9999;
         int fakeDstId = 8888;
-        double fakeAmount = 1000.00;
-        int invalidAccountNumber = 6666;
-
-        Account fakeSrcAccount = mock(Account.class);
-        Account fakeDstAccount = mock(Account.class);
-        Recipient fakeRecipient = mock(Recipient.class);
-        Customer fakeCustomer = mock(Customer.class);
-        List fakeRecipientAccountIds = mock(List.class);
-        List fakeAccountsList = mock(List.class);
+        Money fakeAmount = Money.of(1000);
 
-        List<Recipient> fakeRecipientList = new ArrayList<>();
-        fakeRecipientList.add(fakeRecipient);
+        Account fakeSrcAccount = mockAccount(fakeSrcId, fakeCustomerId);
+        Account fakeDstAccount = mockAccount(fakeDstId, 6666);
 
         Transfer fakeTransfer = new Transfer();
         fakeTransfer.setSrcId(fakeSrcId);
@@ -293,19 +418,187 @@ public class TransferServiceImplTest {
 
         when(accountDao.findById(fakeSrcId)).thenReturn(fakeSrcAccount);
         when(accountDao.findById(fakeDstId)).thenReturn(fakeDstAccount);
-        when(customerDao.findById(anyInt())).thenReturn(fakeCustomer);
-        when(fakeRecipient.getAccountNumber()).thenReturn(invalidAccountNumber);
-        when(fakeSrcAccount.canDebit(fakeAmount)).thenReturn(true);
-        when(fakeDstAccount.canCredit(fakeAmount)).thenReturn(true);
-        when(fakeDstAccount.getId()).thenReturn(fakeDstId);
-        when(fakeCustomer.getAccounts()).thenReturn(fakeAccountsList);
-        when(fakeCustomer.getRecipients()).thenReturn(fakeRecipientList);
-        when(fakeAccountsList.contains(fakeSrcAccount)).thenReturn(true);
-        when(fakeAccountsList.contains(fakeDstAccount)).thenReturn(false);
-        when(fakeRecipientAccountIds.contains(fakeDstId)).thenReturn(false);
+        when(recipientDao.exists(fakeCustomerId, fakeDstId)).thenReturn(false);
 
         //exercise
         transferService.transfer(fakeTransfer, fakeCustomerId);
     }
 
+    @Test
+    public void testTransferPessimistic() throws JavaBankException {
+
+        // setup
+        Account srcAccount = account(9999, 7777, 100);
+        Account dstAccount = account(8888, 7777, 0);
+
+        when(accountDao.findById(9999)).thenReturn(srcAccount);
+        when(accountDao.findById(8888)).thenReturn(dstAccount);
+        transferService.setLockMode(TransferLockMode.PESSIMISTIC);
+        transferService.setLockTimeout(500);
+
+        // exercise
+        transferService.transfer(transfer(9999, 8888, 40), 7777);
+
+        // verify, the accounts are locked in ascending id order whatever the transfer direction
+        InOrder inOrder = inOrder(accountDao);
+        inOrder.verify(accountDao).findByIdForUpdate(8888, 500);
+        inOrder.verify(accountDao).findByIdForUpdate(9999, 500);
+        inOrder.verify(accountDao).saveOrUpdate(srcAccount);
+        inOrder.verify(accountDao).saveOrUpdate(dstAccount);
+        verify(accountDao, never()).debitIfSufficient(anyInt(), any(Money.class));
+        verify(accountDao, never()).credit(anyInt(), any(Money.class));
+        verify(journalDao, times(1)).append(any(JournalEntry.class));
+        assertEquals(Money.of(60), srcAccount.getBalance());
+        assertEquals(Money.of(40), dstAccount.getBalance());
+    }
+
+    @Test
+    public void testTransferOptimisticInvalidDebitAmount() throws JavaBankException {
+
+        // setup
+        Account srcAccount = account(1, 7777, 10);
+        Account dstAccount = account(2, 7777, 0);
+
+        when(accountDao.findById(1)).thenReturn(srcAccount);
+        when(accountDao.findById(2)).thenReturn(dstAccount);
+        transferService.setLockMode(TransferLockMode.OPTIMISTIC);
+
+        // exercise
+        try {
+            transferService.transfer(transfer(1, 2, 40));
+            fail("Transfer should have failed");
+
+        } catch (TransactionInvalidException ex) {
+
+            // verify
+            verify(accountDao, never()).findByIdForUpdate(anyInt(), anyInt());
+            verify(accountDao, never()).saveOrUpdate(any(Account.class));
+            verifyZeroInteractions(journalDao);
+            assertEquals(Money.of(10), srcAccount.getBalance());
+        }
+    }
+
+    @Test
+    public void testTransferAll() throws JavaBankException {
+
+        // setup
+        Account first = account(1, 7777, 100);
+        Account second = account(2, 7777, 0);
+        Account third = account(3, 6666, 0);
+
+        when(accountDao.findByIds(anyCollection())).thenReturn(Arrays.asList(first, second, third));
+        when(recipientDao.findAccountNumbers(7777, Collections.singleton(3))).thenReturn(Collections.singleton(3));
+
+        // exercise, the second transfer spends what the first one credited
+        List<TransferResult> results = transferService.transferAll(Arrays.asList(
+                transfer(1, 2, 60), transfer(2, 3, 50)), 7777, TransferBatchMode.ALL_OR_NOTHING);
+
+        // verify
+        assertEquals(TransferResult.Status.TRANSFERRED, results.get(0).getStatus());
+        assertEquals(TransferResult.Status.TRANSFERRED, results.get(1).getStatus());
+        assertEquals(Money.of(40), first.getBalance());
+        assertEquals(Money.of(10), second.getBalance());
+        assertEquals(Money.of(50), third.getBalance());
+        verify(accountDao, times(1)).findByIds(anyCollection());
+        verify(accountDao, times(3)).saveOrUpdate(any(Account.class));
+        verify(accountDao, never()).debitIfSufficient(anyInt(), any(Money.class));
+        verify(journalDao, times(1)).appendAll(argThat(entries -> entries.size() == 2));
+        verify(customerBalanceReadModel, times(1)).debited(7777, Money.of(50));
+        verify(customerBalanceReadModel, times(1)).credited(6666, Money.of(50));
+        verifyZeroInteractions(customerDao);
+    }
+
+    @Test
+    public void testTransferAllNotPerformed() throws JavaBankException {
+
+        // setup
+        Account first = account(1, 7777, 100);
+        Account second = account(2, 7777, 0);
+
+        when(accountDao.findByIds(anyCollection())).thenReturn(Arrays.asList(first, second));
+
+        // exercise
+        List<TransferResult> results = transferService.transferAll(Arrays.asList(
+                transfer(1, 2, 60), transfer(1, 2, 60), transfer(1, 3, 10)), 7777, TransferBatchMode.ALL_OR_NOTHING);
+
+        // verify
+        assertEquals(TransferResult.Status.NOT_PERFORMED, results.get(0).getStatus());
+        assertEquals(TransferResult.Status.TRANSACTION_INVALID, results.get(1).getStatus());
+        assertEquals(TransferResult.Status.ACCOUNT_NOT_FOUND, results.get(2).getStatus());
+        assertEquals(Money.of(100), first.getBalance());
+        assertEquals(Money.ZERO, second.getBalance());
+        verify(accountDao, never()).saveOrUpdate(any(Account.class));
+        verifyZeroInteractions(journalDao, customerBalanceReadModel);
+    }
+
+    @Test
+    public void testTransferAllBestEffort() throws JavaBankException {
+
+        // setup
+        Account first = account(1, 7777, 100);
+        Account second = account(2, 7777, 0);
+        Account foreign = account(3, 6666, 0);
+
+        when(accountDao.findByIds(anyCollection())).thenReturn(Arrays.asList(first, second, foreign));
+        when(recipientDao.findAccountNumbers(7777, Collections.singleton(3))).thenReturn(Collections.emptySet());
+
+        // exercise
+        List<TransferResult> results = transferService.transferAll(Arrays.asList(
+                transfer(1, 2, 60), transfer(1, 2, 60), transfer(1, 3, 10)), 7777, TransferBatchMode.BEST_EFFORT);
+
+        // verify
+        assertEquals(TransferResult.Status.TRANSFERRED, results.get(0).getStatus());
+        assertEquals(TransferResult.Status.TRANSACTION_INVALID, results.get(1).getStatus());
+        assertEquals(TransferResult.Status.ACCOUNT_NOT_FOUND, results.get(2).getStatus());
+        assertEquals(Money.of(40), first.getBalance());
+        assertEquals(Money.of(60), second.getBalance());
+        assertEquals(Money.ZERO, foreign.getBalance());
+        verify(journalDao, times(1)).appendAll(argThat(entries -> entries.size() == 1));
+    }
+
+    @Test(expected = CustomerNotFoundException.class)
+    public void testTransferAllInvalidCustomer() throws JavaBankException {
+
+        // setup
+        when(accountDao.findByIds(anyCollection())).thenReturn(Collections.singletonList(account(1, 7777, 100)));
+
+        // exercise
+        transferService.transferAll(Collections.singletonList(transfer(1, 2, 10)), 9999,
+                TransferBatchMode.BEST_EFFORT);
+    }
+
+    private Transfer transfer(int srcId, int dstId, int amount) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(Money.of(amount));
+
+        return transfer;
+    }
+
+    private Account account(int id, int customerId, int balance) {
+
+        Customer customer = new Customer();
+        customer.setId(customerId);
+
+        Account account = new CheckingAccount();
+        account.setId(id);
+        account.setCustomer(customer);
+        account.setBalance(Money.of(balance));
+
+        return account;
+    }
+
+    private Account mockAccount(int id, int customerId) {
+
+        Customer customer = new Customer();
+        customer.setId(customerId);
+
+        Account account = mock(Account.class);
+        when(account.getId()).thenReturn(id);
+        when(account.getCustomer()).thenReturn(customer);
+
+        return account;
+    }
 }
@@ -0,0 +1,117 @@
+package org.academiadecodigo.javabank.services.aggregator;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.AccountNotFoundException;
+import org.academiadecodigo.javabank.exceptions.JavaBankException;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntryType;
+import org.academiadecodigo.javabank.services.AccountService;
+import org.academiadecodigo.javabank.services.AggregatingAccountServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.*;
+
+public class CreditAggregatorIntegrationTest extends JpaIntegrationTestHelper {
+
+    private static final int THREADS = 16;
+    private static final int DEPOSITS_PER_THREAD = 25;
+
+    private AccountService accountService;
+
+    @Override
+    protected String[] getActiveProfiles() {
+        return new String[]{"test", "aggregator"};
+    }
+
+    @Before
+    public void setup() {
+        accountService = ctx.getBean(AccountService.class);
+    }
+
+    @Test
+    public void testDeposit() throws JavaBankException {
+
+        // setup
+        assertTrue("Deposits should be aggregated",
+                AopTestUtils.getTargetObject(accountService) instanceof AggregatingAccountServiceImpl);
+
+        // exercise, the caller only reads the account, the writer thread credits and journals it
+        assertStatements(none().selects(1), () -> accountService.deposit(1, 1, Money.of(10)));
+
+        // verify
+        assertEquals("Account balance is wrong", Money.of(110), em.find(Account.class, 1).getBalance());
+        assertEquals("Number of deposits journaled is wrong", 1, countDeposits(1));
+    }
+
+    @Test(expected = AccountNotFoundException.class)
+    public void testDepositInvalidAccountOwner() throws JavaBankException {
+        accountService.deposit(3, 1, Money.of(10));
+    }
+
+    @Test
+    public void testConcurrentDeposits() throws InterruptedException {
+
+        // setup
+        int accountId = 1;
+        Integer version = em.find(Account.class, accountId).getVersion();
+        em.clear();
+
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(new Thread(() -> {
+
+                try {
+
+                    start.await();
+                    for (int i = 0; i < DEPOSITS_PER_THREAD; i++) {
+                        accountService.deposit(accountId, 1, Money.of(1));
+                    }
+
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            }));
+        }
+
+        // exercise
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        start.countDown();
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // verify, every deposit is journaled but the concurrent ones share a balance update
+        int deposits = THREADS * DEPOSITS_PER_THREAD;
+        Account account = em.find(Account.class, accountId);
+
+        assertTrue("Deposits failed: " + failures, failures.isEmpty());
+        assertEquals("Account balance is wrong", Money.of(100 + deposits), account.getBalance());
+        assertEquals("Number of deposits journaled is wrong", deposits, countDeposits(accountId));
+        assertTrue("Deposits should be coalesced", account.getVersion() - version < deposits);
+    }
+
+    private long countDeposits(Integer accountId) {
+
+        return em.createQuery("SELECT COUNT(p) FROM Posting p WHERE p.accountId = :accountId " +
+                "AND p.entry.type = :type", Long.class)
+                .setParameter("accountId", accountId)
+                .setParameter("type", JournalEntryType.DEPOSIT)
+                .getSingleResult();
+    }
+}
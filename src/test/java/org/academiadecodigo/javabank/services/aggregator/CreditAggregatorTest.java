@@ -0,0 +1,180 @@
+package org.academiadecodigo.javabank.services.aggregator;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.academiadecodigo.javabank.persistence.dao.JournalDao;
+import org.academiadecodigo.javabank.persistence.model.journal.JournalEntry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CreditAggregatorTest {
+
+    private AccountDao accountDao;
+    private JournalDao journalDao;
+    private CreditAggregator creditAggregator;
+
+    @Before
+    public void setup() {
+
+        accountDao = mock(AccountDao.class);
+        journalDao = mock(JournalDao.class);
+
+        // the writer is not started, so each caller flushes the credits itself
+        creditAggregator = new CreditAggregator();
+        creditAggregator.setAccountDao(accountDao);
+        creditAggregator.setJournalDao(journalDao);
+        creditAggregator.setTransactionManager(mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCredit() throws TransactionInvalidException {
+
+        // setup
+        when(accountDao.credit(1, Money.of(10))).thenReturn(true);
+
+        // exercise
+        boolean credited = creditAggregator.credit(1, Money.of(10));
+
+        // verify
+        assertTrue(credited);
+        ArgumentCaptor<Collection<JournalEntry>> entries = ArgumentCaptor.forClass(Collection.class);
+        verify(journalDao, times(1)).appendAll(entries.capture());
+        assertEquals(1, entries.getValue().size());
+    }
+
+    @Test
+    public void testCreditInvalidAccount() throws TransactionInvalidException {
+
+        // setup
+        when(accountDao.credit(anyInt(), any(Money.class))).thenReturn(false);
+
+        // exercise and verify
+        assertFalse(creditAggregator.credit(9999, Money.of(10)));
+        verify(journalDao, times(1)).appendAll(Collections.emptyList());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCreditFlushFailure() throws TransactionInvalidException {
+
+        // setup
+        when(accountDao.credit(anyInt(), any(Money.class))).thenThrow(new IllegalStateException("lock timeout"));
+
+        // exercise
+        creditAggregator.credit(1, Money.of(10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreditsCoalesced() throws InterruptedException {
+
+        // setup, the first flush holds the writer until the other credits are queued behind it
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(accountDao.credit(1, Money.of(1))).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return true;
+        });
+        when(accountDao.credit(2, Money.of(4))).thenReturn(true);
+
+        List<Boolean> outcomes = Collections.synchronizedList(new ArrayList<>());
+        Thread first = new Thread(() -> outcomes.add(credit(1, Money.of(1))));
+        first.start();
+        flushing.await();
+
+        List<Thread> queued = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> outcomes.add(credit(2, Money.of(1))));
+            queued.add(thread);
+            thread.start();
+        }
+
+        // every queued credit waits on the flush in progress
+        for (Thread thread : queued) {
+            while (thread.getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+        }
+
+        // exercise
+        release.countDown();
+        first.join();
+        for (Thread thread : queued) {
+            thread.join();
+        }
+
+        // verify
+        assertEquals(Collections.nCopies(5, true), outcomes);
+        verify(accountDao, times(1)).credit(2, Money.of(4));
+        verify(accountDao, never()).credit(2, Money.of(1));
+
+        ArgumentCaptor<Collection<JournalEntry>> entries = ArgumentCaptor.forClass(Collection.class);
+        verify(journalDao, times(2)).appendAll(entries.capture());
+        assertEquals(4, entries.getAllValues().get(1).size());
+    }
+
+    @Test
+    public void testCreditTimeout() throws InterruptedException {
+
+        // setup, the writer does not flush before the credit times out
+        creditAggregator.setFlushInterval(60000);
+        creditAggregator.setCreditTimeout(10);
+        creditAggregator.afterPropertiesSet();
+
+        try {
+
+            // exercise
+            creditAggregator.credit(1, Money.of(10));
+            fail("The credit should time out");
+
+        } catch (TransactionInvalidException ex) {
+
+            // verify, the abandoned credit is not applied by a later flush
+            creditAggregator.destroy();
+            verify(accountDao, never()).credit(anyInt(), any(Money.class));
+        }
+    }
+
+    @Test
+    public void testFlushErrorFailsCredits() throws TransactionInvalidException {
+
+        // setup
+        when(accountDao.credit(anyInt(), any(Money.class))).thenThrow(new AssertionError("fatal"));
+
+        try {
+
+            // exercise
+            creditAggregator.credit(1, Money.of(10));
+            fail("The credit should fail");
+
+        } catch (IllegalStateException ex) {
+
+            // verify
+            assertTrue(ex.getCause() instanceof AssertionError);
+        }
+    }
+
+    private Boolean credit(Integer id, Money amount) {
+
+        try {
+            return creditAggregator.credit(id, amount);
+
+        } catch (TransactionInvalidException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.academiadecodigo.javabank.services.engine;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.factories.AccountFactory;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.persistence.model.account.SavingsAccount;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.*;
+
+public class BalanceEngineTest {
+
+    private BalanceEngine balanceEngine;
+
+    @Before
+    public void setup() {
+
+        balanceEngine = new BalanceEngine(8);
+        balanceEngine.setAccountFactory(new AccountFactory());
+    }
+
+    @Test
+    public void testTransfer() throws TransactionInvalidException {
+
+        // setup
+        Account src = account(new CheckingAccount(), 1, Money.of(100));
+        Account dst = account(new CheckingAccount(), 2, Money.of(0));
+
+        // exercise
+        balanceEngine.transfer(src, dst, Money.of(40));
+
+        // verify
+        assertEquals(Money.of(60), balanceEngine.getBalance(1));
+        assertEquals(Money.of(40), balanceEngine.getBalance(2));
+
+        // the entities themselves are left untouched
+        assertEquals(Money.of(100), src.getBalance());
+        assertEquals(Money.of(0), dst.getBalance());
+    }
+
+    @Test
+    public void testTransferUsesEngineBalance() throws TransactionInvalidException {
+
+        // setup
+        Account src = account(new CheckingAccount(), 1, Money.of(100));
+        Account dst = account(new CheckingAccount(), 2, Money.of(0));
+        balanceEngine.transfer(src, dst, Money.of(100));
+
+        // exercise
+        try {
+            balanceEngine.transfer(src, dst, Money.of(1));
+            fail("Transfer should fail on the in-memory balance");
+
+        } catch (TransactionInvalidException ex) {
+
+            // verify
+            assertEquals(Money.of(0), balanceEngine.getBalance(1));
+        }
+    }
+
+    @Test(expected = TransactionInvalidException.class)
+    public void testTransferBelowMinBalance() throws TransactionInvalidException {
+
+        // setup
+        Account src = account(new SavingsAccount(), 1, SavingsAccount.MIN_BALANCE.plus(Money.of(10)));
+        Account dst = account(new CheckingAccount(), 2, Money.of(0));
+
+        // exercise
+        balanceEngine.transfer(src, dst, Money.of(11));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStripeCount() {
+        new BalanceEngine(3);
+    }
+
+    @Test
+    public void testPendingDeltas() throws TransactionInvalidException {
+
+        // setup
+        Account a = account(new CheckingAccount(), 1, Money.of(100));
+        Account b = account(new CheckingAccount(), 2, Money.of(100));
+        Account c = account(new CheckingAccount(), 9, Money.of(100));
+
+        // exercise
+        balanceEngine.transfer(a, b, Money.of(30));
+        balanceEngine.transfer(b, c, Money.of(10));
+
+        // verify
+        Map<Integer, Long> deltas = balanceEngine.getPendingDeltas();
+        assertEquals(-3000L, (long) deltas.get(1));
+        assertEquals(2000L, (long) deltas.get(2));
+        assertEquals(1000L, (long) deltas.get(9));
+    }
+
+    @Test
+    public void testCancel() throws TransactionInvalidException {
+
+        // setup
+        Account a = account(new CheckingAccount(), 1, Money.of(100));
+        Account b = account(new CheckingAccount(), 2, Money.of(100));
+        balanceEngine.transfer(a, b, Money.of(30));
+
+        // exercise
+        balanceEngine.cancel(1, 2, Money.of(30));
+
+        // verify
+        assertEquals(Money.of(100), balanceEngine.getBalance(1));
+        assertEquals(Money.of(100), balanceEngine.getBalance(2));
+        assertTrue(balanceEngine.getPendingDeltas().isEmpty());
+    }
+
+    @Test
+    public void testSettleReloadsStoredBalances() throws TransactionInvalidException {
+
+        // setup, another writer withdrew from the source while a transfer was pending
+        Account a = account(new CheckingAccount(), 1, Money.of(100));
+        Account b = account(new CheckingAccount(), 2, Money.of(100));
+        balanceEngine.transfer(a, b, Money.of(30));
+        Map<Integer, Long> deltas = balanceEngine.getPendingDeltas();
+        balanceEngine.transfer(a, b, Money.of(5));
+
+        Map<Integer, Account> stored = new HashMap<>();
+        stored.put(1, account(new CheckingAccount(), 1, Money.of(50)));
+        stored.put(2, account(new CheckingAccount(), 2, Money.of(130)));
+
+        // exercise
+        balanceEngine.settle(deltas, stored);
+
+        // verify, the transfer still pending is kept on top of the stored balances
+        assertEquals(Money.of(45), balanceEngine.getBalance(1));
+        assertEquals(Money.of(135), balanceEngine.getBalance(2));
+        assertEquals(-500L, (long) balanceEngine.getPendingDeltas().get(1));
+    }
+
+    @Test
+    public void testSettleDropsMissingAccounts() throws TransactionInvalidException {
+
+        // setup
+        Account a = account(new CheckingAccount(), 1, Money.of(100));
+        Account b = account(new CheckingAccount(), 2, Money.of(100));
+        balanceEngine.transfer(a, b, Money.of(30));
+
+        // exercise, the transfer was rejected as the destination is gone
+        balanceEngine.settle(balanceEngine.getPendingDeltas(),
+                Collections.singletonMap(1, account(new CheckingAccount(), 1, Money.of(100))));
+
+        // verify
+        assertEquals(Money.of(100), balanceEngine.getBalance(1));
+        assertNull(balanceEngine.getBalance(2));
+        assertTrue(balanceEngine.getPendingDeltas().isEmpty());
+    }
+
+    @Test
+    public void testTransferFollowsNewerStoredBalance() throws TransactionInvalidException {
+
+        // setup, the source is drained by another writer once the engine has nothing pending
+        Account a = account(new CheckingAccount(), 1, Money.of(100));
+        Account b = account(new CheckingAccount(), 2, Money.of(100));
+        balanceEngine.transfer(a, b, Money.of(30));
+
+        Map<Integer, Account> stored = new HashMap<>();
+        stored.put(1, account(new CheckingAccount(), 1, Money.of(70)));
+        stored.put(2, account(new CheckingAccount(), 2, Money.of(130)));
+        stored.get(1).setVersion(1);
+        balanceEngine.settle(balanceEngine.getPendingDeltas(), stored);
+
+        Account drained = account(new CheckingAccount(), 1, Money.of(20));
+        drained.setVersion(2);
+
+        // exercise
+        try {
+            balanceEngine.transfer(drained, b, Money.of(30));
+            fail("Transfer should fail on the stored balance");
+
+        } catch (TransactionInvalidException ex) {
+
+            // verify
+            assertEquals(Money.of(20), balanceEngine.getBalance(1));
+        }
+    }
+
+    @Test
+    public void testMoneyIsConserved() throws InterruptedException {
+
+        // setup
+        int accounts = 32;
+        int threads = 8;
+        int transfersPerThread = 250_000;
+        Money initialBalance = Money.of(1_000);
+
+        List<Account> ledger = new ArrayList<>();
+        for (int id = 1; id <= accounts; id++) {
+            ledger.add(account(id % 4 == 0 ? new SavingsAccount() : new CheckingAccount(), id, initialBalance));
+        }
+
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                try {
+
+                    for (int i = 0; i < transfersPerThread; i++) {
+
+                        Account src = ledger.get(random.nextInt(accounts));
+                        Account dst = ledger.get(random.nextInt(accounts));
+
+                        try {
+                            balanceEngine.transfer(src, dst, Money.ofCents(1 + random.nextInt(5_000)));
+                        } catch (TransactionInvalidException ex) {
+                            // insufficient funds, try another pair
+                        }
+                    }
+
+                } catch (Throwable ex) {
+                    synchronized (failures) {
+                        failures.add(ex);
+                    }
+                }
+            }));
+        }
+
+        // exercise
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // verify
+        assertTrue("Workers failed: " + failures, failures.isEmpty());
+        assertEquals("Money was created or destroyed", Money.ofCents(accounts * initialBalance.getCents()), balanceEngine.getTotalBalance());
+
+        long deltaSum = 0;
+        for (Long delta : balanceEngine.getPendingDeltas().values()) {
+            deltaSum += delta;
+        }
+
+        assertEquals("Deltas do not net to zero", 0, deltaSum);
+
+        for (Account account : ledger) {
+            Money floor = account instanceof SavingsAccount ? SavingsAccount.MIN_BALANCE : Money.ZERO;
+            assertTrue("Balance went below the minimum", balanceEngine.getBalance(account.getId()).compareTo(floor) >= 0);
+        }
+    }
+
+    private Account account(Account account, int id, Money balance) {
+        account.setId(id);
+        account.setBalance(balance);
+        return account;
+    }
+}
@@ -0,0 +1,157 @@
+package org.academiadecodigo.javabank.services.memo;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.exceptions.CustomerNotFoundException;
+import org.academiadecodigo.javabank.persistence.model.Customer;
+import org.academiadecodigo.javabank.persistence.model.Recipient;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+public class RequestScopedCustomerServiceTest {
+
+    private CustomerService customerService;
+    private MemoCounters memoCounters;
+    private RequestScopedCustomerService requestScopedCustomerService;
+
+    @Before
+    public void setup() {
+
+        customerService = mock(CustomerService.class);
+        memoCounters = new MemoCounters();
+
+        requestScopedCustomerService = new RequestScopedCustomerService();
+        requestScopedCustomerService.setCustomerService(customerService);
+        requestScopedCustomerService.setMemoCounters(memoCounters);
+    }
+
+    @Test
+    public void testGet() {
+
+        // setup
+        Customer fakeCustomer = new Customer();
+        when(customerService.get(1)).thenReturn(fakeCustomer);
+
+        // exercise
+        requestScopedCustomerService.get(1);
+        Customer customer = requestScopedCustomerService.get(1);
+
+        // verify
+        assertSame(fakeCustomer, customer);
+        verify(customerService, times(1)).get(1);
+        assertEquals(1, memoCounters.getHits());
+        assertEquals(1, memoCounters.getMisses());
+    }
+
+    @Test
+    public void testGetNotFound() {
+
+        // exercise
+        requestScopedCustomerService.get(1);
+        requestScopedCustomerService.get(1);
+
+        // verify
+        verify(customerService, times(1)).get(1);
+    }
+
+    @Test
+    public void testGetBalanceOfLoadedCustomer() throws CustomerNotFoundException {
+
+        // setup
+        Customer fakeCustomer = new Customer();
+        fakeCustomer.addAccount(account(100));
+        fakeCustomer.addAccount(account(50));
+        when(customerService.get(1)).thenReturn(fakeCustomer);
+
+        requestScopedCustomerService.get(1);
+
+        // exercise
+        Money balance = requestScopedCustomerService.getBalance(1);
+
+        // verify
+        assertEquals(Money.of(150), balance);
+        verify(customerService, never()).getBalance(anyInt());
+        assertEquals(1, memoCounters.getHits());
+    }
+
+    @Test
+    public void testGetBalance() throws CustomerNotFoundException {
+
+        // setup
+        when(customerService.getBalance(1)).thenReturn(Money.of(150));
+
+        // exercise
+        requestScopedCustomerService.getBalance(1);
+        Money balance = requestScopedCustomerService.getBalance(1);
+
+        // verify
+        assertEquals(Money.of(150), balance);
+        verify(customerService, times(1)).getBalance(1);
+    }
+
+    @Test(expected = CustomerNotFoundException.class)
+    public void testListRecipientsFailureNotMemoized() throws CustomerNotFoundException {
+
+        // setup
+        when(customerService.listRecipients(1)).thenThrow(new CustomerNotFoundException());
+
+        try {
+            requestScopedCustomerService.listRecipients(1);
+
+        } catch (CustomerNotFoundException ex) {
+            // expected
+        }
+
+        // exercise
+        try {
+            requestScopedCustomerService.listRecipients(1);
+
+        } finally {
+
+            // verify
+            verify(customerService, times(2)).listRecipients(1);
+            assertEquals(0, memoCounters.getHits());
+        }
+    }
+
+    @Test
+    public void testWriteInvalidates() throws Exception {
+
+        // setup
+        List<Recipient> fakeRecipients = new ArrayList<>();
+        Customer fakeCustomer = new Customer();
+        when(customerService.get(1)).thenReturn(fakeCustomer);
+        when(customerService.listRecipients(1)).thenReturn(fakeRecipients);
+
+        requestScopedCustomerService.get(1);
+        requestScopedCustomerService.listRecipients(1);
+
+        // exercise
+        requestScopedCustomerService.removeRecipient(1, 2);
+        requestScopedCustomerService.get(1);
+        requestScopedCustomerService.listRecipients(1);
+
+        // verify
+        verify(customerService).removeRecipient(1, 2);
+        verify(customerService, times(2)).get(1);
+        verify(customerService, times(2)).listRecipients(1);
+        assertEquals(1, memoCounters.getInvalidations());
+        assertEquals(0, memoCounters.getHits());
+    }
+
+    private CheckingAccount account(long balance) {
+
+        CheckingAccount account = new CheckingAccount();
+        account.setBalance(Money.of(balance));
+
+        return account;
+    }
+}
@@ -0,0 +1,113 @@
+package org.academiadecodigo.javabank.services.queue;
+
+import org.academiadecodigo.javabank.converters.QueuedTransferToQueuedTransferDto;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class TransferCallbackClientTest {
+
+    private TransferCallbackClient transferCallbackClient;
+    private MockRestServiceServer server;
+
+    @Before
+    public void setup() {
+
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.createServer(restTemplate);
+
+        transferCallbackClient = new TransferCallbackClient();
+        transferCallbackClient.setRestTemplate(restTemplate);
+        transferCallbackClient.setQueuedTransferToQueuedTransferDto(new QueuedTransferToQueuedTransferDto());
+    }
+
+    @Test
+    public void testIsAllowed() {
+
+        assertTrue(transferCallbackClient.isAllowed("http://localhost:8080/transfers/done"));
+        assertTrue(transferCallbackClient.isAllowed("https://127.0.0.1/done"));
+        assertTrue(transferCallbackClient.isAllowed("http://[::1]:9000/done"));
+    }
+
+    @Test
+    public void testIsNotAllowed() {
+
+        assertFalse(transferCallbackClient.isAllowed("http://example.com/done"));
+        assertFalse(transferCallbackClient.isAllowed("http://localhost.example.com/done"));
+        assertFalse(transferCallbackClient.isAllowed("http://10.0.0.1/done"));
+        assertFalse(transferCallbackClient.isAllowed("file:///etc/passwd"));
+        assertFalse(transferCallbackClient.isAllowed("/done"));
+        assertFalse(transferCallbackClient.isAllowed("http://local host/done"));
+    }
+
+    @Test
+    public void testNotify() {
+
+        // setup
+        QueuedTransfer queuedTransfer = queuedTransfer("http://localhost:8080/done");
+
+        server.expect(requestTo("http://localhost:8080/done"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.id").value(55))
+                .andExpect(jsonPath("$.status").value("TRANSFERRED"))
+                .andRespond(withSuccess("", MediaType.TEXT_PLAIN));
+
+        // exercise
+        transferCallbackClient.notify(queuedTransfer);
+
+        // verify
+        server.verify();
+    }
+
+    @Test
+    public void testNotifyFailed() {
+
+        // setup
+        server.expect(requestTo("http://localhost:8080/done"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        // exercise
+        transferCallbackClient.notify(queuedTransfer("http://localhost:8080/done"));
+
+        // verify
+        server.verify();
+    }
+
+    @Test
+    public void testNotifyWithoutCallback() {
+
+        // exercise
+        transferCallbackClient.notify(queuedTransfer(null));
+
+        // verify
+        server.verify();
+    }
+
+    private static QueuedTransfer queuedTransfer(String callback) {
+
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setId(55);
+        queuedTransfer.setSrcId(1);
+        queuedTransfer.setDstId(2);
+        queuedTransfer.setAmount(Money.of(10));
+        queuedTransfer.setStatus(TransferResult.Status.TRANSFERRED);
+        queuedTransfer.setCallback(callback);
+
+        return queuedTransfer;
+    }
+}
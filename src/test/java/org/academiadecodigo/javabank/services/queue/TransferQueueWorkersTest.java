@@ -0,0 +1,121 @@
+package org.academiadecodigo.javabank.services.queue;
+
+import org.academiadecodigo.javabank.domain.TransferResult;
+import org.academiadecodigo.javabank.persistence.model.QueuedTransfer;
+import org.academiadecodigo.javabank.services.TransferQueueService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+
+public class TransferQueueWorkersTest {
+
+    private TransferQueueService transferQueueService;
+    private TransferCallbackClient transferCallbackClient;
+    private TransferQueueWorkers transferQueueWorkers;
+
+    @Before
+    public void setup() {
+
+        transferQueueService = mock(TransferQueueService.class);
+        transferCallbackClient = mock(TransferCallbackClient.class);
+
+        transferQueueWorkers = new TransferQueueWorkers();
+        transferQueueWorkers.setTransferQueueService(transferQueueService);
+        transferQueueWorkers.setTransferCallbackClient(transferCallbackClient);
+        transferQueueWorkers.setSize(3);
+        transferQueueWorkers.setBatchSize(2);
+    }
+
+    @Test
+    public void testDrainUntilNoFullBatch() {
+
+        // setup
+        QueuedTransfer first = new QueuedTransfer();
+        QueuedTransfer second = new QueuedTransfer();
+        QueuedTransfer third = new QueuedTransfer();
+
+        when(transferQueueService.process(1, 3, 2))
+                .thenReturn(Arrays.asList(first, second))
+                .thenReturn(Collections.singletonList(third));
+
+        // exercise
+        transferQueueWorkers.drain(1);
+
+        // verify
+        verify(transferQueueService, times(2)).process(1, 3, 2);
+        verify(transferCallbackClient, times(1)).notify(first);
+        verify(transferCallbackClient, times(1)).notify(second);
+        verify(transferCallbackClient, times(1)).notify(third);
+    }
+
+    @Test
+    public void testDrainFailed() {
+
+        // setup
+        when(transferQueueService.process(0, 3, 2)).thenThrow(new IllegalStateException());
+        when(transferQueueService.findPending(0, 3, 2)).thenThrow(new IllegalStateException());
+
+        // exercise
+        transferQueueWorkers.drain(0);
+
+        // verify
+        verify(transferQueueService, times(1)).process(0, 3, 2);
+        verifyZeroInteractions(transferCallbackClient);
+    }
+
+    @Test
+    public void testDrainFailedBatchOneByOne() {
+
+        // setup, the second transfer fails alone, and is given up
+        QueuedTransfer first = queued(1);
+        QueuedTransfer second = queued(2);
+        QueuedTransfer third = queued(3);
+
+        QueuedTransfer firstProcessed = processed(1);
+        QueuedTransfer secondFailed = processed(2);
+        secondFailed.setStatus(TransferResult.Status.FAILED);
+
+        when(transferQueueService.process(0, 3, 2)).thenThrow(new IllegalStateException());
+        when(transferQueueService.findPending(0, 3, 2)).thenReturn(Arrays.asList(first, second, third));
+        when(transferQueueService.process(1)).thenReturn(firstProcessed);
+        when(transferQueueService.process(2)).thenThrow(new IllegalStateException());
+        when(transferQueueService.recordFailure(2)).thenReturn(secondFailed);
+        when(transferQueueService.process(3)).thenThrow(new IllegalStateException());
+        when(transferQueueService.recordFailure(3)).thenReturn(third);
+
+        // exercise
+        transferQueueWorkers.drain(0);
+
+        // verify, the batch is not processed again before the next poll
+        verify(transferQueueService, times(1)).process(0, 3, 2);
+        verify(transferQueueService, never()).recordFailure(1);
+        verify(transferCallbackClient, times(1)).notify(firstProcessed);
+        verify(transferCallbackClient, times(1)).notify(secondFailed);
+        verify(transferCallbackClient, never()).notify(third);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoWorkers() {
+        transferQueueWorkers.setSize(0);
+    }
+
+    private static QueuedTransfer queued(Integer id) {
+
+        QueuedTransfer queuedTransfer = new QueuedTransfer();
+        queuedTransfer.setId(id);
+
+        return queuedTransfer;
+    }
+
+    private static QueuedTransfer processed(Integer id) {
+
+        QueuedTransfer queuedTransfer = queued(id);
+        queuedTransfer.setStatus(TransferResult.Status.TRANSFERRED);
+
+        return queuedTransfer;
+    }
+}
@@ -0,0 +1,141 @@
+package org.academiadecodigo.javabank.services.readmodel;
+
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.account.CheckingAccount;
+import org.academiadecodigo.javabank.services.AccountService;
+import org.academiadecodigo.javabank.services.CustomerService;
+import org.academiadecodigo.javabank.services.TransferService;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.academiadecodigo.javabank.persistence.jpa.SqlStatements.none;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the {@link CustomerBalanceReadModel} against the stored accounts, as changed by the services
+ */
+public class CustomerBalanceReadModelIntegrationTest extends JpaIntegrationTestHelper {
+
+    private CustomerBalanceReadModel customerBalanceReadModel;
+    private AccountService accountService;
+    private CustomerService customerService;
+    private TransferService transferService;
+
+    @Before
+    public void setup() {
+
+        customerBalanceReadModel = ctx.getBean(CustomerBalanceReadModel.class);
+        accountService = ctx.getBean(AccountService.class);
+        customerService = ctx.getBean(CustomerService.class);
+        transferService = ctx.getBean("transferServiceImpl", TransferService.class);
+    }
+
+    @Test
+    public void testRebuiltAtStartup() {
+
+        assertEquals(3, customerBalanceReadModel.size());
+        assertEquals(new CustomerBalance(1, Money.parse("150.50"), 2), customerBalanceReadModel.get(1));
+        assertEquals(new CustomerBalance(2, Money.of(160), 2), customerBalanceReadModel.get(2));
+        assertEquals(new CustomerBalance(3, Money.ZERO, 2), customerBalanceReadModel.get(3));
+        assertNull(customerBalanceReadModel.get(4));
+    }
+
+    @Test
+    public void testGetWithoutStatements() {
+        assertStatements(none(), () -> customerBalanceReadModel.get(1));
+    }
+
+    @Test
+    public void testUpdatedByServices() throws Exception {
+
+        // setup
+        CheckingAccount account = new CheckingAccount();
+        account.credit(Money.of(10));
+
+        // exercise
+        accountService.deposit(1, 1, Money.of(10));
+        accountService.withdraw(1, 1, Money.of(5));
+        transferService.transfer(transfer(1, 3));
+        customerService.addAccount(4, account);
+        customerService.closeAccount(3, 5);
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.parse("145.50"), 2), customerBalanceReadModel.get(1));
+        assertEquals(new CustomerBalance(2, Money.of(170), 2), customerBalanceReadModel.get(2));
+        assertEquals(new CustomerBalance(3, Money.ZERO, 1), customerBalanceReadModel.get(3));
+        assertEquals(new CustomerBalance(4, Money.of(10), 1), customerBalanceReadModel.get(4));
+        assertRebuildUnchanged();
+    }
+
+    @Test
+    public void testNotUpdatedByFailedTransfer() {
+
+        // exercise
+        try {
+            transferService.transfer(transfer(3, 1, Money.of(1000)));
+            fail("Transfer should have failed");
+
+        } catch (Exception ex) {
+            assertEquals(TransactionInvalidException.class, ex.getClass());
+        }
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.parse("150.50"), 2), customerBalanceReadModel.get(1));
+        assertEquals(new CustomerBalance(2, Money.of(160), 2), customerBalanceReadModel.get(2));
+        assertRebuildUnchanged();
+    }
+
+    @Test
+    public void testRebuildOverJmx() throws Exception {
+
+        // setup
+        customerBalanceReadModel.credited(1, Money.of(1000));
+
+        // exercise
+        ManagementFactory.getPlatformMBeanServer()
+                .invoke(new ObjectName(CustomerBalanceReadModel.OBJECT_NAME), "rebuild", null, null);
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.parse("150.50"), 2), customerBalanceReadModel.get(1));
+    }
+
+    private void assertRebuildUnchanged() {
+
+        List<CustomerBalance> maintained = new ArrayList<>();
+        for (int customerId = 1; customerId <= 4; customerId++) {
+            maintained.add(customerBalanceReadModel.get(customerId));
+        }
+
+        customerBalanceReadModel.rebuild();
+
+        for (int customerId = 1; customerId <= 4; customerId++) {
+            assertEquals("Maintained balance differs from the accounts", maintained.get(customerId - 1),
+                    customerBalanceReadModel.get(customerId));
+        }
+    }
+
+    private static Transfer transfer(Integer srcId, Integer dstId) {
+        return transfer(srcId, dstId, Money.of(10));
+    }
+
+    private static Transfer transfer(Integer srcId, Integer dstId, Money amount) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(amount);
+
+        return transfer;
+    }
+}
@@ -0,0 +1,240 @@
+package org.academiadecodigo.javabank.services.readmodel;
+
+import org.academiadecodigo.javabank.domain.CustomerBalance;
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+public class CustomerBalanceReadModelTest {
+
+    private AccountDao accountDao;
+    private CustomerBalanceReadModel customerBalanceReadModel;
+
+    @Before
+    public void setup() {
+
+        accountDao = mock(AccountDao.class);
+
+        customerBalanceReadModel = new CustomerBalanceReadModel();
+        customerBalanceReadModel.setAccountDao(accountDao);
+        customerBalanceReadModel.setTransactionManager(mock(PlatformTransactionManager.class));
+        customerBalanceReadModel.setPartitions(2);
+    }
+
+    @After
+    public void tearDown() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testChangesWithoutTransaction() {
+
+        // exercise
+        customerBalanceReadModel.accountOpened(1, Money.of(100));
+        customerBalanceReadModel.credited(1, Money.of(50));
+        customerBalanceReadModel.debited(1, Money.of(30));
+        customerBalanceReadModel.credited(null, Money.of(50));
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.of(120), 1), customerBalanceReadModel.get(1));
+        assertEquals(1, customerBalanceReadModel.size());
+    }
+
+    @Test
+    public void testAccountClosed() {
+
+        // setup
+        customerBalanceReadModel.accountOpened(1, Money.ZERO);
+
+        // exercise
+        customerBalanceReadModel.accountClosed(1, Money.ZERO);
+
+        // verify
+        assertNull(customerBalanceReadModel.get(1));
+        assertEquals(0, customerBalanceReadModel.size());
+    }
+
+    @Test
+    public void testChangesAppliedOnCommit() {
+
+        // setup
+        customerBalanceReadModel.accountOpened(1, Money.of(100));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // exercise
+        customerBalanceReadModel.debited(1, Money.of(40));
+        customerBalanceReadModel.credited(2, Money.of(40));
+
+        // verify
+        assertEquals(Money.of(100), customerBalanceReadModel.get(1).getBalance());
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        // exercise
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.of(60), 1), customerBalanceReadModel.get(1));
+        assertEquals(new CustomerBalance(2, Money.of(40), 0), customerBalanceReadModel.get(2));
+    }
+
+    @Test
+    public void testChangesNotAppliedOnFailedCommit() {
+
+        // setup
+        customerBalanceReadModel.accountOpened(1, Money.of(100));
+        TransactionSynchronizationManager.initSynchronization();
+        customerBalanceReadModel.debited(1, Money.of(40));
+
+        // exercise
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.of(100), 1), customerBalanceReadModel.get(1));
+    }
+
+    @Test
+    public void testChangesDiscardedOnRollback() {
+
+        // setup
+        TransactionSynchronizationManager.initSynchronization();
+        customerBalanceReadModel.accountOpened(1, Money.of(100));
+
+        // exercise
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // verify
+        assertNull(customerBalanceReadModel.get(1));
+    }
+
+    @Test
+    public void testRebuild() {
+
+        // setup
+        customerBalanceReadModel.accountOpened(9, Money.of(100));
+        when(accountDao.findCustomerBalances(0, 2))
+                .thenReturn(Collections.singletonList(new CustomerBalance(2, Money.of(160), 2)));
+        when(accountDao.findCustomerBalances(1, 2))
+                .thenReturn(Collections.singletonList(new CustomerBalance(1, Money.of(150), 2)));
+
+        // exercise
+        customerBalanceReadModel.rebuild();
+
+        // verify
+        assertEquals(2, customerBalanceReadModel.size());
+        assertEquals(new CustomerBalance(1, Money.of(150), 2), customerBalanceReadModel.get(1));
+        assertEquals(new CustomerBalance(2, Money.of(160), 2), customerBalanceReadModel.get(2));
+        assertNull(customerBalanceReadModel.get(9));
+    }
+
+    @Test
+    public void testRebuildFailed() {
+
+        // setup
+        customerBalanceReadModel.accountOpened(9, Money.of(100));
+        when(accountDao.findCustomerBalances(anyInt(), eq(2))).thenThrow(new IllegalStateException());
+
+        // exercise
+        try {
+            customerBalanceReadModel.rebuild();
+            fail("Rebuild should have failed");
+
+        } catch (IllegalStateException ex) {
+
+            // verify
+            assertEquals(new CustomerBalance(9, Money.of(100), 1), customerBalanceReadModel.get(9));
+        }
+    }
+
+    @Test
+    public void testRebuildKeepsChangesMadeMeanwhile() {
+
+        // setup, the model is built once, then customer 1 changes while the partitions are read
+        when(accountDao.findCustomerBalances(anyInt(), eq(2))).thenReturn(Collections.emptyList());
+        customerBalanceReadModel.rebuild();
+        customerBalanceReadModel.accountOpened(1, Money.of(100));
+
+        when(accountDao.findCustomerBalances(0, 2))
+                .thenReturn(Collections.singletonList(new CustomerBalance(2, Money.of(160), 2)));
+        when(accountDao.findCustomerBalances(1, 2)).thenAnswer(invocation -> {
+            customerBalanceReadModel.credited(1, Money.of(50));
+            return Collections.singletonList(new CustomerBalance(1, Money.of(100), 1));
+        });
+
+        // exercise
+        customerBalanceReadModel.rebuild();
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.of(150), 1), customerBalanceReadModel.get(1));
+        assertEquals(new CustomerBalance(2, Money.of(160), 2), customerBalanceReadModel.get(2));
+    }
+
+    @Test
+    public void testRebuildDoesNotHoldCommits() {
+
+        // setup, once built, a change from another thread is applied while the partitions are read
+        when(accountDao.findCustomerBalances(anyInt(), eq(2))).thenReturn(Collections.emptyList());
+        customerBalanceReadModel.rebuild();
+
+        when(accountDao.findCustomerBalances(0, 2)).thenAnswer(invocation -> {
+
+            Thread commit = new Thread(() -> customerBalanceReadModel.credited(1, Money.of(50)));
+            commit.start();
+            commit.join(1000);
+
+            assertFalse("Commit waited on the rebuild", commit.isAlive());
+            return Collections.emptyList();
+        });
+
+        // exercise
+        customerBalanceReadModel.rebuild();
+
+        // verify
+        assertEquals(new CustomerBalance(1, Money.of(50), 0), customerBalanceReadModel.get(1));
+    }
+
+    @Test
+    public void testNotRebuiltByChildContext() {
+
+        // setup
+        ApplicationContext child = mock(ApplicationContext.class);
+        when(child.getParent()).thenReturn(mock(ApplicationContext.class));
+
+        // exercise
+        customerBalanceReadModel.onApplicationEvent(new ContextRefreshedEvent(child));
+
+        // verify
+        verifyZeroInteractions(accountDao);
+    }
+
+    private void complete(int status) {
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        }
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                status);
+    }
+}
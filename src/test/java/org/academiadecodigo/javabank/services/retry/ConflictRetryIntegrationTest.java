@@ -0,0 +1,234 @@
+package org.academiadecodigo.javabank.services.retry;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.domain.Transfer;
+import org.academiadecodigo.javabank.domain.TransferLockMode;
+import org.academiadecodigo.javabank.exceptions.TransactionInvalidException;
+import org.academiadecodigo.javabank.persistence.jpa.JpaIntegrationTestHelper;
+import org.academiadecodigo.javabank.persistence.model.account.Account;
+import org.academiadecodigo.javabank.services.AccountService;
+import org.academiadecodigo.javabank.services.TransferService;
+import org.academiadecodigo.javabank.services.TransferServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConflictRetryIntegrationTest extends JpaIntegrationTestHelper {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 25;
+
+    // h2 waits one second for a lock by default, which makes every conflict very slow
+    private static final int LOCK_TIMEOUT = 50;
+    private static final int DEFAULT_LOCK_TIMEOUT = 1000;
+    private static final int CONFLICT_LOCK_TIMEOUT = 1;
+
+    // ordered locks are only waited for, so the waits may add up behind every other thread
+    private static final int ORDERED_LOCK_TIMEOUT = 10000;
+
+    private ConflictRetryInterceptor conflictRetryInterceptor;
+
+    @Before
+    public void setup() {
+
+        conflictRetryInterceptor = ctx.getBean(ConflictRetryInterceptor.class);
+
+        // enough attempts for every thread to eventually get through the hot account
+        conflictRetryInterceptor.setMaxAttempts(100);
+        conflictRetryInterceptor.setBackoff(1);
+        conflictRetryInterceptor.setMaxBackoff(20);
+
+        setLockTimeout(LOCK_TIMEOUT);
+    }
+
+    @After
+    public void restore() {
+        setLockTimeout(DEFAULT_LOCK_TIMEOUT);
+    }
+
+    @Test
+    public void testConcurrentDeposits() throws InterruptedException {
+
+        // setup, any wait for the hot account row conflicts, however quickly the deposits commit
+        setLockTimeout(CONFLICT_LOCK_TIMEOUT);
+        int accountId = 1;
+        int customerId = 1;
+        AccountService accountService = ctx.getBean(AccountService.class);
+
+        // exercise
+        List<Throwable> failures = runConcurrently(() ->
+                accountService.deposit(accountId, customerId, Money.of(1)));
+
+        // verify
+        assertTrue("Deposits failed: " + failures, failures.isEmpty());
+        assertEquals("Account balance is wrong",
+                Money.of(100 + THREADS * OPERATIONS_PER_THREAD), em.find(Account.class, accountId).getBalance());
+
+        RetryCounters counters = conflictRetryInterceptor.getCounters()
+                .get("AccountService#deposit(Integer, Integer, Money)");
+
+        assertEquals("Number of invocations is wrong", THREADS * OPERATIONS_PER_THREAD, counters.getInvocations());
+        assertTrue("Deposits on the same account should conflict", counters.getConflicts() > 0);
+        assertEquals("Every conflict should be retried", counters.getConflicts(), counters.getRetries());
+        assertEquals("No invocation should give up", 0, counters.getExhausted());
+    }
+
+    @Test
+    public void testConcurrentTransfers() throws InterruptedException {
+
+        // setup
+        TransferService transferService = ctx.getBean(TransferService.class);
+        Money total = totalBalance(1, 3);
+
+        // exercise
+        List<Throwable> failures = runConcurrently(() -> {
+
+            boolean forward = Thread.currentThread().getId() % 2 == 0;
+
+            try {
+                transferService.transfer(transfer(forward ? 1 : 3, forward ? 3 : 1));
+            } catch (TransactionInvalidException ex) {
+                // insufficient funds is a valid outcome
+            }
+        });
+
+        // verify
+        assertTrue("Transfers failed: " + failures, failures.isEmpty());
+        assertEquals("Money was created or destroyed", total, totalBalance(1, 3));
+        assertEquals("No invocation should give up", 0, conflictRetryInterceptor.getCounters()
+                .get("TransferService#transfer(Transfer)").getExhausted());
+    }
+
+    @Test
+    public void testConcurrentOppositeTransfers() throws InterruptedException {
+
+        // setup, long enough lock waits for the transfers to queue up on the rows instead of timing out
+        TransferService transferService = ctx.getBean(TransferService.class);
+        setLockTimeout(ORDERED_LOCK_TIMEOUT);
+        Money total = totalBalance(1, 3);
+
+        // exercise
+        List<Throwable> failures = runConcurrently(() -> {
+
+            boolean forward = Thread.currentThread().getId() % 2 == 0;
+
+            try {
+                transferService.transfer(transfer(forward ? 1 : 3, forward ? 3 : 1));
+            } catch (TransactionInvalidException ex) {
+                // insufficient funds is a valid outcome
+            }
+        });
+
+        // verify, the conditional updates take the rows in id order, so opposite transfers never deadlock
+        assertTrue("Transfers failed: " + failures, failures.isEmpty());
+        assertEquals("Money was created or destroyed", total, totalBalance(1, 3));
+        assertEquals("Ordered updates should never conflict", 0, conflictRetryInterceptor.getCounters()
+                .get("TransferService#transfer(Transfer)").getConflicts());
+    }
+
+    @Test
+    public void testConcurrentTransfersPessimistic() throws InterruptedException {
+
+        // setup
+        TransferService transferService = ctx.getBean(TransferService.class);
+        AopTestUtils.<TransferServiceImpl>getTargetObject(transferService).setLockMode(TransferLockMode.PESSIMISTIC);
+        setLockTimeout(ORDERED_LOCK_TIMEOUT);
+        Money total = totalBalance(1, 3);
+
+        // exercise
+        List<Throwable> failures = runConcurrently(() -> {
+
+            boolean forward = Thread.currentThread().getId() % 2 == 0;
+
+            try {
+                transferService.transfer(transfer(forward ? 1 : 3, forward ? 3 : 1));
+            } catch (TransactionInvalidException ex) {
+                // insufficient funds is a valid outcome
+            }
+        });
+
+        // verify, the opposite transfers wait on each other without deadlocking
+        assertTrue("Transfers failed: " + failures, failures.isEmpty());
+        assertEquals("Money was created or destroyed", total, totalBalance(1, 3));
+        assertEquals("Ordered locks should never conflict", 0, conflictRetryInterceptor.getCounters()
+                .get("TransferService#transfer(Transfer)").getConflicts());
+    }
+
+    private Transfer transfer(Integer srcId, Integer dstId) {
+
+        Transfer transfer = new Transfer();
+        transfer.setSrcId(srcId);
+        transfer.setDstId(dstId);
+        transfer.setAmount(Money.of(1));
+
+        return transfer;
+    }
+
+    private void setLockTimeout(int timeout) {
+
+        // only applies to the connections opened from now on
+        em.getTransaction().begin();
+        em.createNativeQuery("SET DEFAULT_LOCK_TIMEOUT " + timeout).executeUpdate();
+        em.getTransaction().commit();
+    }
+
+    private Money totalBalance(Integer... ids) {
+
+        em.clear();
+
+        Money total = Money.ZERO;
+        for (Integer id : ids) {
+            total = total.plus(em.find(Account.class, id).getBalance());
+        }
+
+        return total;
+    }
+
+    private List<Throwable> runConcurrently(Operation operation) throws InterruptedException {
+
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(new Thread(() -> {
+
+                try {
+
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.run();
+                    }
+
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            }));
+        }
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        start.countDown();
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        return failures;
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
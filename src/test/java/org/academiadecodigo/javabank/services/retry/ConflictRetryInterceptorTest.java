@@ -0,0 +1,110 @@
+package org.academiadecodigo.javabank.services.retry;
+
+import org.academiadecodigo.javabank.services.AccountService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceException;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+public class ConflictRetryInterceptorTest {
+
+    private ConflictRetryInterceptor conflictRetryInterceptor;
+    private ProxyMethodInvocation invocation;
+    private ProxyMethodInvocation attempt;
+
+    @Before
+    public void setup() throws NoSuchMethodException {
+
+        conflictRetryInterceptor = new ConflictRetryInterceptor();
+        conflictRetryInterceptor.setMaxAttempts(3);
+        conflictRetryInterceptor.setBackoff(0);
+
+        Method method = AccountService.class.getMethod("get", Integer.class);
+
+        invocation = mock(ProxyMethodInvocation.class);
+        attempt = mock(ProxyMethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.invocableClone()).thenReturn(attempt);
+    }
+
+    @Test
+    public void testRetryOnConflict() throws Throwable {
+
+        // setup
+        Object result = new Object();
+        when(attempt.proceed())
+                .thenThrow(new ObjectOptimisticLockingFailureException("account", 1))
+                .thenThrow(new PersistenceException(new OptimisticLockException()))
+                .thenReturn(result);
+
+        // exercise
+        Object returned = conflictRetryInterceptor.invoke(invocation);
+
+        // verify
+        assertEquals(result, returned);
+        verify(attempt, times(3)).proceed();
+
+        RetryCounters counters = conflictRetryInterceptor.getCounters().get("AccountService#get(Integer)");
+        assertEquals(1, counters.getInvocations());
+        assertEquals(2, counters.getConflicts());
+        assertEquals(2, counters.getRetries());
+        assertEquals(0, counters.getExhausted());
+    }
+
+    @Test
+    public void testRetryExhausted() throws Throwable {
+
+        // setup
+        OptimisticLockException conflict = new OptimisticLockException();
+        when(attempt.proceed()).thenThrow(conflict);
+
+        // exercise
+        try {
+            conflictRetryInterceptor.invoke(invocation);
+            fail("The last conflict should be thrown");
+
+        } catch (OptimisticLockException ex) {
+
+            // verify
+            assertEquals(conflict, ex);
+        }
+
+        verify(attempt, times(3)).proceed();
+
+        RetryCounters counters = conflictRetryInterceptor.getCounters().get("AccountService#get(Integer)");
+        assertEquals(3, counters.getConflicts());
+        assertEquals(2, counters.getRetries());
+        assertEquals(1, counters.getExhausted());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoRetryOnOtherFailures() throws Throwable {
+
+        // setup
+        when(attempt.proceed()).thenThrow(new IllegalStateException());
+
+        // exercise
+        try {
+            conflictRetryInterceptor.invoke(invocation);
+
+        } finally {
+
+            // verify
+            verify(attempt, times(1)).proceed();
+            assertEquals(0, conflictRetryInterceptor.getCounters().get("AccountService#get(Integer)").getConflicts());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxAttempts() {
+        conflictRetryInterceptor.setMaxAttempts(0);
+    }
+}
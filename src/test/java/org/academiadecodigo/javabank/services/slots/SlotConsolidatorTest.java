@@ -0,0 +1,73 @@
+package org.academiadecodigo.javabank.services.slots;
+
+import org.academiadecodigo.javabank.domain.Money;
+import org.academiadecodigo.javabank.persistence.dao.AccountDao;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class SlotConsolidatorTest {
+
+    private AccountDao accountDao;
+    private SlotConsolidator slotConsolidator;
+
+    @Before
+    public void setup() {
+
+        accountDao = mock(AccountDao.class);
+
+        slotConsolidator = new SlotConsolidator();
+        slotConsolidator.setAccountDao(accountDao);
+        slotConsolidator.setTransactionManager(mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void testConsolidate() {
+
+        // setup
+        when(accountDao.findSplitIds()).thenReturn(Arrays.asList(1, 2, 3));
+        when(accountDao.consolidate(1)).thenReturn(Money.of(10));
+        when(accountDao.consolidate(2)).thenReturn(Money.ZERO);
+        when(accountDao.consolidate(3)).thenReturn(Money.of(5));
+
+        // exercise
+        int consolidated = slotConsolidator.consolidate();
+
+        // verify
+        assertEquals(2, consolidated);
+        verify(accountDao, times(3)).consolidate(anyInt());
+    }
+
+    @Test
+    public void testConsolidateFailure() {
+
+        // setup
+        when(accountDao.findSplitIds()).thenReturn(Arrays.asList(1, 2));
+        when(accountDao.consolidate(1)).thenThrow(new IllegalStateException("lock timeout"));
+        when(accountDao.consolidate(2)).thenReturn(Money.of(5));
+
+        // exercise
+        int consolidated = slotConsolidator.consolidate();
+
+        // verify, a failed account is left for the next run
+        assertEquals(1, consolidated);
+        verify(accountDao, times(1)).consolidate(2);
+    }
+
+    @Test
+    public void testConsolidateNoSplitAccounts() {
+
+        // setup
+        when(accountDao.findSplitIds()).thenReturn(Collections.emptyList());
+
+        // exercise and verify
+        assertEquals(0, slotConsolidator.consolidate());
+        verify(accountDao, never()).consolidate(anyInt());
+    }
+}